@@ -121,6 +121,22 @@ public class DbCompareCommand extends AbstractCommandLauncher {
         if (!StringUtils.isEmpty(continueAfterError)) {
             config.setContinueAfterError(Boolean.parseBoolean(continueAfterError));
         }
+        String useHashBuckets = getOptionValue(OPTION_USE_HASH_BUCKETS, "useHashBuckets", line, config);
+        if (!StringUtils.isEmpty(useHashBuckets)) {
+            config.setUseHashBuckets(Boolean.parseBoolean(useHashBuckets));
+        }
+        String hashBucketCount = getOptionValue(OPTION_HASH_BUCKET_COUNT, "hashBucketCount", line, config);
+        if (!StringUtils.isEmpty(hashBucketCount)) {
+            config.setHashBucketCount(parseIntArg(OPTION_HASH_BUCKET_COUNT, hashBucketCount, 2));
+        }
+        String hashBucketMinRows = getOptionValue(OPTION_HASH_BUCKET_MIN_ROWS, "hashBucketMinRows", line, config);
+        if (!StringUtils.isEmpty(hashBucketMinRows)) {
+            config.setHashBucketMinRows(parseIntArg(OPTION_HASH_BUCKET_MIN_ROWS, hashBucketMinRows, 0));
+        }
+        String hashBucketThreads = getOptionValue(OPTION_HASH_BUCKET_THREADS, "hashBucketThreads", line, config);
+        if (!StringUtils.isEmpty(hashBucketThreads)) {
+            config.setHashBucketThreads(parseIntArg(OPTION_HASH_BUCKET_THREADS, hashBucketThreads, 1));
+        }
         ISymmetricEngine sourceEngine = new ClientSymmetricEngine(sourceProperies);
         ISymmetricEngine targetEngine = new ClientSymmetricEngine(targetProperties);
         DbCompare dbCompare = new DbCompare(sourceEngine, targetEngine, config);
@@ -136,6 +152,20 @@ public class DbCompareCommand extends AbstractCommandLauncher {
         return false;
     }
 
+    private int parseIntArg(String option, String arg, int minValue) {
+        int value = 0;
+        try {
+            value = Integer.parseInt(arg.trim());
+        } catch (NumberFormatException ex) {
+            throw new RuntimeException("Failed to parse arg [" + arg + "] ", ex);
+        }
+        if (value < minValue) {
+            System.err.println("The " + option + " value " + arg + " must be " + minValue + " or more.");
+            System.exit(1);
+        }
+        return value;
+    }
+
     private boolean isValidDateFormat(String format) {
         try {
             if (format != null) {
@@ -185,6 +215,10 @@ public class DbCompareCommand extends AbstractCommandLauncher {
     private static final String OPTION_DATE_TIME_FORMAT = "date-time-format";
     private static final String OPTION_CONFIG_PROPERTIES = "config";
     private static final String OPTION_CONTINUE_AFTER_ERROR = "continue-after-error";
+    private static final String OPTION_USE_HASH_BUCKETS = "use-hash-buckets";
+    private static final String OPTION_HASH_BUCKET_COUNT = "hash-bucket-count";
+    private static final String OPTION_HASH_BUCKET_MIN_ROWS = "hash-bucket-min-rows";
+    private static final String OPTION_HASH_BUCKET_THREADS = "hash-bucket-threads";
 
     @Override
     protected void printHelp(CommandLine cmd, Options options) {
@@ -206,6 +240,10 @@ public class DbCompareCommand extends AbstractCommandLauncher {
         addOption(options, null, OPTION_DATE_TIME_FORMAT, true);
         addOption(options, null, OPTION_CONFIG_PROPERTIES, true);
         addOption(options, null, OPTION_CONTINUE_AFTER_ERROR, true);
+        addOption(options, null, OPTION_USE_HASH_BUCKETS, true);
+        addOption(options, null, OPTION_HASH_BUCKET_COUNT, true);
+        addOption(options, null, OPTION_HASH_BUCKET_MIN_ROWS, true);
+        addOption(options, null, OPTION_HASH_BUCKET_THREADS, true);
     }
 
     protected Map<String, String> parseWhereClauses(CommandLine line) {
@@ -41,4 +41,9 @@ public class GreenplumSymmetricDialect extends PostgreSqlSymmetricDialect {
     @Override
     public void disableSyncTriggers(ISqlTransaction transaction, String nodeId) {
     }
+
+    @Override
+    public boolean supportsCaptureTablePartitions() {
+        return false;
+    }
 }
@@ -21,17 +21,24 @@
 package org.jumpmind.symmetric.db.postgresql;
 
 import java.sql.Types;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.jumpmind.db.model.Table;
 import org.jumpmind.db.platform.IDatabasePlatform;
+import org.jumpmind.db.sql.ISqlRowMapper;
 import org.jumpmind.db.sql.ISqlTransaction;
+import org.jumpmind.db.sql.Row;
 import org.jumpmind.db.util.BinaryEncoding;
 import org.jumpmind.symmetric.SymmetricException;
 import org.jumpmind.symmetric.common.ParameterConstants;
 import org.jumpmind.symmetric.db.AbstractSymmetricDialect;
 import org.jumpmind.symmetric.db.ISymmetricDialect;
 import org.jumpmind.symmetric.db.SequenceIdentifier;
+import org.jumpmind.symmetric.model.TablePartition;
 import org.jumpmind.symmetric.model.Trigger;
 import org.jumpmind.symmetric.service.IParameterService;
 
@@ -46,6 +53,10 @@ public class PostgreSqlSymmetricDialect extends AbstractSymmetricDialect impleme
     static final String SQL_FUNCTION_INSTALLED = " select count(*) from information_schema.routines " +
             " where routine_name = '$(functionName)' and specific_schema = '$(defaultSchema)'";
     static final String SQL_SELECT_TRANSACTIONS = "select min(a.xact_start) from pg_stat_activity a join pg_catalog.pg_locks l on l.pid = a.pid  where l.mode = 'RowExclusiveLock'";
+    static final String SQL_SELECT_PARTITIONS = "select c.relname as partition_name, pg_get_expr(c.relpartbound, c.oid) as partition_bound " +
+            "from pg_inherits i join pg_class c on c.oid = i.inhrelid join pg_class p on p.oid = i.inhparent " +
+            "join pg_namespace n on n.oid = p.relnamespace where p.relname = ? and n.nspname = ?";
+    static final Pattern PARTITION_BOUND_PATTERN = Pattern.compile("FROM \\('?(-?\\d+)'?\\) TO \\('?(-?\\d+)'?\\)");
     private Boolean supportsTransactionId = null;
 
     public PostgreSqlSymmetricDialect(IParameterService parameterService, IDatabasePlatform platform) {
@@ -315,6 +326,91 @@ public class PostgreSqlSymmetricDialect extends AbstractSymmetricDialect impleme
     public void cleanDatabase() {
     }
 
+    @Override
+    public boolean supportsCaptureTablePartitions() {
+        return databaseMajorVersion >= 11;
+    }
+
+    @Override
+    public List<TablePartition> getTablePartitions(String tableName) {
+        List<TablePartition> partitions = platform.getSqlTemplate().query(SQL_SELECT_PARTITIONS, new ISqlRowMapper<TablePartition>() {
+            public TablePartition mapRow(Row row) {
+                String name = row.getString("partition_name");
+                Matcher matcher = PARTITION_BOUND_PATTERN.matcher(row.getString("partition_bound"));
+                if (matcher.find()) {
+                    return new TablePartition(name, Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)));
+                }
+                return new TablePartition(name);
+            }
+        }, tableName, platform.getDefaultSchema());
+        Collections.sort(partitions);
+        return partitions;
+    }
+
+    /*
+     * The partition is created as a standalone table and then attached, because attaching only takes a share update exclusive lock on the
+     * parent table, while create table partition of takes an access exclusive lock that blocks capture. Attaching still locks the default
+     * partition while it is checked for rows in the new range, so the lock wait is bounded by purge.capture.partition.lock.timeout.ms.
+     */
+    @Override
+    public void createTablePartition(String tableName, long lowerBound, long upperBound) {
+        String partitionName = getQualifiedName(tableName + "_p" + lowerBound);
+        platform.getSqlTemplate().update("create table if not exists " + partitionName + " (like " + getQualifiedName(tableName)
+                + " including defaults including constraints)");
+        updateWithLockTimeout("alter table " + getQualifiedName(tableName) + " attach partition " + partitionName
+                + " for values from (" + lowerBound + ") to (" + upperBound + ")");
+    }
+
+    /*
+     * On PostgreSQL 14 or later, a table without a default partition is detached concurrently, which does not block capture. Otherwise the
+     * detach takes an access exclusive lock on the parent table, so the lock wait is bounded by purge.capture.partition.lock.timeout.ms.
+     */
+    @Override
+    public void dropTablePartition(String tableName, TablePartition partition) {
+        String detachSql = "alter table " + getQualifiedName(tableName) + " detach partition " + getQualifiedName(partition.getPartitionName());
+        if (isDetachConcurrentlySupported(tableName)) {
+            platform.getSqlTemplate().update(detachSql + " concurrently");
+        } else {
+            updateWithLockTimeout(detachSql);
+        }
+        platform.getSqlTemplate().update("drop table " + getQualifiedName(partition.getPartitionName()));
+    }
+
+    protected boolean isDetachConcurrentlySupported(String tableName) {
+        if (databaseMajorVersion < 14) {
+            return false;
+        }
+        for (TablePartition partition : getTablePartitions(tableName)) {
+            if (partition.isDefault()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected void updateWithLockTimeout(String sql) {
+        ISqlTransaction transaction = null;
+        try {
+            transaction = platform.getSqlTemplate().startSqlTransaction();
+            transaction.execute("set local lock_timeout = " + parameterService.getLong(ParameterConstants.PURGE_CAPTURE_PARTITION_LOCK_TIMEOUT_MS, 5000));
+            transaction.execute(sql);
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            if (transaction != null) {
+                transaction.close();
+            }
+        }
+    }
+
+    protected String getQualifiedName(String name) {
+        return "\"" + platform.getDefaultSchema() + "\".\"" + name + "\"";
+    }
+
     @Override
     public BinaryEncoding getBinaryEncoding() {
         return BinaryEncoding.BASE64;
@@ -287,6 +287,8 @@ abstract public class AbstractSymmetricEngine implements ISymmetricEngine {
         MDC.put("engineName", parameterService.getEngineName());
         this.platform.setMetadataIgnoreCase(this.parameterService
                 .is(ParameterConstants.DB_METADATA_IGNORE_CASE));
+        this.platform.setMetadataBulkReadEnabled(this.parameterService
+                .is(ParameterConstants.DB_METADATA_BULK_READ_ENABLED, true));
         this.platform.setClearCacheModelTimeoutInMs(parameterService
                 .getLong(ParameterConstants.CACHE_TIMEOUT_TABLES_IN_MS));
         this.symmetricDialect = createSymmetricDialect();
@@ -318,6 +320,7 @@ abstract public class AbstractSymmetricEngine implements ISymmetricEngine {
                 nodeService, configurationService, sequenceService, clusterService, extensionService);
         this.routerService = buildRouterService();
         this.nodeCommunicationService = buildNodeCommunicationService(clusterService, nodeService, parameterService, configurationService, symmetricDialect);
+        this.nodeCommunicationService.setOutgoingBatchService(outgoingBatchService);
         this.incomingBatchService = new IncomingBatchService(parameterService, symmetricDialect, clusterService);
         this.initialLoadService = new InitialLoadService(this);
         this.dataExtractorService = new DataExtractorService(this);
@@ -834,6 +837,12 @@ abstract public class AbstractSymmetricEngine implements ISymmetricEngine {
         if (nodeCommunicationService != null) {
             nodeCommunicationService.stop();
         }
+        if (dataExtractorService != null) {
+            dataExtractorService.stop();
+        }
+        if (fileSyncExtractorService != null) {
+            fileSyncExtractorService.stop();
+        }
         if (updateService != null) {
             updateService.stop();
         }
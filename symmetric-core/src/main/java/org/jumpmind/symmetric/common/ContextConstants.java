@@ -26,6 +26,7 @@ final public class ContextConstants {
 
     public static final String ROUTING_FULL_GAP_ANALYSIS = "routing.full.gap.analysis";
     public static final String ROUTING_LAST_BUSY_EXPIRE_RUN_TIME = "routing.last.busy.expire.run.time";
+    public static final String ROUTING_DATA_GAP_VERSION = "routing.data.gap.version";
     public static final String GUID = "guid";
     public static final String FILE_SYNC_FAST_SCAN_TRACK_TIME = "file.sync.fast.scan.track.time";
     public static final String CONTEXT_BULK_WRITER_TO_USE = "bulkWriterToUse";
@@ -156,6 +156,8 @@ final public class ParameterConstants {
     public final static String INITIAL_LOAD_EXTRACT_THREAD_COUNT_PER_SERVER = "initial.load.extract.thread.per.server.count";
     public final static String INITIAL_LOAD_EXTRACT_TIMEOUT_MS = "initial.load.extract.timeout.ms";
     public final static String INITIAL_LOAD_EXTRACT_USE_TWO_PASS_LOB = "initial.load.extract.use.two.pass.lob";
+    public final static String INITIAL_LOAD_EXTRACT_SLICE_THREAD_COUNT = "initial.load.extract.slice.thread.count";
+    public final static String INITIAL_LOAD_EXTRACT_SLICE_MIN_ROWS = "initial.load.extract.slice.min.rows";
     public final static String INITIAL_LOAD_EXTRACT_JOB_START = "start.initial.load.extract.job";
     public final static String INITIAL_LOAD_SCHEMA_DUMP_COMMAND = "initial.load.schema.dump.command";
     public final static String INITIAL_LOAD_SCHEMA_LOAD_COMMAND = "initial.load.schema.load.command";
@@ -167,6 +169,8 @@ final public class ParameterConstants {
     public final static String EXTRACT_CHECK_ROW_SIZE = "extract.check.row.size";
     public final static String EXTRACT_ROW_MAX_LENGTH = "extract.row.max.length";
     public final static String EXTRACT_ROW_CAPTURE_TIME = "extract.row.capture.time";
+    public final static String EXTRACT_THREAD_COUNT = "extract.thread.count";
+    public final static String EXTRACT_BATCHES_AHEAD_COUNT = "extract.batches.ahead.count";
     public final static String CREATE_TABLE_WITHOUT_DEFAULTS = "create.table.without.defaults";
     public final static String CREATE_TABLE_WITHOUT_FOREIGN_KEYS = "create.table.without.foreign.keys";
     public final static String CREATE_TABLE_WITHOUT_INDEXES = "create.table.without.indexes";
@@ -206,6 +210,10 @@ final public class ParameterConstants {
     public final static String ROUTING_GAPS_USE_TRANSACTION_VIEW = "routing.gaps.use.transaction.view";
     public final static String ROUTING_GAPS_TRANSACTION_VIEW_CLOCK_SYNC_THRESHOLD_MS = "routing.gaps.transaction.view.clock.sync.threshold";
     public final static String ROUTING_MAX_BATCH_SIZE_EXCEED_PERCENT = "routing.max.batch.size.exceed.percent";
+    public final static String ROUTING_CHANNEL_THREAD_COUNT = "routing.channel.thread.count";
+    public final static String ROUTING_DATA_ROUTER_PREFETCH_SIZE = "routing.data.router.prefetch.size";
+    public final static String ROUTING_SUBSELECT_CACHE_SIZE = "routing.subselect.cache.size";
+    public final static String ROUTING_LOOKUP_TABLE_CACHE_TIME_MS = "routing.lookup.table.cache.time.ms";
     public final static String INCOMING_BATCH_SKIP_DUPLICATE_BATCHES_ENABLED = "incoming.batches.skip.duplicates";
     @Deprecated
     public final static String INCOMING_BATCH_DELETE_ON_LOAD = "incoming.batch.delete.on.load";
@@ -227,11 +235,16 @@ final public class ParameterConstants {
     public final static String DATA_LOADER_USE_PRIMARY_KEYS_FROM_SOURCE = "dataloader.use.primary.keys.from.source";
     public final static String DATA_LOADER_IGNORE_SQL_EVENT_ERRORS = "dataloader.ignore.sql.event.errors";
     public final static String DATA_LOADER_LOG_SQL_PARAMS_ON_ERROR = "dataloader.log.sql.params.on.error";
+    public final static String DATA_LOADER_PIPELINE_QUEUE_SIZE = "dataloader.pipeline.queue.size";
+    public final static String DATA_LOADER_CHANNEL_THREAD_COUNT = "dataloader.channel.thread.count";
     public final static String DATA_RELOAD_IS_BATCH_INSERT_TRANSACTIONAL = "datareload.batch.insert.transactional";
     public final static String DATA_EXTRACTOR_ENABLED = "dataextractor.enable";
     public final static String DATA_EXTRACTOR_TEXT_COLUMN_EXPRESSION = "dataextractor.text.column.expression";
     public final static String DATA_FLUSH_JDBC_BATCH_SIZE = "data.flush.jdbc.batch.size";
     public final static String OUTGOING_BATCH_MAX_BATCHES_TO_SELECT = "outgoing.batches.max.to.select";
+    public final static String OUTGOING_BATCH_READY_INDEX_ENABLED = "outgoing.batches.ready.index.enabled";
+    public final static String OUTGOING_BATCH_READY_INDEX_REFRESH_MS = "outgoing.batches.ready.index.refresh.ms";
+    public final static String OUTGOING_BATCH_READY_INDEX_CLUSTER_CHECK_MS = "outgoing.batches.ready.index.cluster.check.ms";
     public final static String DBDIALECT_ORACLE_USE_TRANSACTION_VIEW = "oracle.use.transaction.view";
     public final static String DBDIALECT_ORACLE_TEMPLATE_NUMBER_SPEC = "oracle.template.precision";
     public final static String DBDIALECT_ORACLE_TEMPLATE_NUMBER_TEXT_MINIMUM = "oracle.template.precision.text.minimum";
@@ -281,6 +294,10 @@ final public class ParameterConstants {
     public final static String CACHE_TIMEOUT_CHANNEL_IN_MS = "cache.channel.time.ms";
     public final static String CACHE_TIMEOUT_NODE_GROUP_LINK_IN_MS = "cache.node.group.link.time.ms";
     public final static String CACHE_TIMEOUT_TRANSFORM_IN_MS = "cache.transform.time.ms";
+    public final static String TRANSFORM_LOOKUP_CACHE_SIZE = "transform.lookup.cache.size";
+    public final static String TRANSFORM_LOOKUP_CACHE_TIME_MS = "transform.lookup.cache.time.ms";
+    public final static String TRANSFORM_LOOKUP_PREFETCH_SIZE = "transform.lookup.prefetch.size";
+    public final static String TRANSFORM_LOOKUP_CACHE_TRANSACTIONAL = "transform.lookup.cache.transactional";
     public final static String CACHE_TIMEOUT_LOAD_FILTER_IN_MS = "cache.load.filter.time.ms";
     public final static String CACHE_TIMEOUT_CONFLICT_IN_MS = "cache.conflict.time.ms";
     public final static String CACHE_TIMEOUT_TABLES_IN_MS = "cache.table.time.ms";
@@ -295,6 +312,7 @@ final public class ParameterConstants {
     public final static String TRIGGER_CAPTURE_DDL_CHECK_TRIGGER_HIST = "trigger.capture.ddl.check.trigger.hist";
     public final static String TRIGGER_USE_INSERT_DELETE_FOR_PRIMARY_KEY_CHANGES = "trigger.use.insert.delete.for.primary.key.changes";
     public final static String DB_METADATA_IGNORE_CASE = "db.metadata.ignore.case";
+    public final static String DB_METADATA_BULK_READ_ENABLED = "db.metadata.bulk.read.enabled";
     public final static String DB_NATIVE_EXTRACTOR = "db.native.extractor";
     public final static String DB_QUERY_TIMEOUT_SECS = "db.sql.query.timeout.seconds";
     public final static String DB_FETCH_SIZE = "db.jdbc.streaming.results.fetch.size";
@@ -324,6 +342,13 @@ final public class ParameterConstants {
     public final static String PURGE_MAX_NUMBER_OF_EVENT_BATCH_IDS = "job.purge.max.num.data.event.batches.to.delete.in.tx";
     public final static String PURGE_MAX_LINGERING_BATCHES_READ = "job.purge.max.lingering.batches.read";
     public final static String PURGE_FIRST_PASS = "job.purge.first.pass";
+    public final static String PURGE_THREAD_COUNT = "job.purge.thread.count";
+    public final static String PURGE_CAPTURE_PARTITION_ENABLED = "purge.capture.partition.enabled";
+    public final static String PURGE_CAPTURE_PARTITION_DATA_SIZE = "purge.capture.partition.data.size";
+    public final static String PURGE_CAPTURE_PARTITION_BATCH_SIZE = "purge.capture.partition.batch.size";
+    public final static String PURGE_CAPTURE_PARTITIONS_AHEAD = "purge.capture.partitions.ahead";
+    public final static String PURGE_CAPTURE_PARTITION_LOCK_TIMEOUT_MS = "purge.capture.partition.lock.timeout.ms";
+    public final static String PURGE_LINGERING_BATCHES_BLOCK_SIZE = "job.purge.lingering.batches.block.size";
     public final static String PURGE_FIRST_PASS_OUTSTANDING_BATCHES_THRESHOLD = "job.purge.first.pass.outstanding.batches.threshold";
     public final static String JMX_LINE_FEED = "jmx.line.feed";
     public final static String IP_FILTERS = "ip.filters";
@@ -355,6 +380,8 @@ final public class ParameterConstants {
     public final static String FILE_SYNC_ENABLE = "file.sync.enable";
     public final static String FILE_SYNC_FAST_SCAN = "file.sync.fast.scan";
     public final static String FILE_SYNC_USE_CRC = "file.sync.use.crc";
+    public final static String FILE_SYNC_CHECKSUM_THREADS = "file.sync.checksum.threads";
+    public final static String FILE_SYNC_USE_WATCH_SERVICE = "file.sync.use.watch.service";
     public final static String FILE_SYNC_PREVENT_PING_BACK = "file.sync.prevent.ping.back";
     public final static String FILE_SYNC_LOCK_WAIT_MS = "file.sync.lock.wait.ms";
     public final static String FILE_SYNC_DELETE_CTL_FILE_AFTER_SYNC = "file.sync.delete.ctl.file.after.sync";
@@ -362,6 +389,7 @@ final public class ParameterConstants {
     public final static String BSH_LOAD_FILTER_HANDLES_MISSING_TABLES = "bsh.load.filter.handles.missing.tables";
     public final static String BSH_TRANSFORM_GLOBAL_SCRIPT = "bsh.transform.global.script";
     public final static String BSH_EXTENSION_GLOBAL_SCRIPT = "bsh.extension.global.script";
+    public final static String BSH_COMPILE_SCRIPTS = "bsh.compile.scripts";
     public final static String MSSQL_ROW_LEVEL_LOCKS_ONLY = "mssql.allow.only.row.level.locks.on.runtime.tables";
     public final static String MSSQL_USE_NTYPES_FOR_SYNC = "mssql.use.ntypes.for.sync";
     public final static String MSSQL_USE_VARCHAR_FOR_LOB_IN_SYNC = "mssql.use.varchar.for.lob.in.sync";
@@ -418,6 +446,7 @@ final public class ParameterConstants {
     public final static String STAGING_MANAGER_CLASS = "staging.manager.class";
     public final static String STAGING_DIR = "staging.dir";
     public final static String STAGING_LOW_SPACE_THRESHOLD_MEGABYTES = "staging.low.space.threshold.megabytes";
+    public final static String STAGING_COMPRESSION_ENABLED = "staging.compression.enabled";
     public final static String STATISTIC_MANAGER_CLASS = "statistic.manager.class";
     public final static String DB2_CAPTURE_TRANSACTION_ID = "db2.capture.transaction.id";
     public final static String TREAT_BINARY_AS_LOB_ENABLED = "treat.binary.as.lob.enabled";
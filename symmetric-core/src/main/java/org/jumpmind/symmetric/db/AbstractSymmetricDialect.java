@@ -54,12 +54,14 @@ import org.jumpmind.exception.IoException;
 import org.jumpmind.symmetric.Version;
 import org.jumpmind.symmetric.common.Constants;
 import org.jumpmind.symmetric.common.ParameterConstants;
+import org.jumpmind.symmetric.common.TableConstants;
 import org.jumpmind.symmetric.ext.IDatabaseInstallStatementListener;
 import org.jumpmind.symmetric.ext.IDatabaseUpgradeListener;
 import org.jumpmind.symmetric.io.data.CsvUtils;
 import org.jumpmind.symmetric.io.data.DataEventType;
 import org.jumpmind.symmetric.model.Channel;
 import org.jumpmind.symmetric.model.Node;
+import org.jumpmind.symmetric.model.TablePartition;
 import org.jumpmind.symmetric.model.Trigger;
 import org.jumpmind.symmetric.model.TriggerHistory;
 import org.jumpmind.symmetric.model.TriggerRouter;
@@ -565,6 +567,9 @@ abstract public class AbstractSymmetricDialect implements ISymmetricDialect {
         try {
             Database database = merge(readDatabaseFromXml("/symmetric-schema.xml"), readDatabaseFromXml("/console-schema.xml"));
             prefixConfigDatabase(database);
+            if (parameterService.is(ParameterConstants.PURGE_CAPTURE_PARTITION_ENABLED) && supportsCaptureTablePartitions()) {
+                setCaptureTablePartitionColumns(database);
+            }
             String extraTablesXml = parameterService.getString(ParameterConstants.AUTO_CONFIGURE_EXTRA_TABLES);
             if (StringUtils.isNotBlank(extraTablesXml)) {
                 try {
@@ -581,6 +586,21 @@ abstract public class AbstractSymmetricDialect implements ISymmetricDialect {
         }
     }
 
+    /*
+     * Data is partitioned by data_id and data_event by batch_id, which are both part of the primary key as the database requires.
+     */
+    protected void setCaptureTablePartitionColumns(Database database) {
+        String tablePrefix = parameterService.getTablePrefix();
+        Table data = database.findTable(TableConstants.getTableName(tablePrefix, TableConstants.SYM_DATA));
+        if (data != null) {
+            data.setPartitionColumnName("data_id");
+        }
+        Table dataEvent = database.findTable(TableConstants.getTableName(tablePrefix, TableConstants.SYM_DATA_EVENT));
+        if (dataEvent != null) {
+            dataEvent.setPartitionColumnName("batch_id");
+        }
+    }
+
     public Database readSymmetricSchemaFromDatabase() {
         return platform.readFromDatabase(readSymmetricSchemaFromXml().getTables());
     }
@@ -679,6 +699,22 @@ abstract public class AbstractSymmetricDialect implements ISymmetricDialect {
         return supportsDdlTriggers;
     }
 
+    public boolean supportsCaptureTablePartitions() {
+        return false;
+    }
+
+    public List<TablePartition> getTablePartitions(String tableName) {
+        return new ArrayList<TablePartition>();
+    }
+
+    public void createTablePartition(String tableName, long lowerBound, long upperBound) {
+        throw new UnsupportedOperationException("Table partitions are not supported by " + getName());
+    }
+
+    public void dropTablePartition(String tableName, TablePartition partition) {
+        throw new UnsupportedOperationException("Table partitions are not supported by " + getName());
+    }
+
     public long insertWithGeneratedKey(String sql, SequenceIdentifier sequenceId) {
         return insertWithGeneratedKey(sql, sequenceId, null, null);
     }
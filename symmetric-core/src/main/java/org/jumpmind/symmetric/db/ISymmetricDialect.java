@@ -35,6 +35,7 @@ import org.jumpmind.db.util.BinaryEncoding;
 import org.jumpmind.symmetric.io.data.DataEventType;
 import org.jumpmind.symmetric.model.Channel;
 import org.jumpmind.symmetric.model.Node;
+import org.jumpmind.symmetric.model.TablePartition;
 import org.jumpmind.symmetric.model.Trigger;
 import org.jumpmind.symmetric.model.TriggerHistory;
 import org.jumpmind.symmetric.model.TriggerRouter;
@@ -149,6 +150,25 @@ public interface ISymmetricDialect {
 
     public boolean supportsDdlTriggers();
 
+    /*
+     * Indicates if the data and data_event tables can be created as range partitioned tables, so the purge job can drop whole partitions instead of
+     * deleting rows.
+     */
+    public boolean supportsCaptureTablePartitions();
+
+    /*
+     * Get the range partitions of a table, sorted by lower bound with the default partition last. Returns an empty list if the table is not
+     * partitioned.
+     */
+    public List<TablePartition> getTablePartitions(String tableName);
+
+    public void createTablePartition(String tableName, long lowerBound, long upperBound);
+
+    /*
+     * Detach the partition from its table and drop it.
+     */
+    public void dropTablePartition(String tableName, TablePartition partition);
+
     /*
      * Implement this if the database has some type of cleanup functionality that needs to be run when dropping database objects. An example is Oracle's 'purge
      * recyclebin'
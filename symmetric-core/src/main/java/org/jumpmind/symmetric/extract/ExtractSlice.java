@@ -0,0 +1,140 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.extract;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jumpmind.symmetric.model.AbstractBatch.Status;
+import org.jumpmind.symmetric.model.OutgoingBatch;
+
+/**
+ * A range of primary key values from a reload table that is extracted on its own thread into its own share of the batches of an extract
+ * request. The first slice is open below and the last slice is open above, so rows outside of the minimum and maximum key that were seen
+ * when the request was split are still extracted. The last batches of the request are held back as overflow batches that any slice can
+ * take once its own batches are full.
+ */
+public class ExtractSlice {
+    protected int index;
+    protected int sliceCount;
+    protected long startKey;
+    protected long endKey;
+    protected List<OutgoingBatch> batches;
+
+    public ExtractSlice(int index, int sliceCount, long startKey, long endKey, List<OutgoingBatch> batches) {
+        this.index = index;
+        this.sliceCount = sliceCount;
+        this.startKey = startKey;
+        this.endKey = endKey;
+        this.batches = batches;
+    }
+
+    /**
+     * Split the key range evenly into slices, giving each slice a contiguous share of the batches that are not held back for overflow. The
+     * same arguments always produce the same slices, so a restarted request can find the slices it already finished.
+     */
+    public static List<ExtractSlice> split(long minKey, long maxKey, int sliceCount, List<OutgoingBatch> batches) {
+        sliceCount = Math.max(1, Math.min(sliceCount, batches.size() - 1));
+        long span = maxKey - minKey;
+        if (maxKey < minKey || span < 0) {
+            sliceCount = 1;
+            span = 0;
+        }
+        long width = span / sliceCount + 1;
+        List<ExtractSlice> slices = new ArrayList<ExtractSlice>(sliceCount);
+        int sliceBatchCount = batches.size() - getOverflowBatchCount(sliceCount, batches.size());
+        for (int i = 0; i < sliceCount; i++) {
+            long startKey = minKey + width * i;
+            long endKey = i == sliceCount - 1 ? maxKey : startKey + width - 1;
+            List<OutgoingBatch> sliceBatches = new ArrayList<OutgoingBatch>(batches.subList(i * sliceBatchCount / sliceCount,
+                    (i + 1) * sliceBatchCount / sliceCount));
+            slices.add(new ExtractSlice(i, sliceCount, startKey, endKey, sliceBatches));
+        }
+        return slices;
+    }
+
+    /**
+     * Get the batches at the end of the request that are not given to any of the slices, for slices to take in order when their own
+     * batches are full.
+     */
+    public static List<OutgoingBatch> getOverflowBatches(int sliceCount, List<OutgoingBatch> batches) {
+        return new ArrayList<OutgoingBatch>(batches.subList(batches.size() - getOverflowBatchCount(sliceCount, batches.size()),
+                batches.size()));
+    }
+
+    protected static int getOverflowBatchCount(int sliceCount, int batchCount) {
+        return sliceCount < batchCount ? Math.max(1, batchCount / (sliceCount + 1)) : 0;
+    }
+
+    /**
+     * Get the condition that selects the rows of this slice using the given quoted key column.
+     */
+    public String getCondition(String column) {
+        if (sliceCount == 1) {
+            return null;
+        } else if (index == 0) {
+            return column + " <= " + endKey;
+        } else if (index == sliceCount - 1) {
+            return column + " >= " + startKey;
+        } else {
+            return column + " between " + startKey + " and " + endKey;
+        }
+    }
+
+    /**
+     * A slice is finished when its last batch was extracted, because the slice writes its batches in order and closes out any that are
+     * left over when it runs out of rows. A slice that went on to fill overflow batches is not tracked here, which is why a restarted request
+     * with any overflow batch in use starts over.
+     */
+    public boolean isExtracted() {
+        return batches.get(batches.size() - 1).getStatus() != Status.RQ;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getStartKey() {
+        return startKey;
+    }
+
+    public long getEndKey() {
+        return endKey;
+    }
+
+    public List<OutgoingBatch> getBatches() {
+        return batches;
+    }
+
+    public long getStartBatchId() {
+        return batches.get(0).getBatchId();
+    }
+
+    public long getEndBatchId() {
+        return batches.get(batches.size() - 1).getBatchId();
+    }
+
+    @Override
+    public String toString() {
+        return "slice " + (index + 1) + " of " + sliceCount + " for keys " + startKey + " through " + endKey + " into batches " + getStartBatchId()
+                + " through " + getEndBatchId();
+    }
+}
@@ -75,6 +75,7 @@ public class MultiBatchStagingWriter implements IDataWriter {
     protected Map<Long, OutgoingBatch> childBatches;
     protected long memoryThresholdInBytes;
     protected boolean isRestarted;
+    protected List<OutgoingBatch> overflowBatches;
 
     public MultiBatchStagingWriter(ISymmetricEngine engine, ExtractRequest request, List<ExtractRequest> childRequests, String sourceNodeId,
             List<OutgoingBatch> batches, long maxBatchSize, ProcessInfo processInfo, boolean isRestarted) {
@@ -175,7 +176,7 @@ public class MultiBatchStagingWriter implements IDataWriter {
         outgoingBatch.incrementDataRowCount();
         outgoingBatch.incrementDataInsertRowCount();
         currentDataWriter.write(data);
-        if (outgoingBatch.getDataRowCount() >= maxBatchSize && batches.size() > 0) {
+        if (outgoingBatch.getDataRowCount() >= maxBatchSize && hasNextBatch()) {
             currentDataWriter.end(table);
             currentDataWriter.end(batch, false);
             closeCurrentDataWriter();
@@ -192,6 +193,49 @@ public class MultiBatchStagingWriter implements IDataWriter {
         }
     }
 
+    /**
+     * Share a list of spare batches to take from, in order, once this writer's own batches are full. It is shared by the writers of the
+     * slices of a table, so access to it is synchronized on the list.
+     */
+    public void setOverflowBatches(List<OutgoingBatch> overflowBatches) {
+        this.overflowBatches = overflowBatches;
+    }
+
+    /**
+     * Check if there is another batch to write to, taking one from the overflow batches if needed. A batch taken from the overflow is
+     * marked as querying before the current batch is closed, so a restarted extract can tell that it was used.
+     */
+    protected boolean hasNextBatch() {
+        if (batches.size() > 0) {
+            return true;
+        } else if (overflowBatches != null) {
+            OutgoingBatch overflowBatch = null;
+            synchronized (overflowBatches) {
+                if (overflowBatches.size() > 0) {
+                    overflowBatch = overflowBatches.remove(0);
+                }
+            }
+            if (overflowBatch != null) {
+                overflowBatch.setStatus(Status.QY);
+                engine.getOutgoingBatchService().updateOutgoingBatch(overflowBatch);
+                batches.add(overflowBatch);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write each of the batches as an empty batch.
+     */
+    public void writeEmptyBatches(DataContext context) {
+        open(context);
+        start(new Batch(BatchType.EXTRACT, outgoingBatch.getBatchId(), outgoingBatch.getChannelId(),
+                engine.getSymmetricDialect().getBinaryEncoding(), sourceNodeId, outgoingBatch.getNodeId(), false));
+        end(batch, false);
+        close();
+    }
+
     public void checkSend(Statistics stats) {
         IStagedResource resource = getStagedResource(outgoingBatch);
         if (resource != null) {
@@ -300,6 +344,7 @@ public class MultiBatchStagingWriter implements IDataWriter {
             byteCount += outgoingBatch.getByteCount();
             engine.getStatisticManager().incrementDataBytesExtracted(outgoingBatch.getChannelId(), outgoingBatch.getByteCount());
             engine.getStatisticManager().incrementDataExtracted(outgoingBatch.getChannelId(), outgoingBatch.getDataRowCount());
+            engine.getStatisticManager().recordExtractMillis(outgoingBatch.getChannelId(), outgoingBatch.getExtractMillis());
             engine.getStatisticManager().incrementTableRows(outgoingBatch.getTableLoadedCount(), false);
         }
         outgoingBatch = batches.remove(0);
@@ -72,6 +72,7 @@ public class SelectFromSymDataSource extends SelectFromSource {
     protected Map<Integer, CounterStat> missingTriggerRoutersByTriggerHist = new HashMap<Integer, CounterStat>();
     protected boolean containsBigLob;
     protected boolean dialectHasNoOldBinaryData;
+    protected String sliceCondition;
 
     public SelectFromSymDataSource(ISymmetricEngine engine, OutgoingBatch outgoingBatch, Node sourceNode, Node targetNode,
             ProcessInfo processInfo, boolean containsBigLob) {
@@ -93,7 +94,7 @@ public class SelectFromSymDataSource extends SelectFromSource {
 
     public CsvData next() {
         if (cursor == null) {
-            cursor = dataService.selectDataFor(batch.getBatchId(), batch.getTargetNodeId(), containsBigLob);
+            cursor = dataService.selectDataFor(outgoingBatch.getBatchId(), batch.getTargetNodeId(), containsBigLob);
         }
         Data data = null;
         if (reloadSource != null) {
@@ -222,8 +223,19 @@ public class SelectFromSymDataSource extends SelectFromSource {
         return data;
     }
 
+    /**
+     * Extract only the rows of the reload table that match the condition, starting with the given batch ID. The reload event is still
+     * selected from the batch this source was created for.
+     */
+    public void setSlice(String sliceCondition, long sliceBatchId) {
+        this.sliceCondition = sliceCondition;
+        batch.setBatchId(sliceBatchId);
+    }
+
     protected SelectFromTableSource createSelectFromTableSource(SelectFromTableEvent event) {
-        return new SelectFromTableSource(engine, outgoingBatch, batch, event);
+        SelectFromTableSource source = new SelectFromTableSource(engine, outgoingBatch, batch, event);
+        source.setSliceCondition(sliceCondition);
+        return source;
     }
 
     protected boolean processCreateEvent(TriggerHistory triggerHistory, String routerId, Data data) {
@@ -82,6 +82,7 @@ public class SelectFromTableSource extends SelectFromSource {
     protected boolean isLobFirstPass;
     protected boolean isConfiguration;
     protected boolean isInitialLoadUseColumnTemplates;
+    protected String sliceCondition;
 
     public SelectFromTableSource(ISymmetricEngine engine, OutgoingBatch outgoingBatch, Batch batch, SelectFromTableEvent event) {
         super(engine);
@@ -115,6 +116,10 @@ public class SelectFromTableSource extends SelectFromSource {
         this.isConfiguration = isConfiguration;
     }
 
+    public void setSliceCondition(String sliceCondition) {
+        this.sliceCondition = sliceCondition;
+    }
+
     public CsvData next() {
         CsvData data = null;
         do {
@@ -259,6 +264,10 @@ public class SelectFromTableSource extends SelectFromSource {
             }
             log.info("Querying level {} for table {}: {}", selfRefLevel, sourceTable.getName(), selectSql);
         }
+        if (StringUtils.isNotBlank(sliceCondition)) {
+            String baseSql = StringUtils.isNotBlank(selectSql) ? selectSql : triggerRouter.getInitialLoadSelect();
+            selectSql = StringUtils.isBlank(baseSql) ? sliceCondition : "(" + baseSql + ") and " + sliceCondition;
+        }
         Channel channel = configurationService.getChannel(triggerRouter.getTrigger().getReloadChannelId());
         if (channel.isReloadFlag() && symmetricDialectToUse.isInitialLoadTwoPassLob(sourceTable)) {
             channel = new Channel();
@@ -21,8 +21,10 @@
 package org.jumpmind.symmetric.file;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.jumpmind.symmetric.model.FileSnapshot;
@@ -32,6 +34,8 @@ import org.jumpmind.symmetric.model.FileTriggerRouter;
 public class DirectorySnapshot extends ArrayList<FileSnapshot> {
     private static final long serialVersionUID = 1L;
     private FileTriggerRouter fileTriggerRouter;
+    private transient Map<String, List<FileSnapshot>> filesByName;
+    private transient int filesByNameModCount;
 
     public DirectorySnapshot(FileTriggerRouter fileTriggerRouter, List<FileSnapshot> snapshot) {
         this(fileTriggerRouter);
@@ -42,12 +46,18 @@ public class DirectorySnapshot extends ArrayList<FileSnapshot> {
         this.fileTriggerRouter = fileTriggerRouter;
     }
 
+    /**
+     * Apply the changes from a run to this snapshot. The index of files by name is kept between runs and updated with the changes, so a merge only
+     * costs as much as the changes, unless the list was modified some other way and the index has to be built again.
+     */
     protected void merge(DirectorySnapshot snapshot) {
+        Map<String, List<FileSnapshot>> filesByName = getFilesByName();
         Set<FileSnapshot> toAdd = new HashSet<FileSnapshot>();
         Set<FileSnapshot> toRemove = new HashSet<FileSnapshot>();
         for (FileSnapshot fileChange : snapshot) {
-            for (FileSnapshot file : this) {
-                if (fileChange.getFileName().equals(file.getFileName())) {
+            List<FileSnapshot> files = filesByName.get(fileChange.getFileName());
+            if (files != null) {
+                for (FileSnapshot file : files) {
                     toRemove.add(file);
                     if (fileChange.getLastEventType() == LastEventType.MODIFY) {
                         toAdd.add(fileChange);
@@ -60,17 +70,46 @@ public class DirectorySnapshot extends ArrayList<FileSnapshot> {
                 toAdd.add(fileChange);
             }
         }
-        this.removeAll(toRemove);
+        if (toRemove.size() > 0) {
+            this.removeAll(toRemove);
+            for (FileSnapshot file : toRemove) {
+                List<FileSnapshot> files = filesByName.get(file.getFileName());
+                if (files != null) {
+                    files.removeIf(toRemove::contains);
+                    if (files.isEmpty()) {
+                        filesByName.remove(file.getFileName());
+                    }
+                }
+            }
+        }
         this.addAll(toAdd);
+        for (FileSnapshot file : toAdd) {
+            filesByName.computeIfAbsent(file.getFileName(), k -> new ArrayList<FileSnapshot>(1)).add(file);
+        }
+        filesByNameModCount = modCount;
+    }
+
+    protected Map<String, List<FileSnapshot>> getFilesByName() {
+        if (filesByName == null || filesByNameModCount != modCount) {
+            filesByName = new HashMap<String, List<FileSnapshot>>(size() * 2);
+            for (FileSnapshot file : this) {
+                filesByName.computeIfAbsent(file.getFileName(), k -> new ArrayList<FileSnapshot>(1)).add(file);
+            }
+            filesByNameModCount = modCount;
+        }
+        return filesByName;
     }
 
     public DirectorySnapshot diff(DirectorySnapshot anotherSnapshot) {
         DirectorySnapshot differences = new DirectorySnapshot(anotherSnapshot.getFileTriggerRouter());
+        Map<String, List<FileSnapshot>> files = index();
+        Set<String> anotherFileKeys = new HashSet<String>(anotherSnapshot.size());
         for (FileSnapshot anotherFile : anotherSnapshot) {
-            boolean found = false;
-            for (FileSnapshot file : this) {
-                if (anotherFile.sameFile(file)) {
-                    found = true;
+            String key = getKey(anotherFile);
+            anotherFileKeys.add(key);
+            List<FileSnapshot> matches = files.get(key);
+            if (matches != null) {
+                for (FileSnapshot file : matches) {
                     if ((file.getLastEventType() == LastEventType.MODIFY ||
                             file.getLastEventType() == LastEventType.CREATE)
                             && anotherFile.getLastEventType() == LastEventType.CREATE) {
@@ -81,19 +120,12 @@ public class DirectorySnapshot extends ArrayList<FileSnapshot> {
                         differences.add(anotherFile);
                     }
                 }
-            }
-            if (!found) {
+            } else {
                 differences.add(anotherFile);
             }
         }
         for (FileSnapshot file : this) {
-            boolean found = false;
-            for (FileSnapshot anotherFile : anotherSnapshot) {
-                if (anotherFile.sameFile(file)) {
-                    found = true;
-                }
-            }
-            if (file.getLastEventType() != LastEventType.DELETE && !found) {
+            if (file.getLastEventType() != LastEventType.DELETE && !anotherFileKeys.contains(getKey(file))) {
                 FileSnapshot copy = new FileSnapshot(file);
                 copy.setLastEventType(LastEventType.DELETE);
                 differences.add(copy);
@@ -102,6 +134,21 @@ public class DirectorySnapshot extends ArrayList<FileSnapshot> {
         return differences;
     }
 
+    /**
+     * Index the files by relative directory and file name, so large snapshots can be compared without scanning one for every file in the other.
+     */
+    protected Map<String, List<FileSnapshot>> index() {
+        Map<String, List<FileSnapshot>> files = new HashMap<String, List<FileSnapshot>>(size() * 2);
+        for (FileSnapshot file : this) {
+            files.computeIfAbsent(getKey(file), k -> new ArrayList<FileSnapshot>(1)).add(file);
+        }
+        return files;
+    }
+
+    public static String getKey(FileSnapshot file) {
+        return file.getRelativeDir() + "/" + file.getFileName();
+    }
+
     public FileTriggerRouter getFileTriggerRouter() {
         return fileTriggerRouter;
     }
@@ -0,0 +1,153 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.file;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.jumpmind.exception.IoException;
+import org.jumpmind.symmetric.model.FileSnapshot;
+import org.jumpmind.symmetric.model.FileSnapshot.LastEventType;
+import org.jumpmind.symmetric.model.FileTrigger;
+import org.jumpmind.util.CustomizableThreadFactory;
+
+/**
+ * Calculates the CRC32 checksum of the files in a snapshot on a pool of threads. A file with the same size and modified time as in the last
+ * snapshot keeps its last checksum, so only new and changed files are read.
+ */
+public class FileChecksumPool {
+    protected ExecutorService executor;
+    protected long filesRead;
+    protected long filesReused;
+
+    public FileChecksumPool(int threadCount) {
+        if (threadCount > 1) {
+            executor = Executors.newFixedThreadPool(threadCount, new CustomizableThreadFactory("file-sync-checksum"));
+        }
+    }
+
+    /**
+     * Set the checksum on each file in the snapshot that does not have one yet. A file that disappears before it can be read is changed to a
+     * delete.
+     */
+    public void updateChecksums(DirectorySnapshot snapshot, DirectorySnapshot lastSnapshot) {
+        FileTrigger fileTrigger = snapshot.getFileTriggerRouter().getFileTrigger();
+        Map<String, List<FileSnapshot>> lastFiles = lastSnapshot != null ? lastSnapshot.index() : null;
+        List<FileSnapshot> files = new ArrayList<FileSnapshot>();
+        List<Future<Long>> checksums = new ArrayList<Future<Long>>();
+        for (FileSnapshot fileSnapshot : snapshot) {
+            if (fileSnapshot.getCrc32Checksum() != -1 || fileSnapshot.getLastEventType() == LastEventType.DELETE) {
+                continue;
+            }
+            FileSnapshot lastFile = findUnchanged(lastFiles, fileSnapshot);
+            if (lastFile != null) {
+                fileSnapshot.setCrc32Checksum(lastFile.getCrc32Checksum());
+                filesReused++;
+                continue;
+            }
+            final File file = fileTrigger.createSourceFile(fileSnapshot);
+            if (file.isFile()) {
+                files.add(fileSnapshot);
+                if (executor != null) {
+                    checksums.add(executor.submit(() -> FileUtils.checksumCRC32(file)));
+                } else {
+                    setChecksum(fileSnapshot, () -> FileUtils.checksumCRC32(file));
+                }
+            }
+        }
+        for (int i = 0; i < checksums.size(); i++) {
+            final Future<Long> future = checksums.get(i);
+            setChecksum(files.get(i), () -> getChecksum(future));
+        }
+    }
+
+    protected FileSnapshot findUnchanged(Map<String, List<FileSnapshot>> lastFiles, FileSnapshot fileSnapshot) {
+        if (lastFiles != null) {
+            List<FileSnapshot> matches = lastFiles.get(DirectorySnapshot.getKey(fileSnapshot));
+            if (matches != null) {
+                for (FileSnapshot lastFile : matches) {
+                    if (lastFile.getCrc32Checksum() != -1 && lastFile.getLastEventType() != LastEventType.DELETE
+                            && lastFile.getFileSize() == fileSnapshot.getFileSize()
+                            && lastFile.getFileModifiedTime() == fileSnapshot.getFileModifiedTime()) {
+                        return lastFile;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    protected void setChecksum(FileSnapshot fileSnapshot, ChecksumReader reader) {
+        try {
+            fileSnapshot.setCrc32Checksum(reader.read());
+            filesRead++;
+        } catch (FileNotFoundException ex) {
+            fileSnapshot.setLastEventType(LastEventType.DELETE);
+            fileSnapshot.setFileSize(0);
+            fileSnapshot.setFileModifiedTime(0);
+        } catch (IOException ex) {
+            throw new IoException(ex);
+        }
+    }
+
+    protected long getChecksum(Future<Long> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            } else if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new RuntimeException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        }
+    }
+
+    public long getFilesRead() {
+        return filesRead;
+    }
+
+    public long getFilesReused() {
+        return filesReused;
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    interface ChecksumReader {
+        long read() throws IOException;
+    }
+}
@@ -48,6 +48,7 @@ public class FileTriggerFileModifiedListener extends FileAlterationListenerAdapt
     protected boolean isSyncOnCtlFile;
     protected boolean useCrc;
     protected ISymmetricEngine engine;
+    protected FileChecksumPool checksumPool;
     protected Map<String, DirectorySnapshot> modifiedDirs = new HashMap<String, DirectorySnapshot>();
     protected long startTime = System.currentTimeMillis();
     protected long ts = startTime;
@@ -56,6 +57,11 @@ public class FileTriggerFileModifiedListener extends FileAlterationListenerAdapt
 
     public FileTriggerFileModifiedListener(FileTriggerRouter fileTriggerRouter, Date fromDate, Date toDate, ProcessInfo processInfo,
             boolean useCrc, FileModifiedCallback fileModifiedCallback, ISymmetricEngine engine) {
+        this(fileTriggerRouter, fromDate, toDate, processInfo, useCrc, fileModifiedCallback, engine, null);
+    }
+
+    public FileTriggerFileModifiedListener(FileTriggerRouter fileTriggerRouter, Date fromDate, Date toDate, ProcessInfo processInfo,
+            boolean useCrc, FileModifiedCallback fileModifiedCallback, ISymmetricEngine engine, FileChecksumPool checksumPool) {
         this.fileTriggerRouter = fileTriggerRouter;
         this.snapshot = new DirectorySnapshot(fileTriggerRouter);
         this.fromDate = fromDate;
@@ -65,6 +71,7 @@ public class FileTriggerFileModifiedListener extends FileAlterationListenerAdapt
         this.isSyncOnCtlFile = fileTriggerRouter.getFileTrigger().isSyncOnCtlFile();
         this.useCrc = useCrc;
         this.engine = engine;
+        this.checksumPool = checksumPool;
         this.processInfo.setStatus(ProcessInfo.ProcessStatus.PROCESSING);
     }
 
@@ -109,6 +116,9 @@ public class FileTriggerFileModifiedListener extends FileAlterationListenerAdapt
             DirectorySnapshot lastSnapshot = fileModifiedCallback.getLastDirectorySnapshot(relativeDir);
             DirectorySnapshot currentSnapshot = modifiedDirs.get(relativeDir);
             modifiedDirFileCount += currentSnapshot.size();
+            if (useCrc && checksumPool != null) {
+                checksumPool.updateChecksums(currentSnapshot, lastSnapshot);
+            }
             DirectorySnapshot changesSinceLastSnapshot = lastSnapshot.diff(currentSnapshot);
             processInfo.setCurrentDataCount(processInfo.getCurrentDataCount() + lastSnapshot.size() + currentSnapshot.size());
             if (changesSinceLastSnapshot.size() > 0) {
@@ -139,7 +149,7 @@ public class FileTriggerFileModifiedListener extends FileAlterationListenerAdapt
         log.debug("addSnapshot: " + file);
         fileCount++;
         processInfo.incrementCurrentDataCount();
-        FileSnapshot fileSnapshot = new FileSnapshot(fileTriggerRouter, file, lastEventType, useCrc);
+        FileSnapshot fileSnapshot = new FileSnapshot(fileTriggerRouter, file, lastEventType, useCrc && checksumPool == null);
         DirectorySnapshot modifiedDir = modifiedDirs.get(fileSnapshot.getRelativeDir());
         if (!isDir && modifiedDir != null) {
             // This file belongs to a directory that had a file add/delete, so we will process the directory later
@@ -175,6 +185,9 @@ public class FileTriggerFileModifiedListener extends FileAlterationListenerAdapt
     }
 
     protected void commit() {
+        if (useCrc && checksumPool != null) {
+            checksumPool.updateChecksums(snapshot, null);
+        }
         fileModifiedCallback.commit(snapshot);
         snapshot.clear();
     }
@@ -36,37 +36,48 @@ import org.slf4j.LoggerFactory;
 
 public class FileTriggerTracker {
     final protected Logger log = LoggerFactory.getLogger(getClass());
-    private FileTriggerRouter fileTriggerRouter;
-    private FileAlterationObserver fileObserver;
-    private DirectorySnapshot lastSnapshot;
-    private DirectorySnapshot changesSinceLastSnapshot;
-    private SnapshotUpdater currentListener;
-    private ProcessInfo processInfo;
-    private ISymmetricEngine engine;
+    protected FileTriggerRouter fileTriggerRouter;
+    protected FileAlterationObserver fileObserver;
+    protected DirectorySnapshot lastSnapshot;
+    protected DirectorySnapshot changesSinceLastSnapshot;
+    protected DirectorySnapshot initialSnapshot;
+    protected SnapshotUpdater currentListener;
+    protected ProcessInfo processInfo;
+    protected ISymmetricEngine engine;
     protected boolean useCrc;
+    protected FileChecksumPool checksumPool;
     long startTime = System.currentTimeMillis();
     long ts = startTime;
 
     public FileTriggerTracker(FileTriggerRouter fileTriggerRouter, DirectorySnapshot lastSnapshot, ProcessInfo processInfo,
             boolean useCrc, ISymmetricEngine engine) {
+        this(fileTriggerRouter, lastSnapshot, processInfo, useCrc, engine, null);
+    }
+
+    public FileTriggerTracker(FileTriggerRouter fileTriggerRouter, DirectorySnapshot lastSnapshot, ProcessInfo processInfo,
+            boolean useCrc, ISymmetricEngine engine, FileChecksumPool checksumPool) {
         this.fileTriggerRouter = fileTriggerRouter;
         this.processInfo = processInfo;
         this.useCrc = useCrc;
         this.engine = engine;
+        this.checksumPool = checksumPool;
         changesSinceLastSnapshot = new DirectorySnapshot(fileTriggerRouter);
-        fileObserver = new FileAlterationObserver(fileTriggerRouter.getFileTrigger().getBaseDir(), fileTriggerRouter.getFileTrigger()
-                .createIOFileFilter());
+        fileObserver = createFileObserver();
         currentListener = new SnapshotUpdater(changesSinceLastSnapshot);
-        fileObserver.addListener(currentListener);
+        if (fileObserver != null) {
+            fileObserver.addListener(currentListener);
+        }
         try {
-            fileObserver.initialize();
+            if (fileObserver != null) {
+                fileObserver.initialize();
+            }
             if (lastSnapshot == null) {
                 lastSnapshot = new DirectorySnapshot(fileTriggerRouter);
             }
             this.lastSnapshot = lastSnapshot;
-            DirectorySnapshot currentSnapshot = new DirectorySnapshot(fileTriggerRouter);
-            takeFullSnapshot(currentSnapshot);
-            changesSinceLastSnapshot.addAll(lastSnapshot.diff(currentSnapshot));
+            initialSnapshot = new DirectorySnapshot(fileTriggerRouter);
+            takeFullSnapshot(initialSnapshot);
+            changesSinceLastSnapshot.addAll(lastSnapshot.diff(initialSnapshot));
         } catch (RuntimeException e) {
             throw e;
         } catch (IOException e) {
@@ -76,6 +87,11 @@ public class FileTriggerTracker {
         }
     }
 
+    protected FileAlterationObserver createFileObserver() {
+        return new FileAlterationObserver(fileTriggerRouter.getFileTrigger().getBaseDir(), fileTriggerRouter.getFileTrigger()
+                .createIOFileFilter());
+    }
+
     protected void pollForChanges() {
         if (fileObserver != null) {
             fileObserver.checkAndNotify();
@@ -85,6 +101,9 @@ public class FileTriggerTracker {
     synchronized public DirectorySnapshot trackChanges() {
         pollForChanges();
         DirectorySnapshot changes = changesSinceLastSnapshot;
+        if (useCrc && checksumPool != null) {
+            checksumPool.updateChecksums(changes, null);
+        }
         if (log.isDebugEnabled()) {
             for (FileSnapshot s : changes) {
                 log.debug(s.getLastEventType().getCode() + ", fileName: " + s.getFileName() + ", relativeDir: " + s.getRelativeDir());
@@ -92,8 +111,10 @@ public class FileTriggerTracker {
         }
         changesSinceLastSnapshot = new DirectorySnapshot(fileTriggerRouter);
         SnapshotUpdater newListener = new SnapshotUpdater(changesSinceLastSnapshot);
-        fileObserver.addListener(newListener);
-        fileObserver.removeListener(currentListener);
+        if (fileObserver != null) {
+            fileObserver.addListener(newListener);
+            fileObserver.removeListener(currentListener);
+        }
         currentListener = newListener;
         lastSnapshot.merge(changes);
         long runTime = (System.currentTimeMillis() - startTime) / 1000;
@@ -109,6 +130,24 @@ public class FileTriggerTracker {
                 .getFileTrigger().createIOFileFilter());
         observer.addListener(new SnapshotUpdater(snapshot));
         observer.checkAndNotify();
+        if (useCrc && checksumPool != null) {
+            checksumPool.updateChecksums(snapshot, lastSnapshot);
+        }
+    }
+
+    public FileTriggerRouter getFileTriggerRouter() {
+        return fileTriggerRouter;
+    }
+
+    public void setProcessInfo(ProcessInfo processInfo) {
+        this.processInfo = processInfo;
+    }
+
+    public void setChecksumPool(FileChecksumPool checksumPool) {
+        this.checksumPool = checksumPool;
+    }
+
+    public void close() {
     }
 
     class SnapshotUpdater extends FileAlterationListenerAdaptor {
@@ -164,7 +203,7 @@ public class FileTriggerTracker {
             if (processInfo != null) {
                 processInfo.incrementCurrentDataCount();
             }
-            snapshot.add(new FileSnapshot(snapshot.getFileTriggerRouter(), file, lastEventType, useCrc));
+            snapshot.add(new FileSnapshot(snapshot.getFileTriggerRouter(), file, lastEventType, useCrc && checksumPool == null));
             if (System.currentTimeMillis() - ts > 60000) {
                 log.info("File tracker has been processing for {} seconds.  The following stats have been gathered: {}", new Object[] {
                         (System.currentTimeMillis() - startTime) / 1000, "{ fileCount=" + snapshot.size() + " }" });
@@ -0,0 +1,324 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.file;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.filefilter.IOFileFilter;
+import org.apache.commons.io.monitor.FileAlterationObserver;
+import org.jumpmind.exception.IoException;
+import org.jumpmind.symmetric.ISymmetricEngine;
+import org.jumpmind.symmetric.model.FileSnapshot;
+import org.jumpmind.symmetric.model.FileSnapshot.LastEventType;
+import org.jumpmind.symmetric.model.FileTrigger;
+import org.jumpmind.symmetric.model.FileTriggerRouter;
+import org.jumpmind.symmetric.model.ProcessInfo;
+
+/**
+ * Tracks changes with a {@link WatchService} that is registered on the base directory (and its sub-directories when the trigger recurses), so
+ * polling only reads the events that the operating system queued instead of walking the whole directory tree. The tracker is kept between runs
+ * of the file sync tracker. When the event queue overflows, it falls back to a full scan that is compared with the files it is tracking.
+ */
+public class FileTriggerWatchTracker extends FileTriggerTracker {
+    // set by createFileObserver() while the super constructor runs, so they have no initializers that would reset them afterwards
+    protected WatchService watchService;
+    protected Map<WatchKey, Path> watchKeys;
+    protected Map<Path, WatchKey> watchedDirs;
+    protected IOFileFilter fileFilter;
+    protected boolean recurse;
+    protected Map<String, FileSnapshot> trackedFiles = new HashMap<String, FileSnapshot>();
+    protected Set<Path> createdPaths = new HashSet<Path>();
+
+    public FileTriggerWatchTracker(FileTriggerRouter fileTriggerRouter, DirectorySnapshot lastSnapshot, ProcessInfo processInfo,
+            boolean useCrc, ISymmetricEngine engine, FileChecksumPool checksumPool) {
+        super(fileTriggerRouter, lastSnapshot, processInfo, useCrc, engine, checksumPool);
+        track(initialSnapshot);
+        initialSnapshot = null;
+    }
+
+    /**
+     * Register the watches before the super constructor takes the initial snapshot, so a file written during the scan is either in the snapshot or
+     * reported by an event.
+     */
+    @Override
+    protected FileAlterationObserver createFileObserver() {
+        FileTrigger fileTrigger = fileTriggerRouter.getFileTrigger();
+        fileFilter = fileTrigger.createIOFileFilter();
+        recurse = fileTrigger.isRecurse();
+        watchKeys = new HashMap<WatchKey, Path>();
+        watchedDirs = new HashMap<Path, WatchKey>();
+        try {
+            watchService = new File(fileTrigger.getBaseDir()).toPath().getFileSystem().newWatchService();
+            registerAll(new File(fileTrigger.getBaseDir()).toPath());
+        } catch (IOException e) {
+            close();
+            throw new IoException(e);
+        }
+        return null;
+    }
+
+    @Override
+    protected void pollForChanges() {
+        int firstChange = changesSinceLastSnapshot.size();
+        boolean overflow = false;
+        createdPaths.clear();
+        WatchKey key = null;
+        while ((key = watchService.poll()) != null) {
+            Path dir = watchKeys.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    overflow = true;
+                } else if (dir != null) {
+                    onEvent(event.kind(), dir.resolve((Path) event.context()));
+                }
+            }
+            if (!key.reset()) {
+                watchKeys.remove(key);
+                watchedDirs.remove(dir);
+            }
+        }
+        track(changesSinceLastSnapshot.subList(firstChange, changesSinceLastSnapshot.size()));
+        if (overflow) {
+            log.info("File watch events overflowed for {}.  Scanning all files.", fileTriggerRouter.getFileTrigger().getBaseDir());
+            rescan();
+        }
+    }
+
+    protected void onEvent(WatchEvent.Kind<?> kind, Path path) {
+        File file = path.toFile();
+        if (kind == ENTRY_CREATE) {
+            if (file.isDirectory()) {
+                if (recurse) {
+                    onDirectoryCreate(path);
+                }
+            } else {
+                if (file.getName().endsWith(FileTrigger.FILE_CTL_EXTENSION)) {
+                    onControlFileCreate(file);
+                }
+                if (fileFilter.accept(file) && !isTracked(file) && createdPaths.add(path)) {
+                    currentListener.onFileCreate(file);
+                }
+            }
+        } else if (kind == ENTRY_MODIFY) {
+            if (file.isFile() && fileFilter.accept(file) && !createdPaths.contains(path)) {
+                currentListener.onFileChange(file);
+            }
+        } else if (kind == ENTRY_DELETE) {
+            if (watchedDirs.containsKey(path)) {
+                onDirectoryDelete(path);
+            } else if (trackedFiles.containsKey(getKey(file))) {
+                currentListener.onFileDelete(file);
+            }
+        }
+    }
+
+    /**
+     * Register the new directory and report what was already written to it, because files can be created before the directory is registered.
+     */
+    protected void onDirectoryCreate(Path dir) {
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path subdir, BasicFileAttributes attrs) throws IOException {
+                    if (!watchedDirs.containsKey(subdir)) {
+                        register(subdir);
+                        currentListener.onDirectoryCreate(subdir.toFile());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
+                    File file = path.toFile();
+                    if (fileFilter.accept(file) && createdPaths.add(path)) {
+                        currentListener.onFileCreate(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path path, IOException exc) throws IOException {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new IoException(e);
+        }
+    }
+
+    protected void onDirectoryDelete(Path dir) {
+        FileSnapshot dirSnapshot = new FileSnapshot(fileTriggerRouter, dir.toFile(), LastEventType.DELETE, false);
+        String relativePath = dirSnapshot.getRelativeDir().equals(".") ? dirSnapshot.getFileName()
+                : dirSnapshot.getRelativeDir() + "/" + dirSnapshot.getFileName();
+        List<String> keys = new ArrayList<String>();
+        for (Map.Entry<String, FileSnapshot> entry : trackedFiles.entrySet()) {
+            String relativeDir = entry.getValue().getRelativeDir();
+            if (relativeDir.equals(relativePath) || relativeDir.startsWith(relativePath + "/")) {
+                keys.add(entry.getKey());
+            }
+        }
+        FileTrigger fileTrigger = fileTriggerRouter.getFileTrigger();
+        for (String key : keys) {
+            FileSnapshot fileSnapshot = trackedFiles.get(key);
+            if (!watchedDirs.containsKey(fileTrigger.createSourceFile(fileSnapshot).toPath())) {
+                currentListener.onFileDelete(fileTrigger.createSourceFile(fileSnapshot));
+            }
+        }
+        Iterator<Map.Entry<Path, WatchKey>> iterator = watchedDirs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, WatchKey> entry = iterator.next();
+            if (entry.getKey().startsWith(dir) && !entry.getKey().equals(dir)) {
+                entry.getValue().cancel();
+                watchKeys.remove(entry.getValue());
+                iterator.remove();
+                currentListener.onDirectoryDelete(entry.getKey().toFile());
+            }
+        }
+        WatchKey key = watchedDirs.remove(dir);
+        if (key != null) {
+            key.cancel();
+            watchKeys.remove(key);
+        }
+        currentListener.onDirectoryDelete(dir.toFile());
+    }
+
+    /**
+     * A control file can arrive after the file it releases, so look for the files in the same directory that it belongs to.
+     */
+    protected void onControlFileCreate(File ctlFile) {
+        if (!fileTriggerRouter.getFileTrigger().isSyncOnCtlFile() || ctlFile.getParentFile() == null) {
+            return;
+        }
+        String ctlName = ctlFile.getName();
+        final String baseName = ctlName.substring(0, ctlName.length() - FileTrigger.FILE_CTL_EXTENSION.length());
+        File[] files = ctlFile.getParentFile().listFiles((dir, name) -> !name.equals(ctlName)
+                && (name.equals(baseName) || name.startsWith(baseName + ".")));
+        if (files != null) {
+            for (File file : files) {
+                if (file.isFile() && fileFilter.accept(file) && createdPaths.add(file.toPath())
+                        && ctlFile.getAbsoluteFile().equals(engine.getFileSyncService().getControleFile(file).getAbsoluteFile())) {
+                    currentListener.onCtlFile(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compare a full scan with the files being tracked and report the differences, after events were lost.
+     */
+    protected void rescan() {
+        DirectorySnapshot currentSnapshot = new DirectorySnapshot(fileTriggerRouter);
+        takeFullSnapshot(currentSnapshot);
+        DirectorySnapshot trackedSnapshot = new DirectorySnapshot(fileTriggerRouter, new ArrayList<FileSnapshot>(trackedFiles.values()));
+        DirectorySnapshot differences = trackedSnapshot.diff(currentSnapshot);
+        changesSinceLastSnapshot.addAll(differences);
+        trackedFiles.clear();
+        track(currentSnapshot);
+        try {
+            registerAll(new File(fileTriggerRouter.getFileTrigger().getBaseDir()).toPath());
+        } catch (IOException e) {
+            throw new IoException(e);
+        }
+    }
+
+    protected void track(List<FileSnapshot> changes) {
+        for (FileSnapshot fileSnapshot : changes) {
+            if (fileSnapshot.getLastEventType() == LastEventType.DELETE) {
+                trackedFiles.remove(DirectorySnapshot.getKey(fileSnapshot));
+            } else {
+                trackedFiles.put(DirectorySnapshot.getKey(fileSnapshot), fileSnapshot);
+            }
+        }
+    }
+
+    /**
+     * A file created while the initial snapshot was taken is in the snapshot and also has a create event queued, so it is only reported once.
+     */
+    protected boolean isTracked(File file) {
+        FileSnapshot fileSnapshot = trackedFiles.get(getKey(file));
+        return fileSnapshot != null && fileSnapshot.getFileSize() == file.length() && fileSnapshot.getFileModifiedTime() == file.lastModified();
+    }
+
+    protected String getKey(File file) {
+        return DirectorySnapshot.getKey(new FileSnapshot(fileTriggerRouter, file, LastEventType.DELETE, false));
+    }
+
+    protected void registerAll(Path baseDir) throws IOException {
+        if (!recurse) {
+            if (!watchedDirs.containsKey(baseDir)) {
+                register(baseDir);
+            }
+            return;
+        }
+        Files.walkFileTree(baseDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!watchedDirs.containsKey(dir)) {
+                    register(dir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path path, IOException exc) throws IOException {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    protected void register(Path dir) throws IOException {
+        WatchKey key = dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        watchKeys.put(key, dir);
+        watchedDirs.put(dir, key);
+    }
+
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Failed to close watch service", e);
+            }
+        }
+    }
+}
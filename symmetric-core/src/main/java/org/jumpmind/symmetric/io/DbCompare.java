@@ -23,11 +23,19 @@ package org.jumpmind.symmetric.io;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -48,6 +56,7 @@ import org.jumpmind.symmetric.io.DbCompareReport.TableReport;
 import org.jumpmind.symmetric.model.TriggerHistory;
 import org.jumpmind.symmetric.model.TriggerRouter;
 import org.jumpmind.symmetric.service.impl.TransformService.TransformTableNodeGroupLink;
+import org.jumpmind.util.CustomizableThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -135,22 +144,9 @@ public class DbCompare {
     }
 
     protected TableReport compareTables(DbCompareTables tables, OutputStream sqlDiffOutput) {
-        String sourceSelect = getSourceComparisonSQL(tables, sourceEngine.getTargetDialect().getTargetPlatform());
-        String targetSelect = getTargetComparisonSQL(tables, targetEngine.getTargetDialect().getTargetPlatform());
-        // String targetSelect = getTargetComparisonSQL(tables, targetEngine.getDatabasePlatform());
-        CountingSqlReadCursor sourceCursor = new CountingSqlReadCursor(sourceEngine.getTargetDialect().getTargetPlatform().getSqlTemplateDirty().queryForCursor(
-                sourceSelect,
-                defaultRowMapper));
-        CountingSqlReadCursor targetCursor = new CountingSqlReadCursor(targetEngine.getTargetDialect().getTargetPlatform().getSqlTemplateDirty().queryForCursor(
-                targetSelect,
-                defaultRowMapper));
         TableReport tableReport = new TableReport();
         tableReport.setSourceTable(tables.getSourceTable().getName());
         tableReport.setTargetTable(tables.getTargetTable().getName());
-        Row sourceRow = sourceCursor.next();
-        Row targetRow = targetCursor.next();
-        int counter = 0;
-        long startTime = System.currentTimeMillis();
         DbCompareDiffWriter diffWriter = null;
         OutputStream stream = null;
         if (sqlDiffOutput != null) {
@@ -160,6 +156,38 @@ public class DbCompare {
             diffWriter = new DbCompareDiffWriter(targetEngine, tables, stream);
         }
         diffWriter.setContinueAfterError(config.isContinueAfterError());
+        try {
+            if (!config.isUseHashBuckets() || !isHashBucketCompareSupported(tables)
+                    || !compareTablesByHashBuckets(tables, tableReport, diffWriter)) {
+                String sourceSelect = getSourceComparisonSQL(tables, sourceEngine.getTargetDialect().getTargetPlatform());
+                String targetSelect = getTargetComparisonSQL(tables, targetEngine.getTargetDialect().getTargetPlatform());
+                compareRows(tables, sourceSelect, targetSelect, tableReport, diffWriter);
+            }
+        } finally {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                }
+            }
+        }
+        return tableReport;
+    }
+
+    protected void compareRows(DbCompareTables tables, String sourceSelect, String targetSelect, TableReport tableReport,
+            DbCompareDiffWriter diffWriter) {
+        CountingSqlReadCursor sourceCursor = new CountingSqlReadCursor(sourceEngine.getTargetDialect().getTargetPlatform().getSqlTemplateDirty().queryForCursor(
+                sourceSelect,
+                defaultRowMapper));
+        CountingSqlReadCursor targetCursor = new CountingSqlReadCursor(targetEngine.getTargetDialect().getTargetPlatform().getSqlTemplateDirty().queryForCursor(
+                targetSelect,
+                defaultRowMapper));
+        int sourceRows = tableReport.getSourceRows();
+        int targetRows = tableReport.getTargetRows();
+        Row sourceRow = sourceCursor.next();
+        Row targetRow = targetCursor.next();
+        int counter = 0;
+        long startTime = System.currentTimeMillis();
         try {
             while (true) {
                 if (sourceRow == null && targetRow == null) {
@@ -214,16 +242,10 @@ public class DbCompare {
                     }
                     targetRow = targetCursor.next();
                 }
-                tableReport.setSourceRows(sourceCursor.count);
-                tableReport.setTargetRows(targetCursor.count);
+                tableReport.setSourceRows(sourceRows + sourceCursor.count);
+                tableReport.setTargetRows(targetRows + targetCursor.count);
             }
         } finally {
-            if (stream != null) {
-                try {
-                    stream.close();
-                } catch (IOException e) {
-                }
-            }
             if (sourceCursor != null) {
                 sourceCursor.close();
             }
@@ -231,7 +253,237 @@ public class DbCompare {
                 targetCursor.close();
             }
         }
-        return tableReport;
+    }
+
+    /**
+     * Hash buckets need a single integer key to split into ranges, databases of the same type so their checksums agree, and columns that can be
+     * hashed as text.
+     */
+    protected boolean isHashBucketCompareSupported(DbCompareTables tables) {
+        IDatabasePlatform sourcePlatform = sourceEngine.getTargetDialect().getTargetPlatform();
+        IDatabasePlatform targetPlatform = targetEngine.getTargetDialect().getTargetPlatform();
+        DbCompareChecksum.Family family = DbCompareChecksum.getFamily(sourcePlatform);
+        String reason = null;
+        if (family == null || family != DbCompareChecksum.getFamily(targetPlatform)) {
+            reason = "the source and target are not the same type of database with checksum support";
+        } else {
+            Column sourcePkColumn = tables.getSourceTable().getPrimaryKeyColumns()[0];
+            Column targetPkColumn = tables.getColumnMapping().get(sourcePkColumn);
+            if (!isIntegerKey(sourcePkColumn) || targetPkColumn == null || !isIntegerKey(targetPkColumn)) {
+                reason = "the first primary key column is not an integer";
+            } else {
+                for (Column column : tables.getSourceTable().getColumns()) {
+                    Column targetColumn = tables.getColumnMapping().get(column);
+                    if (targetColumn != null && (column.isOfBinaryType() || sourcePlatform.isLob(column.getMappedTypeCode())
+                            || targetColumn.isOfBinaryType() || targetPlatform.isLob(targetColumn.getMappedTypeCode()))) {
+                        reason = "column " + column.getName() + " is a binary or LOB column";
+                        break;
+                    }
+                }
+            }
+        }
+        if (reason != null) {
+            log.info("Comparing every row of table {} because hash buckets cannot be used: {}", tables.getSourceTable().getName(), reason);
+            return false;
+        }
+        return true;
+    }
+
+    protected boolean isIntegerKey(Column column) {
+        int type = column.getMappedTypeCode();
+        return type == Types.INTEGER || type == Types.BIGINT || type == Types.SMALLINT || type == Types.TINYINT
+                || ((type == Types.NUMERIC || type == Types.DECIMAL) && column.getScale() == 0);
+    }
+
+    /**
+     * Compare a table by checksumming ranges of its first key column in both databases, splitting the ranges whose checksums differ into smaller
+     * ranges until they are small enough to compare row by row. Checksums for each level of ranges are run concurrently, while the remaining ranges
+     * are compared in key order so the SQL to fix differences is written in order. If a checksum query fails, nothing has been compared yet, so false is
+     * returned and the caller compares every row instead.
+     */
+    protected boolean compareTablesByHashBuckets(DbCompareTables tables, TableReport tableReport, DbCompareDiffWriter diffWriter) {
+        final IDatabasePlatform sourcePlatform = sourceEngine.getTargetDialect().getTargetPlatform();
+        final IDatabasePlatform targetPlatform = targetEngine.getTargetDialect().getTargetPlatform();
+        Column sourcePkColumn = tables.getSourceTable().getPrimaryKeyColumns()[0];
+        Column targetPkColumn = tables.getColumnMapping().get(sourcePkColumn);
+        List<Column> sourceColumns = new ArrayList<Column>();
+        List<Column> targetColumns = new ArrayList<Column>();
+        List<String> sourceColumnNames = new ArrayList<String>();
+        List<String> targetColumnNames = new ArrayList<String>();
+        for (Column column : tables.getSourceTable().getColumns()) {
+            Column targetColumn = tables.getColumnMapping().get(column);
+            if (targetColumn != null) {
+                sourceColumns.add(column);
+                targetColumns.add(targetColumn);
+                sourceColumnNames.add(quote(sourcePlatform, column.getName()));
+                targetColumnNames.add(quote(targetPlatform, targetColumn.getName()));
+            }
+        }
+        DbCompareChecksum.Family family = DbCompareChecksum.getFamily(sourcePlatform);
+        String sourceChecksumExpression = DbCompareChecksum.getChecksumExpression(family, sourceColumns, sourceColumnNames);
+        String targetChecksumExpression = DbCompareChecksum.getChecksumExpression(family, targetColumns, targetColumnNames);
+        final String sourceWhere = config.getSourceWhereClause(tables.getSourceTable().getName());
+        final String targetWhere = config.getTargetWhereClause(tables.getTargetTable().getName());
+        final String sourceKey = "t." + quote(sourcePlatform, sourcePkColumn.getName());
+        final String targetKey = "t." + quote(targetPlatform, targetPkColumn.getName());
+        final String sourceTableName = getQualifiedTableName(tables.getSourceTable(), sourcePlatform);
+        final String targetTableName = getQualifiedTableName(tables.getTargetTable(), targetPlatform);
+        List<long[]> rowRanges = null;
+        try {
+            rowRanges = checksumRanges(tables, tableReport, sourceChecksumExpression, targetChecksumExpression, sourceTableName, targetTableName,
+                    sourceKey, targetKey, sourceWhere, targetWhere);
+        } catch (RuntimeException e) {
+            log.warn("Comparing every row of table {} because the checksum query failed: {}", tables.getSourceTable().getName(), e.getMessage());
+            tableReport.setMatchedRows(0);
+            tableReport.setSourceRows(0);
+            tableReport.setTargetRows(0);
+            return false;
+        }
+        for (long[] range : rowRanges) {
+            String sourceSelect = getComparisonSQL(tables.getSourceTable(), tables.getSourceTable().getPrimaryKeyColumns(), sourcePlatform,
+                    "(" + sourceWhere + ") and " + sourceKey + " >= " + range[0] + " and " + sourceKey + " <= " + range[1]);
+            String targetSelect = getComparisonSQL(tables.getTargetTable(), tables.getTargetTable().getPrimaryKeyColumns(), targetPlatform,
+                    "(" + targetWhere + ") and " + targetKey + " >= " + range[0] + " and " + targetKey + " <= " + range[1]);
+            compareRows(tables, sourceSelect, targetSelect, tableReport, diffWriter);
+        }
+        return true;
+    }
+
+    /**
+     * Checksum ranges of keys in both databases, counting the rows of matching ranges in the report, and return the ranges left to compare by row in
+     * key order.
+     */
+    protected List<long[]> checksumRanges(DbCompareTables tables, TableReport tableReport, String sourceChecksumExpression,
+            String targetChecksumExpression, String sourceTableName, String targetTableName, String sourceKey, String targetKey, String sourceWhere,
+            String targetWhere) {
+        final IDatabasePlatform sourcePlatform = sourceEngine.getTargetDialect().getTargetPlatform();
+        final IDatabasePlatform targetPlatform = targetEngine.getTargetDialect().getTargetPlatform();
+        List<long[]> rowRanges = new ArrayList<long[]>();
+        long[] sourceBounds = queryKeyBounds(sourcePlatform, sourceTableName, sourceKey, sourceWhere);
+        long[] targetBounds = queryKeyBounds(targetPlatform, targetTableName, targetKey, targetWhere);
+        if (sourceBounds == null && targetBounds == null) {
+            return rowRanges;
+        }
+        long min = sourceBounds == null ? targetBounds[0] : targetBounds == null ? sourceBounds[0] : Math.min(sourceBounds[0], targetBounds[0]);
+        long max = sourceBounds == null ? targetBounds[1] : targetBounds == null ? sourceBounds[1] : Math.max(sourceBounds[1], targetBounds[1]);
+        final String sourceChecksumSql = "select count(*) as row_count, " + sourceChecksumExpression + " as row_checksum from " + sourceTableName + " t where (" + sourceWhere + ") and " + sourceKey + " >= ? and " + sourceKey
+                + " <= ?";
+        final String targetChecksumSql = "select count(*) as row_count, " + targetChecksumExpression + " as row_checksum from " + targetTableName + " t where (" + targetWhere + ") and " + targetKey + " >= ? and " + targetKey
+                + " <= ?";
+        log.info("Source checksum SQL: {}", sourceChecksumSql);
+        log.info("Target checksum SQL: {}", targetChecksumSql);
+        int bucketCount = Math.max(2, config.getHashBucketCount());
+        List<long[]> ranges = splitRange(min, max, bucketCount);
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, config.getHashBucketThreads()),
+                new CustomizableThreadFactory("dbcompare-checksum"));
+        try {
+            int level = 1;
+            while (ranges.size() > 0) {
+                List<Future<String[]>> sourceChecksums = new ArrayList<Future<String[]>>(ranges.size());
+                List<Future<String[]>> targetChecksums = new ArrayList<Future<String[]>>(ranges.size());
+                for (final long[] range : ranges) {
+                    sourceChecksums.add(executor.submit(() -> queryChecksum(sourcePlatform, sourceChecksumSql, range)));
+                    targetChecksums.add(executor.submit(() -> queryChecksum(targetPlatform, targetChecksumSql, range)));
+                }
+                List<long[]> mismatchedRanges = new ArrayList<long[]>();
+                for (int i = 0; i < ranges.size(); i++) {
+                    long[] range = ranges.get(i);
+                    String[] sourceChecksum = getChecksum(sourceChecksums.get(i));
+                    String[] targetChecksum = getChecksum(targetChecksums.get(i));
+                    if (isChecksumEqual(sourceChecksum, targetChecksum)) {
+                        int rows = Integer.parseInt(sourceChecksum[0]);
+                        tableReport.setMatchedRows(tableReport.getMatchedRows() + rows);
+                        tableReport.setSourceRows(tableReport.getSourceRows() + rows);
+                        tableReport.setTargetRows(tableReport.getTargetRows() + rows);
+                    } else {
+                        long rows = Math.max(Long.parseLong(sourceChecksum[0]), Long.parseLong(targetChecksum[0]));
+                        if (rows <= config.getHashBucketMinRows() || getSpan(range[0], range[1]).compareTo(BigInteger.valueOf(bucketCount)) < 0) {
+                            rowRanges.add(range);
+                        } else {
+                            mismatchedRanges.addAll(splitRange(range[0], range[1], bucketCount));
+                        }
+                    }
+                }
+                log.info("Checksummed {} ranges at level {} for table {}, with {} ranges to narrow and {} ranges to compare by row.  Elapsed time {}",
+                        ranges.size(), level++, tables.getSourceTable().getName(), mismatchedRanges.size(), rowRanges.size(),
+                        DurationFormatUtils.formatDurationWords(System.currentTimeMillis() - startTime, true, true));
+                ranges = mismatchedRanges;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Collections.sort(rowRanges, (r1, r2) -> Long.compare(r1[0], r2[0]));
+        return rowRanges;
+    }
+
+    /**
+     * Split the range into at most bucketCount ranges of equal width. The width is figured with BigInteger because the span of a range of keys can be
+     * larger than a long holds.
+     */
+    protected static List<long[]> splitRange(long min, long max, int bucketCount) {
+        List<long[]> ranges = new ArrayList<long[]>(bucketCount);
+        BigInteger width = getSpan(min, max).divide(BigInteger.valueOf(bucketCount)).add(BigInteger.ONE);
+        BigInteger bigMax = BigInteger.valueOf(max);
+        long start = min;
+        while (true) {
+            BigInteger end = BigInteger.valueOf(start).add(width).subtract(BigInteger.ONE);
+            if (end.compareTo(bigMax) >= 0) {
+                ranges.add(new long[] { start, max });
+                break;
+            }
+            ranges.add(new long[] { start, end.longValue() });
+            start = end.longValue() + 1;
+        }
+        return ranges;
+    }
+
+    protected static BigInteger getSpan(long min, long max) {
+        return BigInteger.valueOf(max).subtract(BigInteger.valueOf(min));
+    }
+
+    protected long[] queryKeyBounds(IDatabasePlatform platform, String tableName, String key, String whereClause) {
+        Row row = platform.getSqlTemplateDirty().queryForRow("select min(" + key + ") as min_key, max(" + key + ") as max_key from " + tableName
+                + " t where " + whereClause);
+        if (row == null || row.get("min_key") == null) {
+            return null;
+        }
+        return new long[] { new BigDecimal(row.getString("min_key")).longValueExact(), new BigDecimal(row.getString("max_key")).longValueExact() };
+    }
+
+    protected String[] queryChecksum(IDatabasePlatform platform, String sql, long[] range) {
+        Row row = platform.getSqlTemplateDirty().queryForRow(sql, range[0], range[1]);
+        return new String[] { row.getString("row_count"), row.getString("row_checksum") };
+    }
+
+    protected String[] getChecksum(Future<String[]> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    protected boolean isChecksumEqual(String[] sourceChecksum, String[] targetChecksum) {
+        return new BigDecimal(sourceChecksum[0]).compareTo(new BigDecimal(targetChecksum[0])) == 0
+                && new BigDecimal(sourceChecksum[1]).compareTo(new BigDecimal(targetChecksum[1])) == 0;
+    }
+
+    protected String quote(IDatabasePlatform platform, String name) {
+        String quote = platform.getDatabaseInfo().getDelimiterToken() == null ? "" : platform.getDatabaseInfo().getDelimiterToken();
+        return quote + name + quote;
+    }
+
+    protected String getQualifiedTableName(Table table, IDatabasePlatform platform) {
+        DatabaseInfo databaseInfo = platform.getDatabaseInfo();
+        String quote = databaseInfo.getDelimiterToken() == null ? "" : databaseInfo.getDelimiterToken();
+        return table.getQualifiedTableName(quote, databaseInfo.getCatalogSeparator(), databaseInfo.getSchemaSeparator());
     }
 
     protected int comparePk(DbCompareTables tables, DbCompareRow sourceCompareRow, DbCompareRow targetCompareRow) {
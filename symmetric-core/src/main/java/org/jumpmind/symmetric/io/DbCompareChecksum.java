@@ -0,0 +1,140 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io;
+
+import java.sql.Types;
+import java.util.List;
+
+import org.jumpmind.db.model.Column;
+import org.jumpmind.db.model.TypeMap;
+import org.jumpmind.db.platform.DatabaseNamesConstants;
+import org.jumpmind.db.platform.IDatabasePlatform;
+
+/**
+ * Builds the aggregate that checksums the rows of a key range inside the database, so DbCompare can compare ranges of a large table without reading
+ * the rows. The values are hashed as text by the database, so checksums are only comparable between databases of the same type, and a range whose
+ * checksums differ is narrowed and then compared row by row, which also settles differences that only come from formatting.
+ */
+public class DbCompareChecksum {
+    public enum Family {
+        POSTGRES, MYSQL, ORACLE, MSSQL
+    }
+
+    public static Family getFamily(IDatabasePlatform platform) {
+        String name = platform.getName();
+        if (name == null) {
+            return null;
+        } else if (name.startsWith(DatabaseNamesConstants.POSTGRESQL)) {
+            return Family.POSTGRES;
+        } else if (name.startsWith(DatabaseNamesConstants.MYSQL) || name.startsWith(DatabaseNamesConstants.MARIADB)) {
+            return Family.MYSQL;
+        } else if (name.startsWith(DatabaseNamesConstants.ORACLE)) {
+            return Family.ORACLE;
+        } else if (name.startsWith(DatabaseNamesConstants.MSSQL)) {
+            return Family.MSSQL;
+        }
+        return null;
+    }
+
+    /**
+     * Get the aggregate expression that checksums the columns of the rows selected, which are referenced with the table alias t. Each column is
+     * hashed on its own, with nulls tagged apart from values, and the fixed length column hashes of a row are hashed together, so values can't shift
+     * between columns or rows and still match.
+     */
+    public static String getChecksumExpression(Family family, List<Column> columns, List<String> quotedColumnNames) {
+        StringBuilder sb = new StringBuilder();
+        switch (family) {
+            case POSTGRES:
+                sb.append("coalesce(sum(('x' || substr(md5(");
+                for (int i = 0; i < quotedColumnNames.size(); i++) {
+                    if (i > 0) {
+                        sb.append(" || ");
+                    }
+                    sb.append("md5(coalesce('v' || t.").append(quotedColumnNames.get(i)).append("::text, 'n'))");
+                }
+                sb.append("), 1, 8))::bit(32)::bigint), 0)");
+                break;
+            case MYSQL:
+                sb.append("coalesce(sum(crc32(concat(");
+                for (int i = 0; i < quotedColumnNames.size(); i++) {
+                    if (i > 0) {
+                        sb.append(", ");
+                    }
+                    sb.append("md5(coalesce(concat('v', t.").append(quotedColumnNames.get(i)).append("), 'n'))");
+                }
+                sb.append("))), 0)");
+                break;
+            case ORACLE:
+                // the column hashes are joined as numbers, which keeps the row well under the 4000 byte limit for concatenation
+                sb.append("coalesce(sum(ora_hash(");
+                for (int i = 0; i < quotedColumnNames.size(); i++) {
+                    if (i > 0) {
+                        sb.append(" || '|' || ");
+                    }
+                    String column = "t." + quotedColumnNames.get(i);
+                    sb.append("ora_hash(nvl2(").append(column).append(", 'v' || ").append(getOracleText(columns.get(i), column))
+                            .append(", 'n'), 4294967295)");
+                }
+                sb.append(", 4294967295)), 0)");
+                break;
+            case MSSQL:
+                sb.append("coalesce(sum(cast(cast(substring(hashbytes('MD5', ");
+                for (int i = 0; i < quotedColumnNames.size(); i++) {
+                    if (i > 0) {
+                        sb.append(" + ");
+                    }
+                    sb.append("hashbytes('MD5', coalesce(N'v' + ").append(getMsSqlText(columns.get(i), "t." + quotedColumnNames.get(i)))
+                            .append(", N'n'))");
+                }
+                sb.append("), 1, 4) as int) as bigint)), 0)");
+                break;
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Oracle converts dates, timestamps and numbers to text using the session's NLS settings, which can drop the time or differ between the
+     * databases, so they are converted with explicit formats.
+     */
+    protected static String getOracleText(Column column, String name) {
+        if (column.isTimestampWithTimezone()) {
+            return "to_char(sys_extract_utc(" + name + "), 'YYYY-MM-DD HH24:MI:SS.FF9')";
+        } else if (TypeMap.isDateTimeType(column.getMappedTypeCode())) {
+            return "to_char(cast(" + name + " as timestamp), 'YYYY-MM-DD HH24:MI:SS.FF9')";
+        } else if (column.isOfNumericType()) {
+            return "to_char(" + name + ", 'TM9', 'NLS_NUMERIC_CHARACTERS=''.,''')";
+        }
+        return "to_char(" + name + ")";
+    }
+
+    /*
+     * SQL Server converts dates and floating point numbers to text in a short form by default, so they are converted with explicit styles.
+     */
+    protected static String getMsSqlText(Column column, String name) {
+        int type = column.getMappedTypeCode();
+        if (TypeMap.isDateTimeType(type) || column.isTimestampWithTimezone()) {
+            return "convert(nvarchar(max), " + name + ", 126)";
+        } else if (type == Types.FLOAT || type == Types.DOUBLE || type == Types.REAL) {
+            return "convert(nvarchar(max), " + name + ", 2)";
+        }
+        return "convert(nvarchar(max), " + name + ")";
+    }
+}
@@ -44,6 +44,10 @@ public class DbCompareConfig {
     private Map<String, List<String>> tablesToExcludedColumns = new LinkedHashMap<String, List<String>>();
     private String outputSql;
     private boolean continueAfterError = false;
+    private boolean useHashBuckets = false;
+    private int hashBucketCount = 16;
+    private int hashBucketMinRows = 10000;
+    private int hashBucketThreads = 4;
     private Map<String, String> configSources = new HashMap<String, String>();
 
     public DbCompareConfig() {
@@ -58,6 +62,10 @@ public class DbCompareConfig {
         configSources.put("sqlDiffFileName", "default");
         configSources.put("outputSql", "default");
         configSources.put("continueAfterError", "default");
+        configSources.put("useHashBuckets", "default");
+        configSources.put("hashBucketCount", "default");
+        configSources.put("hashBucketMinRows", "default");
+        configSources.put("hashBucketThreads", "default");
     }
 
     public String getSourceWhereClause(String tableName) {
@@ -195,6 +203,38 @@ public class DbCompareConfig {
         return continueAfterError;
     }
 
+    public boolean isUseHashBuckets() {
+        return useHashBuckets;
+    }
+
+    public void setUseHashBuckets(boolean useHashBuckets) {
+        this.useHashBuckets = useHashBuckets;
+    }
+
+    public int getHashBucketCount() {
+        return hashBucketCount;
+    }
+
+    public void setHashBucketCount(int hashBucketCount) {
+        this.hashBucketCount = hashBucketCount;
+    }
+
+    public int getHashBucketMinRows() {
+        return hashBucketMinRows;
+    }
+
+    public void setHashBucketMinRows(int hashBucketMinRows) {
+        this.hashBucketMinRows = hashBucketMinRows;
+    }
+
+    public int getHashBucketThreads() {
+        return hashBucketThreads;
+    }
+
+    public void setHashBucketThreads(int hashBucketThreads) {
+        this.hashBucketThreads = hashBucketThreads;
+    }
+
     public String report() {
         StringBuilder buff = new StringBuilder(128);
         buff.append("\tsourceTableNames=").append(sourceTableNames).append(" @").append(configSources.get("sourceTableNames")).append("\n");
@@ -207,6 +247,10 @@ public class DbCompareConfig {
                 "\n");
         buff.append("\toutputSql=").append(outputSql).append(" @").append(configSources.get("outputSql")).append("\n");
         buff.append("\tcontinueAfterError=").append(continueAfterError).append(" @").append(configSources.get("continueAfterError")).append("\n");
+        buff.append("\tuseHashBuckets=").append(useHashBuckets).append(" @").append(configSources.get("useHashBuckets")).append("\n");
+        buff.append("\thashBucketCount=").append(hashBucketCount).append(" @").append(configSources.get("hashBucketCount")).append("\n");
+        buff.append("\thashBucketMinRows=").append(hashBucketMinRows).append(" @").append(configSources.get("hashBucketMinRows")).append("\n");
+        buff.append("\thashBucketThreads=").append(hashBucketThreads).append(" @").append(configSources.get("hashBucketThreads")).append("\n");
         return buff.toString();
     }
 }
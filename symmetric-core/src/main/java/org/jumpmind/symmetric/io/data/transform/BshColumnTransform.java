@@ -31,18 +31,24 @@ import static org.jumpmind.symmetric.common.Constants.DATA_CONTEXT_TARGET_NODE_G
 import static org.jumpmind.symmetric.common.Constants.DATA_CONTEXT_TARGET_NODE_ID;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jumpmind.db.platform.IDatabasePlatform;
+import org.jumpmind.db.sql.ISqlTemplate;
 import org.jumpmind.extension.IBuiltInExtensionPoint;
+import org.jumpmind.symmetric.ISymmetricEngine;
 import org.jumpmind.symmetric.SymmetricException;
 import org.jumpmind.symmetric.common.Constants;
 import org.jumpmind.symmetric.common.ParameterConstants;
 import org.jumpmind.symmetric.io.data.DataContext;
 import org.jumpmind.symmetric.io.data.DataEventType;
 import org.jumpmind.symmetric.model.Data;
+import org.jumpmind.symmetric.model.Node;
 import org.jumpmind.symmetric.service.IParameterService;
+import org.jumpmind.symmetric.util.BshScriptCompiler;
+import org.jumpmind.symmetric.util.BshScriptCompiler.CompiledScript;
 import org.jumpmind.util.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +65,33 @@ public class BshColumnTransform implements ISingleNewAndOldValueColumnTransform,
      * Static context object used to maintain objects in memory for reference between BSH transforms.
      */
     private static Map<String, Object> bshContext = new HashMap<String, Object>();
+    protected static final Map<String, String> DECLARED_TYPES = new HashMap<String, String>();
+    static {
+        DECLARED_TYPES.put("currentValue", "String");
+        DECLARED_TYPES.put("oldValue", "String");
+        DECLARED_TYPES.put("channelId", "String");
+        DECLARED_TYPES.put("sourceDmlType", DataEventType.class.getName());
+        DECLARED_TYPES.put("sourceDmlTypeString", "String");
+        DECLARED_TYPES.put("transformedData", TransformedData.class.getName());
+        DECLARED_TYPES.put("transformColumn", TransformColumn.class.getName());
+        DECLARED_TYPES.put("sourceSchemaName", "String");
+        DECLARED_TYPES.put("sourceCatalogName", "String");
+        DECLARED_TYPES.put("sourceTableName", "String");
+        DECLARED_TYPES.put("log", Logger.class.getName());
+        DECLARED_TYPES.put("sqlTemplate", ISqlTemplate.class.getName());
+        DECLARED_TYPES.put("context", DataContext.class.getName());
+        DECLARED_TYPES.put("bshContext", "java.util.Map<String, Object>");
+        DECLARED_TYPES.put(DATA_CONTEXT_ENGINE, ISymmetricEngine.class.getName());
+        DECLARED_TYPES.put(DATA_CONTEXT_TARGET_NODE, Node.class.getName());
+        DECLARED_TYPES.put(DATA_CONTEXT_TARGET_NODE_ID, "String");
+        DECLARED_TYPES.put(DATA_CONTEXT_TARGET_NODE_GROUP_ID, "String");
+        DECLARED_TYPES.put(DATA_CONTEXT_TARGET_NODE_EXTERNAL_ID, "String");
+        DECLARED_TYPES.put(DATA_CONTEXT_SOURCE_NODE, Node.class.getName());
+        DECLARED_TYPES.put(DATA_CONTEXT_SOURCE_NODE_ID, "String");
+        DECLARED_TYPES.put(DATA_CONTEXT_SOURCE_NODE_GROUP_ID, "String");
+        DECLARED_TYPES.put(DATA_CONTEXT_SOURCE_NODE_EXTERNAL_ID, "String");
+    }
+    protected BshScriptCompiler scriptCompiler = new BshScriptCompiler();
 
     public BshColumnTransform(IParameterService parameterService) {
         this.parameterService = parameterService;
@@ -81,62 +114,23 @@ public class BshColumnTransform implements ISingleNewAndOldValueColumnTransform,
             TransformColumn column, TransformedData data, Map<String, String> sourceValues,
             String newValue, String oldValue) throws IgnoreColumnException, IgnoreRowException {
         try {
-            Interpreter interpreter = getInterpreter(context);
-            interpreter.set("currentValue", newValue);
-            interpreter.set("oldValue", oldValue);
-            interpreter.set("channelId", context.getBatch().getChannelId());
-            interpreter.set("includeOn", column.getIncludeOn());
-            interpreter.set("sourceDmlType", data.getSourceDmlType());
-            interpreter.set("sourceDmlTypeString", data.getSourceDmlType().toString());
-            interpreter.set("transformedData", data);
-            interpreter.set("transformColumn", column);
-            Data csvData = (Data) context.get(Constants.DATA_CONTEXT_CURRENT_CSV_DATA);
-            if (csvData != null && csvData.getTriggerHistory() != null) {
-                interpreter.set("sourceSchemaName", csvData.getTriggerHistory().getSourceSchemaName());
-                interpreter.set("sourceCatalogName", csvData.getTriggerHistory().getSourceCatalogName());
-                interpreter.set("sourceTableName", csvData.getTriggerHistory().getSourceTableName());
-            }
-            for (String columnName : sourceValues.keySet()) {
-                interpreter.set(columnName.toUpperCase(), sourceValues.get(columnName));
-                interpreter.set(columnName, sourceValues.get(columnName));
-            }
             String transformExpression = column.getTransformExpression();
             if (StringUtils.isEmpty(transformExpression)) {
                 throw new SymmetricException("transformExpression cannot be empty. Check "
                         + "configuration for transform '" + column.getTransformId() + "'");
             }
-            String globalScript = parameterService.getString(ParameterConstants.BSH_TRANSFORM_GLOBAL_SCRIPT);
-            String methodName = String.format("transform_%d()",
-                    Math.abs(transformExpression.hashCode() + (globalScript == null ? 0 : globalScript.hashCode())));
-            if (context.get(methodName) == null) {
-                interpreter.set("log", log);
-                interpreter.set("sqlTemplate", platform.getSqlTemplate());
-                interpreter.set("context", context);
-                interpreter.set("bshContext", bshContext);
-                interpreter.set(DATA_CONTEXT_ENGINE, context.get(DATA_CONTEXT_ENGINE));
-                interpreter.set(DATA_CONTEXT_TARGET_NODE, context.get(DATA_CONTEXT_TARGET_NODE));
-                interpreter.set(DATA_CONTEXT_TARGET_NODE_ID, context.get(DATA_CONTEXT_TARGET_NODE_ID));
-                interpreter.set(DATA_CONTEXT_TARGET_NODE_GROUP_ID, context.get(DATA_CONTEXT_TARGET_NODE_GROUP_ID));
-                interpreter.set(DATA_CONTEXT_TARGET_NODE_EXTERNAL_ID, context.get(DATA_CONTEXT_TARGET_NODE_EXTERNAL_ID));
-                interpreter.set(DATA_CONTEXT_SOURCE_NODE, context.get(DATA_CONTEXT_SOURCE_NODE));
-                interpreter.set(DATA_CONTEXT_SOURCE_NODE_ID, context.get(DATA_CONTEXT_SOURCE_NODE_ID));
-                interpreter.set(DATA_CONTEXT_SOURCE_NODE_GROUP_ID, context.get(DATA_CONTEXT_SOURCE_NODE_GROUP_ID));
-                interpreter.set(DATA_CONTEXT_SOURCE_NODE_EXTERNAL_ID, context.get(DATA_CONTEXT_SOURCE_NODE_EXTERNAL_ID));
-                if (StringUtils.isNotBlank(globalScript)) {
-                    interpreter.eval(globalScript);
+            Object result = null;
+            CompiledScript compiledScript = null;
+            if (parameterService.is(ParameterConstants.BSH_COMPILE_SCRIPTS)
+                    && StringUtils.isBlank(parameterService.getString(ParameterConstants.BSH_TRANSFORM_GLOBAL_SCRIPT))) {
+                Map<String, Object> variables = getVariables(platform, context, column, data, sourceValues, newValue, oldValue);
+                compiledScript = scriptCompiler.getCompiledScript(transformExpression, variables, DECLARED_TYPES);
+                if (compiledScript != null) {
+                    result = compiledScript.eval(variables);
                 }
-                interpreter.eval(String.format("%s {\n%s\n}", methodName, transformExpression));
-                context.put(methodName, Boolean.TRUE);
-            }
-            Object result = interpreter.eval(methodName);
-            if (csvData != null && csvData.getTriggerHistory() != null) {
-                interpreter.unset("sourceSchemaName");
-                interpreter.unset("sourceCatalogName");
-                interpreter.unset("sourceTableName");
             }
-            for (String columnName : sourceValues.keySet()) {
-                interpreter.unset(columnName.toUpperCase());
-                interpreter.unset(columnName);
+            if (compiledScript == null) {
+                result = interpret(platform, context, column, data, sourceValues, newValue, oldValue);
             }
             if (result instanceof String) {
                 if (data.getTargetDmlType().equals(DataEventType.DELETE) && data.getOldSourceValues() != null) {
@@ -175,6 +169,101 @@ public class BshColumnTransform implements ISingleNewAndOldValueColumnTransform,
         }
     }
 
+    protected Object interpret(IDatabasePlatform platform, DataContext context, TransformColumn column, TransformedData data,
+            Map<String, String> sourceValues, String newValue, String oldValue) throws Exception {
+        Interpreter interpreter = getInterpreter(context);
+        interpreter.set("currentValue", newValue);
+        interpreter.set("oldValue", oldValue);
+        interpreter.set("channelId", context.getBatch().getChannelId());
+        interpreter.set("includeOn", column.getIncludeOn());
+        interpreter.set("sourceDmlType", data.getSourceDmlType());
+        interpreter.set("sourceDmlTypeString", data.getSourceDmlType().toString());
+        interpreter.set("transformedData", data);
+        interpreter.set("transformColumn", column);
+        Data csvData = (Data) context.get(Constants.DATA_CONTEXT_CURRENT_CSV_DATA);
+        if (csvData != null && csvData.getTriggerHistory() != null) {
+            interpreter.set("sourceSchemaName", csvData.getTriggerHistory().getSourceSchemaName());
+            interpreter.set("sourceCatalogName", csvData.getTriggerHistory().getSourceCatalogName());
+            interpreter.set("sourceTableName", csvData.getTriggerHistory().getSourceTableName());
+        }
+        for (String columnName : sourceValues.keySet()) {
+            interpreter.set(columnName.toUpperCase(), sourceValues.get(columnName));
+            interpreter.set(columnName, sourceValues.get(columnName));
+        }
+        String transformExpression = column.getTransformExpression();
+        String globalScript = parameterService.getString(ParameterConstants.BSH_TRANSFORM_GLOBAL_SCRIPT);
+        String methodName = String.format("transform_%d()",
+                Math.abs(transformExpression.hashCode() + (globalScript == null ? 0 : globalScript.hashCode())));
+        if (context.get(methodName) == null) {
+            interpreter.set("log", log);
+            interpreter.set("sqlTemplate", platform.getSqlTemplate());
+            interpreter.set("context", context);
+            interpreter.set("bshContext", bshContext);
+            interpreter.set(DATA_CONTEXT_ENGINE, context.get(DATA_CONTEXT_ENGINE));
+            interpreter.set(DATA_CONTEXT_TARGET_NODE, context.get(DATA_CONTEXT_TARGET_NODE));
+            interpreter.set(DATA_CONTEXT_TARGET_NODE_ID, context.get(DATA_CONTEXT_TARGET_NODE_ID));
+            interpreter.set(DATA_CONTEXT_TARGET_NODE_GROUP_ID, context.get(DATA_CONTEXT_TARGET_NODE_GROUP_ID));
+            interpreter.set(DATA_CONTEXT_TARGET_NODE_EXTERNAL_ID, context.get(DATA_CONTEXT_TARGET_NODE_EXTERNAL_ID));
+            interpreter.set(DATA_CONTEXT_SOURCE_NODE, context.get(DATA_CONTEXT_SOURCE_NODE));
+            interpreter.set(DATA_CONTEXT_SOURCE_NODE_ID, context.get(DATA_CONTEXT_SOURCE_NODE_ID));
+            interpreter.set(DATA_CONTEXT_SOURCE_NODE_GROUP_ID, context.get(DATA_CONTEXT_SOURCE_NODE_GROUP_ID));
+            interpreter.set(DATA_CONTEXT_SOURCE_NODE_EXTERNAL_ID, context.get(DATA_CONTEXT_SOURCE_NODE_EXTERNAL_ID));
+            if (StringUtils.isNotBlank(globalScript)) {
+                interpreter.eval(globalScript);
+            }
+            interpreter.eval(String.format("%s {\n%s\n}", methodName, transformExpression));
+            context.put(methodName, Boolean.TRUE);
+        }
+        Object result = interpreter.eval(methodName);
+        if (csvData != null && csvData.getTriggerHistory() != null) {
+            interpreter.unset("sourceSchemaName");
+            interpreter.unset("sourceCatalogName");
+            interpreter.unset("sourceTableName");
+        }
+        for (String columnName : sourceValues.keySet()) {
+            interpreter.unset(columnName.toUpperCase());
+            interpreter.unset(columnName);
+        }
+        return result;
+    }
+
+    protected Map<String, Object> getVariables(IDatabasePlatform platform, DataContext context, TransformColumn column,
+            TransformedData data, Map<String, String> sourceValues, String newValue, String oldValue) {
+        Map<String, Object> variables = new LinkedHashMap<String, Object>();
+        variables.put("currentValue", newValue);
+        variables.put("oldValue", oldValue);
+        variables.put("channelId", context.getBatch().getChannelId());
+        variables.put("includeOn", column.getIncludeOn());
+        variables.put("sourceDmlType", data.getSourceDmlType());
+        variables.put("sourceDmlTypeString", data.getSourceDmlType().toString());
+        variables.put("transformedData", data);
+        variables.put("transformColumn", column);
+        Data csvData = (Data) context.get(Constants.DATA_CONTEXT_CURRENT_CSV_DATA);
+        if (csvData != null && csvData.getTriggerHistory() != null) {
+            variables.put("sourceSchemaName", csvData.getTriggerHistory().getSourceSchemaName());
+            variables.put("sourceCatalogName", csvData.getTriggerHistory().getSourceCatalogName());
+            variables.put("sourceTableName", csvData.getTriggerHistory().getSourceTableName());
+        }
+        variables.put("log", log);
+        variables.put("sqlTemplate", platform.getSqlTemplate());
+        variables.put("context", context);
+        variables.put("bshContext", bshContext);
+        variables.put(DATA_CONTEXT_ENGINE, context.get(DATA_CONTEXT_ENGINE));
+        variables.put(DATA_CONTEXT_TARGET_NODE, context.get(DATA_CONTEXT_TARGET_NODE));
+        variables.put(DATA_CONTEXT_TARGET_NODE_ID, context.get(DATA_CONTEXT_TARGET_NODE_ID));
+        variables.put(DATA_CONTEXT_TARGET_NODE_GROUP_ID, context.get(DATA_CONTEXT_TARGET_NODE_GROUP_ID));
+        variables.put(DATA_CONTEXT_TARGET_NODE_EXTERNAL_ID, context.get(DATA_CONTEXT_TARGET_NODE_EXTERNAL_ID));
+        variables.put(DATA_CONTEXT_SOURCE_NODE, context.get(DATA_CONTEXT_SOURCE_NODE));
+        variables.put(DATA_CONTEXT_SOURCE_NODE_ID, context.get(DATA_CONTEXT_SOURCE_NODE_ID));
+        variables.put(DATA_CONTEXT_SOURCE_NODE_GROUP_ID, context.get(DATA_CONTEXT_SOURCE_NODE_GROUP_ID));
+        variables.put(DATA_CONTEXT_SOURCE_NODE_EXTERNAL_ID, context.get(DATA_CONTEXT_SOURCE_NODE_EXTERNAL_ID));
+        for (String columnName : sourceValues.keySet()) {
+            variables.put(columnName.toUpperCase(), sourceValues.get(columnName));
+            variables.put(columnName, sourceValues.get(columnName));
+        }
+        return variables;
+    }
+
     protected Interpreter getInterpreter(Context context) {
         Interpreter interpreter = (Interpreter) context.get(INTERPRETER_KEY);
         if (interpreter == null) {
@@ -0,0 +1,350 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.data.transform;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jumpmind.db.platform.DatabaseNamesConstants;
+import org.jumpmind.db.platform.IDatabasePlatform;
+import org.jumpmind.db.sql.ISqlRowMapper;
+import org.jumpmind.db.sql.ISqlTransaction;
+import org.jumpmind.symmetric.common.ParameterConstants;
+import org.jumpmind.symmetric.io.data.DataContext;
+import org.jumpmind.symmetric.service.IParameterService;
+
+/**
+ * A lookup transform that caches the value found for each set of parameter values. When the {@link org.jumpmind.symmetric.io.data.writer.TransformWriter}
+ * holds rows for a prefetch, the values for all of their distinct keys are found with one query that selects the lookup expression once for each key.
+ * Values are read outside of the transaction of a data load, so only committed values are cached. When
+ * {@link ParameterConstants#TRANSFORM_LOOKUP_CACHE_TRANSACTIONAL} is on, they are read in the load transaction instead and only used for the
+ * rows they were prefetched for.
+ */
+public class CachedLookupColumnTransform extends LookupColumnTransform implements IPrefetchColumnTransform<NewAndOldValue> {
+    public static final String NAME = "cachedLookup";
+    private static final String PREFETCHED_KEY = CachedLookupColumnTransform.class.getName() + ".prefetched.";
+    private static final Pattern PARAMETER_PATTERN = Pattern.compile("(?<![:\\w]):([A-Za-z_][A-Za-z0-9_]*)");
+    private static final Pattern NOT_BATCHABLE_PATTERN = Pattern.compile("\\border\\s+by\\b|;", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_BIND_PARAMETERS = 1000;
+    protected IParameterService parameterService;
+    protected Map<List<Object>, CacheEntry> cache;
+    protected int cacheSize;
+    protected Map<String, List<String>> parameterNamesBySql = new ConcurrentHashMap<String, List<String>>();
+    protected Set<String> batchFailureLoggedSql = ConcurrentHashMap.newKeySet();
+
+    public CachedLookupColumnTransform(IParameterService parameterService) {
+        this.parameterService = parameterService;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    public int getPrefetchSize() {
+        return getCache() == null ? 0 : parameterService.getInt(ParameterConstants.TRANSFORM_LOOKUP_PREFETCH_SIZE, 100);
+    }
+
+    @Override
+    protected String lookup(IDatabasePlatform platform, DataContext context, TransformColumn column, String sql,
+            Map<String, Object> namedParams) {
+        Map<List<Object>, CacheEntry> cache = getCache();
+        if (cache == null) {
+            return super.lookup(platform, context, column, sql, namedParams);
+        }
+        List<Object> cacheKey = getCacheKey(platform, sql, getParameterNames(sql), namedParams);
+        if (isTransactionScoped(context)) {
+            String value = getPrefetchedValues(context, sql).get(cacheKey);
+            return value != null ? value : super.lookup(platform, context, column, sql, namedParams);
+        }
+        CacheEntry entry = getCacheEntry(cache, cacheKey);
+        if (entry == null) {
+            String value = super.lookup(platform, context, column, sql, namedParams);
+            if (value != null) {
+                cache.put(cacheKey, new CacheEntry(value));
+            }
+            return value;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Read values with the sql template unless they are scoped to the load transaction, so values that are cached are committed.
+     */
+    @Override
+    protected <T> List<T> query(IDatabasePlatform platform, DataContext context, String sql, ISqlRowMapper<T> mapper,
+            Map<String, Object> namedParams) {
+        if (getCache() == null || isTransactionScoped(context)) {
+            return super.query(platform, context, sql, mapper, namedParams);
+        }
+        return platform.getSqlTemplate().query(sql, mapper, namedParams);
+    }
+
+    public void prefetch(IDatabasePlatform platform, DataContext context, TransformColumn column,
+            List<Map<String, String>> sourceValues, List<Map<String, String>> oldSourceValues) {
+        Map<List<Object>, CacheEntry> cache = getCache();
+        String sql = doTokenReplacementOnSql(context, column.getTransformExpression());
+        if (cache == null || isBlank(sql)) {
+            return;
+        }
+        ISqlTransaction transaction = isTransactionScoped(context) ? context.findTransaction() : null;
+        Map<List<Object>, String> prefetched = new HashMap<List<Object>, String>();
+        if (transaction != null) {
+            context.put(PREFETCHED_KEY + sql, prefetched);
+        }
+        String fromDummyTable = getFromDummyTable(platform);
+        List<String> parameterNames = getParameterNames(sql);
+        if (fromDummyTable == null || parameterNames.size() == 0 || !isBatchable(sql)) {
+            return;
+        }
+        for (String parameterName : parameterNames) {
+            if (parameterName.startsWith("TRM_")) {
+                // transformed values are not known until the row is transformed
+                return;
+            }
+        }
+        Set<List<Object>> cacheKeys = new LinkedHashSet<List<Object>>();
+        Map<List<Object>, Map<String, Object>> paramsByCacheKey = new HashMap<List<Object>, Map<String, Object>>();
+        for (int i = 0; i < sourceValues.size(); i++) {
+            Map<String, Object> namedParams = getNamedParams(sql, sourceValues.get(i), oldSourceValues.get(i), null);
+            List<Object> cacheKey = getCacheKey(platform, sql, parameterNames, namedParams);
+            if ((transaction != null || getCacheEntry(cache, cacheKey) == null) && cacheKeys.add(cacheKey)) {
+                paramsByCacheKey.put(cacheKey, namedParams);
+            }
+        }
+        if (cacheKeys.size() < 2) {
+            return;
+        }
+        boolean useSavepoint = transaction != null && platform.getDatabaseInfo().isRequiresSavePointsInTransaction();
+        if (useSavepoint && transaction.isInBatchMode()) {
+            return;
+        }
+        int rowsPerQuery = Math.max(1, MAX_BIND_PARAMETERS / parameterNames.size());
+        List<List<Object>> keysToQuery = new ArrayList<List<Object>>(cacheKeys);
+        for (int start = 0; start < keysToQuery.size(); start += rowsPerQuery) {
+            List<List<Object>> chunk = keysToQuery.subList(start, Math.min(start + rowsPerQuery, keysToQuery.size()));
+            try {
+                prefetchChunk(platform, context, transaction, useSavepoint, sql, parameterNames, fromDummyTable, chunk, paramsByCacheKey,
+                        cache, prefetched);
+            } catch (RuntimeException ex) {
+                if (batchFailureLoggedSql.add(sql)) {
+                    log.warn("Unable to look up values for many rows at once for target column {} on transform {}, so rows will be looked up one at a time: {}",
+                            column.getTargetColumnName(), column.getTransformId(), ex.getMessage());
+                } else {
+                    log.debug("Unable to look up values for many rows at once for target column {} on transform {}",
+                            column.getTargetColumnName(), column.getTransformId(), ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Look up the values for one chunk of keys with one query. When it fails, the keys in the chunk are left to be looked up one at a time.
+     */
+    protected void prefetchChunk(IDatabasePlatform platform, DataContext context, ISqlTransaction transaction, boolean useSavepoint,
+            String sql, List<String> parameterNames, String fromDummyTable, List<List<Object>> chunk,
+            Map<List<Object>, Map<String, Object>> paramsByCacheKey, Map<List<Object>, CacheEntry> cache,
+            Map<List<Object>, String> prefetched) {
+        Map<String, Object> sqlParams = new HashMap<String, Object>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Map<String, Object> rowParams = paramsByCacheKey.get(chunk.get(i));
+            for (int j = 0; j < parameterNames.size(); j++) {
+                sqlParams.put("R" + i + "_" + j, rowParams.get(parameterNames.get(j)));
+            }
+        }
+        if (useSavepoint) {
+            transaction.execute("savepoint sym_lookup");
+        }
+        try {
+            List<String[]> rows = query(platform, context, buildBatchSql(sql, parameterNames, chunk.size(), fromDummyTable),
+                    row -> new String[] { row.getString("row_key"), row.getString("lookup_value") }, sqlParams);
+            for (String[] row : rows) {
+                List<Object> cacheKey = chunk.get(Integer.parseInt(row[0].trim()));
+                if (row[1] == null) {
+                    continue;
+                } else if (transaction != null) {
+                    prefetched.put(cacheKey, row[1]);
+                } else {
+                    cache.put(cacheKey, new CacheEntry(row[1]));
+                }
+            }
+        } catch (RuntimeException ex) {
+            if (useSavepoint) {
+                transaction.execute("rollback to savepoint sym_lookup");
+            }
+            throw ex;
+        } finally {
+            if (useSavepoint) {
+                transaction.execute("release savepoint sym_lookup");
+            }
+        }
+    }
+
+    protected boolean isTransactionScoped(DataContext context) {
+        return context.findTransaction() != null && parameterService.is(ParameterConstants.TRANSFORM_LOOKUP_CACHE_TRANSACTIONAL, false);
+    }
+
+    /**
+     * A lookup expression can be selected once for each row as a scalar subquery unless it is more than one select statement or it sorts
+     * its rows, which most databases do not allow in a subquery. Expressions that return more than one row are found when the query fails.
+     */
+    protected static boolean isBatchable(String sql) {
+        return !NOT_BATCHABLE_PATTERN.matcher(blankQuotedText(sql)).find();
+    }
+
+    protected Map<List<Object>, CacheEntry> getCache() {
+        final int size = parameterService.getInt(ParameterConstants.TRANSFORM_LOOKUP_CACHE_SIZE, 10000);
+        if (size <= 0) {
+            return null;
+        }
+        synchronized (this) {
+            if (cache == null || cacheSize != size) {
+                cache = Collections.synchronizedMap(new LinkedHashMap<List<Object>, CacheEntry>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<List<Object>, CacheEntry> eldest) {
+                        return size() > size;
+                    }
+                });
+                cacheSize = size;
+            }
+            return cache;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Map<List<Object>, String> getPrefetchedValues(DataContext context, String sql) {
+        Map<List<Object>, String> prefetched = (Map<List<Object>, String>) context.get(PREFETCHED_KEY + sql);
+        return prefetched != null ? prefetched : Collections.<List<Object>, String> emptyMap();
+    }
+
+    protected CacheEntry getCacheEntry(Map<List<Object>, CacheEntry> cache, List<Object> cacheKey) {
+        CacheEntry entry = cache.get(cacheKey);
+        if (entry != null && System.currentTimeMillis() - entry.time > parameterService.getLong(
+                ParameterConstants.TRANSFORM_LOOKUP_CACHE_TIME_MS, 60000)) {
+            cache.remove(cacheKey);
+            entry = null;
+        }
+        return entry;
+    }
+
+    protected List<Object> getCacheKey(IDatabasePlatform platform, String sql, List<String> parameterNames, Map<String, Object> namedParams) {
+        Object[] values = new Object[parameterNames.size() + 2];
+        values[0] = platform;
+        values[1] = sql;
+        for (int i = 0; i < parameterNames.size(); i++) {
+            values[i + 2] = namedParams.get(parameterNames.get(i));
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * Get the FROM clause needed to select values without a table, or null if the database is not known to support a union of those selects.
+     */
+    protected String getFromDummyTable(IDatabasePlatform platform) {
+        String name = platform.getName();
+        if (name.startsWith(DatabaseNamesConstants.ORACLE)) {
+            return " from dual";
+        } else if (name.startsWith(DatabaseNamesConstants.DB2)) {
+            return " from sysibm.sysdummy1";
+        } else if (name.startsWith(DatabaseNamesConstants.POSTGRESQL) || name.startsWith(DatabaseNamesConstants.MYSQL)
+                || name.startsWith(DatabaseNamesConstants.MARIADB) || name.startsWith(DatabaseNamesConstants.MSSQL)
+                || name.startsWith(DatabaseNamesConstants.H2) || name.startsWith(DatabaseNamesConstants.SQLITE)) {
+            return "";
+        }
+        return null;
+    }
+
+    /**
+     * Build a query that selects the lookup expression as a scalar subquery once for each row, with the parameters numbered by row. Each
+     * parameter stays where it was in the lookup expression, so the database gives it the type of the column it is compared to.
+     */
+    protected static String buildBatchSql(String sql, List<String> parameterNames, int rowCount, String fromDummyTable) {
+        StringBuilder batchSql = new StringBuilder();
+        Matcher matcher = PARAMETER_PATTERN.matcher(blankQuotedText(sql));
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                batchSql.append(" union all ");
+            }
+            batchSql.append("select ").append(i).append(" as row_key, (");
+            int end = 0;
+            matcher.reset();
+            while (matcher.find()) {
+                batchSql.append(sql, end, matcher.start());
+                batchSql.append(":R").append(i).append("_").append(parameterNames.indexOf(matcher.group(1).toUpperCase()));
+                end = matcher.end();
+            }
+            batchSql.append(sql.substring(end)).append(") as lookup_value").append(fromDummyTable);
+        }
+        return batchSql.toString();
+    }
+
+    protected List<String> getParameterNames(String sql) {
+        return parameterNamesBySql.computeIfAbsent(sql, k -> parseParameterNames(k));
+    }
+
+    protected static List<String> parseParameterNames(String sql) {
+        List<String> names = new ArrayList<String>();
+        Matcher matcher = PARAMETER_PATTERN.matcher(blankQuotedText(sql));
+        while (matcher.find()) {
+            String name = matcher.group(1).toUpperCase();
+            if (!names.contains(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    protected static String blankQuotedText(String sql) {
+        char[] chars = sql.toCharArray();
+        boolean quoted = false;
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == '\'') {
+                quoted = !quoted;
+            } else if (quoted) {
+                chars[i] = ' ';
+            }
+        }
+        return new String(chars);
+    }
+
+    static class CacheEntry {
+        String value;
+        long time = System.currentTimeMillis();
+
+        CacheEntry(String value) {
+            this.value = value;
+        }
+    }
+}
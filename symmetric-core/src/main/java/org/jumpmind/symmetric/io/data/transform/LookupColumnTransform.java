@@ -27,6 +27,7 @@ import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jumpmind.db.platform.IDatabasePlatform;
+import org.jumpmind.db.sql.ISqlRowMapper;
 import org.jumpmind.db.sql.ISqlTransaction;
 import org.jumpmind.db.sql.mapper.StringMapper;
 import org.jumpmind.extension.IBuiltInExtensionPoint;
@@ -62,37 +63,7 @@ public class LookupColumnTransform implements ISingleNewAndOldValueColumnTransfo
         String sql = doTokenReplacementOnSql(context, column.getTransformExpression());
         String lookupValue = null;
         if (StringUtils.isNotBlank(sql)) {
-            ISqlTransaction transaction = context.findTransaction();
-            List<String> values = null;
-            LinkedCaseInsensitiveMap<Object> namedParams = new LinkedCaseInsensitiveMap<Object>(sourceValues);
-            if (data.getOldSourceValues() != null && sql.contains(":OLD_")) {
-                for (Map.Entry<String, String> oldColumn : data.getOldSourceValues().entrySet()) {
-                    namedParams.put("OLD_" + oldColumn.getKey().toUpperCase(), oldColumn.getValue());
-                }
-            }
-            if (data.getTargetValues() != null && sql.contains(":TRM_")) {
-                for (Map.Entry<String, String> transformedCol : data.getTargetValues().entrySet()) {
-                    namedParams.put("TRM_" + transformedCol.getKey().toUpperCase(), transformedCol.getValue());
-                }
-            }
-            if (transaction != null) {
-                values = transaction.query(sql, lookupColumnRowMapper, namedParams);
-            } else {
-                values = platform.getSqlTemplate().query(sql, lookupColumnRowMapper, namedParams);
-            }
-            int rowCount = values.size();
-            if (rowCount == 1) {
-                lookupValue = values.get(0);
-            } else if (rowCount > 1) {
-                lookupValue = values.get(0);
-                log.warn(
-                        "Expected a single row, but returned multiple rows from lookup for target column {} on transform {} ",
-                        column.getTargetColumnName(), column.getTransformId());
-            } else if (values.size() == 0) {
-                log.info(
-                        "Expected a single row, but returned no rows from lookup for target column {} on transform {}",
-                        column.getTargetColumnName(), column.getTransformId());
-            }
+            lookupValue = lookup(platform, context, column, data, sourceValues, sql);
         } else {
             log.warn(
                     "Expected SQL expression for lookup transform, but no expression was found for target column {} on transform {}",
@@ -101,6 +72,65 @@ public class LookupColumnTransform implements ISingleNewAndOldValueColumnTransfo
         return new NewAndOldValue(column, data, lookupValue);
     }
 
+    protected String lookup(IDatabasePlatform platform, DataContext context, TransformColumn column, TransformedData data,
+            Map<String, String> sourceValues, String sql) {
+        return lookup(platform, context, column, sql, getNamedParams(sql, data, sourceValues));
+    }
+
+    protected String lookup(IDatabasePlatform platform, DataContext context, TransformColumn column, String sql,
+            Map<String, Object> namedParams) {
+        String lookupValue = null;
+        List<String> values = query(platform, context, sql, namedParams);
+        int rowCount = values.size();
+        if (rowCount == 1) {
+            lookupValue = values.get(0);
+        } else if (rowCount > 1) {
+            lookupValue = values.get(0);
+            log.warn(
+                    "Expected a single row, but returned multiple rows from lookup for target column {} on transform {} ",
+                    column.getTargetColumnName(), column.getTransformId());
+        } else if (values.size() == 0) {
+            log.info(
+                    "Expected a single row, but returned no rows from lookup for target column {} on transform {}",
+                    column.getTargetColumnName(), column.getTransformId());
+        }
+        return lookupValue;
+    }
+
+    protected Map<String, Object> getNamedParams(String sql, TransformedData data, Map<String, String> sourceValues) {
+        return getNamedParams(sql, sourceValues, data.getOldSourceValues(), data.getTargetValues());
+    }
+
+    protected Map<String, Object> getNamedParams(String sql, Map<String, String> sourceValues, Map<String, String> oldSourceValues,
+            Map<String, String> targetValues) {
+        LinkedCaseInsensitiveMap<Object> namedParams = new LinkedCaseInsensitiveMap<Object>(sourceValues);
+        if (oldSourceValues != null && sql.contains(":OLD_")) {
+            for (Map.Entry<String, String> oldColumn : oldSourceValues.entrySet()) {
+                namedParams.put("OLD_" + oldColumn.getKey().toUpperCase(), oldColumn.getValue());
+            }
+        }
+        if (targetValues != null && sql.contains(":TRM_")) {
+            for (Map.Entry<String, String> transformedCol : targetValues.entrySet()) {
+                namedParams.put("TRM_" + transformedCol.getKey().toUpperCase(), transformedCol.getValue());
+            }
+        }
+        return namedParams;
+    }
+
+    protected <T> List<T> query(IDatabasePlatform platform, DataContext context, String sql, ISqlRowMapper<T> mapper,
+            Map<String, Object> namedParams) {
+        ISqlTransaction transaction = context.findTransaction();
+        if (transaction != null) {
+            return transaction.query(sql, mapper, namedParams);
+        } else {
+            return platform.getSqlTemplate().query(sql, mapper, namedParams);
+        }
+    }
+
+    protected List<String> query(IDatabasePlatform platform, DataContext context, String sql, Map<String, Object> namedParams) {
+        return query(platform, context, sql, lookupColumnRowMapper, namedParams);
+    }
+
     protected String doTokenReplacementOnSql(DataContext context, String sql) {
         if (isNotBlank(sql)) {
             Data csvData = (Data) context.get(Constants.DATA_CONTEXT_CURRENT_CSV_DATA);
@@ -47,6 +47,15 @@ public class BatchStagingManager extends StagingManager {
         this.engine = engine;
     }
 
+    /**
+     * Only batches are compressed, because bulk load and log miner files are read by the database or other tools directly.
+     */
+    @Override
+    public boolean isCompressionEnabled(String path) {
+        return (path.startsWith(STAGING_CATEGORY_OUTGOING) || path.startsWith(STAGING_CATEGORY_INCOMING))
+                && engine.getParameterService().is(ParameterConstants.STAGING_COMPRESSION_ENABLED, false);
+    }
+
     protected Map<String, Long> getBiggestBatchIds(Set<BatchId> batches) {
         Map<String, Long> biggest = new HashMap<String, Long>();
         for (BatchId batchId : batches) {
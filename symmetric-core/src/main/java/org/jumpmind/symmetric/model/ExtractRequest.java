@@ -53,6 +53,9 @@ public class ExtractRequest implements Serializable {
     private long transferredMillis;
     private long loadedMillis;
     private long parentRequestId;
+    private int sliceCount;
+    private long sliceMinKey;
+    private long sliceMaxKey;
 
     public long getRequestId() {
         return requestId;
@@ -237,4 +240,29 @@ public class ExtractRequest implements Serializable {
     public void setExtractedMillis(long extractedMillis) {
         this.extractedMillis = extractedMillis;
     }
+
+    public int getSliceCount() {
+        return sliceCount;
+    }
+
+    public void setSliceCount(int sliceCount) {
+        this.sliceCount = sliceCount;
+    }
+
+    public long getSliceMinKey() {
+        return sliceMinKey;
+    }
+
+    public void setSliceMinKey(long sliceMinKey) {
+        this.sliceMinKey = sliceMinKey;
+    }
+
+    public long getSliceMaxKey() {
+        return sliceMaxKey;
+    }
+
+    public void setSliceMaxKey(long sliceMaxKey) {
+        this.sliceMaxKey = sliceMaxKey;
+    }
+
 }
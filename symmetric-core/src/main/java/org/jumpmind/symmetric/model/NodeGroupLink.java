@@ -29,6 +29,7 @@ public class NodeGroupLink implements IModelObject, Comparable<NodeGroupLink> {
     private NodeGroupLinkAction dataEventAction = NodeGroupLinkAction.W;
     private boolean syncConfigEnabled = true;
     private boolean isReversible;
+    private boolean binaryProtocolEnabled;
     private Date createTime;
     private Date lastUpdateTime;
     private String lastUpdateBy;
@@ -86,6 +87,14 @@ public class NodeGroupLink implements IModelObject, Comparable<NodeGroupLink> {
         this.isReversible = isReversible;
     }
 
+    public boolean isBinaryProtocolEnabled() {
+        return binaryProtocolEnabled;
+    }
+
+    public void setBinaryProtocolEnabled(boolean binaryProtocolEnabled) {
+        this.binaryProtocolEnabled = binaryProtocolEnabled;
+    }
+
     public Date getCreateTime() {
         return createTime;
     }
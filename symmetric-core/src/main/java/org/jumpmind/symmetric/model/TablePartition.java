@@ -0,0 +1,75 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.model;
+
+import java.io.Serializable;
+
+/**
+ * A range partition of a capture table. The lower bound is inclusive and the upper bound is exclusive. The default partition holds rows that
+ * fall outside of every range and has no bounds.
+ */
+public class TablePartition implements Serializable, Comparable<TablePartition> {
+    private static final long serialVersionUID = 1L;
+    private String partitionName;
+    private long lowerBound;
+    private long upperBound;
+    private boolean isDefault;
+
+    public TablePartition(String partitionName) {
+        this.partitionName = partitionName;
+        this.isDefault = true;
+    }
+
+    public TablePartition(String partitionName, long lowerBound, long upperBound) {
+        this.partitionName = partitionName;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    public String getPartitionName() {
+        return partitionName;
+    }
+
+    public long getLowerBound() {
+        return lowerBound;
+    }
+
+    public long getUpperBound() {
+        return upperBound;
+    }
+
+    public boolean isDefault() {
+        return isDefault;
+    }
+
+    @Override
+    public int compareTo(TablePartition other) {
+        if (isDefault != other.isDefault) {
+            return isDefault ? 1 : -1;
+        }
+        return Long.compare(lowerBound, other.lowerBound);
+    }
+
+    @Override
+    public String toString() {
+        return isDefault ? partitionName + " default" : partitionName + " [" + lowerBound + ", " + upperBound + ")";
+    }
+}
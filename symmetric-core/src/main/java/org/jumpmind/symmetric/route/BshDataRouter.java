@@ -22,16 +22,21 @@ package org.jumpmind.symmetric.route;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
 import org.jumpmind.extension.IBuiltInExtensionPoint;
 import org.jumpmind.symmetric.ISymmetricEngine;
+import org.jumpmind.symmetric.common.ParameterConstants;
 import org.jumpmind.symmetric.model.DataMetaData;
 import org.jumpmind.symmetric.model.Node;
 import org.jumpmind.symmetric.model.TriggerRouter;
+import org.jumpmind.symmetric.util.BshScriptCompiler;
+import org.jumpmind.symmetric.util.BshScriptCompiler.CompiledScript;
 
 import bsh.EvalError;
 import bsh.Interpreter;
@@ -44,10 +49,25 @@ import bsh.TargetError;
  * Bound to the interpreter are the names of both the current and old column values. They can be used in the expression. They should always be referenced using
  * upper case. Also bound to the interpreter is a {@link Collection} of targetNodes. The script is expected to add the the list of target nodes a list of the
  * node_ids that should be routed to.
+ * <P/>
+ * When bsh.compile.scripts is enabled, an expression that is also valid Java is compiled by the {@link BshScriptCompiler} and the interpreter is only
+ * used for expressions that could not be compiled.
  */
 public class BshDataRouter extends AbstractDataRouter implements IBuiltInExtensionPoint {
     protected ISymmetricEngine engine;
     final String INTERPRETER_KEY = String.format("%d.BshInterpreter", hashCode());
+    protected static final Map<String, String> DECLARED_TYPES = new HashMap<String, String>();
+    static {
+        DECLARED_TYPES.put("log", "org.slf4j.Logger");
+        DECLARED_TYPES.put("initialLoad", "boolean");
+        DECLARED_TYPES.put("dataMetaData", DataMetaData.class.getName());
+        DECLARED_TYPES.put("nodes", "java.util.Set<" + Node.class.getName() + ">");
+        DECLARED_TYPES.put("nodeIds", "java.util.Set<String>");
+        DECLARED_TYPES.put("identityNodeId", "String");
+        DECLARED_TYPES.put("targetNodes", "java.util.Set<String>");
+        DECLARED_TYPES.put("engine", ISymmetricEngine.class.getName());
+    }
+    protected BshScriptCompiler scriptCompiler = new BshScriptCompiler();
 
     public BshDataRouter(ISymmetricEngine engine) {
         this.engine = engine;
@@ -58,16 +78,40 @@ public class BshDataRouter extends AbstractDataRouter implements IBuiltInExtensi
             TriggerRouter triggerRouter) {
         Set<String> boundVariableNames = new LinkedHashSet<String>();
         try {
-            long ts = System.currentTimeMillis();
-            Interpreter interpreter = getInterpreter(context);
-            context.incrementStat(System.currentTimeMillis() - ts, "bsh.init.ms");
             HashSet<String> targetNodes = new HashSet<String>();
-            ts = System.currentTimeMillis();
-            bind(interpreter, dataMetaData, nodes, targetNodes, boundVariableNames, initialLoad);
+            long ts = System.currentTimeMillis();
+            Map<String, Object> variables = getVariables(dataMetaData, nodes, targetNodes, initialLoad);
+            boundVariableNames.addAll(variables.keySet());
             context.incrementStat(System.currentTimeMillis() - ts, "bsh.bind.ms");
-            ts = System.currentTimeMillis();
-            Object returnValue = interpreter.eval(dataMetaData.getRouter().getRouterExpression());
-            context.incrementStat(System.currentTimeMillis() - ts, "bsh.eval.ms");
+            String expression = dataMetaData.getRouter().getRouterExpression();
+            CompiledScript compiledScript = null;
+            if (engine.getParameterService().is(ParameterConstants.BSH_COMPILE_SCRIPTS)) {
+                ts = System.currentTimeMillis();
+                compiledScript = scriptCompiler.getCompiledScript(expression, variables, DECLARED_TYPES);
+                context.incrementStat(System.currentTimeMillis() - ts, "bsh.compile.ms");
+            }
+            Object returnValue = null;
+            if (compiledScript != null) {
+                ts = System.currentTimeMillis();
+                try {
+                    returnValue = compiledScript.eval(variables);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException("Routing script failed", e);
+                }
+                context.incrementStat(System.currentTimeMillis() - ts, "bsh.exec.ms");
+            } else {
+                ts = System.currentTimeMillis();
+                Interpreter interpreter = getInterpreter(context);
+                context.incrementStat(System.currentTimeMillis() - ts, "bsh.init.ms");
+                ts = System.currentTimeMillis();
+                bind(interpreter, variables);
+                context.incrementStat(System.currentTimeMillis() - ts, "bsh.bind.ms");
+                ts = System.currentTimeMillis();
+                returnValue = interpreter.eval(expression);
+                context.incrementStat(System.currentTimeMillis() - ts, "bsh.eval.ms");
+            }
             return eval(returnValue, nodes, targetNodes);
         } catch (EvalError e) {
             if (e instanceof TargetError) {
@@ -116,27 +160,28 @@ public class BshDataRouter extends AbstractDataRouter implements IBuiltInExtensi
         }
     }
 
-    protected void bind(Interpreter interpreter, DataMetaData dataMetaData, Set<Node> nodes,
-            Set<String> targetNodes, Set<String> boundVariableNames, boolean initialLoad) throws EvalError {
-        bind(interpreter, boundVariableNames, "log", log);
-        bind(interpreter, boundVariableNames, "initialLoad", initialLoad);
-        bind(interpreter, boundVariableNames, "dataMetaData", dataMetaData);
-        bind(interpreter, boundVariableNames, "nodes", nodes);
-        bind(interpreter, boundVariableNames, "nodeIds", toNodeIds(nodes, null));
-        bind(interpreter, boundVariableNames, "identityNodeId", engine.getNodeService().findIdentityNodeId());
-        bind(interpreter, boundVariableNames, "targetNodes", targetNodes);
-        bind(interpreter, boundVariableNames, "engine", engine);
+    protected Map<String, Object> getVariables(DataMetaData dataMetaData, Set<Node> nodes, Set<String> targetNodes,
+            boolean initialLoad) {
+        Map<String, Object> variables = new LinkedHashMap<String, Object>();
+        variables.put("log", log);
+        variables.put("initialLoad", initialLoad);
+        variables.put("dataMetaData", dataMetaData);
+        variables.put("nodes", nodes);
+        variables.put("nodeIds", toNodeIds(nodes, null));
+        variables.put("identityNodeId", engine.getNodeService().findIdentityNodeId());
+        variables.put("targetNodes", targetNodes);
+        variables.put("engine", engine);
         Map<String, Object> params = getDataObjectMap(dataMetaData, engine.getSymmetricDialect(),
                 true);
         if (params != null) {
-            for (String param : params.keySet()) {
-                bind(interpreter, boundVariableNames, param, params.get(param));
-            }
+            variables.putAll(params);
         }
+        return variables;
     }
 
-    protected void bind(Interpreter interpreter, Set<String> boundVariableNames, String name, Object value) throws EvalError {
-        interpreter.set(name, value);
-        boundVariableNames.add(name);
+    protected void bind(Interpreter interpreter, Map<String, Object> variables) throws EvalError {
+        for (Map.Entry<String, Object> entry : variables.entrySet()) {
+            interpreter.set(entry.getKey(), entry.getValue());
+        }
     }
 }
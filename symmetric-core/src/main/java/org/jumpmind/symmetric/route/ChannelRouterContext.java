@@ -39,6 +39,7 @@ import org.jumpmind.symmetric.model.Node;
 import org.jumpmind.symmetric.model.NodeChannel;
 import org.jumpmind.symmetric.model.OutgoingBatch;
 import org.jumpmind.symmetric.model.TriggerRouter;
+import org.jumpmind.util.LongArrayList;
 import org.slf4j.Logger;
 
 public class ChannelRouterContext extends SimpleRouterContext {
@@ -60,6 +61,9 @@ public class ChannelRouterContext extends SimpleRouterContext {
     public static final String STAT_LOOKUP_AVAILABLE_NODES_MS = "lookup.avail.nodes.ms";
     public static final String STAT_LOOKUP_TRIGGER_ROUTERS_MS = "lookup.trigger.routers.ms";
     public static final String STAT_ROUTE_TOTAL_TIME = "total.time.ms";
+    public static final String STAT_PEEK_AHEAD_SCAN_COUNT = "peek.ahead.scan.count";
+    public static final String STAT_PEEK_AHEAD_TRANSACTION_COUNT = "peek.ahead.transaction.count";
+    public static final String STAT_DATA_IDS_MEMORY_BYTES = "data.ids.memory.bytes";
     private Map<String, OutgoingBatch> batchesByNodes = new HashMap<String, OutgoingBatch>();
     private Map<Integer, Map<String, OutgoingBatch>> batchesByGroups = new HashMap<Integer, Map<String, OutgoingBatch>>();
     private Map<TriggerRouter, Set<Node>> availableNodes = new HashMap<TriggerRouter, Set<Node>>();
@@ -85,9 +89,11 @@ public class ChannelRouterContext extends SimpleRouterContext {
     private int maxBatchesJdbcFlushSize;
     private long dataRereadCount;
     private List<DataGap> dataGaps = new ArrayList<DataGap>();
+    private DataGapIndex dataGapIndex;
+    private DataGapDetector gapDetector;
     private long lastDataId = -1;
-    private List<Long> dataIds = new ArrayList<Long>();
-    private List<Long> uncommittedDataIds = new ArrayList<Long>();
+    private LongArrayList dataIds = new LongArrayList();
+    private LongArrayList uncommittedDataIds = new LongArrayList();
     private long uncommittedDataEventCount = 0;
     private long committedDataEventCount = 0;
     private IBatchAlgorithm batchAlgorithm;
@@ -125,7 +131,7 @@ public class ChannelRouterContext extends SimpleRouterContext {
     }
 
     public void removeLastData() {
-        uncommittedDataIds.remove(lastDataId);
+        uncommittedDataIds.removeValue(lastDataId);
         ListIterator<DataEvent> iter = dataEventsToSend.listIterator();
         while (iter.hasNext()) {
             DataEvent dataEvent = iter.next();
@@ -211,7 +217,7 @@ public class ChannelRouterContext extends SimpleRouterContext {
         if (log.isDebugEnabled()) {
             log.debug(channel.getChannelId() + ", startDataId=" + startDataId + ", endDataId=" + endDataId +
                     ", lastDataId=" + lastDataId + ", dataReadCount=" + dataReadCount + ", peekAheadFillCount=" + peekAheadFillCount +
-                    ", dataGaps=" + dataGaps.size());
+                    ", maxPeekAheadQueueSize=" + maxPeekAheadQueueSize + ", dataGaps=" + dataGaps.size());
         }
     }
 
@@ -358,6 +364,26 @@ public class ChannelRouterContext extends SimpleRouterContext {
 
     public void setDataGaps(List<DataGap> dataGaps) {
         this.dataGaps = dataGaps;
+        this.dataGapIndex = null;
+    }
+
+    public DataGapIndex getDataGapIndex() {
+        if (dataGapIndex == null) {
+            dataGapIndex = new DataGapIndex(dataGaps);
+        }
+        return dataGapIndex;
+    }
+
+    public void setDataGapIndex(DataGapIndex dataGapIndex) {
+        this.dataGapIndex = dataGapIndex;
+    }
+
+    public DataGapDetector getGapDetector() {
+        return gapDetector;
+    }
+
+    public void setGapDetector(DataGapDetector gapDetector) {
+        this.gapDetector = gapDetector;
     }
 
     public void setOnlyDefaultRoutersAssigned(boolean onlyDefaultRoutersAssigned) {
@@ -368,7 +394,7 @@ public class ChannelRouterContext extends SimpleRouterContext {
         return onlyDefaultRoutersAssigned;
     }
 
-    public List<Long> getDataIds() {
+    public LongArrayList getDataIds() {
         return dataIds;
     }
 
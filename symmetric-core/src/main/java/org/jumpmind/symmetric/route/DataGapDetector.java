@@ -41,6 +41,7 @@ import org.jumpmind.symmetric.service.INodeService;
 import org.jumpmind.symmetric.service.IParameterService;
 import org.jumpmind.symmetric.service.IRouterService;
 import org.jumpmind.symmetric.statistic.IStatisticManager;
+import org.jumpmind.util.LongArrayList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -237,6 +238,10 @@ public class DataGapDetector {
         return dataService.findDataGaps();
     }
 
+    public DataGapIndex getDataGapIndex() {
+        return new DataGapIndex(getDataGaps());
+    }
+
     public DataGap getLastDataGap() {
         List<DataGap> gaps = getDataGaps();
         if (gaps.size() > 0) {
@@ -245,7 +250,7 @@ public class DataGapDetector {
         return null;
     }
 
-    public void addDataIds(List<Long> dataIds) {
+    public void addDataIds(LongArrayList dataIds) {
     }
 
     public void setIsAllDataRead(boolean isAllDataRead) {
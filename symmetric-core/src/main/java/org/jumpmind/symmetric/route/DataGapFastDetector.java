@@ -25,7 +25,6 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,6 +51,7 @@ import org.jumpmind.symmetric.service.INodeService;
 import org.jumpmind.symmetric.service.IParameterService;
 import org.jumpmind.symmetric.service.IRouterService;
 import org.jumpmind.symmetric.statistic.IStatisticManager;
+import org.jumpmind.util.LongArrayList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,12 +63,13 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
     protected IContextService contextService;
     protected List<DataGap> gaps;
     protected DataGap lastGap;
-    protected List<Long> dataIds;
+    protected LongArrayList dataIds;
     protected boolean isAllDataRead = true;
     protected long maxDataToSelect;
     protected boolean isFullGapAnalysis = true;
     protected long lastBusyExpireRunTime;
-    protected Set<DataGap> gapsAll;
+    protected DataGapIndex gapIndex;
+    protected long dataGapVersion;
     protected Set<DataGap> gapsAdded;
     protected Set<DataGap> gapsDeleted;
     protected boolean detectInvalidGaps;
@@ -101,10 +102,7 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
                 processInfo.setStatus(ProcessStatus.QUERYING);
                 log.info("Full gap analysis is running");
                 long ts = System.currentTimeMillis();
-                gaps = dataService.findDataGaps();
-                if (detectInvalidGaps) {
-                    fixOverlappingGaps(gaps, processInfo);
-                }
+                loadDataGaps(processInfo);
                 queryDataIdMap();
                 processInfo.setStatus(ProcessStatus.OK);
                 log.info("Querying data in gaps from database took {} ms", System.currentTimeMillis() - ts);
@@ -112,14 +110,11 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
                 afterRouting();
                 reset();
                 log.info("Full gap analysis is done after {} ms", System.currentTimeMillis() - ts);
-            } else if (gaps == null || parameterService.is(ParameterConstants.CLUSTER_LOCKING_ENABLED)) {
+            } else if (isDataGapIndexStale()) {
                 ProcessInfo processInfo = this.statisticManager.newProcessInfo(new ProcessInfoKey(
                         nodeService.findIdentityNodeId(), null, ProcessType.GAP_DETECT));
                 processInfo.setStatus(ProcessStatus.QUERYING);
-                gaps = dataService.findDataGaps();
-                if (detectInvalidGaps) {
-                    fixOverlappingGaps(gaps, processInfo);
-                }
+                loadDataGaps(processInfo);
                 processInfo.setStatus(ProcessStatus.OK);
             }
         } finally {
@@ -127,10 +122,41 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
         }
     }
 
+    /**
+     * The in-memory gaps are kept up to date as routing changes them, so they only need to be queried on the first run, after an error, or when another
+     * node in the cluster has saved gap changes since they were loaded.
+     */
+    protected boolean isDataGapIndexStale() {
+        if (gaps == null || gapIndex == null) {
+            return true;
+        }
+        if (parameterService.is(ParameterConstants.CLUSTER_LOCKING_ENABLED)) {
+            return contextService.getLong(ContextConstants.ROUTING_DATA_GAP_VERSION) != dataGapVersion;
+        }
+        return false;
+    }
+
+    protected void loadDataGaps(ProcessInfo processInfo) {
+        if (parameterService.is(ParameterConstants.CLUSTER_LOCKING_ENABLED)) {
+            dataGapVersion = contextService.getLong(ContextConstants.ROUTING_DATA_GAP_VERSION);
+        }
+        gaps = dataService.findDataGaps();
+        if (detectInvalidGaps) {
+            fixOverlappingGaps(gaps, processInfo);
+        }
+        gapIndex = new DataGapIndex(gaps);
+    }
+
+    protected void saveDataGapVersion(ISqlTransaction transaction) {
+        if (parameterService.is(ParameterConstants.CLUSTER_LOCKING_ENABLED)) {
+            dataGapVersion++;
+            contextService.save(transaction, ContextConstants.ROUTING_DATA_GAP_VERSION, String.valueOf(dataGapVersion));
+        }
+    }
+
     protected void reset() {
         isAllDataRead = true;
-        dataIds = new ArrayList<Long>();
-        gapsAll = new HashSet<DataGap>();
+        dataIds = new LongArrayList();
         gapsAdded = new HashSet<DataGap>();
         gapsDeleted = new HashSet<DataGap>();
         routingStartTime = System.currentTimeMillis();
@@ -183,22 +209,32 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
             int dataIdCount = 0;
             int rangeChecked = 0;
             int expireChecked = 0;
-            gapsAll.addAll(gaps);
-            Map<DataGap, List<Long>> dataIdMap = getDataIdMap();
+            dataIds.sort();
             if (System.currentTimeMillis() - ts > 30000) {
-                log.info("It took {}ms to map {} data IDs into {} gaps", new Object[] { System.currentTimeMillis() - ts,
-                        dataIds.size(), gaps.size() });
+                log.info("It took {}ms to sort {} data IDs using {} bytes", new Object[] { System.currentTimeMillis() - ts,
+                        dataIds.size(), dataIds.getMemorySize() });
+            } else if (log.isDebugEnabled()) {
+                log.debug("Mapping {} data IDs into {} gaps using {} bytes", new Object[] { dataIds.size(), gaps.size(),
+                        dataIds.getMemorySize() });
             }
+            int dataIdIndex = 0;
             for (final DataGap dataGap : gaps) {
                 final boolean lastGap = dataGap.equals(gaps.get(gaps.size() - 1));
                 lastDataId = -1;
-                List<Long> ids = dataIdMap.get(dataGap);
-                dataIdCount += ids.size();
+                while (dataIdIndex < dataIds.size() && dataIds.get(dataIdIndex) < dataGap.getStartId()) {
+                    dataIdIndex++;
+                }
+                final int firstDataIdIndex = dataIdIndex;
+                while (dataIdIndex < dataIds.size() && dataIds.get(dataIdIndex) <= dataGap.getEndId()) {
+                    dataIdIndex++;
+                }
+                int idCount = dataIdIndex - firstDataIdIndex;
+                dataIdCount += idCount;
                 rangeChecked += dataGap.getEndId() - dataGap.getStartId();
                 // if we found data in the gap
-                if (ids.size() > 0) {
+                if (idCount > 0) {
                     gapsDeleted.add(dataGap);
-                    gapsAll.remove(dataGap);
+                    gapIndex.remove(dataGap);
                     // if we did not find data in the gap and it was not the last gap
                 } else if (!lastGap && (isAllDataRead || isBusyExpire)) {
                     Date createTime = dataGap.getCreateTime();
@@ -220,12 +256,12 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
                         if (isAllDataRead || isGapEmpty) {
                             skippedDataGaps.add(dataGap);
                             gapsDeleted.add(dataGap);
-                            gapsAll.remove(dataGap);
+                            gapIndex.remove(dataGap);
                         }
                     }
                 }
-                for (Number number : ids) {
-                    long dataId = number.longValue();
+                for (int i = firstDataIdIndex; i < dataIdIndex; i++) {
+                    long dataId = dataIds.get(i);
                     processInfo.incrementCurrentDataCount();
                     if (lastDataId == -1 && dataGap.getStartId() + dataIdIncrementBy <= dataId) {
                         // there was a new gap at the start
@@ -254,9 +290,7 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
                 }
             }
             saveDataGaps();
-            if (gaps.size() > 0) {
-                lastGap = gaps.get(gaps.size() - 1);
-            }
+            lastGap = gapIndex.last();
             setFullGapAnalysis(false);
             if (isBusyExpire) {
                 setLastBusyExpireRunTime(System.currentTimeMillis());
@@ -268,6 +302,8 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
             processInfo.setStatus(ProcessStatus.OK);
         } catch (RuntimeException ex) {
             processInfo.setStatus(ProcessStatus.ERROR);
+            // the index may no longer match the database, so reload it on the next run
+            gapIndex = null;
             throw ex;
         } finally {
             logSkippedDataGaps(skippedDataGaps);
@@ -277,7 +313,7 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
     protected boolean addDataGap(DataGap dataGap) {
         boolean isOkay = true;
         if (detectInvalidGaps) {
-            if (gapsAll.contains(dataGap)) {
+            if (gapIndex.contains(dataGap)) {
                 log.warn("Detected a duplicate data gap: " + dataGap);
                 isOkay = false;
             } else if (dataGap.getStartId() > dataGap.getEndId()) {
@@ -290,7 +326,7 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
         }
         if (isOkay) {
             gapsAdded.add(dataGap);
-            gapsAll.add(dataGap);
+            gapIndex.add(dataGap);
         } else {
             printGapState();
         }
@@ -311,8 +347,7 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
         int totalGapChanges = gapsDeleted.size() + gapsAdded.size();
         if (totalGapChanges > 0) {
             ISqlTransaction transaction = null;
-            gaps = new ArrayList<DataGap>(gapsAll);
-            Collections.sort(gaps);
+            gaps = gapIndex.toList();
             try {
                 transaction = sqlTemplate.startSqlTransaction();
                 int maxGapChanges = parameterService.getInt(ParameterConstants.ROUTING_MAX_GAP_CHANGES);
@@ -336,6 +371,7 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
                     dataService.deleteDataGaps(transaction, gapsDeleted);
                     dataService.insertDataGaps(transaction, gapsAdded);
                 }
+                saveDataGapVersion(transaction);
                 transaction.commit();
             } catch (Error ex) {
                 if (transaction != null) {
@@ -362,7 +398,9 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
             long queryForIdsTs = System.currentTimeMillis();
             Object[] params = new Object[] { dataGap.getStartId(), dataGap.getEndId() };
             List<Long> ids = sqlTemplate.query(sql, this, params);
-            dataIds.addAll(ids);
+            for (Long id : ids) {
+                dataIds.add(id);
+            }
             if (System.currentTimeMillis() - queryForIdsTs > Constants.LONG_OPERATION_THRESHOLD) {
                 log.info("It took longer than {}ms to run the following sql for gap from {} to {}.  {}",
                         new Object[] { Constants.LONG_OPERATION_THRESHOLD, dataGap.getStartId(), dataGap.getEndId(), sql });
@@ -370,31 +408,6 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
         }
     }
 
-    protected Map<DataGap, List<Long>> getDataIdMap() {
-        HashMap<DataGap, List<Long>> map = new HashMap<DataGap, List<Long>>();
-        Collections.sort(dataIds);
-        Iterator<Long> iterator = dataIds.iterator();
-        long dataId = -1;
-        if (iterator.hasNext()) {
-            dataId = iterator.next().longValue();
-        }
-        for (DataGap gap : gaps) {
-            List<Long> idList = map.get(gap);
-            if (idList == null) {
-                idList = new ArrayList<Long>();
-                map.put(gap, idList);
-            }
-            do {
-                if (dataId >= gap.getStartId() && dataId <= gap.getEndId()) {
-                    idList.add(dataId);
-                } else {
-                    break;
-                }
-            } while (iterator.hasNext() && (dataId = iterator.next().longValue()) != -1);
-        }
-        return map;
-    }
-
     protected void fixOverlappingGaps(List<DataGap> gapsToCheck, ProcessInfo processInfo) {
         List<DataGap> gapsCopy = new ArrayList<DataGap>(gapsToCheck);
         boolean ok = true;
@@ -439,6 +452,9 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
                     }
                     prevGap = curGap;
                 }
+                if (!ok) {
+                    saveDataGapVersion(transaction);
+                }
                 transaction.commit();
                 if (!ok) {
                     printGapState();
@@ -534,13 +550,18 @@ public class DataGapFastDetector extends DataGapDetector implements ISqlRowMappe
         return gaps;
     }
 
+    @Override
+    public DataGapIndex getDataGapIndex() {
+        return gapIndex;
+    }
+
     @Override
     public DataGap getLastDataGap() {
         return lastGap;
     }
 
     @Override
-    public void addDataIds(List<Long> dataIds) {
+    public void addDataIds(LongArrayList dataIds) {
         this.dataIds.addAll(dataIds);
     }
 
@@ -0,0 +1,160 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.route;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.jumpmind.symmetric.model.DataGap;
+
+/**
+ * Sorted index of open data gaps that is maintained incrementally as gaps are added, expired and split. Lookups, additions and removals are O(log n),
+ * so routing threads can share one index instead of copying and scanning the list of gaps for every channel.
+ */
+public class DataGapIndex {
+    protected TreeSet<DataGap> gaps = new TreeSet<DataGap>();
+    protected ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public DataGapIndex() {
+    }
+
+    public DataGapIndex(Collection<DataGap> gaps) {
+        if (gaps != null) {
+            this.gaps.addAll(gaps);
+        }
+    }
+
+    public boolean add(DataGap gap) {
+        lock.writeLock().lock();
+        try {
+            return gaps.add(gap);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(DataGap gap) {
+        lock.writeLock().lock();
+        try {
+            return gaps.remove(gap);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(DataGap gap) {
+        lock.readLock().lock();
+        try {
+            return gaps.contains(gap);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the gap that contains the data ID, which is the gap with the greatest start ID that is not after it.
+     */
+    public DataGap findGap(long dataId) {
+        lock.readLock().lock();
+        try {
+            DataGap gap = gaps.floor(new DataGap(dataId, Long.MAX_VALUE, null));
+            if (gap != null && dataId <= gap.getEndId()) {
+                return gap;
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isInDataGap(long dataId) {
+        return findGap(dataId) != null;
+    }
+
+    public DataGap first() {
+        lock.readLock().lock();
+        try {
+            return gaps.isEmpty() ? null : gaps.first();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public DataGap last() {
+        lock.readLock().lock();
+        try {
+            return gaps.isEmpty() ? null : gaps.last();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the gap that follows the given gap in data ID order, or null if it is the last one.
+     */
+    public DataGap next(DataGap gap) {
+        lock.readLock().lock();
+        try {
+            return gaps.higher(gap);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return gaps.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Get a sorted copy of the gaps.
+     */
+    public List<DataGap> toList() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<DataGap>(gaps);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.readLock().lock();
+        try {
+            return gaps.toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -23,9 +23,6 @@ package org.jumpmind.symmetric.route;
 import static org.jumpmind.symmetric.common.Constants.LOG_PROCESS_SUMMARY_THRESHOLD;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -53,7 +50,7 @@ import org.slf4j.MDC;
  */
 public class DataGapRouteReader implements IDataToRouteReader {
     private final static Logger log = LoggerFactory.getLogger(DataGapRouteReader.class);
-    protected List<DataGap> dataGaps;
+    protected DataGapIndex dataGaps;
     protected DataGap currentGap;
     protected BlockingQueue<Data> dataQueue;
     protected ChannelRouterContext context;
@@ -98,9 +95,11 @@ public class DataGapRouteReader implements IDataToRouteReader {
     protected void execute() {
         ISymmetricDialect symmetricDialect = engine.getSymmetricDialect();
         IDataGapRouteCursor cursor = null;
-        processInfo = engine.getStatisticManager().newProcessInfo(
-                new ProcessInfoKey(engine.getNodeService().findIdentityNodeId(), null,
-                        ProcessType.ROUTER_READER));
+        // readers for channels routed in parallel need their own process info
+        String queue = context.getGapDetector() instanceof DeferredDataGapDetector ? context.getChannel().getChannelId() : null;
+        processInfo = engine.getStatisticManager().newProcessInfo(queue != null
+                ? new ProcessInfoKey(engine.getNodeService().findIdentityNodeId(), queue, null, ProcessType.ROUTER_READER)
+                : new ProcessInfoKey(engine.getNodeService().findIdentityNodeId(), null, ProcessType.ROUTER_READER));
         processInfo.setCurrentChannelId(context.getChannel().getChannelId());
         try {
             boolean transactional = !context.getChannel().getBatchAlgorithm()
@@ -116,11 +115,11 @@ public class DataGapRouteReader implements IDataToRouteReader {
             isEachGapQueried = cursor.isEachGapQueried();
             if (isOracleNoOrder) {
                 // for oracle no-order mode, it will use a read-only check that each data is in a gap
-                dataGaps = context.getDataGaps();
+                dataGaps = context.getDataGapIndex();
             } else if (!isEachGapQueried) {
-                // for a wide-open query that uses only the first gap, it will check each gap in memory and remove it from the list
-                dataGaps = new ArrayList<DataGap>(context.getDataGaps());
-                currentGap = dataGaps.remove(0);
+                // for a wide-open query that uses only the first gap, it will walk the gaps in order as data moves past them
+                dataGaps = context.getDataGapIndex();
+                currentGap = dataGaps.first();
             }
             processInfo.setStatus(ProcessStatus.EXTRACTING);
             if (transactional) {
@@ -151,76 +150,74 @@ public class DataGapRouteReader implements IDataToRouteReader {
 
     protected void executeTransactional(ISqlReadCursor<Data> cursor) throws Exception {
         long maxPeekAheadSizeInBytes = (long) (Runtime.getRuntime().maxMemory() * percentOfHeapToUse);
-        int lastPeekAheadIndex = 0;
         int dataCount = 0;
         long maxDataToRoute = context.getChannel().getMaxDataToRoute();
-        List<Data> peekAheadQueue = new ArrayList<Data>(peekAheadCount);
+        PeekAheadQueue peekAheadQueue = new PeekAheadQueue(peekAheadCount);
         boolean moreData = true;
-        while (dataCount < maxDataToRoute || (lastTransactionId != null)) {
-            if (moreData && (lastTransactionId != null || peekAheadQueue.size() == 0)) {
-                moreData = fillPeekAheadQueue(peekAheadQueue, peekAheadCount, cursor);
-            }
-            int dataWithSameTransactionIdCount = 0;
-            while (peekAheadQueue.size() > 0 && lastTransactionId == null &&
-                    dataCount < maxDataToRoute) {
-                Data data = peekAheadQueue.remove(0);
-                copyToQueue(data);
-                dataCount++;
-                processInfo.incrementCurrentDataCount();
-                processInfo.setCurrentTableName(data.getTableName());
-                lastTransactionId = data.getTransactionId();
-                dataWithSameTransactionIdCount++;
-            }
-            if (lastTransactionId != null && peekAheadQueue.size() > 0) {
-                Iterator<Data> datas = peekAheadQueue.iterator();
-                int index = 0;
-                while (datas.hasNext()) {
-                    Data data = datas.next();
-                    if (lastTransactionId.equals(data.getTransactionId())) {
+        try {
+            while (dataCount < maxDataToRoute || (lastTransactionId != null)) {
+                if (moreData && (lastTransactionId != null || peekAheadQueue.isEmpty())) {
+                    moreData = fillPeekAheadQueue(peekAheadQueue, peekAheadCount, cursor);
+                }
+                int dataWithSameTransactionIdCount = 0;
+                while (!peekAheadQueue.isEmpty() && lastTransactionId == null &&
+                        dataCount < maxDataToRoute) {
+                    Data data = peekAheadQueue.poll();
+                    copyToQueue(data);
+                    dataCount++;
+                    processInfo.incrementCurrentDataCount();
+                    processInfo.setCurrentTableName(data.getTableName());
+                    lastTransactionId = data.getTransactionId();
+                    dataWithSameTransactionIdCount++;
+                }
+                if (lastTransactionId != null && !peekAheadQueue.isEmpty()) {
+                    for (Data data : peekAheadQueue.pollTransaction(lastTransactionId)) {
                         dataWithSameTransactionIdCount++;
-                        datas.remove();
                         copyToQueue(data);
                         dataCount++;
                         processInfo.incrementCurrentDataCount();
                         processInfo.setCurrentTableName(data.getTableName());
-                        lastPeekAheadIndex = index;
-                    } else {
-                        index++;
+                    }
+                    if (dataWithSameTransactionIdCount == 0 || peekAheadQueue.getReadCountSinceLastTaken() > peekAheadCount) {
+                        lastTransactionId = null;
                     }
                 }
-                if (dataWithSameTransactionIdCount == 0 || peekAheadQueue.size() - lastPeekAheadIndex > peekAheadCount) {
-                    lastTransactionId = null;
-                    lastPeekAheadIndex = 0;
+                if (!moreData && peekAheadQueue.isEmpty()) {
+                    // we've reached the end of the result set
+                    break;
+                } else if (peekAheadSizeInBytes >= maxPeekAheadSizeInBytes) {
+                    log.info("The peek ahead queue has reached its max size of {} bytes.  Finishing reading the current transaction", peekAheadSizeInBytes);
+                    finishTransactionMode = true;
+                    peekAheadQueue.clear();
                 }
             }
-            if (!moreData && peekAheadQueue.size() == 0) {
-                // we've reached the end of the result set
-                break;
-            } else if (peekAheadSizeInBytes >= maxPeekAheadSizeInBytes) {
-                log.info("The peek ahead queue has reached its max size of {} bytes.  Finishing reading the current transaction", peekAheadSizeInBytes);
-                finishTransactionMode = true;
-                peekAheadQueue.clear();
-            }
+        } finally {
+            context.incrementStat(peekAheadQueue.getScanCount(), ChannelRouterContext.STAT_PEEK_AHEAD_SCAN_COUNT);
+            context.incrementStat(peekAheadQueue.getTransactionCount(), ChannelRouterContext.STAT_PEEK_AHEAD_TRANSACTION_COUNT);
         }
     }
 
     protected void executeNonTransactional(ISqlReadCursor<Data> cursor) throws Exception {
         long maxDataToRoute = context.getChannel().getMaxDataToRoute();
-        List<Data> peekAheadQueue = new ArrayList<Data>(peekAheadCount);
+        PeekAheadQueue peekAheadQueue = new PeekAheadQueue(peekAheadCount);
         int dataCount = 0;
-        while (dataCount < maxDataToRoute) {
-            fillPeekAheadQueue(peekAheadQueue, peekAheadCount, cursor);
-            if (peekAheadQueue.size() > 0) {
-                while (peekAheadQueue.size() > 0 && dataCount < maxDataToRoute) {
-                    Data data = peekAheadQueue.remove(0);
-                    copyToQueue(data);
-                    dataCount++;
-                    processInfo.incrementCurrentDataCount();
-                    processInfo.setCurrentTableName(data.getTableName());
+        try {
+            while (dataCount < maxDataToRoute) {
+                fillPeekAheadQueue(peekAheadQueue, peekAheadCount, cursor);
+                if (!peekAheadQueue.isEmpty()) {
+                    while (!peekAheadQueue.isEmpty() && dataCount < maxDataToRoute) {
+                        Data data = peekAheadQueue.poll();
+                        copyToQueue(data);
+                        dataCount++;
+                        processInfo.incrementCurrentDataCount();
+                        processInfo.setCurrentTableName(data.getTableName());
+                    }
+                } else {
+                    break;
                 }
-            } else {
-                break;
             }
+        } finally {
+            context.incrementStat(peekAheadQueue.getScanCount(), ChannelRouterContext.STAT_PEEK_AHEAD_SCAN_COUNT);
         }
     }
 
@@ -240,11 +237,7 @@ public class DataGapRouteReader implements IDataToRouteReader {
                         okToProcess = true;
                     } else {
                         // past current gap. move to next gap
-                        if (dataGaps.size() > 0) {
-                            currentGap = dataGaps.remove(0);
-                        } else {
-                            currentGap = null;
-                        }
+                        currentGap = dataGaps.next(currentGap);
                     }
                 }
             }
@@ -253,22 +246,7 @@ public class DataGapRouteReader implements IDataToRouteReader {
     }
 
     protected boolean isInDataGap(long dataId) {
-        // binary search algorithm
-        int start = 0;
-        int end = dataGaps.size() - 1;
-        while (start <= end) {
-            int mid = (start + end) / 2;
-            DataGap midGap = dataGaps.get(mid);
-            if (dataId >= midGap.getStartId() && dataId <= midGap.getEndId()) {
-                return true;
-            }
-            if (dataId < midGap.getStartId()) {
-                end = mid - 1;
-            } else {
-                start = mid + 1;
-            }
-        }
-        return false;
+        return dataGaps.isInDataGap(dataId);
     }
 
     public Data take() throws InterruptedException {
@@ -285,7 +263,7 @@ public class DataGapRouteReader implements IDataToRouteReader {
         return data;
     }
 
-    protected boolean fillPeekAheadQueue(List<Data> peekAheadQueue, int peekAheadCount,
+    protected boolean fillPeekAheadQueue(PeekAheadQueue peekAheadQueue, int peekAheadCount,
             ISqlReadCursor<Data> cursor) throws SQLException {
         boolean moreData = true;
         int dataCount = 0;
@@ -0,0 +1,126 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.route;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jumpmind.db.sql.ISqlTransaction;
+import org.jumpmind.symmetric.model.DataGap;
+import org.jumpmind.symmetric.model.NodeChannel;
+import org.jumpmind.symmetric.model.OutgoingBatch;
+import org.jumpmind.util.LongArrayList;
+
+/**
+ * Collects the gap bookkeeping for one channel that is routed on its own thread. The data IDs and read state are held until all channels are done, then
+ * applied to the shared {@link DataGapDetector} with {@link #flush()}, so gap analysis only ever runs on the routing job thread.
+ */
+public class DeferredDataGapDetector extends DataGapDetector {
+    protected DataGapDetector gapDetector;
+    protected NodeChannel nodeChannel;
+    protected LongArrayList dataIds = new LongArrayList();
+    protected boolean isAllDataRead = true;
+    protected boolean retryWithBigLob;
+    protected Map<String, OutgoingBatch> retryBatchesByNodes;
+    protected Map<Integer, Map<String, OutgoingBatch>> retryBatchesByGroups;
+
+    public DeferredDataGapDetector(DataGapDetector gapDetector, NodeChannel nodeChannel) {
+        this.gapDetector = gapDetector;
+        this.nodeChannel = nodeChannel;
+    }
+
+    @Override
+    public void beforeRouting() {
+    }
+
+    @Override
+    public void afterRouting() {
+    }
+
+    @Override
+    public List<DataGap> getDataGaps() {
+        return gapDetector.getDataGaps();
+    }
+
+    @Override
+    public DataGapIndex getDataGapIndex() {
+        return gapDetector.getDataGapIndex();
+    }
+
+    @Override
+    public DataGap getLastDataGap() {
+        return gapDetector.getLastDataGap();
+    }
+
+    @Override
+    public void addDataIds(LongArrayList dataIds) {
+        this.dataIds.addAll(dataIds);
+    }
+
+    @Override
+    public void setIsAllDataRead(boolean isAllDataRead) {
+        this.isAllDataRead &= isAllDataRead;
+    }
+
+    @Override
+    public void setFullGapAnalysis(boolean isFullGapAnalysis) {
+    }
+
+    /**
+     * The request was already saved and committed by the routing job thread before the channels were submitted, so the shared context row is not
+     * updated again in each channel's transaction, which would serialize the channels on that row when cluster locking is enabled.
+     */
+    @Override
+    public void setFullGapAnalysis(ISqlTransaction sqlTransaction, boolean isFullGapAnalysis) {
+    }
+
+    /**
+     * The retry with contains_big_lobs enabled has to re-read from updated gaps, so it is held until the shared detector has run.
+     */
+    public void retryWithBigLob(Map<String, OutgoingBatch> batchesByNodes, Map<Integer, Map<String, OutgoingBatch>> batchesByGroups) {
+        this.retryWithBigLob = true;
+        this.retryBatchesByNodes = new HashMap<String, OutgoingBatch>(batchesByNodes);
+        this.retryBatchesByGroups = new HashMap<Integer, Map<String, OutgoingBatch>>(batchesByGroups);
+    }
+
+    public void flush() {
+        gapDetector.addDataIds(dataIds);
+        gapDetector.setIsAllDataRead(isAllDataRead);
+        dataIds.clear();
+    }
+
+    public boolean isRetryWithBigLob() {
+        return retryWithBigLob;
+    }
+
+    public Map<String, OutgoingBatch> getRetryBatchesByNodes() {
+        return retryBatchesByNodes;
+    }
+
+    public Map<Integer, Map<String, OutgoingBatch>> getRetryBatchesByGroups() {
+        return retryBatchesByGroups;
+    }
+
+    public NodeChannel getNodeChannel() {
+        return nodeChannel;
+    }
+}
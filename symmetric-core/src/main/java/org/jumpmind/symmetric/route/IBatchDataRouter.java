@@ -0,0 +1,42 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.route;
+
+import java.util.List;
+import java.util.Set;
+
+import org.jumpmind.symmetric.model.DataMetaData;
+import org.jumpmind.symmetric.model.TriggerRouter;
+
+/**
+ * A data router that can look up the nodes for many rows at once. Before routing, the router service reads rows ahead and passes the ones for
+ * each trigger router to {@link #prefetch(SimpleRouterContext, TriggerRouter, List, Set)}, so the router can resolve them with one query and
+ * answer {@link #routeToNodes} from what it found.
+ */
+public interface IBatchDataRouter extends IDataRouter {
+    /**
+     * @param dataMetaDatas
+     *            The rows that will be routed next by the trigger router
+     * @param changedTableNames
+     *            The names of the tables changed by all the rows that were read ahead, which can make earlier results stale
+     */
+    public void prefetch(SimpleRouterContext context, TriggerRouter triggerRouter, List<DataMetaData> dataMetaDatas, Set<String> changedTableNames);
+}
@@ -0,0 +1,171 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.route;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * External IDs by key for a lookup table used by the {@link LookupTableDataRouter}, kept between routing runs. A lookup table usually maps
+ * many keys to a few nodes, so external IDs are interned and a key with one external ID holds the string itself instead of a set.
+ */
+public class LookupTableCache {
+    protected Map<String, Object> externalIdsByKey = new HashMap<String, Object>();
+    protected Map<String, String> externalIds = new HashMap<String, String>();
+    protected Set<Long> appliedDataIds = new HashSet<Long>();
+    protected ReadWriteLock lock = new ReentrantReadWriteLock();
+    protected long loadTime;
+    protected long lastDataId = -1;
+    protected boolean captured;
+
+    public LookupTableCache() {
+        loadTime = System.currentTimeMillis();
+    }
+
+    public Collection<String> getExternalIds(String key) {
+        lock.readLock().lock();
+        try {
+            Object value = externalIdsByKey.get(key);
+            if (value == null && externalIdsByKey.containsKey(key)) {
+                return Collections.singletonList(null);
+            }
+            return toCollection(value);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(String key, String externalId) {
+        lock.writeLock().lock();
+        try {
+            addExternalId(key, externalId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the external IDs for each of the keys with the ones found for it, removing keys that were not found.
+     */
+    public void replace(Collection<String> keys, Map<String, ? extends Collection<String>> externalIdsFound) {
+        lock.writeLock().lock();
+        try {
+            for (String key : keys) {
+                externalIdsByKey.remove(key);
+                Collection<String> ids = externalIdsFound.get(key);
+                if (ids != null) {
+                    for (String id : ids) {
+                        addExternalId(key, id);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return externalIdsByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Remember that a captured change was applied, so it is skipped when it is read again. Changes at or below the data ID are forgotten
+     * because they will not be read again.
+     * 
+     * @return false if the change was already applied
+     */
+    public synchronized boolean markApplied(long dataId, long minDataIdToRead) {
+        if (appliedDataIds.size() > 0) {
+            appliedDataIds.removeIf(id -> id <= minDataIdToRead);
+        }
+        return appliedDataIds.add(dataId);
+    }
+
+    public long getLoadTime() {
+        return loadTime;
+    }
+
+    public long getLastDataId() {
+        return lastDataId;
+    }
+
+    public void setLastDataId(long lastDataId) {
+        this.lastDataId = lastDataId;
+    }
+
+    public boolean isCaptured() {
+        return captured;
+    }
+
+    public void setCaptured(boolean captured) {
+        this.captured = captured;
+    }
+
+    protected void addExternalId(String key, String externalId) {
+        String interned = externalIds.get(externalId);
+        if (interned == null) {
+            interned = externalId;
+            externalIds.put(interned, interned);
+        }
+        Object current = externalIdsByKey.get(key);
+        if (current == null && !externalIdsByKey.containsKey(key)) {
+            externalIdsByKey.put(key, interned);
+        } else if (current instanceof String[]) {
+            String[] ids = (String[]) current;
+            for (String id : ids) {
+                if (equals(id, interned)) {
+                    return;
+                }
+            }
+            String[] newIds = Arrays.copyOf(ids, ids.length + 1);
+            newIds[ids.length] = interned;
+            externalIdsByKey.put(key, newIds);
+        } else if (!equals((String) current, interned)) {
+            externalIdsByKey.put(key, new String[] { (String) current, interned });
+        }
+    }
+
+    protected static Collection<String> toCollection(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof String[]) {
+            return Collections.unmodifiableList(Arrays.asList((String[]) value));
+        } else {
+            return Collections.singletonList((String) value);
+        }
+    }
+
+    protected static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -21,21 +21,33 @@
 package org.jumpmind.symmetric.route;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jumpmind.db.model.Column;
+import org.jumpmind.db.model.Table;
 import org.jumpmind.db.sql.ISqlRowMapper;
 import org.jumpmind.db.sql.ISqlTemplate;
 import org.jumpmind.db.sql.Row;
 import org.jumpmind.extension.IBuiltInExtensionPoint;
 import org.jumpmind.symmetric.SyntaxParsingException;
+import org.jumpmind.symmetric.common.ParameterConstants;
+import org.jumpmind.symmetric.common.TableConstants;
 import org.jumpmind.symmetric.db.ISymmetricDialect;
+import org.jumpmind.symmetric.io.data.CsvUtils;
+import org.jumpmind.symmetric.io.data.DataEventType;
 import org.jumpmind.symmetric.model.DataMetaData;
 import org.jumpmind.symmetric.model.Node;
 import org.jumpmind.symmetric.model.Router;
+import org.jumpmind.symmetric.model.TriggerHistory;
 import org.jumpmind.symmetric.model.TriggerRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,7 +66,9 @@ public class LookupTableDataRouter extends AbstractDataRouter implements IDataRo
             LookupTableDataRouter.class.getName());
     final static String LOOKUP_TABLE_KEY = String.format("%s.Table.",
             LookupTableDataRouter.class.getName());
+    final static int MAX_KEYS_PER_QUERY = 100;
     private ISymmetricDialect symmetricDialect;
+    protected Map<String, LookupTableCache> lookupTableCaches = new ConcurrentHashMap<String, LookupTableCache>();
 
     public LookupTableDataRouter(ISymmetricDialect symmetricDialect) {
         this.symmetricDialect = symmetricDialect;
@@ -73,11 +87,11 @@ public class LookupTableDataRouter extends AbstractDataRouter implements IDataRo
             Map<String, String> params = null;
             params = getParams(router, routingContext);
             Map<String, String> dataMap = getDataMap(dataMetaData, symmetricDialect);
-            Map<String, Set<String>> lookupTable = getLookupTable(params, router, routingContext);
+            LookupTableCache lookupTable = getLookupTable(params, router, routingContext);
             String column = params.get(PARAM_KEY_COLUMN);
             if (dataMap.containsKey(column)) {
                 String keyData = dataMap.get(column);
-                Set<String> externalIds = lookupTable.get(keyData);
+                Collection<String> externalIds = lookupTable.getExternalIds(keyData);
                 if (externalIds != null) {
                     for (Node node : nodes) {
                         if (externalIds.contains(node.getExternalId()) || externalIds.contains(params.get(PARAM_ALL_NODES_VALUE))) {
@@ -161,10 +175,10 @@ public class LookupTableDataRouter extends AbstractDataRouter implements IDataRo
         private long tenSecondTimer;
         private long ts;
         private final Map<String, String> params;
-        private Map<String, Set<String>> fillMap;
+        private LookupTableCache lookupTable;
 
-        public RowMapper(Map<String, Set<String>> fillMap, final Map<String, String> params) {
-            this.fillMap = fillMap;
+        public RowMapper(LookupTableCache lookupTable, final Map<String, String> params) {
+            this.lookupTable = lookupTable;
             this.params = params;
             this.numRows = 0;
             this.bytes = 0;
@@ -195,37 +209,269 @@ public class LookupTableDataRouter extends AbstractDataRouter implements IDataRo
                         numRows, bytes);
                 tenSecondTimer = System.currentTimeMillis();
             }
-            Set<String> ids = fillMap.get(key);
-            if (ids == null) {
-                ids = new HashSet<String>();
-                fillMap.put(key, ids);
+            if (lookupTable.getExternalIds(key) == null) {
                 bytes += key == null ? 0 : key.getBytes(Charset.defaultCharset()).length;
             }
-            ids.add(value);
+            lookupTable.add(key, value);
             return value;
         }
     }
 
-    @SuppressWarnings("unchecked")
-    protected Map<String, Set<String>> getLookupTable(final Map<String, String> params, Router router,
+    protected LookupTableCache getLookupTable(final Map<String, String> params, Router router,
             SimpleRouterContext routingContext) {
-        final String CTX_CACHE_KEY = LOOKUP_TABLE_KEY + "." + params.get(PARAM_LOOKUP_TABLE);
-        Map<String, Set<String>> lookupMap = (Map<String, Set<String>>) routingContext
-                .getContextCache().get(CTX_CACHE_KEY);
-        if (lookupMap == null) {
-            ISqlTemplate template = symmetricDialect.getPlatform().getSqlTemplate();
-            final Map<String, Set<String>> fillMap = new HashMap<String, Set<String>>();
-            RowMapper rowMapper = new RowMapper(fillMap, params);
-            template.query(String.format("select %s, %s from %s",
-                    params.get(PARAM_MAPPED_KEY_COLUMN), params.get(PARAM_EXTERNAL_ID_COLUMN),
-                    params.get(PARAM_LOOKUP_TABLE)), rowMapper);
-            if (System.currentTimeMillis() - rowMapper.getTs() > 10000) {
-                log.info("Done querying table {} for {} seconds, {} rows, and {} bytes", params.get(PARAM_LOOKUP_TABLE), ((System.currentTimeMillis()
-                        - rowMapper.getTs())) / 1000, rowMapper.getNumRows(), rowMapper.getBytes());
+        final String CTX_CACHE_KEY = LOOKUP_TABLE_KEY + "." + params.get(PARAM_LOOKUP_TABLE) + "."
+                + params.get(PARAM_MAPPED_KEY_COLUMN) + "." + params.get(PARAM_EXTERNAL_ID_COLUMN);
+        LookupTableCache lookupTable = (LookupTableCache) routingContext.getContextCache().get(CTX_CACHE_KEY);
+        if (lookupTable == null) {
+            lookupTable = refreshLookupTable(CTX_CACHE_KEY, params);
+            routingContext.getContextCache().put(CTX_CACHE_KEY, lookupTable);
+        }
+        return lookupTable;
+    }
+
+    /**
+     * Get the lookup table kept from earlier routing runs after applying the changes captured for it since then. It is loaded again when it
+     * is older than the cache time, when its trigger does not capture every change, or when a captured change does not say which key it
+     * affected.
+     */
+    protected synchronized LookupTableCache refreshLookupTable(String cacheKey, Map<String, String> params) {
+        long cacheTimeMs = symmetricDialect.getParameterService().getLong(ParameterConstants.ROUTING_LOOKUP_TABLE_CACHE_TIME_MS, 0);
+        LookupTableCache lookupTable = lookupTableCaches.get(cacheKey);
+        if (lookupTable == null || cacheTimeMs <= 0 || !lookupTable.isCaptured()
+                || System.currentTimeMillis() - lookupTable.getLoadTime() > cacheTimeMs
+                || !applyCapturedChanges(lookupTable, params)) {
+            lookupTable = loadLookupTable(params, cacheTimeMs > 0);
+            if (cacheTimeMs > 0 && lookupTable.isCaptured()) {
+                lookupTableCaches.put(cacheKey, lookupTable);
+            } else {
+                lookupTableCaches.remove(cacheKey);
+            }
+        }
+        return lookupTable;
+    }
+
+    protected LookupTableCache loadLookupTable(final Map<String, String> params, boolean trackChanges) {
+        ISqlTemplate template = symmetricDialect.getPlatform().getSqlTemplate();
+        LookupTableCache lookupTable = new LookupTableCache();
+        if (trackChanges && getCapturingTriggerHistories(params) != null) {
+            lookupTable.setCaptured(true);
+            lookupTable.setLastDataId(getMaxDataId(template));
+        }
+        RowMapper rowMapper = new RowMapper(lookupTable, params);
+        template.query(String.format("select %s, %s from %s",
+                params.get(PARAM_MAPPED_KEY_COLUMN), params.get(PARAM_EXTERNAL_ID_COLUMN),
+                params.get(PARAM_LOOKUP_TABLE)), rowMapper);
+        if (System.currentTimeMillis() - rowMapper.getTs() > 10000) {
+            log.info("Done querying table {} for {} seconds, {} rows, and {} bytes", params.get(PARAM_LOOKUP_TABLE), ((System.currentTimeMillis()
+                    - rowMapper.getTs())) / 1000, rowMapper.getNumRows(), rowMapper.getBytes());
+        }
+        return lookupTable;
+    }
+
+    /**
+     * Get the trigger histories of the lookup table by ID when its active triggers capture every change to the key column, including
+     * changes loaded from other nodes, so that the captured data can be trusted to keep the cached rows current.
+     * 
+     * @return null if a change to the lookup table might not be captured
+     */
+    protected Map<Integer, TriggerHistory> getCapturingTriggerHistories(final Map<String, String> params) {
+        String tablePrefix = symmetricDialect.getTablePrefix();
+        String[] names = params.get(PARAM_LOOKUP_TABLE).split("\\.");
+        String tableName = names[names.length - 1];
+        String schemaName = names.length > 1 ? names[names.length - 2] : symmetricDialect.getPlatform().getDefaultSchema();
+        String catalogName = names.length > 2 ? names[names.length - 3] : symmetricDialect.getPlatform().getDefaultCatalog();
+        final String keyColumn = params.get(PARAM_MAPPED_KEY_COLUMN);
+        final Map<Integer, TriggerHistory> histories = new HashMap<Integer, TriggerHistory>();
+        final boolean[] captured = new boolean[] { false, true };
+        symmetricDialect.getPlatform().getSqlTemplate().query(String.format(
+                "select h.trigger_hist_id, h.source_catalog_name, h.source_schema_name, h.column_names, h.pk_column_names, h.inactive_time, "
+                        + "t.trigger_id, t.sync_on_insert, t.sync_on_update, t.sync_on_delete, t.sync_on_incoming_batch, t.use_capture_old_data, "
+                        + "t.sync_on_insert_condition, t.sync_on_update_condition, t.sync_on_delete_condition "
+                        + "from %s h left outer join %s t on t.trigger_id = h.trigger_id where upper(h.source_table_name) = ?",
+                TableConstants.getTableName(tablePrefix, TableConstants.SYM_TRIGGER_HIST),
+                TableConstants.getTableName(tablePrefix, TableConstants.SYM_TRIGGER)), rs -> {
+                    if (!isSameName(rs.getString("source_schema_name"), schemaName)
+                            || !isSameName(rs.getString("source_catalog_name"), catalogName)) {
+                        return null;
+                    }
+                    TriggerHistory history = new TriggerHistory();
+                    history.setTriggerHistoryId(rs.getInt("trigger_hist_id"));
+                    history.setColumnNames(rs.getString("column_names"));
+                    history.setPkColumnNames(rs.getString("pk_column_names"));
+                    histories.put(history.getTriggerHistoryId(), history);
+                    if (rs.get("inactive_time") == null) {
+                        captured[0] = true;
+                        boolean keyIsPrimaryKey = containsIgnoreCase(history.getParsedPkColumnNames(), keyColumn);
+                        if (rs.get("trigger_id") == null || !rs.getBoolean("sync_on_insert") || !rs.getBoolean("sync_on_update")
+                                || !rs.getBoolean("sync_on_delete") || !rs.getBoolean("sync_on_incoming_batch")
+                                || (!keyIsPrimaryKey && !rs.getBoolean("use_capture_old_data"))
+                                || !isUnconditional(rs.getString("sync_on_insert_condition"))
+                                || !isUnconditional(rs.getString("sync_on_update_condition"))
+                                || !isUnconditional(rs.getString("sync_on_delete_condition"))
+                                || !containsIgnoreCase(history.getParsedColumnNames(), keyColumn)) {
+                            captured[1] = false;
+                        }
+                    }
+                    return null;
+                }, tableName.toUpperCase());
+        if (!captured[0] || !captured[1]) {
+            log.debug("Not keeping lookup table {} between routing runs because its trigger does not capture every change",
+                    params.get(PARAM_LOOKUP_TABLE));
+            return null;
+        }
+        return histories;
+    }
+
+    /**
+     * Read the changes captured for the lookup table that have not been seen yet and query the table again for the keys they affected.
+     * Reading is bounded by the last data ID read before and the current maximum data ID. Captured data below the last data ID is only
+     * read again where it falls in a data gap, because it might have committed after the last read.
+     * 
+     * @return false if a change could not be applied and the table needs to be loaded again
+     */
+    protected boolean applyCapturedChanges(final LookupTableCache lookupTable, final Map<String, String> params) {
+        final Map<Integer, TriggerHistory> histories = getCapturingTriggerHistories(params);
+        if (histories == null) {
+            return false;
+        }
+        ISqlTemplate template = symmetricDialect.getPlatform().getSqlTemplate();
+        String tablePrefix = symmetricDialect.getTablePrefix();
+        long lastDataId = lookupTable.getLastDataId();
+        long maxDataId = getMaxDataId(template);
+        final List<long[]> ranges = new ArrayList<long[]>();
+        template.query(String.format("select start_id, end_id from %s where start_id <= ? order by start_id",
+                TableConstants.getTableName(tablePrefix, TableConstants.SYM_DATA_GAP)), rs -> {
+                    ranges.add(new long[] { rs.getLong("start_id"), Math.min(rs.getLong("end_id"), lastDataId) });
+                    return null;
+                }, lastDataId);
+        ranges.add(new long[] { lastDataId + 1, maxDataId });
+        final long minDataIdToRead = ranges.get(0)[0];
+        final String keyColumn = params.get(PARAM_MAPPED_KEY_COLUMN);
+        final Set<String> changedKeys = new HashSet<String>();
+        final boolean[] keyNotKnown = new boolean[1];
+        ISqlRowMapper<Object> mapper = rs -> {
+            long dataId = rs.getLong("data_id");
+            if (keyNotKnown[0] || !lookupTable.markApplied(dataId, minDataIdToRead - 1)) {
+                return null;
+            }
+            DataEventType eventType = DataEventType.getEventType(rs.getString("event_type"));
+            if (eventType == DataEventType.INSERT || eventType == DataEventType.UPDATE || eventType == DataEventType.DELETE) {
+                TriggerHistory history = histories.get(rs.getInt("trigger_hist_id"));
+                boolean newKeyFound = addKey(changedKeys, history.getParsedColumnNames(), rs.getString("row_data"), keyColumn);
+                boolean oldKeyFound = addKey(changedKeys, history.getParsedColumnNames(), rs.getString("old_data"), keyColumn)
+                        | addKey(changedKeys, history.getParsedPkColumnNames(), rs.getString("pk_data"), keyColumn);
+                if ((eventType != DataEventType.INSERT && !oldKeyFound) || (eventType != DataEventType.DELETE && !newKeyFound)) {
+                    log.info("Loading lookup table {} again because the key of captured data with an id of {} is not known",
+                            params.get(PARAM_LOOKUP_TABLE), dataId);
+                    keyNotKnown[0] = true;
+                }
+            }
+            return null;
+        };
+        String sql = String.format("select data_id, event_type, row_data, pk_data, old_data, trigger_hist_id from %s "
+                + "where data_id between ? and ? and trigger_hist_id in (%s)",
+                TableConstants.getTableName(tablePrefix, TableConstants.SYM_DATA), StringUtils.join(histories.keySet(), ","));
+        for (long[] range : ranges) {
+            if (range[0] <= range[1]) {
+                template.query(sql, mapper, range[0], range[1]);
+                if (keyNotKnown[0]) {
+                    return false;
+                }
+            }
+        }
+        reloadKeys(lookupTable, changedKeys, params);
+        lookupTable.setLastDataId(Math.max(maxDataId, lastDataId));
+        return true;
+    }
+
+    protected void reloadKeys(LookupTableCache lookupTable, Set<String> keys, final Map<String, String> params) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        ISqlTemplate template = symmetricDialect.getPlatform().getSqlTemplate();
+        final String keyColumnName = params.get(PARAM_MAPPED_KEY_COLUMN);
+        final String externalIdColumnName = params.get(PARAM_EXTERNAL_ID_COLUMN);
+        final Map<String, List<String>> externalIdsFound = new HashMap<String, List<String>>();
+        ISqlRowMapper<Object> mapper = rs -> {
+            String key = rs.getString(keyColumnName);
+            List<String> ids = externalIdsFound.get(key);
+            if (ids == null) {
+                ids = new ArrayList<String>();
+                externalIdsFound.put(key, ids);
+            }
+            ids.add(rs.getString(externalIdColumnName));
+            return null;
+        };
+        String sql = String.format("select %s, %s from %s where ", keyColumnName, externalIdColumnName, params.get(PARAM_LOOKUP_TABLE));
+        if (keys.contains(null)) {
+            template.query(sql + keyColumnName + " is null", mapper);
+        }
+        List<String> values = new ArrayList<String>(keys);
+        values.remove(null);
+        Column keyColumn = getKeyColumn(params);
+        for (int i = 0; i < values.size(); i += MAX_KEYS_PER_QUERY) {
+            String[] chunk = values.subList(i, Math.min(values.size(), i + MAX_KEYS_PER_QUERY)).toArray(new String[0]);
+            Object[] args = chunk;
+            if (keyColumn != null) {
+                Column[] columns = new Column[chunk.length];
+                Arrays.fill(columns, keyColumn);
+                args = symmetricDialect.getPlatform().getObjectValues(symmetricDialect.getBinaryEncoding(), chunk, columns);
+            }
+            template.query(sql + keyColumnName + " in (" + StringUtils.repeat("?", ",", chunk.length) + ")", mapper, args);
+        }
+        lookupTable.replace(keys, externalIdsFound);
+    }
+
+    protected Column getKeyColumn(Map<String, String> params) {
+        String tableName = params.get(PARAM_LOOKUP_TABLE);
+        int index = tableName.lastIndexOf('.');
+        Table table = symmetricDialect.getPlatform().getTableFromCache(null, index > 0 ? tableName.substring(0, index) : null,
+                tableName.substring(index + 1), false);
+        return table != null ? table.findColumn(params.get(PARAM_MAPPED_KEY_COLUMN), false) : null;
+    }
+
+    protected long getMaxDataId(ISqlTemplate template) {
+        return template.queryForLong(String.format("select max(data_id) from %s",
+                TableConstants.getTableName(symmetricDialect.getTablePrefix(), TableConstants.SYM_DATA)));
+    }
+
+    /**
+     * A trigger condition captures every change when it is not set or is always true.
+     */
+    protected static boolean isUnconditional(String condition) {
+        return StringUtils.isBlank(condition) || condition.replaceAll("\\s", "").equals("1=1");
+    }
+
+    protected static boolean isSameName(String capturedName, String name) {
+        return StringUtils.isBlank(capturedName) || StringUtils.isBlank(name) || capturedName.equalsIgnoreCase(name);
+    }
+
+    protected static boolean containsIgnoreCase(String[] names, String name) {
+        if (names != null) {
+            for (String n : names) {
+                if (n.equalsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add the value of the key column from captured row data.
+     * 
+     * @return false if the data does not include the key column
+     */
+    protected static boolean addKey(Set<String> keys, String[] columnNames, String csvData, String keyColumn) {
+        if (columnNames != null && !StringUtils.isBlank(csvData)) {
+            String[] values = CsvUtils.tokenizeCsvData(csvData);
+            for (int i = 0; i < columnNames.length && i < values.length; i++) {
+                if (columnNames[i].equalsIgnoreCase(keyColumn)) {
+                    keys.add(values[i]);
+                    return true;
+                }
             }
-            lookupMap = fillMap;
-            routingContext.getContextCache().put(CTX_CACHE_KEY, lookupMap);
         }
-        return lookupMap;
+        return false;
     }
 }
@@ -0,0 +1,153 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.route;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jumpmind.symmetric.model.Data;
+
+/**
+ * The window of data that {@link DataGapRouteReader} reads ahead of routing. Data is kept in the order it was read and is also indexed by transaction ID,
+ * so taking the next data or all data for a transaction is done without scanning or shifting the rest of the window.
+ */
+public class PeekAheadQueue {
+    protected ArrayDeque<Entry> entries;
+    protected Map<String, ArrayDeque<Entry>> entriesByTransactionId = new HashMap<String, ArrayDeque<Entry>>();
+    protected int size;
+    protected long lastReadSequence;
+    protected long lastTakenSequence;
+    protected long scanCount;
+    protected long transactionCount;
+
+    public PeekAheadQueue(int initialCapacity) {
+        entries = new ArrayDeque<Entry>(initialCapacity);
+    }
+
+    public void add(Data data) {
+        Entry entry = new Entry(data, ++lastReadSequence);
+        entries.addLast(entry);
+        String transactionId = data.getTransactionId();
+        if (transactionId != null) {
+            ArrayDeque<Entry> transactionEntries = entriesByTransactionId.get(transactionId);
+            if (transactionEntries == null) {
+                transactionEntries = new ArrayDeque<Entry>();
+                entriesByTransactionId.put(transactionId, transactionEntries);
+                transactionCount++;
+            }
+            transactionEntries.addLast(entry);
+        }
+        size++;
+    }
+
+    /**
+     * Take the oldest data in the window, or null if the window is empty.
+     */
+    public Data poll() {
+        Entry entry = null;
+        while ((entry = entries.pollFirst()) != null) {
+            scanCount++;
+            if (!entry.taken) {
+                break;
+            }
+        }
+        if (entry == null) {
+            return null;
+        }
+        String transactionId = entry.data.getTransactionId();
+        if (transactionId != null) {
+            ArrayDeque<Entry> transactionEntries = entriesByTransactionId.get(transactionId);
+            transactionEntries.pollFirst();
+            if (transactionEntries.isEmpty()) {
+                entriesByTransactionId.remove(transactionId);
+            }
+        }
+        take(entry);
+        return entry.data;
+    }
+
+    /**
+     * Take all data in the window for a transaction, in the order it was read.
+     */
+    public List<Data> pollTransaction(String transactionId) {
+        ArrayDeque<Entry> transactionEntries = entriesByTransactionId.remove(transactionId);
+        if (transactionEntries == null) {
+            return Collections.emptyList();
+        }
+        List<Data> datas = new ArrayList<Data>(transactionEntries.size());
+        for (Entry entry : transactionEntries) {
+            scanCount++;
+            take(entry);
+            datas.add(entry.data);
+        }
+        return datas;
+    }
+
+    protected void take(Entry entry) {
+        entry.taken = true;
+        lastTakenSequence = entry.sequence;
+        size--;
+    }
+
+    /**
+     * The number of data read into the window since the last data that was taken.
+     */
+    public long getReadCountSinceLastTaken() {
+        return lastReadSequence - lastTakenSequence;
+    }
+
+    public void clear() {
+        entries.clear();
+        entriesByTransactionId.clear();
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getScanCount() {
+        return scanCount;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    static class Entry {
+        Data data;
+        long sequence;
+        boolean taken;
+
+        Entry(Data data, long sequence) {
+            this.data = data;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -20,19 +20,29 @@
  */
 package org.jumpmind.symmetric.route;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jumpmind.db.platform.DatabaseNamesConstants;
 import org.jumpmind.db.sql.ISqlTemplate;
 import org.jumpmind.db.sql.InvalidSqlException;
 import org.jumpmind.db.sql.mapper.StringMapper;
 import org.jumpmind.extension.IBuiltInExtensionPoint;
+import org.jumpmind.symmetric.common.ParameterConstants;
 import org.jumpmind.symmetric.db.ISymmetricDialect;
 import org.jumpmind.symmetric.model.DataMetaData;
 import org.jumpmind.symmetric.model.Node;
+import org.jumpmind.symmetric.model.Router;
 import org.jumpmind.symmetric.model.TriggerRouter;
 import org.jumpmind.symmetric.route.SimpleRouterContext.RouterTimer;
 import org.jumpmind.util.FormatUtils;
@@ -55,10 +65,23 @@ import org.jumpmind.util.FormatUtils;
  * <code>
  * c.external_id in (select home_store from employee where employee_id in (:EMPLOYEE_ID, :OLD_EMPLOYEE_ID))
  * </code>
+ * <P/>
+ * Rows that are read ahead during routing are looked up together, with the values for each row selected as a derived table that is joined to the node
+ * table, so a window of rows costs one query instead of one query per row. Those results are only used for the rows of that window. When
+ * routing.subselect.cache.size is set, results are also remembered for the routing of the channel by the values that were passed to the expression, until
+ * a table named in the expression or the node table is changed.
  */
-public class SubSelectDataRouter extends AbstractDataRouter implements IBuiltInExtensionPoint {
+public class SubSelectDataRouter extends AbstractDataRouter implements IBuiltInExtensionPoint, IBatchDataRouter {
     private static final String SQL = "select c.node_id from $(prefixName)_node c where c.node_group_id=:NODE_GROUP_ID and c.sync_enabled=1 and ";
+    private static final String BATCH_SQL = "select v.row_key, c.node_id from $(prefixName)_node c, (%s) v where c.node_group_id=:NODE_GROUP_ID "
+            + "and c.sync_enabled=1 and (%s)";
+    private static final String CACHE_KEY = SubSelectDataRouter.class.getName() + ".cache.";
+    private static final String PREFETCHED_KEY = SubSelectDataRouter.class.getName() + ".prefetched.";
+    private static final Pattern PARAMETER_PATTERN = Pattern.compile("(?<![:\\w]):([A-Za-z_][A-Za-z0-9_]*)");
+    private static final int MAX_BIND_PARAMETERS = 2000;
     private ISymmetricDialect symmetricDialect;
+    private Set<String> batchFailedRouterIds = ConcurrentHashMap.newKeySet();
+    private Map<String, List<String>> parameterNamesByExpression = new ConcurrentHashMap<String, List<String>>();
 
     public SubSelectDataRouter(ISymmetricDialect symmetricDialect) {
         this.symmetricDialect = symmetricDialect;
@@ -72,25 +95,31 @@ public class SubSelectDataRouter extends AbstractDataRouter implements IBuiltInE
         Set<String> nodeIds = null;
         if (!StringUtils.isBlank(subSelect) && !initialLoadSelectUsed) {
             try {
-                Map<String, Object> sqlParams = getDataObjectMap(dataMetaData, symmetricDialect, true);
-                sqlParams.put("NODE_GROUP_ID", dataMetaData.getRouter().getNodeGroupLink()
-                        .getTargetNodeGroupId());
-                sqlParams.put("EXTERNAL_DATA", dataMetaData.getData().getExternalData());
-                sqlParams.put("DATA_EVENT_TYPE", dataMetaData.getData().getDataEventType().name());
-                sqlParams.put("TABLE_NAME", dataMetaData.getData().getTableName());
+                Set<String> prefetchedNodeIds = getPrefetchedNodeIds(routingContext, dataMetaData);
+                if (prefetchedNodeIds != null) {
+                    return new HashSet<String>(prefetchedNodeIds);
+                }
+                Map<String, Object> sqlParams = getSqlParams(dataMetaData);
+                Map<List<Object>, Set<String>> cache = getCache(routingContext, dataMetaData.getRouter());
+                List<Object> cacheKey = null;
+                if (cache != null) {
+                    cacheKey = getCacheKey(getParameterNames(subSelect), sqlParams);
+                    Set<String> cachedNodeIds = cache.get(cacheKey);
+                    if (cachedNodeIds != null) {
+                        return new HashSet<String>(cachedNodeIds);
+                    }
+                }
                 ISqlTemplate template = symmetricDialect.getPlatform().getSqlTemplate();
                 long queryStartTime = System.currentTimeMillis();
                 List<String> ids = template.query(String.format("%s(%s)", sql, subSelect),
                         new StringMapper(), sqlParams);
                 long queryEndTime = System.currentTimeMillis();
-                String routerId = dataMetaData.getRouter().getRouterId();
-                RouterTimer rt = routingContext.addQueryTime(routerId, queryEndTime - queryStartTime);
-                if (rt.getQueryTime() > 60000) {
-                    rt.resetQueryTime();
-                    log.info("Subselect data router with id: {} has total query time of {} seconds.", routerId, rt.getTotalQueryTime() / 1000);
-                }
+                addQueryTime(routingContext, dataMetaData.getRouter().getRouterId(), queryEndTime - queryStartTime);
                 if (ids != null) {
                     nodeIds = new HashSet<String>(ids);
+                    if (cache != null) {
+                        cache.put(cacheKey, new HashSet<String>(ids));
+                    }
                 }
             } catch (InvalidSqlException ex) {
                 log.error("The subselect expression was invalid for the {} subselect router for the '{}' event for table '{}'",
@@ -106,4 +135,218 @@ public class SubSelectDataRouter extends AbstractDataRouter implements IBuiltInE
         }
         return nodeIds;
     }
+
+    public void prefetch(SimpleRouterContext routingContext, TriggerRouter triggerRouter, List<DataMetaData> dataMetaDatas,
+            Set<String> changedTableNames) {
+        Router router = triggerRouter.getRouter();
+        String subSelect = router.getRouterExpression();
+        Map<Long, Set<String>> prefetched = new HashMap<Long, Set<String>>();
+        routingContext.getContextCache().put(PREFETCHED_KEY + router.getRouterId(), prefetched);
+        if (StringUtils.isBlank(subSelect) || batchFailedRouterIds.contains(router.getRouterId())) {
+            return;
+        }
+        Map<List<Object>, Set<String>> cache = getCache(routingContext, router);
+        if (cache != null && isAnyTableReferenced(subSelect, changedTableNames)) {
+            cache.clear();
+        }
+        String fromDummyTable = getFromDummyTable();
+        if (fromDummyTable == null) {
+            return;
+        }
+        List<String> parameterNames = getParameterNames(subSelect);
+        Map<List<Object>, Map<String, Object>> paramsByCacheKey = new LinkedHashMap<List<Object>, Map<String, Object>>();
+        Map<List<Object>, List<Long>> dataIdsByCacheKey = new HashMap<List<Object>, List<Long>>();
+        for (DataMetaData dataMetaData : dataMetaDatas) {
+            Map<String, Object> sqlParams = getSqlParams(dataMetaData);
+            List<Object> cacheKey = getCacheKey(parameterNames, sqlParams);
+            if (cache == null || !cache.containsKey(cacheKey)) {
+                paramsByCacheKey.putIfAbsent(cacheKey, sqlParams);
+                dataIdsByCacheKey.computeIfAbsent(cacheKey, k -> new ArrayList<Long>()).add(dataMetaData.getData().getDataId());
+            }
+        }
+        if (paramsByCacheKey.size() < 2) {
+            return;
+        }
+        int rowsPerQuery = Math.max(1, MAX_BIND_PARAMETERS / Math.max(1, parameterNames.size()));
+        List<List<Object>> keysToQuery = new ArrayList<List<Object>>(paramsByCacheKey.keySet());
+        try {
+            for (int start = 0; start < keysToQuery.size(); start += rowsPerQuery) {
+                List<List<Object>> chunk = keysToQuery.subList(start, Math.min(start + rowsPerQuery, keysToQuery.size()));
+                Map<String, Object> sqlParams = new HashMap<String, Object>();
+                sqlParams.put("NODE_GROUP_ID", router.getNodeGroupLink().getTargetNodeGroupId());
+                for (int i = 0; i < chunk.size(); i++) {
+                    Map<String, Object> rowParams = paramsByCacheKey.get(chunk.get(i));
+                    for (int j = 0; j < parameterNames.size(); j++) {
+                        sqlParams.put("R" + i + "_" + j, rowParams.get(parameterNames.get(j)));
+                    }
+                }
+                long queryStartTime = System.currentTimeMillis();
+                List<String[]> rows = symmetricDialect.getPlatform().getSqlTemplate().query(
+                        buildBatchSql(subSelect, parameterNames, chunk.size(), fromDummyTable),
+                        row -> new String[] { row.getString("row_key"), row.getString("node_id") }, sqlParams);
+                addQueryTime(routingContext, router.getRouterId(), System.currentTimeMillis() - queryStartTime);
+                List<Set<String>> nodeIdsByRow = new ArrayList<Set<String>>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    nodeIdsByRow.add(new HashSet<String>());
+                }
+                for (String[] row : rows) {
+                    nodeIdsByRow.get(Integer.parseInt(row[0].trim())).add(row[1]);
+                }
+                for (int i = 0; i < chunk.size(); i++) {
+                    for (Long dataId : dataIdsByCacheKey.get(chunk.get(i))) {
+                        prefetched.put(dataId, nodeIdsByRow.get(i));
+                    }
+                    if (cache != null) {
+                        cache.put(chunk.get(i), nodeIdsByRow.get(i));
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            batchFailedRouterIds.add(router.getRouterId());
+            log.warn("Unable to look up nodes for many rows at once for the {} subselect router, so rows will be looked up one at a time: {}",
+                    router.getRouterId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Get the nodes that were looked up for the row when its window was read, which are only kept until the next window for the router.
+     */
+    @SuppressWarnings("unchecked")
+    protected Set<String> getPrefetchedNodeIds(SimpleRouterContext routingContext, DataMetaData dataMetaData) {
+        Map<Long, Set<String>> prefetched = (Map<Long, Set<String>>) routingContext.getContextCache().get(
+                PREFETCHED_KEY + dataMetaData.getRouter().getRouterId());
+        return prefetched != null ? prefetched.get(dataMetaData.getData().getDataId()) : null;
+    }
+
+    protected Map<String, Object> getSqlParams(DataMetaData dataMetaData) {
+        Map<String, Object> sqlParams = getDataObjectMap(dataMetaData, symmetricDialect, true);
+        sqlParams.put("NODE_GROUP_ID", dataMetaData.getRouter().getNodeGroupLink()
+                .getTargetNodeGroupId());
+        sqlParams.put("EXTERNAL_DATA", dataMetaData.getData().getExternalData());
+        sqlParams.put("DATA_EVENT_TYPE", dataMetaData.getData().getDataEventType().name());
+        sqlParams.put("TABLE_NAME", dataMetaData.getData().getTableName());
+        return sqlParams;
+    }
+
+    protected void addQueryTime(SimpleRouterContext routingContext, String routerId, long queryTime) {
+        RouterTimer rt = routingContext.addQueryTime(routerId, queryTime);
+        if (rt.getQueryTime() > 60000) {
+            rt.resetQueryTime();
+            log.info("Subselect data router with id: {} has total query time of {} seconds.", routerId, rt.getTotalQueryTime() / 1000);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Map<List<Object>, Set<String>> getCache(SimpleRouterContext routingContext, Router router) {
+        final int cacheSize = symmetricDialect.getParameterService().getInt(ParameterConstants.ROUTING_SUBSELECT_CACHE_SIZE, 0);
+        if (cacheSize <= 0) {
+            return null;
+        }
+        String key = CACHE_KEY + router.getRouterId();
+        Map<List<Object>, Set<String>> cache = (Map<List<Object>, Set<String>>) routingContext.getContextCache().get(key);
+        if (cache == null) {
+            cache = new LinkedHashMap<List<Object>, Set<String>>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, Set<String>> eldest) {
+                    return size() > cacheSize;
+                }
+            };
+            routingContext.getContextCache().put(key, cache);
+        }
+        return cache;
+    }
+
+    protected List<Object> getCacheKey(List<String> parameterNames, Map<String, Object> sqlParams) {
+        Object[] values = new Object[parameterNames.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = sqlParams.get(parameterNames.get(i));
+        }
+        return Arrays.asList(values);
+    }
+
+    protected boolean isAnyTableReferenced(String subSelect, Set<String> tableNames) {
+        String nodeTableName = symmetricDialect.getTablePrefix() + "_node";
+        for (String tableName : tableNames) {
+            if (tableName != null && (tableName.equalsIgnoreCase(nodeTableName) || Pattern.compile("(?<![\\w$])" + Pattern.quote(tableName)
+                    + "(?![\\w$])", Pattern.CASE_INSENSITIVE).matcher(subSelect).find())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the FROM clause needed to select values without a table, or null if the database is not known to support a union of those selects.
+     */
+    protected String getFromDummyTable() {
+        String name = symmetricDialect.getPlatform().getName();
+        if (name.startsWith(DatabaseNamesConstants.ORACLE)) {
+            return " from dual";
+        } else if (name.startsWith(DatabaseNamesConstants.DB2)) {
+            return " from sysibm.sysdummy1";
+        } else if (name.startsWith(DatabaseNamesConstants.POSTGRESQL) || name.startsWith(DatabaseNamesConstants.MYSQL)
+                || name.startsWith(DatabaseNamesConstants.MARIADB) || name.startsWith(DatabaseNamesConstants.MSSQL)
+                || name.startsWith(DatabaseNamesConstants.H2) || name.startsWith(DatabaseNamesConstants.SQLITE)) {
+            return "";
+        }
+        return null;
+    }
+
+    /**
+     * Build a query that selects the values for each row as a derived table, with the parameters in the expression replaced by its columns.
+     */
+    protected String buildBatchSql(String subSelect, List<String> parameterNames, int rowCount, String fromDummyTable) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                values.append(" union all ");
+            }
+            values.append("select ").append(i).append(" as row_key");
+            for (int j = 0; j < parameterNames.size(); j++) {
+                values.append(", :R").append(i).append("_").append(j).append(" as p").append(j);
+            }
+            values.append(fromDummyTable);
+        }
+        StringBuilder expression = new StringBuilder();
+        Matcher matcher = PARAMETER_PATTERN.matcher(blankQuotedText(subSelect));
+        int end = 0;
+        while (matcher.find()) {
+            expression.append(subSelect, end, matcher.start());
+            expression.append("v.p").append(parameterNames.indexOf(matcher.group(1).toUpperCase()));
+            end = matcher.end();
+        }
+        expression.append(subSelect.substring(end));
+        return FormatUtils.replaceToken(String.format(BATCH_SQL, values, expression), "prefixName", symmetricDialect.getTablePrefix(), true);
+    }
+
+    protected List<String> getParameterNames(String subSelect) {
+        return parameterNamesByExpression.computeIfAbsent(subSelect, k -> parseParameterNames(k));
+    }
+
+    protected static List<String> parseParameterNames(String subSelect) {
+        List<String> names = new ArrayList<String>();
+        Matcher matcher = PARAMETER_PATTERN.matcher(blankQuotedText(subSelect));
+        while (matcher.find()) {
+            String name = matcher.group(1).toUpperCase();
+            if (!names.contains(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    protected static String blankQuotedText(String sql) {
+        char[] chars = sql.toCharArray();
+        boolean quoted = false;
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == '\'') {
+                quoted = !quoted;
+            } else if (quoted) {
+                chars[i] = ' ';
+            }
+        }
+        return new String(chars);
+    }
 }
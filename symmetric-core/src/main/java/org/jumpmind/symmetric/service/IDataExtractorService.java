@@ -59,6 +59,8 @@ public interface IDataExtractorService {
 
     public boolean extractOnlyOutgoingBatch(String nodeId, long batchId, Writer writer);
 
+    public void stop();
+
     public RemoteNodeStatuses queueWork(boolean force);
 
     public ExtractRequest requestExtractRequest(ISqlTransaction transaction, String nodeId, String channelId, TriggerRouter triggerRouter, long startBatchId,
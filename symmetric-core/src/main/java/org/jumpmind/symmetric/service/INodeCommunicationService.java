@@ -39,6 +39,16 @@ public interface INodeCommunicationService {
 
     public int getAvailableThreads(CommunicationType communicationType);
 
+    /**
+     * Get the number of threads busy communicating for the type, or zero if its thread pool has not been started.
+     */
+    public int getActiveThreads(CommunicationType communicationType);
+
+    /**
+     * Get the size of the thread pool for the type, or zero if it has not been started.
+     */
+    public int getMaxThreads(CommunicationType communicationType);
+
     public void stop();
 
     public void updateBatchToSendCounts(String nodeId, Map<String, Integer> batchesCountToQueues);
@@ -47,6 +57,8 @@ public interface INodeCommunicationService {
 
     public void persistToTableForSnapshot();
 
+    public void setOutgoingBatchService(IOutgoingBatchService outgoingBatchService);
+
     public interface INodeCommunicationExecutor {
         public void execute(NodeCommunication nodeCommunication, RemoteNodeStatus status);
     }
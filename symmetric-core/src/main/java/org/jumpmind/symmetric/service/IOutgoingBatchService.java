@@ -118,6 +118,11 @@ public interface IOutgoingBatchService {
 
     public int countUnsentBatchesByTargetNode(String nodeId);
 
+    /**
+     * Get the nodes that have outgoing batches ready to send, which is answered from memory when the ready batch index is enabled.
+     */
+    public List<String> getNodeIdsWithReadyBatches();
+
     public List<OutgoingBatchSummary> findOutgoingBatchSummary(OutgoingBatch.Status... statuses);
 
     public List<OutgoingBatchSummary> findOutgoingBatchSummaryByChannel(OutgoingBatch.Status... statuses);
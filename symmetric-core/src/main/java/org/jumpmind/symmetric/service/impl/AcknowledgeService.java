@@ -193,6 +193,7 @@ public class AcknowledgeService extends AbstractService implements IAcknowledgeS
                         if (isFirstTimeAsOkStatus) {
                             engine.getStatisticManager().incrementDataLoadedOutgoing(outgoingBatch.getChannelId(), outgoingBatch.getLoadRowCount());
                             engine.getStatisticManager().incrementDataBytesLoadedOutgoing(outgoingBatch.getChannelId(), outgoingBatch.getByteCount());
+                            engine.getStatisticManager().recordNetworkMillis(outgoingBatch.getChannelId(), outgoingBatch.getNetworkMillis());
                         }
                         if (parameterService.is(ParameterConstants.STREAM_TO_FILE_ENABLED)) {
                             purgeBatchesFromStaging(outgoingBatch);
@@ -168,13 +168,13 @@ public class ConfigurationService extends AbstractService implements IConfigurat
         }
         link.setLastUpdateTime(new Date());
         if (sqlTemplate.update(getSql("updateNodeGroupLinkSql"), link.getDataEventAction().name(),
-                link.isSyncConfigEnabled() ? 1 : 0, link.isReversible() ? 1 : 0,
+                link.isSyncConfigEnabled() ? 1 : 0, link.isReversible() ? 1 : 0, link.isBinaryProtocolEnabled() ? 1 : 0,
                 link.getLastUpdateTime(),
                 link.getLastUpdateBy(), link.getSourceNodeGroupId(), link.getTargetNodeGroupId()) <= 0) {
             link.setCreateTime(new Date());
             sqlTemplate.update(getSql("insertNodeGroupLinkSql"), link.getDataEventAction().name(),
                     link.getSourceNodeGroupId(), link.getTargetNodeGroupId(),
-                    link.isSyncConfigEnabled() ? 1 : 0, link.isReversible() ? 1 : 0,
+                    link.isSyncConfigEnabled() ? 1 : 0, link.isReversible() ? 1 : 0, link.isBinaryProtocolEnabled() ? 1 : 0,
                     link.getLastUpdateTime(),
                     link.getLastUpdateBy(), link.getCreateTime());
         }
@@ -652,6 +652,7 @@ public class ConfigurationService extends AbstractService implements IConfigurat
             link.setDataEventAction(NodeGroupLinkAction.fromCode(row.getString("data_event_action")));
             link.setSyncConfigEnabled(row.getBoolean("sync_config_enabled"));
             link.setReversible(row.getBoolean("is_reversible"));
+            link.setBinaryProtocolEnabled(row.getBoolean("binary_protocol_enabled"));
             link.setCreateTime(row.getDateTime("create_time"));
             link.setLastUpdateBy(row.getString("last_update_by"));
             link.setLastUpdateTime(row.getDateTime("last_update_time"));
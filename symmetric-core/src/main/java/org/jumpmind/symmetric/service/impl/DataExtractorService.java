@@ -25,9 +25,14 @@ import static org.jumpmind.symmetric.common.Constants.LOG_PROCESS_SUMMARY_THRESH
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.sql.SQLException;
@@ -64,6 +69,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.jumpmind.db.model.Column;
 import org.jumpmind.db.model.Table;
+import org.jumpmind.db.platform.DatabaseInfo;
 import org.jumpmind.db.platform.DdlBuilderFactory;
 import org.jumpmind.db.platform.IDdlBuilder;
 import org.jumpmind.db.sql.ISqlRowMapper;
@@ -80,7 +86,9 @@ import org.jumpmind.symmetric.common.Constants;
 import org.jumpmind.symmetric.common.ErrorConstants;
 import org.jumpmind.symmetric.common.ParameterConstants;
 import org.jumpmind.symmetric.common.TableConstants;
+import org.jumpmind.symmetric.db.ISymmetricDialect;
 import org.jumpmind.symmetric.extract.ExtractDataReaderFactory;
+import org.jumpmind.symmetric.extract.ExtractSlice;
 import org.jumpmind.symmetric.extract.IExtractDataReaderFactory;
 import org.jumpmind.symmetric.extract.MultiBatchStagingWriter;
 import org.jumpmind.symmetric.extract.SelectFromSymDataSource;
@@ -102,12 +110,15 @@ import org.jumpmind.symmetric.io.data.reader.IExtractDataReaderSource;
 import org.jumpmind.symmetric.io.data.reader.ProtocolDataReader;
 import org.jumpmind.symmetric.io.data.transform.TransformPoint;
 import org.jumpmind.symmetric.io.data.transform.TransformTable;
+import org.jumpmind.symmetric.io.data.writer.BinaryProtocolDataWriter;
 import org.jumpmind.symmetric.io.data.writer.DataWriterStatisticConstants;
 import org.jumpmind.symmetric.io.data.writer.ProtocolDataWriter;
 import org.jumpmind.symmetric.io.data.writer.StagingDataWriter;
 import org.jumpmind.symmetric.io.data.writer.StructureDataWriter;
 import org.jumpmind.symmetric.io.data.writer.StructureDataWriter.PayloadType;
 import org.jumpmind.symmetric.io.data.writer.TransformWriter;
+import org.jumpmind.symmetric.io.stage.BlockGzipInputStream;
+import org.jumpmind.symmetric.io.stage.BlockGzipOutputStream;
 import org.jumpmind.symmetric.io.stage.IStagedResource;
 import org.jumpmind.symmetric.io.stage.IStagedResource.State;
 import org.jumpmind.symmetric.io.stage.IStagingManager;
@@ -158,7 +169,11 @@ import org.jumpmind.symmetric.service.ITriggerRouterService;
 import org.jumpmind.symmetric.service.impl.TransformService.TransformTableNodeGroupLink;
 import org.jumpmind.symmetric.statistic.IStatisticManager;
 import org.jumpmind.symmetric.transport.BatchBufferedWriter;
+import org.jumpmind.symmetric.transport.BinaryProtocolBufferedWriter;
+import org.jumpmind.symmetric.transport.BlockGzipBufferedWriter;
 import org.jumpmind.symmetric.transport.IOutgoingTransport;
+import org.jumpmind.symmetric.transport.OutputStreamBufferedWriter;
+import org.jumpmind.symmetric.util.SymmetricUtils;
 import org.jumpmind.util.AppUtils;
 import org.jumpmind.util.CustomizableThreadFactory;
 import org.jumpmind.util.ExceptionUtils;
@@ -173,6 +188,8 @@ import org.slf4j.MDC;
 public class DataExtractorService extends AbstractService implements IDataExtractorService,
         INodeCommunicationExecutor {
     final static long MS_PASSED_BEFORE_BATCH_REQUERIED = 5000;
+    final static int STATS_SEARCH_BUFFER_SIZE = 32768;
+    final static int STATS_SEARCH_OVERLAP = 128;
 
     protected enum ExtractMode {
         FOR_SYM_CLIENT, FOR_PAYLOAD_CLIENT, EXTRACT_ONLY
@@ -194,6 +211,10 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
     private IClusterService clusterService;
     private Map<String, BatchLock> locks = new ConcurrentHashMap<String, BatchLock>();
     private CustomizableThreadFactory threadPoolFactory;
+    private ExecutorService extractThreads;
+    private int extractThreadCount;
+    private ExecutorService sliceThreads;
+    private int sliceThreadCount;
 
     public DataExtractorService(ISymmetricEngine engine) {
         super(engine.getParameterService(), engine.getSymmetricDialect());
@@ -519,41 +540,35 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
             long batchesSelectedAtMs = System.currentTimeMillis();
             OutgoingBatch currentBatch = null;
             ExecutorService executor = null;
+            boolean isSharedExecutor = false;
+            List<Future<FutureOutgoingBatch>> futures = new ArrayList<Future<FutureOutgoingBatch>>();
             try {
                 final boolean streamToFileEnabled = parameterService.is(ParameterConstants.STREAM_TO_FILE_ENABLED);
                 long keepAliveMillis = parameterService.getLong(ParameterConstants.DATA_LOADER_SEND_ACK_KEEPALIVE);
                 Node sourceNode = nodeService.findIdentity();
                 final FutureExtractStatus status = new FutureExtractStatus();
-                if (this.threadPoolFactory == null) {
-                    this.threadPoolFactory = new CustomizableThreadFactory(String.format("%s-dataextractor", parameterService.getEngineName().toLowerCase()));
+                int batchesAhead = activeBatches.size();
+                if (streamToFileEnabled) {
+                    int extractThreadCount = parameterService.getInt(ParameterConstants.EXTRACT_THREAD_COUNT, 1);
+                    if (extractThreadCount > 1 && !parameterService.is(ParameterConstants.SYNCHRONIZE_ALL_JOBS)) {
+                        /*
+                         * extract a limited number of batches ahead of the one being sent on the engine-wide pool, so one node's queue can't
+                         * take over the pool
+                         */
+                        executor = getExtractThreads(extractThreadCount);
+                        isSharedExecutor = true;
+                        batchesAhead = Math.max(1, parameterService.getInt(ParameterConstants.EXTRACT_BATCHES_AHEAD_COUNT, extractThreadCount));
+                    } else {
+                        executor = Executors.newFixedThreadPool(1, getThreadPoolFactory());
+                    }
                 }
-                executor = streamToFileEnabled ? Executors.newFixedThreadPool(1, this.threadPoolFactory) : null;
-                List<Future<FutureOutgoingBatch>> futures = new ArrayList<Future<FutureOutgoingBatch>>();
                 extractInfo.setTotalBatchCount(activeBatches.size());
-                for (int i = 0; i < activeBatches.size(); i++) {
-                    currentBatch = activeBatches.get(i);
+                int nextBatchIndex = 0;
+                while (nextBatchIndex < activeBatches.size() && nextBatchIndex < batchesAhead && !status.shouldExtractSkip) {
+                    currentBatch = activeBatches.get(nextBatchIndex++);
                     channelsProcessed.add(currentBatch.getChannelId());
-                    final OutgoingBatch extractBatch = currentBatch;
-                    Callable<FutureOutgoingBatch> callable = () -> {
-                        MDC.put("engineName", engine.getParameterService().getEngineName());
-                        OutgoingBatch refreshedBatch = requeryIfEnoughTimeHasPassed(batchesSelectedAtMs, extractBatch);
-                        return extractBatch(refreshedBatch, status, extractInfo, targetNode, dataWriter, mode, activeBatches);
-                    };
-                    if (status.shouldExtractSkip) {
-                        break;
-                    }
-                    if (executor != null) {
-                        futures.add(executor.submit(callable));
-                    } else {
-                        try {
-                            FutureOutgoingBatch batch = callable.call();
-                            futures.add(new FutureImpl<>(batch));
-                        } catch (RuntimeException e) {
-                            throw e;
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
+                    futures.add(submitExtractBatch(executor, currentBatch, batchesSelectedAtMs, status, extractInfo, targetNode, dataWriter, mode,
+                            activeBatches));
                 }
                 if (parameterService.is(ParameterConstants.SYNCHRONIZE_ALL_JOBS) && executor != null) {
                     executor.shutdown();
@@ -572,6 +587,7 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
                 final long initialLoadMaxBytesToSync = parameterService.getLong(ParameterConstants.INITIAL_LOAD_TRANSPORT_MAX_BYTES_TO_SYNC);
                 long totalBytesSend = 0;
                 boolean logMaxBytesReached = false;
+                boolean isExtractSkipped = false;
                 Iterator<OutgoingBatch> activeBatchIter = activeBatches.iterator();
                 for (int i = 0; i < futures.size(); i++) {
                     Future<FutureOutgoingBatch> future = futures.get(i);
@@ -581,6 +597,12 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
                     while (!isProcessed) {
                         try {
                             FutureOutgoingBatch extractBatch = future.get(keepAliveMillis, TimeUnit.MILLISECONDS);
+                            while (nextBatchIndex < activeBatches.size() && nextBatchIndex - (i + 1) < batchesAhead && !status.shouldExtractSkip) {
+                                OutgoingBatch nextBatch = activeBatches.get(nextBatchIndex++);
+                                channelsProcessed.add(nextBatch.getChannelId());
+                                futures.add(submitExtractBatch(executor, nextBatch, batchesSelectedAtMs, status, extractInfo, targetNode, dataWriter,
+                                        mode, activeBatches));
+                            }
                             transferInfo = statisticManager.newProcessInfo(new ProcessInfoKey(nodeService.findIdentityNodeId(),
                                     extractInfo.getQueue(), targetNode.getNodeId(), extractInfo.getProcessType() == ProcessType.PUSH_JOB_EXTRACT
                                             ? ProcessType.PUSH_JOB_TRANSFER
@@ -592,7 +614,9 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
                             if (i == futures.size() - 1) {
                                 extractInfo.setStatus(ProcessStatus.OK);
                             }
-                            if (extractBatch.isExtractSkipped) {
+                            if (extractBatch.isExtractSkipped || isExtractSkipped) {
+                                // batches extracted concurrently after a skipped batch are held back to keep the send order
+                                isExtractSkipped = true;
                                 transferInfo.setStatus(ProcessStatus.OK);
                                 break;
                             }
@@ -706,7 +730,11 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
                     log.error("Could not log the outgoing batch status because the batch was null", e);
                 }
             } finally {
-                if (executor != null) {
+                if (isSharedExecutor) {
+                    for (Future<FutureOutgoingBatch> future : futures) {
+                        future.cancel(false);
+                    }
+                } else if (executor != null) {
                     executor.shutdown();
                 }
             }
@@ -727,6 +755,77 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
         }
     }
 
+    protected Future<FutureOutgoingBatch> submitExtractBatch(ExecutorService executor, final OutgoingBatch extractBatch, final long batchesSelectedAtMs,
+            final FutureExtractStatus status, final ProcessInfo extractInfo, final Node targetNode, final IDataWriter dataWriter, final ExtractMode mode,
+            final List<OutgoingBatch> activeBatches) {
+        Callable<FutureOutgoingBatch> callable = () -> {
+            MDC.put("engineName", engine.getParameterService().getEngineName());
+            OutgoingBatch refreshedBatch = requeryIfEnoughTimeHasPassed(batchesSelectedAtMs, extractBatch);
+            return extractBatch(refreshedBatch, status, extractInfo, targetNode, dataWriter, mode, activeBatches);
+        };
+        if (executor != null) {
+            return executor.submit(callable);
+        } else {
+            try {
+                return new FutureImpl<>(callable.call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    protected CustomizableThreadFactory getThreadPoolFactory() {
+        if (this.threadPoolFactory == null) {
+            this.threadPoolFactory = new CustomizableThreadFactory(String.format("%s-dataextractor", parameterService.getEngineName().toLowerCase()));
+        }
+        return this.threadPoolFactory;
+    }
+
+    /**
+     * Get the engine-wide pool for extracting batches ahead of the batch being sent. It is recreated if the thread count changes.
+     */
+    protected synchronized ExecutorService getExtractThreads(int threadCount) {
+        if (extractThreads != null && extractThreadCount != threadCount) {
+            extractThreads.shutdown();
+            extractThreads = null;
+        }
+        if (extractThreads == null) {
+            extractThreadCount = threadCount;
+            extractThreads = Executors.newFixedThreadPool(threadCount, new CustomizableThreadFactory(String.format("%s-dataextractor-pool-",
+                    parameterService.getEngineName().toLowerCase())));
+        }
+        return extractThreads;
+    }
+
+    /**
+     * Get the engine-wide pool for extracting slices of a large table for an initial load. It is recreated if the thread count changes.
+     */
+    protected synchronized ExecutorService getSliceThreads(int threadCount) {
+        if (sliceThreads != null && sliceThreadCount != threadCount) {
+            sliceThreads.shutdown();
+            sliceThreads = null;
+        }
+        if (sliceThreads == null) {
+            sliceThreadCount = threadCount;
+            sliceThreads = Executors.newFixedThreadPool(threadCount, new CustomizableThreadFactory(String.format("%s-dataextractor-slice-",
+                    parameterService.getEngineName().toLowerCase())));
+        }
+        return sliceThreads;
+    }
+
+    public synchronized void stop() {
+        if (extractThreads != null) {
+            extractThreads.shutdownNow();
+            extractThreads = null;
+        }
+        if (sliceThreads != null) {
+            sliceThreads.shutdownNow();
+            sliceThreads = null;
+        }
+    }
+
     protected FutureOutgoingBatch extractBatch(OutgoingBatch extractBatch, FutureExtractStatus status, ProcessInfo extractInfo,
             Node targetNode, IDataWriter dataWriter, ExtractMode mode, List<OutgoingBatch> activeBatches) throws Exception {
         extractInfo.setThread(Thread.currentThread());
@@ -764,15 +863,17 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
                     outgoingBatch = new FutureOutgoingBatch(
                             extractOutgoingBatch(extractInfo, targetNode, dataWriter, extractBatch, streamToFileEnabled, true, mode, null),
                             isRetry);
-                    status.batchExtractCount++;
-                    status.byteExtractCount += extractBatch.getByteCount();
-                    if (status.byteExtractCount >= maxBytesToSync && status.batchExtractCount < activeBatches.size()) {
-                        log.info(
-                                "Reached the total byte threshold after {} of {} batches were extracted for node '{}' (extracted {} bytes, the max is {}).  "
-                                        + "The remaining batches will be extracted on a subsequent sync.",
-                                new Object[] { status.batchExtractCount, activeBatches.size(), targetNode.getNodeId(), status.byteExtractCount,
-                                        maxBytesToSync });
-                        status.shouldExtractSkip = true;
+                    synchronized (status) {
+                        status.batchExtractCount++;
+                        status.byteExtractCount += extractBatch.getByteCount();
+                        if (!status.shouldExtractSkip && status.byteExtractCount >= maxBytesToSync && status.batchExtractCount < activeBatches.size()) {
+                            log.info(
+                                    "Reached the total byte threshold after {} of {} batches were extracted for node '{}' (extracted {} bytes, the max is {}).  "
+                                            + "The remaining batches will be extracted on a subsequent sync.",
+                                    new Object[] { status.batchExtractCount, activeBatches.size(), targetNode.getNodeId(), status.byteExtractCount,
+                                            maxBytesToSync });
+                            status.shouldExtractSkip = true;
+                        }
                     }
                 } catch (Exception e) {
                     status.shouldExtractSkip = outgoingBatch.isExtractSkipped = true;
@@ -787,7 +888,9 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
 
     protected void writeKeepAliveAck(BufferedWriter writer, Node sourceNode, boolean streamToFileEnabled) {
         try {
-            if (writer != null && streamToFileEnabled) {
+            if (writer instanceof BinaryProtocolBufferedWriter) {
+                ((BinaryProtocolBufferedWriter) writer).getDataWriter().writeKeepAlive(sourceNode.getNodeId());
+            } else if (writer != null && streamToFileEnabled) {
                 writer.write(CsvConstants.NODEID + "," + sourceNode.getNodeId());
                 writer.newLine();
                 writer.flush();
@@ -860,16 +963,7 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
                         if (updateBatchStatistics) {
                             changeBatchStatus(Status.QY, currentBatch, mode);
                         }
-                        DataContext ctx = new DataContext();
-                        ctx.put(Constants.DATA_CONTEXT_TARGET_NODE_ID, targetNode.getNodeId());
-                        ctx.put(Constants.DATA_CONTEXT_TARGET_NODE_EXTERNAL_ID, targetNode.getExternalId());
-                        ctx.put(Constants.DATA_CONTEXT_TARGET_NODE_GROUP_ID, targetNode.getNodeGroupId());
-                        ctx.put(Constants.DATA_CONTEXT_TARGET_NODE, targetNode);
-                        ctx.put(Constants.DATA_CONTEXT_SOURCE_NODE, sourceNode);
-                        ctx.put(Constants.DATA_CONTEXT_SOURCE_NODE_ID, sourceNode.getNodeId());
-                        ctx.put(Constants.DATA_CONTEXT_SOURCE_NODE_EXTERNAL_ID, sourceNode.getExternalId());
-                        ctx.put(Constants.DATA_CONTEXT_SOURCE_NODE_GROUP_ID, sourceNode.getNodeGroupId());
-                        ctx.put(Constants.DATA_CONTEXT_ENGINE, engine);
+                        DataContext ctx = newExtractDataContext(sourceNode, targetNode);
                         extractInfo.setTotalDataCount(currentBatch.getDataRowCount());
                         currentBatch.resetStats();
                         IDataReader dataReader = buildExtractDataReader(sourceNode, targetNode, currentBatch, extractInfo);
@@ -943,6 +1037,7 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
                 currentBatch = requeryIfEnoughTimeHasPassed(ts, currentBatch);
                 if (extractTimeInMs > 0) {
                     currentBatch.setExtractMillis(extractTimeInMs);
+                    statisticManager.recordExtractMillis(currentBatch.getChannelId(), extractTimeInMs);
                 }
                 if (byteCount > 0) {
                     currentBatch.setByteCount(byteCount);
@@ -968,6 +1063,20 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
         return currentBatch;
     }
 
+    protected DataContext newExtractDataContext(Node sourceNode, Node targetNode) {
+        DataContext ctx = new DataContext();
+        ctx.put(Constants.DATA_CONTEXT_TARGET_NODE_ID, targetNode.getNodeId());
+        ctx.put(Constants.DATA_CONTEXT_TARGET_NODE_EXTERNAL_ID, targetNode.getExternalId());
+        ctx.put(Constants.DATA_CONTEXT_TARGET_NODE_GROUP_ID, targetNode.getNodeGroupId());
+        ctx.put(Constants.DATA_CONTEXT_TARGET_NODE, targetNode);
+        ctx.put(Constants.DATA_CONTEXT_SOURCE_NODE, sourceNode);
+        ctx.put(Constants.DATA_CONTEXT_SOURCE_NODE_ID, sourceNode.getNodeId());
+        ctx.put(Constants.DATA_CONTEXT_SOURCE_NODE_EXTERNAL_ID, sourceNode.getExternalId());
+        ctx.put(Constants.DATA_CONTEXT_SOURCE_NODE_GROUP_ID, sourceNode.getNodeGroupId());
+        ctx.put(Constants.DATA_CONTEXT_ENGINE, engine);
+        return ctx;
+    }
+
     protected String getSemaphoreKey(OutgoingBatch batch, boolean useStagingDataWriter) {
         return useStagingDataWriter ? Long.toString(batch.getBatchId()) : batch.getNodeBatchId();
     }
@@ -1278,11 +1387,19 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
     protected void transferFromStaging(ExtractMode mode, BatchType batchType, OutgoingBatch batch, boolean isRetry, IStagedResource stagedResource,
             BufferedWriter writer, DataContext context, BigDecimal maxKBytesPerSec, ProcessInfo processInfo) {
         final int MAX_WRITE_LENGTH = 32768;
-        BufferedReader reader = stagedResource.getReader();
+        boolean isThrottled = maxKBytesPerSec != null && maxKBytesPerSec.compareTo(BigDecimal.ZERO) > 0;
+        boolean isBinaryTransfer = writer instanceof BinaryProtocolBufferedWriter;
+        boolean isBlockTransfer = !isBinaryTransfer && !isRetry && !isThrottled && writer instanceof BlockGzipBufferedWriter
+                && stagedResource.isCompressed();
+        boolean isByteTransfer = !isBinaryTransfer && !isRetry && !isThrottled && !isBlockTransfer && writer instanceof OutputStreamBufferedWriter
+                && StandardCharsets.UTF_8.equals(((OutputStreamBufferedWriter) writer).getCharset());
+        BufferedReader reader = isBinaryTransfer || isBlockTransfer || isByteTransfer ? null : stagedResource.getReader();
         try {
-            // Retry means we've sent this batch before, so let's ask to
-            // retry the batch from the target's staging
-            if (isRetry) {
+            if (isBinaryTransfer) {
+                transferBinaryFromStaging(batch, stagedResource, (BinaryProtocolBufferedWriter) writer, processInfo);
+            } else if (isRetry) {
+                // Retry means we've sent this batch before, so let's ask to
+                // retry the batch from the target's staging
                 String line = null;
                 while ((line = reader.readLine()) != null) {
                     if (line.startsWith(CsvConstants.BATCH)) {
@@ -1304,12 +1421,15 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
                 }
                 writer.flush();
                 processInfo.setCurrentDataCount(batch.getDataRowCount());
+            } else if (isBlockTransfer) {
+                transferBlocksFromStaging(mode, batch, stagedResource, (BlockGzipBufferedWriter) writer, processInfo);
+            } else if (isByteTransfer) {
+                transferBytesFromStaging(mode, batch, stagedResource, (OutputStreamBufferedWriter) writer, processInfo);
             } else {
                 long totalBytes = stagedResource.getSize();
                 long totalCharsRead = 0, totalBytesRead = 0;
                 int numCharsRead = 0, numBytesRead = 0;
                 long startTime = System.currentTimeMillis(), ts = startTime, bts = startTime;
-                boolean isThrottled = maxKBytesPerSec != null && maxKBytesPerSec.compareTo(BigDecimal.ZERO) > 0;
                 long totalThrottleTime = 0;
                 int bufferSize = MAX_WRITE_LENGTH;
                 if (isThrottled) {
@@ -1357,7 +1477,7 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
                     } else {
                         totalBytesRead += new String(buffer, 0, numCharsRead).getBytes().length;
                     }
-                    processInfo.setCurrentDataCount((long) ((totalBytesRead / (double) totalBytes) * batch.getDataRowCount()));
+                    processInfo.setCurrentDataCount((long) (Math.min(totalBytesRead / (double) totalBytes, 1d) * batch.getDataRowCount()));
                 }
                 if (batch.getSentCount() == 1) {
                     statisticManager.incrementDataSent(batch.getChannelId(), batch.getDataRowCount());
@@ -1380,6 +1500,196 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
         }
     }
 
+    /**
+     * Convert a staged batch to the binary protocol while sending it. The target loads binary batches without staging them, so a retry sends the
+     * whole batch again.
+     */
+    protected void transferBinaryFromStaging(OutgoingBatch batch, IStagedResource stagedResource, BinaryProtocolBufferedWriter writer,
+            ProcessInfo processInfo) throws IOException {
+        BinaryProtocolDataWriter dataWriter = writer.getDataWriter();
+        Node targetNode = nodeService.findNode(batch.getNodeId(), true);
+        dataWriter.setSourceNodeId(nodeService.findIdentityNodeId());
+        dataWriter.setSendCaptureTime(targetNode != null && targetNode.allowCaptureTimeInProtocol(),
+                parameterService.is(ParameterConstants.EXTRACT_ROW_CAPTURE_TIME, true));
+        String[] statsColumns = getBatchStatsColumns().split(",");
+        String[] statsValues = getBatchStats(batch).split(",");
+        long[] values = new long[statsValues.length - 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Long.parseLong(statsValues[i + 1]);
+        }
+        dataWriter.setBatchStats(Arrays.copyOfRange(statsColumns, 1, statsColumns.length), values);
+        ProtocolDataReader dataReader = new ProtocolDataReader(BatchType.EXTRACT, batch.getNodeId(), stagedResource);
+        new DataProcessor(dataReader, new ProcessInfoDataWriter(dataWriter, processInfo), "send binary from stage").process(new DataContext());
+        writer.getOutputStream().flush();
+        Statistics stats = dataReader.getStatistics().size() > 0 ? dataWriter.getStatistics().remove(
+                dataReader.getStatistics().keySet().iterator().next()) : null;
+        if (batch.getSentCount() == 1) {
+            statisticManager.incrementDataSent(batch.getChannelId(), batch.getDataRowCount());
+            statisticManager.incrementDataBytesSent(batch.getChannelId(), stats != null ? stats.get(DataWriterStatisticConstants.BYTECOUNT) : 0);
+        }
+    }
+
+    /**
+     * Copy a compressed staging file to a transport that accepts compressed blocks. Only the blocks up to the batch line are decompressed, so the
+     * batch stats can be inserted after it, and the rest of the blocks are copied without being decompressed.
+     */
+    protected void transferBlocksFromStaging(ExtractMode mode, OutgoingBatch batch, IStagedResource stagedResource, BlockGzipBufferedWriter writer,
+            ProcessInfo processInfo) throws IOException {
+        BlockGzipOutputStream out = writer.getBlockOutputStream();
+        BlockGzipInputStream in = (BlockGzipInputStream) stagedResource.getInputStream();
+        long totalBytes = stagedResource.getSize();
+        long totalCompressedBytesRead = 0, totalBytesRead = 0;
+        long startTime = System.currentTimeMillis(), ts = startTime;
+        writer.flush();
+        if (nodeService.findNode(batch.getNodeId(), true).isVersionGreaterThanOrEqualTo(3, 9, 0)) {
+            ByteArrayOutputStream head = new ByteArrayOutputStream();
+            byte[] bytes = null;
+            int index = -1;
+            while (index < 0 && (bytes = in.readDecompressedBlock()) != null) {
+                int searchFrom = Math.max(0, head.size() - STATS_SEARCH_OVERLAP);
+                head.write(bytes);
+                index = findStatsIndex(head.toByteArray(), searchFrom);
+            }
+            bytes = head.toByteArray();
+            writeBatchStats(out, bytes, index, batch);
+            totalBytesRead += bytes.length;
+        }
+        byte[] block = null;
+        while ((block = in.readRawBlock()) != null) {
+            out.writeRawBlock(block);
+            totalCompressedBytesRead += block.length;
+            totalBytesRead += BlockGzipInputStream.getUncompressedSize(block);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IoException("This thread was interrupted");
+            }
+            long batchStatusUpdateMillis = parameterService.getLong(ParameterConstants.OUTGOING_BATCH_UPDATE_STATUS_MILLIS);
+            if (System.currentTimeMillis() - ts > batchStatusUpdateMillis && batch.getStatus() != Status.SE && batch.getStatus() != Status.RS) {
+                changeBatchStatus(Status.SE, batch, mode);
+            }
+            if (System.currentTimeMillis() - ts > LOG_PROCESS_SUMMARY_THRESHOLD) {
+                log.info(
+                        "Batch '{}', for node '{}', for process 'send from stage' has been processing for {} seconds.  "
+                                + "The following stats have been gathered: {}",
+                        new Object[] { batch.getBatchId(), batch.getNodeId(), (System.currentTimeMillis() - startTime) / 1000,
+                                "BYTES=" + totalBytesRead + ", COMPRESSED_BYTES=" + totalCompressedBytesRead });
+                ts = System.currentTimeMillis();
+            }
+            processInfo.setCurrentDataCount((long) (Math.min(totalBytesRead / (double) totalBytes, 1d) * batch.getDataRowCount()));
+        }
+        out.flush();
+        if (batch.getSentCount() == 1) {
+            statisticManager.incrementDataSent(batch.getChannelId(), batch.getDataRowCount());
+            statisticManager.incrementDataBytesSent(batch.getChannelId(), totalBytesRead);
+        }
+    }
+
+    /**
+     * Copy a staging file to a transport as bytes, which avoids decoding it into characters and encoding it again. Only the start of the file up to
+     * the batch line is read into memory, so the batch stats can be inserted after it.
+     */
+    protected void transferBytesFromStaging(ExtractMode mode, OutgoingBatch batch, IStagedResource stagedResource, OutputStreamBufferedWriter writer,
+            ProcessInfo processInfo) throws IOException {
+        TransferProgressOutputStream out = new TransferProgressOutputStream(writer.getOutputStream(), mode, batch, stagedResource.getSize(),
+                processInfo);
+        long position = 0;
+        writer.flush();
+        if (nodeService.findNode(batch.getNodeId(), true).isVersionGreaterThanOrEqualTo(3, 9, 0)) {
+            InputStream in = stagedResource.getInputStream();
+            ByteArrayOutputStream head = new ByteArrayOutputStream();
+            byte[] buffer = new byte[STATS_SEARCH_BUFFER_SIZE];
+            int index = -1, length = 0;
+            while (index < 0 && (length = in.read(buffer)) != -1) {
+                int searchFrom = Math.max(0, head.size() - STATS_SEARCH_OVERLAP);
+                head.write(buffer, 0, length);
+                index = findStatsIndex(head.toByteArray(), searchFrom);
+            }
+            byte[] bytes = head.toByteArray();
+            writeBatchStats(out, bytes, index, batch);
+            position = bytes.length;
+        }
+        long totalBytesRead = position + stagedResource.transferTo(position, out);
+        out.flush();
+        processInfo.setCurrentDataCount(batch.getDataRowCount());
+        if (batch.getSentCount() == 1) {
+            statisticManager.incrementDataSent(batch.getChannelId(), batch.getDataRowCount());
+            statisticManager.incrementDataBytesSent(batch.getChannelId(), totalBytesRead);
+        }
+    }
+
+    /**
+     * Checks for interrupts, updates the batch status, and logs progress while bytes are copied from staging, the same as the other transfer loops.
+     */
+    class TransferProgressOutputStream extends FilterOutputStream {
+        ExtractMode mode;
+        OutgoingBatch batch;
+        long totalBytes;
+        ProcessInfo processInfo;
+        long totalBytesWritten;
+        long startTime = System.currentTimeMillis(), ts = startTime;
+
+        TransferProgressOutputStream(OutputStream out, ExtractMode mode, OutgoingBatch batch, long totalBytes, ProcessInfo processInfo) {
+            super(out);
+            this.mode = mode;
+            this.batch = batch;
+            this.totalBytes = totalBytes;
+            this.processInfo = processInfo;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            written(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            written(len);
+        }
+
+        protected void written(int length) {
+            totalBytesWritten += length;
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IoException("This thread was interrupted");
+            }
+            long batchStatusUpdateMillis = parameterService.getLong(ParameterConstants.OUTGOING_BATCH_UPDATE_STATUS_MILLIS);
+            if (System.currentTimeMillis() - ts > batchStatusUpdateMillis && batch.getStatus() != Status.SE && batch.getStatus() != Status.RS) {
+                changeBatchStatus(Status.SE, batch, mode);
+            }
+            if (System.currentTimeMillis() - ts > LOG_PROCESS_SUMMARY_THRESHOLD) {
+                log.info(
+                        "Batch '{}', for node '{}', for process 'send from stage' has been processing for {} seconds.  "
+                                + "The following stats have been gathered: {}",
+                        new Object[] { batch.getBatchId(), batch.getNodeId(), (System.currentTimeMillis() - startTime) / 1000,
+                                "BYTES=" + totalBytesWritten });
+                ts = System.currentTimeMillis();
+            }
+            processInfo.setCurrentDataCount((long) (Math.min(totalBytesWritten / (double) totalBytes, 1d) * batch.getDataRowCount()));
+        }
+    }
+
+    /**
+     * Find the index after the batch line in bytes that were read from staging, searching from an offset.
+     */
+    protected int findStatsIndex(byte[] bytes, int offset) {
+        int index = findStatsIndex(new String(bytes, offset, bytes.length - offset, StandardCharsets.ISO_8859_1), "");
+        return index < 0 ? -1 : index + offset;
+    }
+
+    /**
+     * Write bytes that were read from staging with the batch stats inserted at the index, or without the stats when the index is negative.
+     */
+    protected void writeBatchStats(OutputStream out, byte[] bytes, int index, OutgoingBatch batch) throws IOException {
+        if (index >= 0) {
+            out.write(bytes, 0, index);
+            String stats = getBatchStatsColumns() + System.lineSeparator() + getBatchStats(batch) + System.lineSeparator();
+            out.write(stats.getBytes(StandardCharsets.UTF_8));
+            out.write(bytes, index, bytes.length - index);
+        } else {
+            out.write(bytes);
+        }
+    }
+
     protected int findStatsIndex(String bufferString, String prevBuffer) {
         int index = -1;
         String fullBuffer = prevBuffer + bufferString;
@@ -1807,13 +2117,18 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
                     OutgoingBatch firstBatch = batches.get(0);
                     processInfo.setCurrentLoadId(firstBatch.getLoadId());
                     processInfo.setStatus(ProcessStatus.QUERYING);
-                    if (isRestarted) {
+                    if (isRestarted && request.getSliceCount() == 0) {
                         restartExtractRequest(batches, request, childRequests);
                     }
-                    MultiBatchStagingWriter multiBatchStagingWriter = buildMultiBatchStagingWriter(request, childRequests, identity, targetNode, batches,
-                            processInfo, channel, isRestarted);
-                    extractOutgoingBatch(processInfo, targetNode, multiBatchStagingWriter,
-                            firstBatch, false, false, ExtractMode.FOR_SYM_CLIENT, new ClusterLockRefreshListener(clusterService));
+                    if (!extractSlices(request, childRequests, identity, targetNode, batches, processInfo, channel, isRestarted)) {
+                        if (isRestarted && request.getSliceCount() > 0) {
+                            restartExtractRequest(batches, request, childRequests);
+                        }
+                        MultiBatchStagingWriter multiBatchStagingWriter = buildMultiBatchStagingWriter(request, childRequests, identity, targetNode,
+                                batches, processInfo, channel, isRestarted);
+                        extractOutgoingBatch(processInfo, targetNode, multiBatchStagingWriter,
+                                firstBatch, false, false, ExtractMode.FOR_SYM_CLIENT, new ClusterLockRefreshListener(clusterService));
+                    }
                     checkSendDeferredConstraints(request, childRequests, targetNode);
                 } else {
                     log.info("Batches already had an OK status for request {} to extract table {} for batches {} through {} for node {}.  Not extracting.",
@@ -1957,6 +2272,233 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
         }
     }
 
+    /**
+     * Extract a large table on several threads by splitting it into ranges of its numeric primary key, where each range is written into its
+     * own share of the batches for the request. The number of finished ranges is recorded on the request, so a restarted request only
+     * extracts the ranges that did not finish. Returns false when the request is not split and should be extracted with a single query.
+     */
+    protected boolean extractSlices(final ExtractRequest request, List<ExtractRequest> childRequests, final Node sourceNode, final Node targetNode,
+            List<OutgoingBatch> batches, final ProcessInfo processInfo, final Channel channel, final boolean isRestarted) {
+        int threadCount = parameterService.getInt(ParameterConstants.INITIAL_LOAD_EXTRACT_SLICE_THREAD_COUNT, 1);
+        if (threadCount <= 1 || batches.size() < 2 || (childRequests != null && childRequests.size() > 0)
+                || (isRestarted && request.getSliceCount() == 0)) {
+            return false;
+        }
+        Table table = getSliceTable(request);
+        if (table == null) {
+            return false;
+        }
+        ISymmetricDialect targetDialect = symmetricDialect.getTargetDialect();
+        final String column = SymmetricUtils.quote(targetDialect, table.getPrimaryKeyColumns()[0].getName());
+        List<ExtractSlice> slices = null;
+        if (request.getSliceCount() > 0) {
+            slices = ExtractSlice.split(request.getSliceMinKey(), request.getSliceMaxKey(), request.getSliceCount(), batches);
+            if (isOverflowUsed(ExtractSlice.getOverflowBatches(slices.size(), batches))) {
+                /*
+                 * Overflow batches aren't tracked by slice, so the slices that filled them can't be told apart and every slice starts over
+                 */
+                restartExtractRequest(batches, request, childRequests);
+                for (OutgoingBatch outgoingBatch : batches) {
+                    outgoingBatch.setStatus(Status.RQ);
+                }
+            } else {
+                for (ExtractSlice slice : slices) {
+                    if (!slice.isExtracted()) {
+                        restartExtractSlice(request, slice);
+                    }
+                }
+            }
+        } else {
+            if (request.getRows() < parameterService.getLong(ParameterConstants.INITIAL_LOAD_EXTRACT_SLICE_MIN_ROWS, 1000000)) {
+                return false;
+            }
+            long[] range = selectSliceRange(targetDialect, table, column);
+            if (range == null) {
+                return false;
+            }
+            slices = ExtractSlice.split(range[0], range[1], threadCount * 4, batches);
+            if (slices.size() < 2) {
+                return false;
+            }
+            sqlTemplate.update(getSql("updateExtractRequestSlices"), slices.size(), range[0], range[1], new Date(), request.getRequestId());
+            request.setSliceCount(slices.size());
+            request.setSliceMinKey(range[0]);
+            request.setSliceMaxKey(range[1]);
+        }
+        log.info("Extracting request {} for table {} in {} slices of column {} from {} to {} using {} threads",
+                request.getRequestId(), request.getTableName(), slices.size(), column, request.getSliceMinKey(), request.getSliceMaxKey(), threadCount);
+        final OutgoingBatch firstBatch = batches.get(0);
+        final List<OutgoingBatch> overflowBatches = ExtractSlice.getOverflowBatches(slices.size(), batches);
+        ExecutorService executor = getSliceThreads(threadCount);
+        List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        for (final ExtractSlice slice : slices) {
+            if (slice.isExtracted()) {
+                log.info("Slice {} of request {} was already extracted into batches {} through {}", slice.getIndex(), request.getRequestId(),
+                        slice.getStartBatchId(), slice.getEndBatchId());
+            } else {
+                futures.add(executor.submit(() -> {
+                    MDC.put("engineName", engine.getParameterService().getEngineName());
+                    extractSlice(request, slice, slice.getCondition(column), sourceNode, targetNode, firstBatch, overflowBatches, processInfo,
+                            channel, isRestarted);
+                    return null;
+                }));
+            }
+        }
+        try {
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            cancelSlices(futures);
+            throw new CancellationException();
+        } catch (ExecutionException e) {
+            cancelSlices(futures);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SymmetricException("Failed to extract slice of request %d", cause, request.getRequestId());
+        }
+        if (overflowBatches.size() > 0) {
+            buildMultiBatchStagingWriter(request, null, sourceNode, targetNode, overflowBatches, processInfo, channel, isRestarted)
+                    .writeEmptyBatches(newExtractDataContext(sourceNode, targetNode));
+        }
+        return true;
+    }
+
+    protected boolean isOverflowUsed(List<OutgoingBatch> overflowBatches) {
+        for (OutgoingBatch outgoingBatch : overflowBatches) {
+            if (outgoingBatch.getStatus() != Status.RQ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected void extractSlice(ExtractRequest request, ExtractSlice slice, String condition, Node sourceNode, Node targetNode,
+            OutgoingBatch firstBatch, List<OutgoingBatch> overflowBatches, ProcessInfo processInfo, Channel channel, boolean isRestarted) {
+        log.info("Extracting slice {} of request {} for table {} into batches {} through {} where {}", slice.getIndex(), request.getRequestId(),
+                request.getTableName(), slice.getStartBatchId(), slice.getEndBatchId(), condition);
+        /*
+         * Each slice reads the reload event from the first batch, but starts writing to its own first batch
+         */
+        OutgoingBatch readBatch = new OutgoingBatch(firstBatch.getNodeId(), firstBatch.getChannelId(), firstBatch.getStatus());
+        readBatch.setBatchId(firstBatch.getBatchId());
+        readBatch.setLoadId(firstBatch.getLoadId());
+        IExtractDataReaderSource source = AppUtils.newInstance(IExtractDataReaderSource.class, SelectFromSymDataSource.class,
+                new Object[] { engine, readBatch, sourceNode, targetNode, processInfo, channel.isContainsBigLob() },
+                new Class[] { ISymmetricEngine.class, OutgoingBatch.class, Node.class, Node.class, ProcessInfo.class, boolean.class });
+        if (!(source instanceof SelectFromSymDataSource)) {
+            throw new SymmetricException("Unable to extract slices using data reader source %s", source.getClass().getName());
+        }
+        ((SelectFromSymDataSource) source).setSlice(condition, slice.getStartBatchId());
+        IExtractDataReaderFactory factory = AppUtils.newInstance(IExtractDataReaderFactory.class, ExtractDataReaderFactory.class,
+                new Object[] { engine }, new Class[] { ISymmetricEngine.class });
+        IDataReader dataReader = factory.getReader(platform, source, sourceNode, targetNode);
+        MultiBatchStagingWriter multiBatchStagingWriter = buildMultiBatchStagingWriter(request, null, sourceNode, targetNode, slice.getBatches(),
+                processInfo, channel, isRestarted);
+        multiBatchStagingWriter.setOverflowBatches(overflowBatches);
+        IDataWriter writer = wrapWithTransformWriter(sourceNode, targetNode, processInfo, multiBatchStagingWriter, false);
+        new DataProcessor(dataReader, writer, new ClusterLockRefreshListener(clusterService), "extract slice").process(
+                newExtractDataContext(sourceNode, targetNode));
+    }
+
+    protected void cancelSlices(List<Future<Object>> futures) {
+        for (Future<Object> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Get the table for the request if it can be split into ranges, which requires a single numeric primary key and no self-referencing
+     * foreign key that the extract would order rows by.
+     */
+    protected Table getSliceTable(ExtractRequest request) {
+        TriggerRouter triggerRouter = request.getTriggerRouter();
+        if (triggerRouter == null) {
+            return null;
+        }
+        List<TriggerHistory> histories = triggerRouterService.getActiveTriggerHistories(triggerRouter.getTrigger());
+        if (histories != null) {
+            for (TriggerHistory history : histories) {
+                if (history.getSourceTableName().equalsIgnoreCase(request.getTableName())) {
+                    Table table = symmetricDialect.getTargetDialect().getPlatform().getTableFromCache(history.getSourceCatalogName(),
+                            history.getSourceSchemaName(), history.getSourceTableName(), false);
+                    if (table == null || table.getPrimaryKeyColumnCount() != 1 || !isSliceColumn(table.getPrimaryKeyColumns()[0])) {
+                        return null;
+                    }
+                    if (parameterService.is(ParameterConstants.INITIAL_LOAD_RECURSION_SELF_FK) && table.getSelfReferencingForeignKey() != null) {
+                        return null;
+                    }
+                    return table;
+                }
+            }
+        }
+        return null;
+    }
+
+    protected boolean isSliceColumn(Column column) {
+        int type = column.getMappedTypeCode();
+        return type == Types.BIGINT || type == Types.INTEGER || type == Types.SMALLINT || type == Types.TINYINT
+                || ((type == Types.NUMERIC || type == Types.DECIMAL) && column.getScale() == 0);
+    }
+
+    protected long[] selectSliceRange(ISymmetricDialect targetDialect, Table table, String column) {
+        DatabaseInfo info = targetDialect.getPlatform().getDatabaseInfo();
+        String tableName = Table.getFullyQualifiedTableName(table.getCatalog(), table.getSchema(), table.getName(), info.getDelimiterToken(),
+                info.getCatalogSeparator(), info.getSchemaSeparator());
+        String sql = "select min(" + column + "), max(" + column + ") from " + tableName;
+        return targetDialect.getPlatform().getSqlTemplate().queryForObject(sql, new ISqlRowMapper<long[]>() {
+            public long[] mapRow(Row row) {
+                Object[] values = row.values().toArray();
+                if (values[0] == null || values[1] == null) {
+                    return null;
+                }
+                return new long[] { new BigDecimal(values[0].toString()).longValue(), new BigDecimal(values[1].toString()).longValue() };
+            }
+        });
+    }
+
+    /**
+     * Reset the batches of a slice that did not finish extracting, so it can be extracted again without disturbing the other slices.
+     */
+    protected void restartExtractSlice(ExtractRequest request, ExtractSlice slice) {
+        log.info("Resetting slice {} of request {} to extract table {} into batches {} through {} for node {}", slice.getIndex(),
+                request.getRequestId(), request.getTableName(), slice.getStartBatchId(), slice.getEndBatchId(), request.getNodeId());
+        ISqlTransaction transaction = null;
+        try {
+            transaction = sqlTemplate.startSqlTransaction();
+            outgoingBatchService.updateOutgoingBatchStatus(transaction, Status.RQ, request.getNodeId(), slice.getStartBatchId(),
+                    slice.getEndBatchId());
+            transaction.commit();
+        } catch (Error ex) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw ex;
+        } catch (RuntimeException ex) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw ex;
+        } finally {
+            close(transaction);
+        }
+        for (OutgoingBatch outgoingBatch : slice.getBatches()) {
+            IStagedResource resource = getStagedResource(outgoingBatch);
+            if (resource != null) {
+                resource.delete();
+            }
+            outgoingBatch.setStatus(Status.RQ);
+        }
+        String symIncomingBatch = TableConstants.getTableName(parameterService.getTablePrefix(), TableConstants.SYM_INCOMING_BATCH);
+        String sql = "delete from " + symIncomingBatch + " where node_id = '" + nodeService.findIdentityNodeId() +
+                "' and batch_id between " + slice.getStartBatchId() + " and " + slice.getEndBatchId();
+        dataService.sendSQL(request.getNodeId(), sql);
+    }
+
     public void releaseMissedExtractRequests() {
         List<Long> requestIds = sqlTemplateDirty.query(getSql("selectExtractChildRequestIdsMissed"), new LongMapper(), Status.NE.name(), Status.OK.name(),
                 engine.getNodeId(), engine.getNodeId());
@@ -2049,6 +2591,9 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
             request.setParentRequestId(row.getLong("parent_request_id"));
             request.setExtractedRows(row.getLong("extracted_rows"));
             request.setExtractedMillis(row.getLong("extracted_millis"));
+            request.setSliceCount(row.getInt("slice_count"));
+            request.setSliceMinKey(row.getLong("slice_min_key"));
+            request.setSliceMaxKey(row.getLong("slice_max_key"));
             return request;
         }
     }
@@ -2071,7 +2616,7 @@ public class DataExtractorService extends AbstractService implements IDataExtrac
     }
 
     static class FutureExtractStatus {
-        boolean shouldExtractSkip;
+        volatile boolean shouldExtractSkip;
         int batchExtractCount;
         int byteExtractCount;
     }
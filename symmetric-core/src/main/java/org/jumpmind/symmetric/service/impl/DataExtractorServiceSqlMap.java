@@ -52,6 +52,8 @@ public class DataExtractorServiceSqlMap extends AbstractSqlMap {
                 + " values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
         
         putSql("updateExtractRequestStatus", "update $(extract_request) set status=?, last_update_time=?, extracted_rows=?, extracted_millis=? where request_id=?");
+
+        putSql("updateExtractRequestSlices", "update $(extract_request) set slice_count=?, slice_min_key=?, slice_max_key=?, last_update_time=? where request_id=?");
         
         putSql("updateExtractRequestLoadTime", "update $(extract_request) set loaded_time = (case when end_batch_id = ? then ? when 1 = 0 then last_update_time else null end), "
                 + " loaded_rows = loaded_rows + ?, loaded_millis = loaded_millis + ?, last_loaded_batch_id = ?, "
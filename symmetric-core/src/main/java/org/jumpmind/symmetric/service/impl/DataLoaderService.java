@@ -42,6 +42,7 @@ import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -75,12 +76,16 @@ import org.jumpmind.symmetric.common.ParameterConstants;
 import org.jumpmind.symmetric.ext.INodeRegistrationListener;
 import org.jumpmind.symmetric.io.data.Batch;
 import org.jumpmind.symmetric.io.data.Batch.BatchType;
+import org.jumpmind.symmetric.io.data.BinaryProtocolConstants;
 import org.jumpmind.symmetric.io.data.DataContext;
 import org.jumpmind.symmetric.io.data.DataEventType;
 import org.jumpmind.symmetric.io.data.DataProcessor;
+import org.jumpmind.symmetric.io.data.IDataReader;
 import org.jumpmind.symmetric.io.data.IDataWriter;
 import org.jumpmind.symmetric.io.data.ProtocolException;
+import org.jumpmind.symmetric.io.data.reader.BinaryProtocolDataReader;
 import org.jumpmind.symmetric.io.data.reader.DataReaderStatistics;
+import org.jumpmind.symmetric.io.data.reader.PipelinedDataReader;
 import org.jumpmind.symmetric.io.data.reader.ProtocolDataReader;
 import org.jumpmind.symmetric.io.data.transform.TransformPoint;
 import org.jumpmind.symmetric.io.data.transform.TransformTable;
@@ -389,7 +394,7 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
                     .getNodeId(), queue, local != null ? local.getNodeId() : null, PUSH_HANDLER_TRANSFER));
             try {
                 List<IncomingBatch> batchList = loadDataFromTransport(transferInfo, sourceNode,
-                        new InternalIncomingTransport(in), out);
+                        new InternalIncomingTransport(BinaryProtocolConstants.toMarkSupported(in)), out);
                 logDataReceivedFromPush(sourceNode, batchList, transferInfo);
                 if (local == null) {
                     local = nodeService.findIdentity(false);
@@ -528,6 +533,19 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
         }
     }
 
+    /**
+     * Get the stream of a pushed transport when it carries the binary protocol, which is loaded directly instead of being staged.
+     */
+    protected InputStream getBinaryProtocolStream(IIncomingTransport transport) throws IOException {
+        if (transport instanceof InternalIncomingTransport) {
+            InputStream is = transport.openStream();
+            if (is != null && is.markSupported() && BinaryProtocolConstants.isBinaryProtocol(is)) {
+                return is;
+            }
+        }
+        return null;
+    }
+
     /**
      * Load database from input stream and return a list of batch statuses. This is used for a pull request that responds with data, and the acknowledgment is
      * sent later.
@@ -557,14 +575,19 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
             long memoryThresholdInBytes = parameterService.getLong(ParameterConstants.STREAM_TO_FILE_THRESHOLD);
             String targetNodeId = nodeService.findIdentityNodeId();
             boolean streamToFile = parameterService.is(ParameterConstants.STREAM_TO_FILE_ENABLED);
-            if (streamToFile) {
+            InputStream binaryStream = getBinaryProtocolStream(transport);
+            if (streamToFile && binaryStream == null) {
                 transferInfo.setStatus(ProcessStatus.TRANSFERRING);
                 if (threadFactory == null) {
                     threadFactory = new CustomizableThreadFactory(parameterService.getEngineName().toLowerCase() + "-dataloader");
                 }
-                ExecutorService executor = Executors.newFixedThreadPool(1, threadFactory);
+                ExecutorService[] executors = new ExecutorService[Math.max(1, parameterService.getInt(
+                        ParameterConstants.DATA_LOADER_CHANNEL_THREAD_COUNT, 1))];
+                for (int i = 0; i < executors.length; i++) {
+                    executors[i] = Executors.newFixedThreadPool(1, threadFactory);
+                }
                 LoadIntoDatabaseOnArrivalListener loadListener = new LoadIntoDatabaseOnArrivalListener(transferInfo,
-                        sourceNode.getNodeId(), listener, executor);
+                        sourceNode.getNodeId(), listener, ctx, executors);
                 SimpleStagingDataWriter stageWriter = null;
                 try {
                     stageWriter = new SimpleStagingDataWriter(transferInfo, transport.openReader(), stagingManager, Constants.STAGING_CATEGORY_INCOMING,
@@ -572,24 +595,26 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
                     stageWriter.process();
                 } finally {
                     /* Previously submitted tasks will still be executed */
-                    executor.shutdown();
+                    for (ExecutorService executor : executors) {
+                        executor.shutdown();
+                    }
                 }
                 OutputStreamWriter outWriter = null;
                 if (out != null) {
                     try {
                         outWriter = new OutputStreamWriter(out, StandardCharsets.UTF_8);
                         long keepAliveMillis = parameterService.getLong(ParameterConstants.DATA_LOADER_SEND_ACK_KEEPALIVE);
-                        while (!executor.awaitTermination(keepAliveMillis, TimeUnit.MILLISECONDS)) {
+                        while (!awaitTermination(executors, keepAliveMillis)) {
                             outWriter.write("1=1&");
                             outWriter.flush();
                         }
                     } catch (Exception ex) {
                         log.info("Could not send keep alives to " + sourceNode + " " + ex);
-                        awaitTermination(executor);
+                        awaitTermination(executors);
                     }
                 } else {
                     transport.close();
-                    awaitTermination(executor);
+                    awaitTermination(executors);
                 }
                 loadListener.isDone();
                 if (stageWriter.getException() != null) {
@@ -598,10 +623,13 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
             } else {
                 transferInfo.setStatus(ProcessStatus.OK);
                 ProcessInfo loadInfo = statisticManager.newProcessInfo(new ProcessInfoKey(sourceNode.getNodeId(), transferInfo.getQueue(), nodeService
-                        .findIdentityNodeId(), PULL_JOB_LOAD));
+                        .findIdentityNodeId(), binaryStream != null ? PUSH_HANDLER_LOAD : PULL_JOB_LOAD));
                 try {
-                    DataProcessor processor = new DataProcessor(new ProtocolDataReader(BatchType.LOAD,
-                            targetNodeId, transport.openReader(), streamToFile), null, listener, "data load") {
+                    IDataReader dataReader = binaryStream != null ? new BinaryProtocolDataReader(BatchType.LOAD, targetNodeId, binaryStream)
+                            : new ProtocolDataReader(BatchType.LOAD, targetNodeId, transport.openReader(), streamToFile);
+                    dataReader = new PipelinedDataReader(dataReader, parameterService.getInt(ParameterConstants.DATA_LOADER_PIPELINE_QUEUE_SIZE, 0),
+                            Thread.currentThread().getName());
+                    DataProcessor processor = new DataProcessor(dataReader, null, listener, "data load") {
                         @Override
                         protected IDataWriter chooseDataWriter(Batch batch) {
                             return buildDataWriter(loadInfo, sourceNode.getNodeId(),
@@ -648,14 +676,24 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
         return batchesProcessed;
     }
 
-    private void awaitTermination(ExecutorService executor) throws InterruptedException {
+    private void awaitTermination(ExecutorService[] executors) throws InterruptedException {
         long hours = 1;
-        while (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+        while (!awaitTermination(executors, TimeUnit.HOURS.toMillis(1))) {
             log.info("Executor has been awaiting loader termination for {} hour(s).", hours);
             hours++;
         }
     }
 
+    private boolean awaitTermination(ExecutorService[] executors, long timeoutMillis) throws InterruptedException {
+        long endTime = System.currentTimeMillis() + timeoutMillis;
+        for (ExecutorService executor : executors) {
+            if (!executor.awaitTermination(Math.max(0, endTime - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     protected void logOrRethrow(Throwable ex) throws IOException {
         // Throwing exception will mean acks are not sent, so only certain exceptions should be thrown
         if (ex instanceof RegistrationRequiredException) {
@@ -999,28 +1037,49 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
 
     class LoadIntoDatabaseOnArrivalListener implements IProtocolDataWriterListener {
         private ManageIncomingBatchListener listener;
+        private DataContext ctx;
         private long batchStartsToArriveTimeInMs;
         private String sourceNodeId;
         private ProcessInfo transferInfo;
-        private ProcessInfo loadInfo;
-        private ExecutorService executor;
-        private List<Future<IncomingBatch>> futures = new ArrayList<Future<IncomingBatch>>();
-        private boolean isError;
+        private LoadLane[] lanes;
+        private Map<Future<IncomingBatch>, LoadLane> futures = new LinkedHashMap<Future<IncomingBatch>, LoadLane>();
 
         public LoadIntoDatabaseOnArrivalListener(ProcessInfo transferInfo, String sourceNodeId,
-                ManageIncomingBatchListener listener, ExecutorService executor) {
+                ManageIncomingBatchListener listener, DataContext ctx, ExecutorService... executors) {
             this.sourceNodeId = sourceNodeId;
             this.listener = listener;
-            this.executor = executor;
+            this.ctx = ctx;
             this.transferInfo = transferInfo;
+            this.lanes = new LoadLane[executors.length];
+            for (int i = 0; i < executors.length; i++) {
+                if (executors.length == 1) {
+                    lanes[i] = new LoadLane(executors[i], listener, ctx);
+                } else {
+                    DataContext laneContext = new DataContext();
+                    laneContext.getContext().putAll(ctx.getContext());
+                    lanes[i] = new LoadLane(executors[i], new ManageIncomingBatchListener(listener), laneContext);
+                }
+            }
+        }
+
+        /**
+         * Batches on the same channel always go to the same lane, so they are loaded in the order they arrived.
+         */
+        protected LoadLane getLane(Batch batch) {
+            String channelId = batch.getChannelId();
+            int index = channelId == null ? 0 : (channelId.hashCode() & Integer.MAX_VALUE) % lanes.length;
+            return lanes[index];
         }
 
         public void start(DataContext ctx, Batch batch) {
             batchStartsToArriveTimeInMs = System.currentTimeMillis();
         }
 
-        protected ProtocolDataReader buildDataReader(final Batch batchInStaging, final IStagedResource resource) {
-            return new ProtocolDataReader(BatchType.LOAD, batchInStaging.getTargetNodeId(), resource) {
+        protected IDataReader buildDataReader(final Batch batchInStaging, final IStagedResource resource,
+                final ManageIncomingBatchListener listener) {
+            ProtocolDataReader reader = new ProtocolDataReader(BatchType.LOAD, batchInStaging.getTargetNodeId(), resource);
+            int queueSize = parameterService.getInt(ParameterConstants.DATA_LOADER_PIPELINE_QUEUE_SIZE, 0);
+            return new PipelinedDataReader(reader, queueSize, Thread.currentThread().getName()) {
                 @Override
                 public Table nextTable() {
                     Table table = super.nextTable();
@@ -1040,16 +1099,19 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
             };
         }
 
-        public void end(final DataContext ctx, final Batch batchInStaging, final IStagedResource resource) {
+        public void end(DataContext stagingContext, final Batch batchInStaging, final IStagedResource resource) {
             final long networkMillis = System.currentTimeMillis() - batchStartsToArriveTimeInMs;
+            final LoadLane lane = getLane(batchInStaging);
+            final ManageIncomingBatchListener listener = lane.listener;
+            final DataContext ctx = lane.ctx;
             Callable<IncomingBatch> loadBatchFromStage = new Callable<IncomingBatch>() {
                 public IncomingBatch call() throws Exception {
                     IncomingBatch incomingBatch = null;
                     DataProcessor processor = null;
                     MDC.put("engineName", engine.getParameterService().getEngineName());
-                    if (!isError && resource != null && resource.exists()) {
+                    if (!lane.isError && resource != null && resource.exists()) {
                         try {
-                            loadInfo = statisticManager.newProcessInfo(new ProcessInfoKey(transferInfo.getSourceNodeId(),
+                            final ProcessInfo loadInfo = statisticManager.newProcessInfo(new ProcessInfoKey(transferInfo.getSourceNodeId(),
                                     transferInfo.getQueue(), transferInfo.getTargetNodeId(), transferInfo.getProcessType() == PULL_JOB_TRANSFER ? PULL_JOB_LOAD
                                             : PUSH_HANDLER_LOAD));
                             loadInfo.setCurrentLoadId(transferInfo.getCurrentLoadId());
@@ -1058,11 +1120,11 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
                                 loadInfo.setCurrentLoadId(batchInStaging.getStatistics().get(DataReaderStatistics.LOAD_ID));
                             }
                             loadInfo.setStatus(ProcessInfo.ProcessStatus.LOADING);
-                            ProtocolDataReader reader = buildDataReader(batchInStaging, resource);
+                            IDataReader reader = buildDataReader(batchInStaging, resource, listener);
                             processor = new DataProcessor(reader, null, listener, "data load from stage") {
                                 @Override
                                 protected IDataWriter chooseDataWriter(Batch batch) {
-                                    boolean isRetry = ((ManageIncomingBatchListener) listener).getCurrentBatch().isRetry();
+                                    boolean isRetry = lane.listener.getCurrentBatch().isRetry();
                                     return buildDataWriter(loadInfo, sourceNodeId, batch.getChannelId(), batch.getBatchId(), isRetry);
                                 }
                             };
@@ -1078,12 +1140,12 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
                                 ctx.put(ContextConstants.CONTEXT_BULK_WRITER_TO_USE, "default");
                                 ctx.setLastError(null);
                                 listener.currentBatch.setStatus(Status.OK);
-                                processor.setDataReader(buildDataReader(batchInStaging, resource));
+                                processor.setDataReader(buildDataReader(batchInStaging, resource, listener));
                                 try {
                                     listener.getBatchesProcessed().remove(listener.currentBatch);
                                     processor.process(ctx);
                                 } catch (Exception retryException) {
-                                    isError = true;
+                                    lane.isError = true;
                                     incomingBatch = listener.currentBatch;
                                     incomingBatch.setStatus(Status.ER);
                                     incomingBatch.setErrorFlag(true);
@@ -1091,7 +1153,7 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
                                     throw e;
                                 }
                             } else {
-                                isError = true;
+                                lane.isError = true;
                                 if (listener.currentBatch.getSqlCode() == ErrorConstants.PROTOCOL_VIOLATION_CODE) {
                                     log.info("The batch {} may be corrupt in staging, so removing it.", batchInStaging.getNodeBatchId());
                                     resource.delete();
@@ -1130,19 +1192,21 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
                     incomingBatch.setStatus(Status.RS);
                     incomingBatchService.updateIncomingBatch(incomingBatch);
                 }
-                isError = true;
+                lane.isError = true;
             } else {
-                futures.add(executor.submit(loadBatchFromStage));
+                futures.put(lane.executor.submit(loadBatchFromStage), lane);
             }
         }
 
         public boolean isDone() throws Throwable {
             boolean isDone = true;
-            for (Future<IncomingBatch> future : futures) {
+            for (Map.Entry<Future<IncomingBatch>, LoadLane> entry : futures.entrySet()) {
+                Future<IncomingBatch> future = entry.getKey();
                 if (future.isDone()) {
                     try {
                         future.get();
                     } catch (ExecutionException e) {
+                        entry.getValue().copyErrorTo(listener, ctx);
                         throw e.getCause() != null ? e.getCause() : e;
                     }
                 } else {
@@ -1153,6 +1217,35 @@ public class DataLoaderService extends AbstractService implements IDataLoaderSer
         }
     }
 
+    /**
+     * A single threaded executor with its own listener and context that loads batches for the channels assigned to it.
+     */
+    static class LoadLane {
+        ExecutorService executor;
+        ManageIncomingBatchListener listener;
+        DataContext ctx;
+        volatile boolean isError;
+
+        LoadLane(ExecutorService executor, ManageIncomingBatchListener listener, DataContext ctx) {
+            this.executor = executor;
+            this.listener = listener;
+            this.ctx = ctx;
+        }
+
+        /**
+         * Copy the batch that failed and where it failed, so the error can be resolved the same way as when loading on one thread.
+         */
+        void copyErrorTo(ManageIncomingBatchListener parentListener, DataContext parentContext) {
+            if (listener != parentListener) {
+                parentListener.currentBatch = listener.currentBatch;
+                parentListener.isNewErrorForCurrentBatch = listener.isNewErrorForCurrentBatch;
+                parentContext.setBatch(ctx.getBatch());
+                parentContext.setTable(ctx.getTable());
+                parentContext.setData(ctx.getData());
+            }
+        }
+    }
+
     public static class ConflictNodeGroupLink extends Conflict implements IModelObject {
         private static final long serialVersionUID = 1L;
         protected NodeGroupLink nodeGroupLink;
@@ -28,10 +28,13 @@ import java.nio.charset.Charset;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
@@ -58,7 +61,9 @@ import org.jumpmind.symmetric.file.FileConflictException;
 import org.jumpmind.symmetric.file.FileSyncZipDataWriter;
 import org.jumpmind.symmetric.file.FileTriggerFileModifiedListener;
 import org.jumpmind.symmetric.file.FileTriggerFileModifiedListener.FileModifiedCallback;
+import org.jumpmind.symmetric.file.FileChecksumPool;
 import org.jumpmind.symmetric.file.FileTriggerTracker;
+import org.jumpmind.symmetric.file.FileTriggerWatchTracker;
 import org.jumpmind.symmetric.io.data.CsvData;
 import org.jumpmind.symmetric.io.data.DataEventType;
 import org.jumpmind.symmetric.io.stage.IStagedResource;
@@ -110,6 +115,7 @@ public class FileSyncService extends AbstractOfflineDetectorService implements I
     private ISymmetricEngine engine;
     private Date lastUpdateTime;
     private ICacheManager cacheManager;
+    private Map<String, FileTriggerTracker> watchTrackers = new ConcurrentHashMap<String, FileTriggerTracker>();
 
     public FileSyncService(ISymmetricEngine engine) {
         super(engine.getParameterService(), engine.getSymmetricDialect(), engine.getExtensionService());
@@ -152,10 +158,18 @@ public class FileSyncService extends AbstractOfflineDetectorService implements I
                         ProcessInfo processInfo = engine.getStatisticManager().newProcessInfo(
                                 new ProcessInfoKey(local.getNodeId(), null, ProcessType.FILE_SYNC_TRACKER));
                         boolean useCrc = engine.getParameterService().is(ParameterConstants.FILE_SYNC_USE_CRC);
-                        if (engine.getParameterService().is(ParameterConstants.FILE_SYNC_FAST_SCAN)) {
-                            trackChangesFastScan(processInfo, useCrc);
-                        } else {
-                            trackChanges(processInfo, useCrc);
+                        FileChecksumPool checksumPool = useCrc ? new FileChecksumPool(engine.getParameterService().getInt(
+                                ParameterConstants.FILE_SYNC_CHECKSUM_THREADS, 1)) : null;
+                        try {
+                            if (engine.getParameterService().is(ParameterConstants.FILE_SYNC_FAST_SCAN)) {
+                                trackChangesFastScan(processInfo, useCrc, checksumPool);
+                            } else {
+                                trackChanges(processInfo, useCrc, checksumPool);
+                            }
+                        } finally {
+                            if (checksumPool != null) {
+                                checksumPool.shutdown();
+                            }
                         }
                         if (engine.getParameterService().is(ParameterConstants.FILE_SYNC_PREVENT_PING_BACK)) {
                             deleteFromFileIncoming();
@@ -180,6 +194,12 @@ public class FileSyncService extends AbstractOfflineDetectorService implements I
     }
 
     protected void trackChanges(ProcessInfo processInfo, boolean useCrc) {
+        trackChanges(processInfo, useCrc, null);
+    }
+
+    protected void trackChanges(ProcessInfo processInfo, boolean useCrc, FileChecksumPool checksumPool) {
+        boolean useWatchService = engine.getParameterService().is(ParameterConstants.FILE_SYNC_USE_WATCH_SERVICE, false);
+        Set<String> trackerKeys = new HashSet<String>();
         long ctxTime = engine.getContextService().getLong(ContextConstants.FILE_SYNC_FAST_SCAN_TRACK_TIME);
         Date ctxDate = new Date(ctxTime);
         if (ctxTime == 0) {
@@ -196,21 +216,90 @@ public class FileSyncService extends AbstractOfflineDetectorService implements I
                         continue;
                     }
                     boolean ignoreFiles = shouldIgnoreInitialFiles(fileTriggerRouter, fileTrigger, ctxDate);
-                    FileTriggerTracker tracker = new FileTriggerTracker(fileTriggerRouter, getDirectorySnapshot(fileTriggerRouter),
-                            processInfo, useCrc, engine);
+                    FileTriggerTracker tracker = null;
+                    if (useWatchService) {
+                        trackerKeys.add(getTrackerKey(fileTriggerRouter));
+                        tracker = getWatchTracker(fileTriggerRouter, processInfo, useCrc, checksumPool);
+                    }
+                    if (tracker == null) {
+                        tracker = new FileTriggerTracker(fileTriggerRouter, getDirectorySnapshot(fileTriggerRouter),
+                                processInfo, useCrc, engine, checksumPool);
+                    }
                     DirectorySnapshot dirSnapshot = tracker.trackChanges();
                     saveDirectorySnapshot(fileTriggerRouter, dirSnapshot, ignoreFiles);
                     engine.getContextService().save(ContextConstants.FILE_SYNC_FAST_SCAN_TRACK_TIME, String.valueOf(currentDate.getTime()));
                 } catch (Exception ex) {
+                    closeWatchTracker(getTrackerKey(fileTriggerRouter));
                     log.error("Failed to track changes for file trigger router: "
                             + fileTriggerRouter.getFileTrigger().getTriggerId()
                             + "::" + fileTriggerRouter.getRouter().getRouterId(), ex);
                 }
             }
         }
+        Iterator<String> iterator = watchTrackers.keySet().iterator();
+        while (iterator.hasNext()) {
+            String key = iterator.next();
+            if (!trackerKeys.contains(key)) {
+                closeWatchTracker(key);
+            }
+        }
+    }
+
+    /**
+     * Get the watch tracker that is kept between runs for the file trigger router, starting a new one with a full scan when it is first used or
+     * its configuration changed. Returns null if the file system cannot be watched.
+     */
+    protected FileTriggerTracker getWatchTracker(FileTriggerRouter fileTriggerRouter, ProcessInfo processInfo, boolean useCrc,
+            FileChecksumPool checksumPool) {
+        String key = getTrackerKey(fileTriggerRouter);
+        FileTriggerTracker tracker = watchTrackers.get(key);
+        if (tracker != null && !isSameFileTriggerRouter(tracker.getFileTriggerRouter(), fileTriggerRouter)) {
+            closeWatchTracker(key);
+            tracker = null;
+        }
+        if (tracker == null) {
+            try {
+                tracker = new FileTriggerWatchTracker(fileTriggerRouter, getDirectorySnapshot(fileTriggerRouter), processInfo, useCrc, engine,
+                        checksumPool);
+                watchTrackers.put(key, tracker);
+            } catch (UnsupportedOperationException | IoException ex) {
+                log.warn("Unable to watch directory {} for changes, so it will be scanned instead: {}",
+                        fileTriggerRouter.getFileTrigger().getBaseDir(), ex.getMessage());
+                return null;
+            }
+        }
+        tracker.setProcessInfo(processInfo);
+        tracker.setChecksumPool(checksumPool);
+        return tracker;
+    }
+
+    protected boolean isSameFileTriggerRouter(FileTriggerRouter tracked, FileTriggerRouter current) {
+        return StringUtils.equals(tracked.getFileTrigger().getBaseDir(), current.getFileTrigger().getBaseDir())
+                && isSameTime(tracked.getLastUpdateTime(), current.getLastUpdateTime())
+                && isSameTime(tracked.getFileTrigger().getLastUpdateTime(), current.getFileTrigger().getLastUpdateTime())
+                && isSameTime(tracked.getRouter().getLastUpdateTime(), current.getRouter().getLastUpdateTime());
+    }
+
+    protected boolean isSameTime(Date date1, Date date2) {
+        return date1 == null ? date2 == null : date2 != null && date1.getTime() == date2.getTime();
+    }
+
+    protected String getTrackerKey(FileTriggerRouter fileTriggerRouter) {
+        return fileTriggerRouter.getTriggerId() + "::" + fileTriggerRouter.getRouterId();
+    }
+
+    protected void closeWatchTracker(String key) {
+        FileTriggerTracker tracker = watchTrackers.remove(key);
+        if (tracker != null) {
+            tracker.close();
+        }
     }
 
     protected void trackChangesFastScan(ProcessInfo processInfo, boolean useCrc) {
+        trackChangesFastScan(processInfo, useCrc, null);
+    }
+
+    protected void trackChangesFastScan(ProcessInfo processInfo, boolean useCrc, FileChecksumPool checksumPool) {
         long ctxTime = engine.getContextService().getLong(ContextConstants.FILE_SYNC_FAST_SCAN_TRACK_TIME);
         Date ctxDate = new Date(ctxTime);
         // Remove milliseconds - not all operating systems support milliseconds in the file modification time
@@ -243,7 +332,7 @@ public class FileSyncService extends AbstractOfflineDetectorService implements I
                                 public DirectorySnapshot getLastDirectorySnapshot(String relativeDir) {
                                     return getDirectorySnapshot(fileTriggerRouter, relativeDir);
                                 }
-                            }, engine);
+                            }, engine, checksumPool);
                     observer.addListener(listener);
                     observer.checkAndNotify();
                     engine.getContextService().save(ContextConstants.FILE_SYNC_FAST_SCAN_TRACK_TIME, String.valueOf(currentDate.getTime()));
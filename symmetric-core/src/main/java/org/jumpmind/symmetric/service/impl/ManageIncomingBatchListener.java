@@ -25,6 +25,7 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.zip.ZipException;
@@ -67,7 +68,7 @@ import org.slf4j.LoggerFactory;
 
 class ManageIncomingBatchListener implements IDataProcessorListener {
     private static final Logger log = LoggerFactory.getLogger(ManageIncomingBatchListener.class);
-    protected List<IncomingBatch> batchesProcessed = new ArrayList<IncomingBatch>();
+    protected List<IncomingBatch> batchesProcessed = Collections.synchronizedList(new ArrayList<IncomingBatch>());
     protected IncomingBatch currentBatch;
     protected boolean isNewErrorForCurrentBatch;
     protected ProcessInfo processInfo;
@@ -88,6 +89,14 @@ class ManageIncomingBatchListener implements IDataProcessorListener {
         this.statisticManager = engine.getStatisticManager();
     }
 
+    /**
+     * Create a listener for loading batches on another thread that shares the process info and list of batches processed with the parent.
+     */
+    public ManageIncomingBatchListener(ManageIncomingBatchListener parent) {
+        this(parent.processInfo, parent.engine);
+        this.batchesProcessed = parent.batchesProcessed;
+    }
+
     public void beforeBatchEnd(DataContext context) {
         // Only sync triggers if this is not a load only node.
         if (engine.getSymmetricDialect().getPlatform().equals(engine.getTargetDialect().getPlatform())) {
@@ -146,6 +155,7 @@ class ManageIncomingBatchListener implements IDataProcessorListener {
                 this.currentBatch.getLoadRowCount());
         statisticManager.incrementDataBytesLoaded(this.currentBatch.getChannelId(),
                 this.currentBatch.getByteCount());
+        statisticManager.recordLoadMillis(this.currentBatch.getChannelId(), this.currentBatch.getLoadMillis());
         statisticManager.incrementTableRows(this.currentBatch.getTableLoadedCount(), true);
         Status oldStatus = this.currentBatch.getStatus();
         try {
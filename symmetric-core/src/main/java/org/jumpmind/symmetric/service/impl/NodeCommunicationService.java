@@ -58,6 +58,7 @@ import org.jumpmind.symmetric.service.IClusterService;
 import org.jumpmind.symmetric.service.IConfigurationService;
 import org.jumpmind.symmetric.service.INodeCommunicationService;
 import org.jumpmind.symmetric.service.INodeService;
+import org.jumpmind.symmetric.service.IOutgoingBatchService;
 import org.jumpmind.symmetric.service.IParameterService;
 import org.jumpmind.util.AppUtils;
 import org.jumpmind.util.RandomTimeSlot;
@@ -68,6 +69,7 @@ public class NodeCommunicationService extends AbstractService implements INodeCo
     private INodeService nodeService;
     private IClusterService clusterService;
     private IConfigurationService configurationService;
+    private IOutgoingBatchService outgoingBatchService;
     private boolean initialized = false;
     private Map<CommunicationType, Set<String>> currentlyExecuting;
     private Map<CommunicationType, Map<String, NodeCommunication>> lockCache;
@@ -226,7 +228,7 @@ public class NodeCommunicationService extends AbstractService implements INodeCo
         if (communicationType == CommunicationType.PUSH && onlyNodesWithChanges &&
                 parameterService.getInt(ParameterConstants.PUSH_THREAD_COUNT_PER_SERVER) < communicationRows.size()) {
             ts = System.currentTimeMillis();
-            List<String> nodeIds = getNodeIdsWithUnsentCount();
+            Set<String> nodeIds = new HashSet<String>(getNodeIdsWithUnsentCount());
             List<NodeCommunication> filteredNodes = new ArrayList<NodeCommunication>(nodeIds.size());
             for (NodeCommunication nodeCommunication : communicationRows) {
                 if (nodeIds.contains(nodeCommunication.getNodeId())) {
@@ -258,7 +260,14 @@ public class NodeCommunicationService extends AbstractService implements INodeCo
         return ret;
     }
 
+    public void setOutgoingBatchService(IOutgoingBatchService outgoingBatchService) {
+        this.outgoingBatchService = outgoingBatchService;
+    }
+
     protected List<String> getNodeIdsWithUnsentCount() {
+        if (outgoingBatchService != null) {
+            return outgoingBatchService.getNodeIdsWithReadyBatches();
+        }
         return sqlTemplate.query(getSql("selectNodeIdsWithUnsentBatchsSql"),
                 new StringMapper(), OutgoingBatch.Status.ER.name(), OutgoingBatch.Status.NE.name(), OutgoingBatch.Status.QY.name(),
                 OutgoingBatch.Status.SE.name(), OutgoingBatch.Status.LD.name(), OutgoingBatch.Status.IG.name(), OutgoingBatch.Status.RS.name());
@@ -465,6 +474,16 @@ public class NodeCommunicationService extends AbstractService implements INodeCo
         return service.getMaximumPoolSize() - service.getActiveCount();
     }
 
+    public int getActiveThreads(CommunicationType communicationType) {
+        ThreadPoolExecutor service = executors.get(communicationType);
+        return service != null ? service.getActiveCount() : 0;
+    }
+
+    public int getMaxThreads(CommunicationType communicationType) {
+        ThreadPoolExecutor service = executors.get(communicationType);
+        return service != null ? service.getMaximumPoolSize() : 0;
+    }
+
     protected Date getLockTimeoutDate(CommunicationType communicationType) {
         String parameter = "";
         switch (communicationType) {
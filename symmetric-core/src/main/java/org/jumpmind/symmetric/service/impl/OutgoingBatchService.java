@@ -22,19 +22,26 @@ package org.jumpmind.symmetric.service.impl;
 
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jumpmind.db.sql.ISqlReadCursor;
 import org.jumpmind.db.sql.ISqlRowMapper;
 import org.jumpmind.db.sql.ISqlTransaction;
 import org.jumpmind.db.sql.Row;
+import org.jumpmind.db.sql.SqlTransactionListenerAdapter;
 import org.jumpmind.db.sql.mapper.LongMapper;
 import org.jumpmind.db.sql.mapper.StringMapper;
 import org.jumpmind.symmetric.common.Constants;
@@ -71,6 +78,16 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
     private ISequenceService sequenceService;
     private IClusterService clusterService;
     private IExtensionService extensionService;
+    protected static final Status[] READY_STATUSES = { Status.RQ, Status.NE, Status.QY, Status.SE, Status.LD, Status.ER, Status.IG, Status.RS };
+    protected static final Status[] PUSH_READY_STATUSES = { Status.ER, Status.NE, Status.QY, Status.SE, Status.LD, Status.IG, Status.RS };
+    protected ReadyBatchIndex readyBatchIndex = new ReadyBatchIndex();
+    protected Map<ISqlTransaction, ReadyBatchTransactionListener> readyBatchTransactionListeners = Collections.synchronizedMap(
+            new WeakHashMap<ISqlTransaction, ReadyBatchTransactionListener>());
+    protected Lock readyBatchIndexLock = new ReentrantLock();
+    protected long readyBatchIndexCheckTime;
+    protected long readyBatchIndexLoadBatchId;
+    protected long readyBatchIndexScanBatchId;
+    protected long readyBatchIndexLastBatchId;
 
     public OutgoingBatchService(IParameterService parameterService, ISymmetricDialect symmetricDialect, INodeService nodeService,
             IConfigurationService configurationService, ISequenceService sequenceService, IClusterService clusterService,
@@ -86,7 +103,9 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
 
     @Override
     public int cancelLoadBatches(long loadId) {
-        return sqlTemplate.update(getSql("cancelLoadBatchesSql"), new Date(), loadId);
+        int count = sqlTemplate.update(getSql("cancelLoadBatchesSql"), new Date(), loadId);
+        readyBatchIndex.invalidate();
+        return count;
     }
 
     public void markAllAsSentForNode(String nodeId, boolean includeConfigChannel) {
@@ -140,6 +159,7 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
                 new Object[] { channelId, fromNodeId, toNodeId, startBatchId });
         sqlTemplate.update(getSql("deleteOutgoingBatchesForNodeSql"), toNodeId, channelId, fromNodeId, channelId);
         int count = sqlTemplate.update(getSql("copyOutgoingBatchesSql"), toNodeId, new Date(), fromNodeId, channelId, startBatchId);
+        readyBatchIndex.markChanged(toNodeId);
         log.info("Copied {} outgoing batches for channel '{}' from node '{}' to node '{}'",
                 new Object[] { count, channelId, fromNodeId, toNodeId });
     }
@@ -226,6 +246,7 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
                         Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC,
                         Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC,
                         symmetricDialect.getSqlTypeForIds(), Types.VARCHAR });
+        readyBatchesChanged(transaction, Collections.singletonList(outgoingBatch));
     }
 
     public void updateOutgoingBatches(ISqlTransaction transaction, List<OutgoingBatch> batches, int flushSize) {
@@ -267,6 +288,7 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
             }
         }
         transaction.flush();
+        readyBatchesChanged(transaction, batches);
     }
 
     public void updateOutgoingBatchStatus(ISqlTransaction transaction, Status status, String nodeId, long startBatchId, long endBatchId) {
@@ -274,6 +296,7 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
                 new Object[] { status.name(), new Date(), clusterService.getServerId(), nodeId, startBatchId, endBatchId },
                 new int[] { Types.CHAR, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR,
                         symmetricDialect.getSqlTypeForIds(), symmetricDialect.getSqlTypeForIds() });
+        readyBatchesChanged(transaction, nodeId);
     }
 
     public void updateOutgoingSetupBatchStatusByStatus(ISqlTransaction transaction, String targetNodeId, long loadId,
@@ -286,6 +309,7 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
                         targetNodeId, loadId, fromStatus, maxBatchId },
                 new int[] { Types.CHAR, Types.TIMESTAMP, Types.VARCHAR,
                         Types.VARCHAR, Types.NUMERIC, Types.CHAR, Types.NUMERIC });
+        readyBatchesChanged(transaction, targetNodeId);
     }
 
     public void updateOutgoingLoadBatchStatusByStatus(ISqlTransaction transaction, String targetNodeId, long loadId,
@@ -298,6 +322,7 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
                         targetNodeId, loadId, fromStatus, startDataBatchId, endDataBatchId },
                 new int[] { Types.CHAR, Types.TIMESTAMP, Types.VARCHAR,
                         Types.VARCHAR, Types.NUMERIC, Types.CHAR, Types.NUMERIC, Types.NUMERIC });
+        readyBatchesChanged(transaction, targetNodeId);
     }
 
     public void updateOutgoingFinalizeBatchStatusByStatus(ISqlTransaction transaction, String targetNodeId, long loadId,
@@ -310,6 +335,7 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
                         targetNodeId, loadId, fromStatus, minBatchId },
                 new int[] { Types.CHAR, Types.TIMESTAMP, Types.VARCHAR,
                         Types.VARCHAR, Types.NUMERIC, Types.CHAR, Types.NUMERIC });
+        readyBatchesChanged(transaction, targetNodeId);
     }
 
     public void insertOutgoingBatch(final OutgoingBatch outgoingBatch) {
@@ -350,6 +376,7 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
                 outgoingBatch.getDataDeleteRowCount(), outgoingBatch.getLastUpdatedHostName(), new Date(), new Date(),
                 outgoingBatch.getCreateBy(), outgoingBatch.getSummary(), outgoingBatch.getDataRowCount());
         outgoingBatch.setBatchId(batchId);
+        readyBatchesChanged(transaction, Collections.singletonList(outgoingBatch));
     }
 
     public void insertOutgoingBatches(ISqlTransaction transaction, List<OutgoingBatch> batches, int flushSize, boolean isCommon) {
@@ -382,6 +409,7 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
             }
         }
         transaction.flush();
+        readyBatchesChanged(transaction, batches);
     }
 
     public OutgoingBatch findOutgoingBatch(long batchId, String nodeId) {
@@ -581,6 +609,19 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
     public OutgoingBatches getOutgoingBatches(String nodeId, String channelThread, NodeGroupLinkAction eventAction,
             NodeGroupLinkAction defaultEventAction, boolean includeDisabledChannels) {
         long ts = System.currentTimeMillis();
+        ReadyBatchIndex index = getReadyBatchIndex();
+        int readyCount = -1;
+        long changeId = 0;
+        if (index != null) {
+            Set<String> channelIds = getChannelIdsForQueue(channelThread);
+            if (channelIds == null || channelIds.size() > 0) {
+                readyCount = index.getCount(nodeId, channelIds);
+                if (readyCount == 0) {
+                    return new OutgoingBatches();
+                }
+            }
+            changeId = index.getChangeId(nodeId);
+        }
         final int maxNumberOfBatchesToSelect = parameterService.getInt(ParameterConstants.OUTGOING_BATCH_MAX_BATCHES_TO_SELECT, 1000);
         String sql = null;
         Object[] params = null;
@@ -613,6 +654,9 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
         }
         List<OutgoingBatch> list = (List<OutgoingBatch>) sqlTemplateDirty.query(sql, maxNumberOfBatchesToSelect,
                 new OutgoingBatchMapper(includeDisabledChannels), params, types);
+        if (index != null && readyCount < 0 && list.size() == 0) {
+            countReadyBatches(index, nodeId, changeId);
+        }
         OutgoingBatches batches = new OutgoingBatches(list);
         List<NodeChannel> channels = new ArrayList<NodeChannel>(configurationService.getNodeChannels(nodeId, true));
         batches.sortChannels(channels);
@@ -761,6 +805,225 @@ public class OutgoingBatchService extends AbstractService implements IOutgoingBa
         return false;
     }
 
+    @Override
+    public List<String> getNodeIdsWithReadyBatches() {
+        ReadyBatchIndex index = getReadyBatchIndex();
+        if (index != null && index.isLoaded()) {
+            return index.getNodeIds(false);
+        }
+        return sqlTemplate.query(getSql("selectNodeIdsWithReadyBatchesSql"), new StringMapper(), (Object[]) getStatusNames(PUSH_READY_STATUSES));
+    }
+
+    /**
+     * Get the index of ready batches, loading it when it is missing or old, or null if it is not enabled or not loaded yet.
+     */
+    protected ReadyBatchIndex getReadyBatchIndex() {
+        if (!parameterService.is(ParameterConstants.OUTGOING_BATCH_READY_INDEX_ENABLED, true)) {
+            readyBatchIndex.invalidate();
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        boolean loadNeeded = !readyBatchIndex.isLoaded()
+                || now - readyBatchIndex.getLoadTime() > parameterService.getLong(ParameterConstants.OUTGOING_BATCH_READY_INDEX_REFRESH_MS, 60000);
+        boolean checkNeeded = clusterService.isClusteringEnabled()
+                && now - readyBatchIndexCheckTime > parameterService.getLong(ParameterConstants.OUTGOING_BATCH_READY_INDEX_CLUSTER_CHECK_MS, 1000);
+        if ((loadNeeded || checkNeeded) && readyBatchIndexLock.tryLock()) {
+            try {
+                if (loadNeeded) {
+                    loadReadyBatchIndex();
+                } else {
+                    checkReadyBatchIndex();
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Unable to load the counts of ready outgoing batches: {}", ex.getMessage());
+                readyBatchIndex.invalidate();
+            } finally {
+                readyBatchIndexLock.unlock();
+            }
+        }
+        return readyBatchIndex.isLoaded() ? readyBatchIndex : null;
+    }
+
+    protected void loadReadyBatchIndex() {
+        long ts = System.currentTimeMillis();
+        long changeId = readyBatchIndex.getChangeId();
+        long lastBatchId = clusterService.isClusteringEnabled() ? sequenceService.currVal(Constants.SEQUENCE_OUTGOING_BATCH) : 0;
+        Map<String, Map<String, Integer>> counts = new HashMap<String, Map<String, Integer>>();
+        Map<String, Map<String, Integer>> requestedCounts = new HashMap<String, Map<String, Integer>>();
+        for (Row row : sqlTemplate.query(getSql("selectReadyBatchCountsSql"), (Object[]) getReadyStatusNames())) {
+            (isRequested(row) ? requestedCounts : counts).computeIfAbsent(row.getString("node_id"), k -> new HashMap<String, Integer>())
+                    .merge(row.getString("channel_id"), row.getInt("batch_count"), Integer::sum);
+        }
+        readyBatchIndex.load(counts, requestedCounts, changeId);
+        /*
+         * Batches created by other servers are found by scanning from the last batch ID seen by the load before this one, so a batch
+         * that was not committed yet during a load is found by the next scan
+         */
+        readyBatchIndexScanBatchId = readyBatchIndexLoadBatchId > 0 ? readyBatchIndexLoadBatchId : lastBatchId;
+        readyBatchIndexLoadBatchId = lastBatchId;
+        readyBatchIndexLastBatchId = lastBatchId;
+        readyBatchIndexCheckTime = System.currentTimeMillis();
+        log.debug("Loaded the counts of ready outgoing batches for {} nodes in {} ms", counts.size(), System.currentTimeMillis() - ts);
+    }
+
+    /**
+     * Add the batches that other servers in the cluster made ready since the last load, when the outgoing batch sequence has moved.
+     */
+    protected void checkReadyBatchIndex() {
+        long lastBatchId = sequenceService.currVal(Constants.SEQUENCE_OUTGOING_BATCH);
+        if (lastBatchId != readyBatchIndexLastBatchId) {
+            Object[] args = new Object[READY_STATUSES.length + 1];
+            args[0] = readyBatchIndexScanBatchId;
+            System.arraycopy(getReadyStatusNames(), 0, args, 1, READY_STATUSES.length);
+            Map<List<Object>, Integer> counts = new HashMap<List<Object>, Integer>();
+            for (Row row : sqlTemplate.query(getSql("selectReadyBatchCountsAfterBatchIdSql"), args)) {
+                counts.merge(Arrays.asList(row.getString("node_id"), row.getString("channel_id"), isRequested(row)), row.getInt("batch_count"),
+                        Integer::sum);
+            }
+            for (Map.Entry<List<Object>, Integer> entry : counts.entrySet()) {
+                List<Object> key = entry.getKey();
+                readyBatchIndex.raise((String) key.get(0), (String) key.get(1), entry.getValue(), (Boolean) key.get(2));
+            }
+            readyBatchIndexLastBatchId = lastBatchId;
+        }
+        readyBatchIndexCheckTime = System.currentTimeMillis();
+    }
+
+    protected void countReadyBatches(ReadyBatchIndex index, String nodeId, long changeId) {
+        Object[] args = new Object[READY_STATUSES.length + 1];
+        args[0] = nodeId;
+        System.arraycopy(getReadyStatusNames(), 0, args, 1, READY_STATUSES.length);
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        Map<String, Integer> requestedCounts = new HashMap<String, Integer>();
+        for (Row row : sqlTemplate.query(getSql("selectReadyBatchCountsForNodeSql"), args)) {
+            (isRequested(row) ? requestedCounts : counts).merge(row.getString("channel_id"), row.getInt("batch_count"), Integer::sum);
+        }
+        index.setCounts(nodeId, counts, requestedCounts, changeId);
+    }
+
+    protected static boolean isRequested(Row row) {
+        return Status.RQ.name().equals(StringUtils.trim(row.getString("status")));
+    }
+
+    /**
+     * Update the index of ready batches when batches are written. Batches written in a transaction are not seen by other threads until it
+     * commits, so they are held by one listener for the transaction and applied when it commits, which also keeps a count taken by another
+     * thread before the commit from hiding them.
+     */
+    protected void readyBatchesChanged(ISqlTransaction transaction, final Collection<OutgoingBatch> batches) {
+        if (transaction != null) {
+            getReadyBatchTransactionListener(transaction).add(batches);
+        } else {
+            for (OutgoingBatch batch : batches) {
+                applyReadyBatchChange(batch.getNodeId(), batch.getChannelId(), batch.getStatus());
+            }
+        }
+    }
+
+    protected void readyBatchesChanged(ISqlTransaction transaction, final String nodeId) {
+        if (transaction != null) {
+            getReadyBatchTransactionListener(transaction).add(nodeId);
+        } else {
+            readyBatchIndex.markChanged(nodeId);
+        }
+    }
+
+    protected ReadyBatchTransactionListener getReadyBatchTransactionListener(ISqlTransaction transaction) {
+        synchronized (readyBatchTransactionListeners) {
+            ReadyBatchTransactionListener listener = readyBatchTransactionListeners.get(transaction);
+            if (listener == null) {
+                listener = new ReadyBatchTransactionListener();
+                transaction.addSqlTransactionListener(listener);
+                readyBatchTransactionListeners.put(transaction, listener);
+            }
+            return listener;
+        }
+    }
+
+    protected void applyReadyBatchChange(String nodeId, String channelId, Status status) {
+        if (status == Status.RT) {
+            return;
+        } else if (isReadyStatus(status) && channelId != null) {
+            readyBatchIndex.add(nodeId, channelId, 1, status == Status.RQ);
+        } else {
+            readyBatchIndex.markChanged(nodeId);
+        }
+    }
+
+    /**
+     * Holds the changes to ready batches made in a transaction until it commits. The transaction keeps its listeners until it is closed, so
+     * there is one listener for each transaction, and each commit or rollback drains the changes made since the last one.
+     */
+    protected class ReadyBatchTransactionListener extends SqlTransactionListenerAdapter {
+        protected List<Object[]> pendingBatches = new ArrayList<Object[]>();
+        protected Set<String> pendingNodeIds = new HashSet<String>();
+
+        public synchronized void add(Collection<OutgoingBatch> batches) {
+            for (OutgoingBatch batch : batches) {
+                pendingBatches.add(new Object[] { batch.getNodeId(), batch.getChannelId(), batch.getStatus() });
+            }
+        }
+
+        public synchronized void add(String nodeId) {
+            pendingNodeIds.add(nodeId);
+        }
+
+        @Override
+        public synchronized void transactionCommitted() {
+            for (Object[] batch : pendingBatches) {
+                applyReadyBatchChange((String) batch[0], (String) batch[1], (Status) batch[2]);
+            }
+            for (String nodeId : pendingNodeIds) {
+                readyBatchIndex.markChanged(nodeId);
+            }
+            transactionRolledBack();
+        }
+
+        @Override
+        public synchronized void transactionRolledBack() {
+            pendingBatches.clear();
+            pendingNodeIds.clear();
+        }
+    }
+
+    /**
+     * Get the cached channels that use the queue, or null for all channels when there is no queue. The channels are cached, so a queue
+     * that matches none of them may be on a channel that was just added, and its ready count is not known.
+     */
+    protected Set<String> getChannelIdsForQueue(String queue) {
+        if (queue == null) {
+            return null;
+        }
+        Set<String> channelIds = new HashSet<String>();
+        for (Channel channel : configurationService.getChannels(false).values()) {
+            if (queue.equals(channel.getQueue())) {
+                channelIds.add(channel.getChannelId());
+            }
+        }
+        return channelIds;
+    }
+
+    protected static boolean isReadyStatus(Status status) {
+        for (Status readyStatus : READY_STATUSES) {
+            if (readyStatus == status) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected static String[] getReadyStatusNames() {
+        return getStatusNames(READY_STATUSES);
+    }
+
+    protected static String[] getStatusNames(Status[] statuses) {
+        String[] names = new String[statuses.length];
+        for (int i = 0; i < statuses.length; i++) {
+            names[i] = statuses[i].name();
+        }
+        return names;
+    }
+
     protected StringBuilder buildStatusList(Object[] args, Status... statuses) {
         StringBuilder inList = new StringBuilder();
         for (int i = 0; i < statuses.length; i++) {
@@ -102,6 +102,17 @@ public class OutgoingBatchServiceSqlMap extends AbstractSqlMap {
         putSql("selectOutgoingBatchErrorsSql", " where error_flag=1 order by batch_id   ");
         putSql("countOutgoingBatchesErrorsOnChannelSql",
                 "select count(*) from $(outgoing_batch) where error_flag=1 and channel_id=?");
+        putSql("selectReadyBatchCountsSql",
+                "select node_id, channel_id, status, count(*) as batch_count from $(outgoing_batch) where status in (?, ?, ?, ?, ?, ?, ?, ?) "
+                        + "group by node_id, channel_id, status");
+        putSql("selectReadyBatchCountsAfterBatchIdSql",
+                "select node_id, channel_id, status, count(*) as batch_count from $(outgoing_batch) where batch_id > ? and status in (?, ?, ?, ?, ?, ?, ?, ?) "
+                        + "group by node_id, channel_id, status");
+        putSql("selectReadyBatchCountsForNodeSql",
+                "select channel_id, status, count(*) as batch_count from $(outgoing_batch) where node_id = ? and status in (?, ?, ?, ?, ?, ?, ?, ?) "
+                        + "group by channel_id, status");
+        putSql("selectNodeIdsWithReadyBatchesSql",
+                "select distinct(node_id) from $(outgoing_batch) where status in (?, ?, ?, ?, ?, ?, ?)");
         putSql("countOutgoingBatchesByChannelSql",
                 "select count(*) as batch_count, channel_id from $(outgoing_batch) where node_id = ? and channel_id <> 'heartbeat' and status in ('ER','RQ','NE','QY','RT') group by channel_id order by batch_count desc, channel_id");
         putSql("countOutgoingRowsByTargetNodeSql",
@@ -26,8 +26,21 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateUtils;
@@ -35,16 +48,19 @@ import org.jumpmind.db.platform.DatabaseNamesConstants;
 import org.jumpmind.db.sql.ISqlReadCursor;
 import org.jumpmind.db.sql.ISqlRowMapper;
 import org.jumpmind.db.sql.Row;
+import org.jumpmind.db.sql.SqlException;
 import org.jumpmind.db.sql.mapper.LongMapper;
 import org.jumpmind.db.sql.mapper.StringMapper;
 import org.jumpmind.symmetric.common.ContextConstants;
 import org.jumpmind.symmetric.common.ParameterConstants;
+import org.jumpmind.symmetric.common.TableConstants;
 import org.jumpmind.symmetric.db.ISymmetricDialect;
 import org.jumpmind.symmetric.ext.IPurgeListener;
 import org.jumpmind.symmetric.model.ExtractRequest;
 import org.jumpmind.symmetric.model.IncomingBatch;
 import org.jumpmind.symmetric.model.OutgoingBatch;
 import org.jumpmind.symmetric.model.RegistrationRequest;
+import org.jumpmind.symmetric.model.TablePartition;
 import org.jumpmind.symmetric.service.ClusterConstants;
 import org.jumpmind.symmetric.service.IClusterService;
 import org.jumpmind.symmetric.service.IContextService;
@@ -52,6 +68,7 @@ import org.jumpmind.symmetric.service.IExtensionService;
 import org.jumpmind.symmetric.service.IParameterService;
 import org.jumpmind.symmetric.service.IPurgeService;
 import org.jumpmind.symmetric.statistic.IStatisticManager;
+import org.jumpmind.util.CustomizableThreadFactory;
 
 /**
  * @see IPurgeService
@@ -125,8 +142,15 @@ public class PurgeService extends AbstractService implements IPurgeService {
                 if (getSymmetricDialect().getName().equalsIgnoreCase(DatabaseNamesConstants.VOLTDB)) {
                     rowsPurged += purgeOutgoingByRetentionCutoff(retentionCutoff);
                 } else {
+                    boolean purgePartitions = isCapturePartitionPurge();
                     rowsPurged += purgeStrandedBatches();
+                    if (purgePartitions) {
+                        purgeDataPartitions(retentionCutoff);
+                    }
                     rowsPurged += purgeDataRows(retentionCutoff);
+                    if (purgePartitions) {
+                        purgeDataEventPartitions(retentionCutoff);
+                    }
                     rowsPurged += purgeOutgoingBatch(retentionCutoff);
                     rowsPurged += purgeLingeringBatches(retentionCutoff);
                     rowsPurged += purgeStranded(retentionCutoff);
@@ -204,6 +228,118 @@ public class PurgeService extends AbstractService implements IPurgeService {
         return dataEventsPurgedCount + outgoingbatchPurgedCount;
     }
 
+    protected boolean isCapturePartitionPurge() {
+        return parameterService.is(ParameterConstants.PURGE_CAPTURE_PARTITION_ENABLED) && symmetricDialect.supportsCaptureTablePartitions();
+    }
+
+    /**
+     * Drop the data partitions below the first data ID that is still needed, which is the first ID in an unrouted gap, the first ID in a batch that
+     * is not OK, or an ID newer than the retention time. Rows left in partitions that can't be dropped yet are deleted by the normal purge.
+     */
+    private int purgeDataPartitions(final Calendar time) {
+        String tableName = TableConstants.getTableName(getTablePrefix(), TableConstants.SYM_DATA);
+        List<TablePartition> partitions = symmetricDialect.getTablePartitions(tableName);
+        if (partitions.size() == 0) {
+            log.info("Table {} is not partitioned, so it will be purged with deletes", tableName);
+            return 0;
+        }
+        log.info("Getting range for data partitions");
+        long purgeUpToId = getMaxDataIdEligibleToPurge(time);
+        long minGapStartId = sqlTemplateDirty.queryForLong(getSql("minDataGapStartId"));
+        if (minGapStartId > 0) {
+            purgeUpToId = Math.min(purgeUpToId, minGapStartId - 1);
+        }
+        long notOkDataId = sqlTemplateDirty.queryForLong(getSql("selectDataEventMinNotStatusSql"), OutgoingBatch.Status.OK.name());
+        if (notOkDataId > 0) {
+            purgeUpToId = Math.min(purgeUpToId, notOkDataId - 1);
+        }
+        int droppedCount = dropPartitions(tableName, partitions, purgeUpToId);
+        long droppedUpToId = getDroppedUpToId(partitions, purgeUpToId);
+        if (droppedUpToId > contextService.getLong(ContextConstants.PURGE_LAST_DATA_ID)) {
+            saveContextLastId(MinMaxDeleteSql.DATA, droppedUpToId);
+        }
+        createPartitionsAhead(tableName, partitions, sqlTemplateDirty.queryForLong(getSql("selectMaxDataIdSql")),
+                parameterService.getLong(ParameterConstants.PURGE_CAPTURE_PARTITION_DATA_SIZE));
+        return droppedCount;
+    }
+
+    /**
+     * Drop the data event partitions below the first batch that is not OK or is newer than the retention time.
+     */
+    private int purgeDataEventPartitions(final Calendar time) {
+        String tableName = TableConstants.getTableName(getTablePrefix(), TableConstants.SYM_DATA_EVENT);
+        List<TablePartition> partitions = symmetricDialect.getTablePartitions(tableName);
+        if (partitions.size() == 0) {
+            log.info("Table {} is not partitioned, so it will be purged with deletes", tableName);
+            return 0;
+        }
+        log.info("Getting range for data event partitions");
+        long startBatchId = contextService.getLong(ContextConstants.PURGE_LAST_EVENT_BATCH_ID);
+        long purgeUpToId = sqlTemplateDirty.queryForLong(getSql("maxOutgoingBatchId"), startBatchId, new Timestamp(time.getTime().getTime()));
+        long notOkBatchId = sqlTemplateDirty.queryForLong(getSql("minOutgoingBatchNotStatusSql"), OutgoingBatch.Status.OK.name());
+        if (notOkBatchId > 0) {
+            purgeUpToId = Math.min(purgeUpToId, notOkBatchId - 1);
+        }
+        int droppedCount = dropPartitions(tableName, partitions, purgeUpToId);
+        long droppedUpToId = getDroppedUpToId(partitions, purgeUpToId);
+        if (droppedUpToId > startBatchId) {
+            saveContextLastId(MinMaxDeleteSql.DATA_EVENT, droppedUpToId);
+        }
+        createPartitionsAhead(tableName, partitions, sqlTemplateDirty.queryForLong(getSql("selectMaxBatchIdSql")),
+                parameterService.getLong(ParameterConstants.PURGE_CAPTURE_PARTITION_BATCH_SIZE));
+        return droppedCount;
+    }
+
+    protected int dropPartitions(String tableName, List<TablePartition> partitions, long purgeUpToId) {
+        int droppedCount = 0;
+        for (TablePartition partition : partitions) {
+            if (!partition.isDefault() && partition.getUpperBound() - 1 <= purgeUpToId) {
+                log.info("Dropping partition {} of {}", partition, tableName);
+                symmetricDialect.dropTablePartition(tableName, partition);
+                clusterService.refreshLock(ClusterConstants.PURGE_OUTGOING);
+                droppedCount++;
+            }
+        }
+        log.info("Done dropping {} partitions of {}", droppedCount, tableName);
+        return droppedCount;
+    }
+
+    protected long getDroppedUpToId(List<TablePartition> partitions, long purgeUpToId) {
+        long droppedUpToId = 0;
+        for (TablePartition partition : partitions) {
+            if (!partition.isDefault() && partition.getUpperBound() - 1 <= purgeUpToId) {
+                droppedUpToId = Math.max(droppedUpToId, partition.getUpperBound() - 1);
+            }
+        }
+        return droppedUpToId;
+    }
+
+    /**
+     * Keep empty partitions created ahead of the newest ID so that new rows land in a range partition. Rows that arrive in the default partition
+     * before their range exists stay there and are purged with deletes.
+     */
+    protected void createPartitionsAhead(String tableName, List<TablePartition> partitions, long maxId, long partitionSize) {
+        long upperBound = -1;
+        for (TablePartition partition : partitions) {
+            if (!partition.isDefault()) {
+                upperBound = Math.max(upperBound, partition.getUpperBound());
+            }
+        }
+        long lowerBound = upperBound > maxId ? upperBound : (maxId / partitionSize + 1) * partitionSize;
+        long createUpToId = maxId + partitionSize * parameterService.getInt(ParameterConstants.PURGE_CAPTURE_PARTITIONS_AHEAD, 2);
+        try {
+            while (lowerBound <= createUpToId) {
+                upperBound = (lowerBound / partitionSize + 1) * partitionSize;
+                log.info("Creating partition of {} for {} through {}", new Object[] { tableName, lowerBound, upperBound - 1 });
+                symmetricDialect.createTablePartition(tableName, lowerBound, upperBound);
+                lowerBound = upperBound;
+            }
+        } catch (SqlException e) {
+            log.warn("Failed to create partition of {} starting at {}, so it will be tried again on the next purge: {}",
+                    new Object[] { tableName, lowerBound, e.getMessage() });
+        }
+    }
+
     private long[] getRangeMinMax(long[] minMax, long notOkBatchId) {
         return new long[] { minMax[0], Math.min(notOkBatchId > 0 ? notOkBatchId - 1 : minMax[1], minMax[1]) };
     }
@@ -222,31 +358,13 @@ public class PurgeService extends AbstractService implements IPurgeService {
         long ts = System.currentTimeMillis();
         final long lastBatchId = contextService.getLong(ContextConstants.PURGE_LAST_BATCH_ID);
         final long maxRows = parameterService.getLong(ParameterConstants.PURGE_MAX_LINGERING_BATCHES_READ);
-        final int idType = symmetricDialect.getSqlTypeForIds();
+        final int blockSize = Math.max(1, parameterService.getInt(ParameterConstants.PURGE_LINGERING_BATCHES_BLOCK_SIZE, 100));
         List<Long> batchIds = getLingeringBatchIds(lastBatchId, maxRows);
         while (batchIds.size() > 0) {
-            for (Long batchId : batchIds) {
-                long dataDeleteCount = 0, eventDeleteCount = 0, batchDeleteCount = 0;
-                long countNotOkay = sqlTemplateDirty.queryForLong(getSql("countCommonBatchNotStatusForBatchId"),
-                        batchId, OutgoingBatch.Status.OK.name());
-                if (countNotOkay == 0) {
-                    dataDeleteCount += sqlTemplate.update(getSql("deleteDataByBatchId"), new Object[] { batchId },
-                            new int[] { idType });
-                    statisticManager.incrementPurgedDataRows(dataDeleteCount);
-                    eventDeleteCount += sqlTemplate.update(getSql("deleteDataEventByBatchId"), new Object[] { batchId },
-                            new int[] { idType });
-                    statisticManager.incrementPurgedDataEventRows(eventDeleteCount);
-                    batchDeleteCount += sqlTemplate.update(getSql("deleteOutgoingBatchByBatchId"),
-                            new Object[] { batchId, OutgoingBatch.Status.OK.name() }, new int[] { idType, Types.CHAR });
-                    statisticManager.incrementPurgedBatchOutgoingRows(batchDeleteCount);
-                    totalRowsPurged += (dataDeleteCount + eventDeleteCount + batchDeleteCount);
-                } else {
-                    batchDeleteCount = sqlTemplate.update(getSql("deleteOutgoingBatchByBatchId"),
-                            new Object[] { batchId, OutgoingBatch.Status.OK.name() }, new int[] { idType, Types.CHAR });
-                    statisticManager.incrementPurgedBatchOutgoingRows(batchDeleteCount);
-                }
-                totalRowsPurged += (dataDeleteCount + eventDeleteCount + batchDeleteCount);
-                totalBatchesPurged++;
+            for (int i = 0; i < batchIds.size(); i += blockSize) {
+                List<Long> block = batchIds.subList(i, Math.min(i + blockSize, batchIds.size()));
+                totalRowsPurged += purgeLingeringBatchBlock(block);
+                totalBatchesPurged += block.size();
                 if (System.currentTimeMillis() - ts > DateUtils.MILLIS_PER_MINUTE * 5) {
                     log.info("Purged {} of {} batches and {} rows so far", totalBatchesPurged, batchIds.size(), totalRowsPurged);
                     ts = System.currentTimeMillis();
@@ -265,6 +383,57 @@ public class PurgeService extends AbstractService implements IPurgeService {
         return totalRowsPurged;
     }
 
+    /**
+     * Purge a block of lingering batches with one statement per table. Data and data events are only removed for
+     * batches where every node's copy of the batch is OK; the OK outgoing batches are removed for all of them.
+     */
+    private long purgeLingeringBatchBlock(List<Long> batchIds) {
+        final int idType = symmetricDialect.getSqlTypeForIds();
+        List<Long> commonNotOk = sqlTemplateDirty.query(getInListSql("selectCommonBatchNotStatusForBatchIds", batchIds.size()),
+                new LongMapper(), toArgs(OutgoingBatch.Status.OK.name(), batchIds), toTypes(Types.CHAR, idType, batchIds.size()));
+        List<Long> okIds = new ArrayList<Long>(batchIds);
+        okIds.removeAll(new HashSet<Long>(commonNotOk));
+        long dataDeleteCount = 0, eventDeleteCount = 0, batchDeleteCount = 0;
+        if (okIds.size() > 0) {
+            dataDeleteCount = sqlTemplate.update(getInListSql("deleteDataByBatchIds", okIds.size()), okIds.toArray(),
+                    toTypes(idType, okIds.size()));
+            statisticManager.incrementPurgedDataRows(dataDeleteCount);
+            eventDeleteCount = sqlTemplate.update(getInListSql("deleteDataEventByBatchIds", okIds.size()), okIds.toArray(),
+                    toTypes(idType, okIds.size()));
+            statisticManager.incrementPurgedDataEventRows(eventDeleteCount);
+        }
+        batchDeleteCount = sqlTemplate.update(getInListSql("deleteOutgoingBatchByBatchIds", batchIds.size()),
+                toArgs(OutgoingBatch.Status.OK.name(), batchIds), toTypes(Types.CHAR, idType, batchIds.size()));
+        statisticManager.incrementPurgedBatchOutgoingRows(batchDeleteCount);
+        return dataDeleteCount + eventDeleteCount + batchDeleteCount;
+    }
+
+    private String getInListSql(String key, int size) {
+        return getSql(key).replace("in (?)", "in (" + StringUtils.repeat("?", ",", size) + ")");
+    }
+
+    private static Object[] toArgs(Object first, List<Long> ids) {
+        Object[] args = new Object[ids.size() + 1];
+        args[0] = first;
+        for (int i = 0; i < ids.size(); i++) {
+            args[i + 1] = ids.get(i);
+        }
+        return args;
+    }
+
+    private static int[] toTypes(int type, int size) {
+        int[] types = new int[size];
+        Arrays.fill(types, type);
+        return types;
+    }
+
+    private static int[] toTypes(int firstType, int type, int size) {
+        int[] types = new int[size + 1];
+        Arrays.fill(types, type);
+        types[0] = firstType;
+        return types;
+    }
+
     private List<Long> getLingeringBatchIds(long lastBatchId, long maxRows) {
         List<Long> batchIds = new ArrayList<Long>();
         if (lastBatchId > 0) {
@@ -490,13 +659,17 @@ public class PurgeService extends AbstractService implements IPurgeService {
 
     private int purgeByMinMax(long[] minMax, long minGapStartId, MinMaxDeleteSql identifier, Date retentionTime,
             int maxNumtoPurgeinTx) {
+        int threadCount = parameterService.getInt(ParameterConstants.PURGE_THREAD_COUNT, 1);
+        if (threadCount > 1 && identifier != MinMaxDeleteSql.STRANDED_DATA && identifier != MinMaxDeleteSql.STRANDED_DATA_EVENT
+                && minMax[1] - minMax[0] > maxNumtoPurgeinTx) {
+            return purgeByMinMaxConcurrently(minMax, identifier, retentionTime, maxNumtoPurgeinTx, threadCount);
+        }
         long minId = minMax[0];
         long maxId = 0;
         long purgeUpToId = minMax[1];
         long ts = System.currentTimeMillis();
         int totalCount = 0;
         int totalDeleteStmts = 0;
-        int idSqlType = symmetricDialect.getSqlTypeForIds();
         Timestamp cutoffTime = new Timestamp(retentionTime.getTime());
         log.info("About to purge {} using range {} through {}", identifier.toString().toLowerCase(), minMax[0], minMax[1]);
         while (minId <= purgeUpToId) {
@@ -505,54 +678,7 @@ public class PurgeService extends AbstractService implements IPurgeService {
             if (maxId > purgeUpToId) {
                 maxId = purgeUpToId;
             }
-            String deleteSql = null;
-            Object[] args = null;
-            int[] argTypes = null;
-            switch (identifier) {
-                case DATA:
-                    deleteSql = getSql("deleteDataSql");
-                    args = new Object[] { minId, maxId, cutoffTime, minId, maxId, minId, maxId,
-                            OutgoingBatch.Status.OK.name() };
-                    argTypes = new int[] { idSqlType, idSqlType, Types.TIMESTAMP,
-                            idSqlType, idSqlType, idSqlType, idSqlType, Types.VARCHAR };
-                    break;
-                case DATA_RANGE:
-                case STRANDED_DATA:
-                    deleteSql = getSql("deleteDataByRangeSql");
-                    args = new Object[] { minId, maxId, cutoffTime };
-                    argTypes = new int[] { idSqlType, idSqlType, Types.TIMESTAMP };
-                    break;
-                case DATA_EVENT:
-                    deleteSql = getSql("deleteDataEventSql");
-                    args = new Object[] { minId, maxId, OutgoingBatch.Status.OK.name(), minId,
-                            maxId };
-                    argTypes = new int[] { idSqlType, idSqlType, Types.VARCHAR, idSqlType, idSqlType };
-                    break;
-                case DATA_EVENT_RANGE:
-                    deleteSql = getSql("deleteDataEventByRangeSql");
-                    args = new Object[] { minId, maxId };
-                    argTypes = new int[] { idSqlType, idSqlType };
-                    break;
-                case OUTGOING_BATCH:
-                    deleteSql = getSql("deleteOutgoingBatchSql");
-                    args = new Object[] { OutgoingBatch.Status.OK.name(), minId, maxId, minId,
-                            maxId };
-                    argTypes = new int[] { Types.VARCHAR, idSqlType, idSqlType, idSqlType, idSqlType };
-                    break;
-                case OUTGOING_BATCH_RANGE:
-                    deleteSql = getSql("deleteOutgoingBatchByRangeSql");
-                    args = new Object[] { minId, maxId };
-                    argTypes = new int[] { idSqlType, idSqlType };
-                    break;
-                case STRANDED_DATA_EVENT:
-                    deleteSql = getSql("deleteStrandedDataEvent");
-                    args = new Object[] { minId, maxId, cutoffTime };
-                    argTypes = new int[] { idSqlType, idSqlType, Types.TIMESTAMP };
-                    break;
-            }
-            log.debug("Running the following statement: {} with the following arguments: {}", deleteSql, Arrays.toString(args));
-            int count = sqlTemplate.update(deleteSql, args, argTypes);
-            log.debug("Deleted {} rows", count);
+            int count = purgeRange(identifier, minId, maxId, cutoffTime);
             totalCount += count;
             if (count == 0 && (identifier == MinMaxDeleteSql.STRANDED_DATA || identifier == MinMaxDeleteSql.STRANDED_DATA_EVENT)) {
                 break;
@@ -571,6 +697,154 @@ public class PurgeService extends AbstractService implements IPurgeService {
         return totalCount;
     }
 
+    /**
+     * Split the range into chunks of maxNumtoPurgeinTx IDs and delete them on a pool of threads, each chunk in its own
+     * transaction on its own connection. Only a bounded window of chunks is in flight at once. The last ID is saved to
+     * the context only after every chunk before it has committed, so a failed or interrupted purge resumes without
+     * skipping a range. When a chunk fails, chunks not yet started are skipped and the ones still running are waited
+     * for, so no delete is left running on another connection after this returns.
+     */
+    protected int purgeByMinMaxConcurrently(long[] minMax, final MinMaxDeleteSql identifier, Date retentionTime,
+            int maxNumtoPurgeinTx, int threadCount) {
+        final Timestamp cutoffTime = new Timestamp(retentionTime.getTime());
+        final AtomicInteger totalCount = new AtomicInteger();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        long ts = System.currentTimeMillis();
+        long minId = minMax[0];
+        long purgeUpToId = minMax[1];
+        long lastCommittedId = 0;
+        int totalDeleteStmts = 0;
+        log.info("About to purge {} using range {} through {} with {} threads", new Object[] { identifier.toString().toLowerCase(),
+                minMax[0], minMax[1], threadCount });
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, new CustomizableThreadFactory(
+                String.format("%s-purge-%s", parameterService.getEngineName().toLowerCase(), identifier.toString().toLowerCase())));
+        Deque<Future<Long>> inFlight = new ArrayDeque<Future<Long>>();
+        try {
+            while (minId <= purgeUpToId || inFlight.size() > 0) {
+                while (minId <= purgeUpToId && inFlight.size() < threadCount * 2) {
+                    final long chunkMinId = minId;
+                    final long chunkMaxId = Math.min(minId + maxNumtoPurgeinTx, purgeUpToId);
+                    inFlight.add(executor.submit(new Callable<Long>() {
+                        public Long call() {
+                            if (stopped.get()) {
+                                return null;
+                            }
+                            totalCount.addAndGet(purgeRange(identifier, chunkMinId, chunkMaxId, cutoffTime));
+                            return chunkMaxId;
+                        }
+                    }));
+                    totalDeleteStmts++;
+                    minId = chunkMaxId + 1;
+                }
+                try {
+                    lastCommittedId = inFlight.peek().get(1, TimeUnit.SECONDS);
+                    inFlight.poll();
+                } catch (TimeoutException e) {
+                    // still running, so fall through to refresh the cluster lock
+                }
+                if (System.currentTimeMillis() - ts > DateUtils.MILLIS_PER_MINUTE * 5) {
+                    log.info("Purged {} of {} rows so far using {} statements", new Object[] {
+                            totalCount.get(), identifier.toString().toLowerCase(), totalDeleteStmts });
+                    ts = System.currentTimeMillis();
+                    clusterService.refreshLock(ClusterConstants.PURGE_OUTGOING);
+                    saveContextLastId(identifier, lastCommittedId);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            stopped.set(true);
+            awaitAll(inFlight);
+            executor.shutdown();
+            saveContextLastId(identifier, lastCommittedId);
+        }
+        log.info("Done purging {} of {} rows", totalCount.get(), identifier.toString().toLowerCase());
+        return totalCount.get();
+    }
+
+    /**
+     * Wait for each future to finish, even if this thread is interrupted, and restore the interrupt afterward. Failures
+     * are logged because the first failure has already been thrown.
+     */
+    protected void awaitAll(Collection<Future<Long>> futures) {
+        boolean interrupted = Thread.interrupted();
+        for (Future<Long> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    log.debug("Purge chunk failed after an earlier failure", e.getCause());
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    protected int purgeRange(MinMaxDeleteSql identifier, long minId, long maxId, Timestamp cutoffTime) {
+        int idSqlType = symmetricDialect.getSqlTypeForIds();
+        String deleteSql = null;
+        Object[] args = null;
+        int[] argTypes = null;
+        switch (identifier) {
+            case DATA:
+                deleteSql = getSql("deleteDataSql");
+                args = new Object[] { minId, maxId, cutoffTime, minId, maxId, minId, maxId,
+                        OutgoingBatch.Status.OK.name() };
+                argTypes = new int[] { idSqlType, idSqlType, Types.TIMESTAMP,
+                        idSqlType, idSqlType, idSqlType, idSqlType, Types.VARCHAR };
+                break;
+            case DATA_RANGE:
+            case STRANDED_DATA:
+                deleteSql = getSql("deleteDataByRangeSql");
+                args = new Object[] { minId, maxId, cutoffTime };
+                argTypes = new int[] { idSqlType, idSqlType, Types.TIMESTAMP };
+                break;
+            case DATA_EVENT:
+                deleteSql = getSql("deleteDataEventSql");
+                args = new Object[] { minId, maxId, OutgoingBatch.Status.OK.name(), minId,
+                        maxId };
+                argTypes = new int[] { idSqlType, idSqlType, Types.VARCHAR, idSqlType, idSqlType };
+                break;
+            case DATA_EVENT_RANGE:
+                deleteSql = getSql("deleteDataEventByRangeSql");
+                args = new Object[] { minId, maxId };
+                argTypes = new int[] { idSqlType, idSqlType };
+                break;
+            case OUTGOING_BATCH:
+                deleteSql = getSql("deleteOutgoingBatchSql");
+                args = new Object[] { OutgoingBatch.Status.OK.name(), minId, maxId, minId,
+                        maxId };
+                argTypes = new int[] { Types.VARCHAR, idSqlType, idSqlType, idSqlType, idSqlType };
+                break;
+            case OUTGOING_BATCH_RANGE:
+                deleteSql = getSql("deleteOutgoingBatchByRangeSql");
+                args = new Object[] { minId, maxId };
+                argTypes = new int[] { idSqlType, idSqlType };
+                break;
+            case STRANDED_DATA_EVENT:
+                deleteSql = getSql("deleteStrandedDataEvent");
+                args = new Object[] { minId, maxId, cutoffTime };
+                argTypes = new int[] { idSqlType, idSqlType, Types.TIMESTAMP };
+                break;
+        }
+        log.debug("Running the following statement: {} with the following arguments: {}", deleteSql, Arrays.toString(args));
+        int count = sqlTemplate.update(deleteSql, args, argTypes);
+        log.debug("Deleted {} rows", count);
+        return count;
+    }
+
     protected void saveContextLastId(MinMaxDeleteSql identifier, long lastId) {
         if (lastId > 0) {
             if (identifier == MinMaxDeleteSql.DATA || identifier == MinMaxDeleteSql.DATA_RANGE) {
@@ -49,6 +49,10 @@ public class PurgeServiceSqlMap extends AbstractSqlMap {
 
         putSql("maxOutgoingBatchId", "select max(batch_id) from $(outgoing_batch) where batch_id > ? and create_time < ?");
 
+        putSql("selectMaxBatchIdSql", "select max(batch_id) from $(outgoing_batch)");
+
+        putSql("selectMaxDataIdSql", "select max(data_id) from $(data)");
+
         putSql("deleteOutgoingBatchSql" ,
 "delete from $(outgoing_batch) where status = ? and batch_id between ?                " + 
 "  and ? and batch_id not in (select batch_id from $(data_event) where batch_id between ?   " + 
@@ -160,6 +164,14 @@ public class PurgeServiceSqlMap extends AbstractSqlMap {
         putSql("deleteDataEventByBatchId", "delete from $(data_event) where batch_id = ?");
         
         putSql("deleteOutgoingBatchByBatchId", "delete from $(outgoing_batch) where batch_id = ? and status = ?");
+
+        putSql("selectCommonBatchNotStatusForBatchIds", "select distinct batch_id from $(outgoing_batch) where status != ? and batch_id in (?)");
+
+        putSql("deleteDataByBatchIds", "delete from $(data) where data_id in (select data_id from $(data_event) where batch_id in (?))");
+
+        putSql("deleteDataEventByBatchIds", "delete from $(data_event) where batch_id in (?)");
+
+        putSql("deleteOutgoingBatchByBatchIds", "delete from $(outgoing_batch) where status = ? and batch_id in (?)");
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory count of the outgoing batches that are ready to send to each node by channel, so polls for nodes with nothing to send can be
+ * answered without querying the outgoing batch table. Counts are loaded for all nodes at once and raised as batches become ready. When a
+ * node's batches change in a way that could lower or hide its counts, the node is unknown until its batches are counted again. Batches
+ * that are requested for extract are counted apart, because they are sent by a pull but not by a push.
+ */
+public class ReadyBatchIndex {
+    protected Map<String, Map<String, Integer>> countsByNodeId = new HashMap<String, Map<String, Integer>>();
+    protected Map<String, Map<String, Integer>> requestedCountsByNodeId = new HashMap<String, Map<String, Integer>>();
+    protected Set<String> unknownNodeIds = new HashSet<String>();
+    protected Map<String, Long> changeIdByNodeId = new HashMap<String, Long>();
+    protected long changeId;
+    protected long loadTime;
+    protected boolean loaded;
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized long getLoadTime() {
+        return loadTime;
+    }
+
+    /**
+     * Force the counts to be loaded again before they are used.
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    public synchronized long getChangeId() {
+        return changeId;
+    }
+
+    public synchronized long getChangeId(String nodeId) {
+        Long nodeChangeId = changeIdByNodeId.get(nodeId);
+        return nodeChangeId != null ? nodeChangeId : 0;
+    }
+
+    /**
+     * Replace the counts for all nodes with the counts that were queried, keeping what changed for a node after the change ID was read.
+     */
+    public synchronized void load(Map<String, Map<String, Integer>> counts, long startChangeId) {
+        load(counts, new HashMap<String, Map<String, Integer>>(), startChangeId);
+    }
+
+    public synchronized void load(Map<String, Map<String, Integer>> counts, Map<String, Map<String, Integer>> requestedCounts,
+            long startChangeId) {
+        Set<String> changedNodeIds = new HashSet<String>();
+        Set<String> newUnknownNodeIds = new HashSet<String>();
+        for (Map.Entry<String, Long> entry : changeIdByNodeId.entrySet()) {
+            String nodeId = entry.getKey();
+            if (entry.getValue() > startChangeId) {
+                changedNodeIds.add(nodeId);
+                if (unknownNodeIds.contains(nodeId)) {
+                    newUnknownNodeIds.add(nodeId);
+                }
+            }
+        }
+        countsByNodeId = merge(counts, countsByNodeId, changedNodeIds);
+        requestedCountsByNodeId = merge(requestedCounts, requestedCountsByNodeId, changedNodeIds);
+        unknownNodeIds = newUnknownNodeIds;
+        loadTime = System.currentTimeMillis();
+        loaded = true;
+    }
+
+    /**
+     * Replace the counts for a node, unless its batches changed after the change ID was read.
+     */
+    public synchronized boolean setCounts(String nodeId, Map<String, Integer> counts, long startChangeId) {
+        return setCounts(nodeId, counts, new HashMap<String, Integer>(), startChangeId);
+    }
+
+    public synchronized boolean setCounts(String nodeId, Map<String, Integer> counts, Map<String, Integer> requestedCounts,
+            long startChangeId) {
+        if (getChangeId(nodeId) != startChangeId) {
+            return false;
+        }
+        put(countsByNodeId, nodeId, counts);
+        put(requestedCountsByNodeId, nodeId, requestedCounts);
+        unknownNodeIds.remove(nodeId);
+        return true;
+    }
+
+    /**
+     * Count batches that became ready for a node.
+     */
+    public synchronized void add(String nodeId, String channelId, int count) {
+        add(nodeId, channelId, count, false);
+    }
+
+    public synchronized void add(String nodeId, String channelId, int count, boolean requested) {
+        changed(nodeId);
+        (requested ? requestedCountsByNodeId : countsByNodeId).computeIfAbsent(nodeId, k -> new HashMap<String, Integer>())
+                .merge(channelId, count, Integer::sum);
+    }
+
+    /**
+     * Raise the count for a channel of a node to at least the count given, which is used for batches found ready more than once.
+     */
+    public synchronized void raise(String nodeId, String channelId, int count) {
+        raise(nodeId, channelId, count, false);
+    }
+
+    public synchronized void raise(String nodeId, String channelId, int count, boolean requested) {
+        changed(nodeId);
+        (requested ? requestedCountsByNodeId : countsByNodeId).computeIfAbsent(nodeId, k -> new HashMap<String, Integer>())
+                .merge(channelId, count, Math::max);
+    }
+
+    /**
+     * Mark the counts for a node as unknown until they are counted again.
+     */
+    public synchronized void markChanged(String nodeId) {
+        changed(nodeId);
+        unknownNodeIds.add(nodeId);
+    }
+
+    /**
+     * Get the number of batches ready for a node on the channels given, or on all channels when they are null.
+     * 
+     * @return the count, or -1 when it is not known
+     */
+    public synchronized int getCount(String nodeId, Collection<String> channelIds) {
+        if (!loaded || unknownNodeIds.contains(nodeId)) {
+            return -1;
+        }
+        return count(countsByNodeId.get(nodeId), channelIds) + count(requestedCountsByNodeId.get(nodeId), channelIds);
+    }
+
+    /**
+     * Get the nodes that have batches ready or that are unknown.
+     */
+    public synchronized List<String> getNodeIds() {
+        return getNodeIds(true);
+    }
+
+    /**
+     * Get the nodes that have batches ready or that are unknown, leaving out nodes that only have batches requested for extract when
+     * they are not included.
+     */
+    public synchronized List<String> getNodeIds(boolean includeRequested) {
+        Set<String> nodeIds = new HashSet<String>(unknownNodeIds);
+        for (Map.Entry<String, Map<String, Integer>> entry : countsByNodeId.entrySet()) {
+            if (count(entry.getValue(), null) > 0) {
+                nodeIds.add(entry.getKey());
+            }
+        }
+        if (includeRequested) {
+            for (Map.Entry<String, Map<String, Integer>> entry : requestedCountsByNodeId.entrySet()) {
+                if (count(entry.getValue(), null) > 0) {
+                    nodeIds.add(entry.getKey());
+                }
+            }
+        }
+        return new ArrayList<String>(nodeIds);
+    }
+
+    protected static int count(Map<String, Integer> nodeCounts, Collection<String> channelIds) {
+        int count = 0;
+        if (nodeCounts != null) {
+            for (Map.Entry<String, Integer> entry : nodeCounts.entrySet()) {
+                if (channelIds == null || channelIds.contains(entry.getKey())) {
+                    count += entry.getValue();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copy the counts that were queried, keeping the higher of the old and new counts for nodes that changed while they were queried.
+     */
+    protected static Map<String, Map<String, Integer>> merge(Map<String, Map<String, Integer>> counts,
+            Map<String, Map<String, Integer>> oldCountsByNodeId, Set<String> changedNodeIds) {
+        Map<String, Map<String, Integer>> newCounts = new HashMap<String, Map<String, Integer>>();
+        for (Map.Entry<String, Map<String, Integer>> entry : counts.entrySet()) {
+            newCounts.put(entry.getKey(), new HashMap<String, Integer>(entry.getValue()));
+        }
+        for (String nodeId : changedNodeIds) {
+            Map<String, Integer> oldCounts = oldCountsByNodeId.get(nodeId);
+            if (oldCounts != null) {
+                Map<String, Integer> nodeCounts = newCounts.computeIfAbsent(nodeId, k -> new HashMap<String, Integer>());
+                for (Map.Entry<String, Integer> count : oldCounts.entrySet()) {
+                    nodeCounts.merge(count.getKey(), count.getValue(), Math::max);
+                }
+            }
+        }
+        return newCounts;
+    }
+
+    protected static void put(Map<String, Map<String, Integer>> countsByNodeId, String nodeId, Map<String, Integer> counts) {
+        if (counts.size() > 0) {
+            countsByNodeId.put(nodeId, new HashMap<String, Integer>(counts));
+        } else {
+            countsByNodeId.remove(nodeId);
+        }
+    }
+
+    protected void changed(String nodeId) {
+        changeIdByNodeId.put(nodeId, ++changeId);
+    }
+}
@@ -28,12 +28,20 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -82,11 +90,13 @@ import org.jumpmind.symmetric.route.DBFRouter;
 import org.jumpmind.symmetric.route.DataGapDetector;
 import org.jumpmind.symmetric.route.DataGapFastDetector;
 import org.jumpmind.symmetric.route.DataGapRouteReader;
+import org.jumpmind.symmetric.route.DeferredDataGapDetector;
 import org.jumpmind.symmetric.route.DefaultBatchAlgorithm;
 import org.jumpmind.symmetric.route.DefaultDataRouter;
 import org.jumpmind.symmetric.route.DelayRoutingException;
 import org.jumpmind.symmetric.route.FileSyncDataRouter;
 import org.jumpmind.symmetric.route.IBatchAlgorithm;
+import org.jumpmind.symmetric.route.IBatchDataRouter;
 import org.jumpmind.symmetric.route.IDataRouter;
 import org.jumpmind.symmetric.route.IDataToRouteReader;
 import org.jumpmind.symmetric.route.JavaDataRouter;
@@ -102,26 +112,29 @@ import org.jumpmind.symmetric.service.IRouterService;
 import org.jumpmind.symmetric.statistic.StatisticConstants;
 import org.jumpmind.symmetric.util.CounterStat;
 import org.jumpmind.util.FormatUtils;
+import org.slf4j.MDC;
 
 /**
  * @see IRouterService
  */
 public class RouterService extends AbstractService implements IRouterService {
     final int MAX_LOGGING_LENGTH = 512;
-    protected Map<Integer, CounterStat> missingTriggerRouter = new HashMap<Integer, CounterStat>();
-    protected Map<String, CounterStat> invalidRouterType = new HashMap<String, CounterStat>();
-    protected Map<Integer, CounterStat> missingColumns = new HashMap<Integer, CounterStat>();
+    protected Map<Integer, CounterStat> missingTriggerRouter = new ConcurrentHashMap<Integer, CounterStat>();
+    protected Map<String, CounterStat> invalidRouterType = new ConcurrentHashMap<String, CounterStat>();
+    protected Map<Integer, CounterStat> missingColumns = new ConcurrentHashMap<Integer, CounterStat>();
     protected long triggerRouterCacheTime = 0;
-    protected Map<String, Boolean> commonBatchesLastKnownState = new HashMap<String, Boolean>();
+    protected Map<String, Boolean> commonBatchesLastKnownState = new ConcurrentHashMap<String, Boolean>();
     protected long commonBatchesCacheTime;
-    protected Map<String, Boolean> defaultRouterOnlyLastKnownState = new HashMap<String, Boolean>();
+    protected Map<String, Boolean> defaultRouterOnlyLastKnownState = new ConcurrentHashMap<String, Boolean>();
     protected long defaultRoutersCacheTime;
     protected transient ExecutorService readThread = null;
+    protected transient ExecutorService channelRouterThreads = null;
+    protected int channelRouterThreadCount;
     protected ISymmetricEngine engine;
     protected IExtensionService extensionService;
     protected DataGapDetector gapDetector;
     protected boolean firstTimeCheck = true;
-    protected boolean hasMaxDataRoutedOnChannel;
+    protected volatile boolean hasMaxDataRoutedOnChannel;
     protected boolean isUsingTargetExternalId;
 
     public RouterService(ISymmetricEngine engine) {
@@ -174,6 +187,14 @@ public class RouterService extends AbstractService implements IRouterService {
                 log.error("", ex);
             }
         }
+        if (channelRouterThreads != null) {
+            try {
+                channelRouterThreads.shutdown();
+                channelRouterThreads = null;
+            } catch (Exception ex) {
+                log.error("", ex);
+            }
+        }
     }
 
     public void flushCache() {
@@ -254,8 +275,9 @@ public class RouterService extends AbstractService implements IRouterService {
     }
 
     /**
-     * We route data channel by channel for two reasons. One is that if/when we decide to multi-thread the routing it is a simple matter of inserting a thread
-     * pool here and waiting for all channels to be processed. The other reason is to reduce the number of connections we are required to have.
+     * We route data channel by channel for two reasons. One is that channels can be routed on a thread pool (see
+     * {@link ParameterConstants#ROUTING_CHANNEL_THREAD_COUNT}) while waiting for all channels to be processed. The other reason is to reduce the number of
+     * connections we are required to have when routing on a single thread.
      */
     protected long routeDataForEachChannel() {
         long dataCount = 0;
@@ -269,16 +291,20 @@ public class RouterService extends AbstractService implements IRouterService {
             if (parameterService.is(ParameterConstants.ROUTING_QUERY_CHANNELS_FIRST)) {
                 readyChannels = getReadyChannels();
             }
-            for (NodeChannel nodeChannel : channels) {
-                engine.getClusterService().refreshLock(ClusterConstants.ROUTE);
-                if (nodeChannel.isEnabled() && (readyChannels == null || readyChannels.contains(nodeChannel.getChannelId()))) {
-                    processInfo.setCurrentTableName("");
-                    processInfo.setCurrentChannelId(nodeChannel.getChannelId());
-                    dataCount += routeDataForChannel(processInfo, nodeChannel, sourceNode, false, null, null);
-                } else if (!nodeChannel.isEnabled()) {
-                    gapDetector.setIsAllDataRead(false);
-                    if (log.isDebugEnabled()) {
-                        log.debug("Not routing the {} channel.  It is either disabled or suspended.", nodeChannel.getChannelId());
+            if (getNumberOfThreadsToUseForRouting() > 1) {
+                dataCount = routeDataForEachChannelInParallel(processInfo, channels, readyChannels, sourceNode);
+            } else {
+                for (NodeChannel nodeChannel : channels) {
+                    engine.getClusterService().refreshLock(ClusterConstants.ROUTE);
+                    if (nodeChannel.isEnabled() && (readyChannels == null || readyChannels.contains(nodeChannel.getChannelId()))) {
+                        processInfo.setCurrentTableName("");
+                        processInfo.setCurrentChannelId(nodeChannel.getChannelId());
+                        dataCount += routeDataForChannel(processInfo, nodeChannel, sourceNode, false, null, null);
+                    } else if (!nodeChannel.isEnabled()) {
+                        gapDetector.setIsAllDataRead(false);
+                        if (log.isDebugEnabled()) {
+                            log.debug("Not routing the {} channel.  It is either disabled or suspended.", nodeChannel.getChannelId());
+                        }
                     }
                 }
             }
@@ -291,6 +317,139 @@ public class RouterService extends AbstractService implements IRouterService {
         return dataCount;
     }
 
+    /**
+     * Route each channel on its own thread and connection. Each channel collects its gap bookkeeping in a {@link DeferredDataGapDetector}, which is applied to
+     * the shared gap detector after all channels finish. The request for a full gap analysis is saved and committed once before the channels start, instead
+     * of in each channel's transaction, so the channels do not wait on each other for the context row. A channel that needs to be re-routed with contains_big_lobs enabled is retried afterwards on this
+     * thread, the same way it would be when routing one channel at a time.
+     */
+    protected long routeDataForEachChannelInParallel(ProcessInfo processInfo, List<NodeChannel> channels, Set<String> readyChannels,
+            final Node sourceNode) {
+        ExecutorService executor = getChannelRouterThreads();
+        if (!parameterService.is(ParameterConstants.SYNCHRONIZE_ALL_JOBS)) {
+            getReadThread();
+        }
+        final String engineName = parameterService.getEngineName();
+        List<DeferredDataGapDetector> channelGapDetectors = new ArrayList<DeferredDataGapDetector>();
+        List<Future<Long>> futures = new ArrayList<Future<Long>>();
+        for (final NodeChannel nodeChannel : channels) {
+            if (nodeChannel.isEnabled() && (readyChannels == null || readyChannels.contains(nodeChannel.getChannelId()))) {
+                if (futures.isEmpty()) {
+                    gapDetector.setFullGapAnalysis(true);
+                }
+                final DeferredDataGapDetector channelGapDetector = new DeferredDataGapDetector(gapDetector, nodeChannel);
+                channelGapDetectors.add(channelGapDetector);
+                futures.add(executor.submit(new Callable<Long>() {
+                    public Long call() throws Exception {
+                        MDC.put("engineName", engineName);
+                        ProcessInfo channelProcessInfo = engine.getStatisticManager().newProcessInfo(
+                                new ProcessInfoKey(sourceNode.getNodeId(), nodeChannel.getChannelId(), null, ProcessType.ROUTER_JOB));
+                        channelProcessInfo.setStatus(ProcessInfo.ProcessStatus.PROCESSING);
+                        channelProcessInfo.setCurrentChannelId(nodeChannel.getChannelId());
+                        try {
+                            long dataCount = routeDataForChannel(channelProcessInfo, nodeChannel, sourceNode, false, null, null, channelGapDetector);
+                            channelProcessInfo.setStatus(ProcessInfo.ProcessStatus.OK);
+                            return dataCount;
+                        } catch (RuntimeException ex) {
+                            channelProcessInfo.setStatus(ProcessInfo.ProcessStatus.ERROR);
+                            throw ex;
+                        }
+                    }
+                }));
+            } else if (!nodeChannel.isEnabled()) {
+                gapDetector.setIsAllDataRead(false);
+                if (log.isDebugEnabled()) {
+                    log.debug("Not routing the {} channel.  It is either disabled or suspended.", nodeChannel.getChannelId());
+                }
+            }
+        }
+        processInfo.setCurrentChannelId(null);
+        long dataCount = 0;
+        RuntimeException firstException = null;
+        for (Future<Long> future : futures) {
+            try {
+                dataCount += waitForChannelRouting(future);
+            } catch (RuntimeException ex) {
+                if (firstException == null) {
+                    firstException = ex;
+                }
+            }
+        }
+        for (DeferredDataGapDetector channelGapDetector : channelGapDetectors) {
+            channelGapDetector.flush();
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+        for (DeferredDataGapDetector channelGapDetector : channelGapDetectors) {
+            if (channelGapDetector.isRetryWithBigLob()) {
+                NodeChannel nodeChannel = channelGapDetector.getNodeChannel();
+                log.info("Re-attempting routing with contains_big_lobs temporarily enabled for channel {}", nodeChannel.getChannelId());
+                gapDetector.afterRouting();
+                gapDetector.beforeRouting();
+                processInfo.setCurrentChannelId(nodeChannel.getChannelId());
+                dataCount += routeDataForChannel(processInfo, nodeChannel, sourceNode, true, channelGapDetector.getRetryBatchesByNodes(),
+                        channelGapDetector.getRetryBatchesByGroups());
+            }
+        }
+        return dataCount;
+    }
+
+    protected long waitForChannelRouting(Future<Long> future) {
+        while (true) {
+            try {
+                return future.get(Constants.LONG_OPERATION_THRESHOLD, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                engine.getClusterService().refreshLock(ClusterConstants.ROUTE);
+            } catch (InterruptedException ex) {
+                future.cancel(true);
+                throw new SymmetricException("Interrupted while waiting for channels to route", ex);
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new SymmetricException(cause);
+            }
+        }
+    }
+
+    protected int getNumberOfThreadsToUseForRouting() {
+        int threadCount = parameterService.getInt(ParameterConstants.ROUTING_CHANNEL_THREAD_COUNT, 1);
+        if (parameterService.is(ParameterConstants.SYNCHRONIZE_ALL_JOBS)) {
+            threadCount = 1;
+        }
+        return threadCount;
+    }
+
+    protected synchronized ExecutorService getChannelRouterThreads() {
+        int threadCount = getNumberOfThreadsToUseForRouting();
+        if (channelRouterThreads != null && channelRouterThreadCount != threadCount) {
+            channelRouterThreads.shutdown();
+            channelRouterThreads = null;
+        }
+        if (channelRouterThreads == null) {
+            channelRouterThreadCount = threadCount;
+            channelRouterThreads = Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+                final AtomicInteger threadNumber = new AtomicInteger(1);
+                final String namePrefix = parameterService.getEngineName().toLowerCase() + "-router-channel-";
+
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r);
+                    t.setName(namePrefix + threadNumber.getAndIncrement());
+                    if (t.isDaemon()) {
+                        t.setDaemon(false);
+                    }
+                    if (t.getPriority() != Thread.NORM_PRIORITY) {
+                        t.setPriority(Thread.NORM_PRIORITY);
+                    }
+                    return t;
+                }
+            });
+        }
+        return channelRouterThreads;
+    }
+
     protected Set<String> getReadyChannels() {
         List<DataGap> dataGaps = gapDetector.getDataGaps();
         int dataIdSqlType = engine.getSymmetricDialect().getSqlTypeForIds();
@@ -463,6 +622,13 @@ public class RouterService extends AbstractService implements IRouterService {
 
     protected long routeDataForChannel(ProcessInfo processInfo, final NodeChannel nodeChannel, final Node sourceNode, boolean isOverrideContainsBigLob,
             Map<String, OutgoingBatch> overrideBatchesByNodes, Map<Integer, Map<String, OutgoingBatch>> overrideBatchesByGroups) {
+        return routeDataForChannel(processInfo, nodeChannel, sourceNode, isOverrideContainsBigLob, overrideBatchesByNodes, overrideBatchesByGroups,
+                gapDetector);
+    }
+
+    protected long routeDataForChannel(ProcessInfo processInfo, final NodeChannel nodeChannel, final Node sourceNode, boolean isOverrideContainsBigLob,
+            Map<String, OutgoingBatch> overrideBatchesByNodes, Map<Integer, Map<String, OutgoingBatch>> overrideBatchesByGroups,
+            DataGapDetector channelGapDetector) {
         ChannelRouterContext context = null;
         long ts = System.currentTimeMillis();
         long dataCount = -1;
@@ -481,7 +647,9 @@ public class RouterService extends AbstractService implements IRouterService {
             context.setProduceGroupBatches(useCommonGroups);
             context.setNonCommonForIncoming(parameterService.is(ParameterConstants.ROUTING_USE_NON_COMMON_FOR_INCOMING));
             context.setOnlyDefaultRoutersAssigned(onlyDefaultRoutersAssigned);
-            context.setDataGaps(gapDetector.getDataGaps());
+            context.setDataGaps(channelGapDetector.getDataGaps());
+            context.setDataGapIndex(channelGapDetector.getDataGapIndex());
+            context.setGapDetector(channelGapDetector);
             context.setOverrideContainsBigLob(isOverrideContainsBigLob);
             context.setMaxBatchesJdbcFlushSize(parameterService.getInt(ParameterConstants.ROUTING_FLUSH_BATCHES_JDBC_BATCH_SIZE, 5000));
             int maxBatchSizeExceedPercent = parameterService.getInt(ParameterConstants.ROUTING_MAX_BATCH_SIZE_EXCEED_PERCENT);
@@ -540,18 +708,26 @@ public class RouterService extends AbstractService implements IRouterService {
                         batchId = batch.getBatchId();
                     }
                 }
-                log.info("Re-attempting routing for batch {} with contains_big_lobs temporarily enabled for channel {}",
-                        batchId, nodeChannel.getChannelId());
-                dataCount = 0;
-                gapDetector.addDataIds(context.getDataIds());
-                gapDetector.afterRouting();
-                gapDetector.beforeRouting();
-                long dataCountWithBigLob = routeDataForChannel(processInfo, nodeChannel, sourceNode, true, batchesByNodes, batchesByGroups);
-                dataCount = context.getCommittedDataEventCount() + dataCountWithBigLob;
+                if (channelGapDetector instanceof DeferredDataGapDetector) {
+                    log.info("Deferring routing for batch {} with contains_big_lobs temporarily enabled for channel {} until other channels finish",
+                            batchId, nodeChannel.getChannelId());
+                    ((DeferredDataGapDetector) channelGapDetector).retryWithBigLob(batchesByNodes, batchesByGroups);
+                    channelGapDetector.setIsAllDataRead(false);
+                    dataCount = context.getCommittedDataEventCount();
+                } else {
+                    log.info("Re-attempting routing for batch {} with contains_big_lobs temporarily enabled for channel {}",
+                            batchId, nodeChannel.getChannelId());
+                    dataCount = 0;
+                    channelGapDetector.addDataIds(context.getDataIds());
+                    channelGapDetector.afterRouting();
+                    channelGapDetector.beforeRouting();
+                    long dataCountWithBigLob = routeDataForChannel(processInfo, nodeChannel, sourceNode, true, batchesByNodes, batchesByGroups);
+                    dataCount = context.getCommittedDataEventCount() + dataCountWithBigLob;
+                }
             }
         } catch (CommonBatchCollisionException e) {
             log.info(e.getMessage());
-            gapDetector.setIsAllDataRead(false);
+            channelGapDetector.setIsAllDataRead(false);
             dataCount = context == null ? 0 : context.getDataEventList().size(); // we prevented writing the collision, so commit what we have
         } catch (Throwable ex) {
             log.error(String.format("Failed to route and batch data on '%s' channel", nodeChannel.getChannelId()), ex);
@@ -568,9 +744,11 @@ public class RouterService extends AbstractService implements IRouterService {
                     context.clearDataEventsList();
                     context.incrementStat(System.currentTimeMillis() - insertTs, ChannelRouterContext.STAT_INSERT_DATA_EVENTS_MS);
                     completeBatchesAndCommit(context);
-                    gapDetector.addDataIds(context.getDataIds());
-                    gapDetector.setIsAllDataRead(context.getDataIds().size() < context.getChannel().getMaxDataToRoute());
-                    hasMaxDataRoutedOnChannel |= context.getDataIds().size() >= context.getChannel().getMaxDataToRoute();
+                    channelGapDetector.addDataIds(context.getDataIds());
+                    channelGapDetector.setIsAllDataRead(context.getDataIds().size() < context.getChannel().getMaxDataToRoute());
+                    if (context.getDataIds().size() >= context.getChannel().getMaxDataToRoute()) {
+                        hasMaxDataRoutedOnChannel = true;
+                    }
                     if (parameterService.is(ParameterConstants.ROUTING_COLLECT_STATS_UNROUTED)) {
                         Data lastDataProcessed = context.getLastDataProcessed();
                         if (lastDataProcessed != null && lastDataProcessed.getDataId() > 0) {
@@ -588,8 +766,8 @@ public class RouterService extends AbstractService implements IRouterService {
                     }
                 } else if (dataCount == -1) {
                     // rolled back as exception, but let gap detector know about what was committed before halting
-                    gapDetector.addDataIds(context.getDataIds());
-                    gapDetector.setIsAllDataRead(false);
+                    channelGapDetector.addDataIds(context.getDataIds());
+                    channelGapDetector.setIsAllDataRead(false);
                 }
             } catch (Exception e) {
                 if (context != null) {
@@ -600,6 +778,7 @@ public class RouterService extends AbstractService implements IRouterService {
                 long totalTime = System.currentTimeMillis() - ts;
                 if (context != null) {
                     context.incrementStat(totalTime, ChannelRouterContext.STAT_ROUTE_TOTAL_TIME);
+                    context.incrementStat(context.getDataIds().getMemorySize(), ChannelRouterContext.STAT_DATA_IDS_MEMORY_BYTES);
                     context.logStats(log, totalTime);
                     context.cleanup();
                 }
@@ -609,7 +788,8 @@ public class RouterService extends AbstractService implements IRouterService {
     }
 
     protected void completeBatchesAndCommit(ChannelRouterContext context) {
-        gapDetector.setFullGapAnalysis(context.getSqlTransaction(), true);
+        DataGapDetector channelGapDetector = context.getGapDetector() != null ? context.getGapDetector() : gapDetector;
+        channelGapDetector.setFullGapAnalysis(context.getSqlTransaction(), true);
         Set<IDataRouter> usedRouters = new HashSet<IDataRouter>(context.getUsedDataRouters());
         List<OutgoingBatch> batches = new ArrayList<OutgoingBatch>(context.getBatchesByNodes().values());
         for (Map<String, OutgoingBatch> groupBatches : context.getBatchesByGroups().values()) {
@@ -641,6 +821,9 @@ public class RouterService extends AbstractService implements IRouterService {
                 batch.setStatus(Status.NE);
             }
             batch.setRouterMillis((System.currentTimeMillis() - batch.getCreateTime().getTime()) / batches.size());
+            if (!Constants.UNROUTED_NODE_ID.equals(batch.getNodeId())) {
+                engine.getStatisticManager().recordRouterMillis(batch.getChannelId(), batch.getRouterMillis());
+            }
         }
         engine.getOutgoingBatchService().updateOutgoingBatches(context.getSqlTransaction(), batches, context.getMaxBatchesJdbcFlushSize());
     }
@@ -673,27 +856,31 @@ public class RouterService extends AbstractService implements IRouterService {
         if (parameterService.is(ParameterConstants.SYNCHRONIZE_ALL_JOBS)) {
             reader.run();
         } else {
-            if (readThread == null) {
-                readThread = Executors.newCachedThreadPool(new ThreadFactory() {
-                    final AtomicInteger threadNumber = new AtomicInteger(1);
-                    final String namePrefix = parameterService.getEngineName().toLowerCase() + "-router-reader-";
+            getReadThread().execute(reader);
+        }
+        return reader;
+    }
 
-                    public Thread newThread(Runnable r) {
-                        Thread t = new Thread(r);
-                        t.setName(namePrefix + threadNumber.getAndIncrement());
-                        if (t.isDaemon()) {
-                            t.setDaemon(false);
-                        }
-                        if (t.getPriority() != Thread.NORM_PRIORITY) {
-                            t.setPriority(Thread.NORM_PRIORITY);
-                        }
-                        return t;
+    protected ExecutorService getReadThread() {
+        if (readThread == null) {
+            readThread = Executors.newCachedThreadPool(new ThreadFactory() {
+                final AtomicInteger threadNumber = new AtomicInteger(1);
+                final String namePrefix = parameterService.getEngineName().toLowerCase() + "-router-reader-";
+
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r);
+                    t.setName(namePrefix + threadNumber.getAndIncrement());
+                    if (t.isDaemon()) {
+                        t.setDaemon(false);
                     }
-                });
-            }
-            readThread.execute(reader);
+                    if (t.getPriority() != Thread.NORM_PRIORITY) {
+                        t.setPriority(Thread.NORM_PRIORITY);
+                    }
+                    return t;
+                }
+            });
         }
-        return reader;
+        return readThread;
     }
 
     /**
@@ -707,6 +894,10 @@ public class RouterService extends AbstractService implements IRouterService {
      */
     protected long selectDataAndRoute(ProcessInfo processInfo, ChannelRouterContext context) throws InterruptedException {
         IDataToRouteReader reader = startReading(context);
+        int prefetchSize = parameterService.getInt(ParameterConstants.ROUTING_DATA_ROUTER_PREFETCH_SIZE, 0);
+        if (prefetchSize > 1) {
+            reader = new PrefetchingDataReader(reader, context, prefetchSize);
+        }
         Data data = null;
         Data nextData = null;
         long totalDataCount = 0;
@@ -812,9 +1003,49 @@ public class RouterService extends AbstractService implements IRouterService {
         return totalDataEventCount;
     }
 
-    protected int routeData(ProcessInfo processInfo, Data data, ChannelRouterContext context) {
-        int numberOfDataEventsInserted = 0;
-        List<TriggerRouter> triggerRouters = getTriggerRoutersForData(data, context);
+    /**
+     * Give data routers that can route many rows at once the rows that were read ahead, grouped by trigger router, so they can look up the nodes
+     * for all of them before the rows are routed one at a time.
+     */
+    protected void prefetchRoutes(ChannelRouterContext context, List<Data> dataToRoute) {
+        Map<TriggerRouter, List<DataMetaData>> dataByTriggerRouter = new LinkedHashMap<TriggerRouter, List<DataMetaData>>();
+        Set<String> changedTableNames = new HashSet<String>();
+        for (Data data : dataToRoute) {
+            if (data == null || data.getTriggerHistory() == null) {
+                continue;
+            }
+            changedTableNames.add(data.getTableName());
+            if (data.isPreRouted() || StringUtils.isNotBlank(data.getNodeList()) || context.getChannel().isIgnoreEnabled()) {
+                continue;
+            }
+            List<TriggerRouter> triggerRouters = getTriggerRoutersForData(data, context);
+            if (triggerRouters != null) {
+                Table table = null;
+                for (TriggerRouter triggerRouter : triggerRouters) {
+                    if (triggerRouter.isRouted(data.getDataEventType()) && getDataRouter(triggerRouter.getRouter()) instanceof IBatchDataRouter) {
+                        if (table == null) {
+                            table = getTableForData(data);
+                        }
+                        DataMetaData dataMetaData = new DataMetaData(data, table, triggerRouter.getRouter(), context.getChannel());
+                        if (data.getTriggerHistory().getLastTriggerBuildReason() != TriggerReBuildReason.TRIGGER_HIST_MISSING
+                                || doesColumnCountMatchValues(dataMetaData, data)) {
+                            dataByTriggerRouter.computeIfAbsent(triggerRouter, k -> new ArrayList<DataMetaData>()).add(dataMetaData);
+                        }
+                    }
+                }
+            }
+        }
+        for (Map.Entry<TriggerRouter, List<DataMetaData>> entry : dataByTriggerRouter.entrySet()) {
+            long ts = System.currentTimeMillis();
+            IBatchDataRouter dataRouter = (IBatchDataRouter) getDataRouter(entry.getKey().getRouter());
+            dataRouter.prefetch(context, entry.getKey(), entry.getValue(), changedTableNames);
+            ts = System.currentTimeMillis() - ts;
+            context.incrementStat(ts, ChannelRouterContext.STAT_DATA_ROUTER_MS);
+            context.addTimesByRouter(entry.getKey().getRouterId(), ts);
+        }
+    }
+
+    protected Table getTableForData(Data data) {
         Table table = null;
         if (!isUsingTargetExternalId && data.getTriggerHistory() != null) {
             table = platform.getTableFromCache(data.getTriggerHistory().getSourceCatalogName(), data.getTriggerHistory().getSourceSchemaName(),
@@ -823,6 +1054,13 @@ public class RouterService extends AbstractService implements IRouterService {
         if (table == null) {
             table = buildTableFromTriggerHistory(data.getTriggerHistory());
         }
+        return table;
+    }
+
+    protected int routeData(ProcessInfo processInfo, Data data, ChannelRouterContext context) {
+        int numberOfDataEventsInserted = 0;
+        List<TriggerRouter> triggerRouters = getTriggerRoutersForData(data, context);
+        Table table = getTableForData(data);
         if (triggerRouters != null && triggerRouters.size() > 0) {
             boolean isUnrouted = false;
             boolean alreadyInsertedUnrouted = false;
@@ -1145,4 +1383,51 @@ public class RouterService extends AbstractService implements IRouterService {
         }
         return true;
     }
+
+    /**
+     * Reads ahead of the data being routed by the given number of rows, and lets data routers look up the nodes for each window of rows before
+     * they are taken.
+     */
+    class PrefetchingDataReader implements IDataToRouteReader {
+        IDataToRouteReader reader;
+        ChannelRouterContext context;
+        int prefetchSize;
+        LinkedList<Data> dataToRoute = new LinkedList<Data>();
+        boolean endOfData;
+
+        PrefetchingDataReader(IDataToRouteReader reader, ChannelRouterContext context, int prefetchSize) {
+            this.reader = reader;
+            this.context = context;
+            this.prefetchSize = prefetchSize;
+        }
+
+        public Data take() throws InterruptedException {
+            if (dataToRoute.isEmpty() && !endOfData) {
+                while (dataToRoute.size() < prefetchSize) {
+                    Data data = reader.take();
+                    if (data == null) {
+                        endOfData = true;
+                        break;
+                    }
+                    dataToRoute.add(data);
+                }
+                if (dataToRoute.size() > 0) {
+                    prefetchRoutes(context, dataToRoute);
+                }
+            }
+            return dataToRoute.poll();
+        }
+
+        public boolean isReading() {
+            return reader.isReading();
+        }
+
+        public void setReading(boolean reading) {
+            reader.setReading(reading);
+        }
+
+        public void run() {
+            reader.run();
+        }
+    }
 }
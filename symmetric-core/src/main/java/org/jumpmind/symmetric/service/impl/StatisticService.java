@@ -60,10 +60,16 @@ public class StatisticService extends AbstractService implements IStatisticServi
                         stats.getDataBytesSent(), stats.getDataSentErrors(), stats.getDataLoaded(),
                         stats.getDataBytesLoaded(), stats.getDataLoadedErrors(),
                         stats.getDataLoadedOutgoing(), stats.getDataBytesLoadedOutgoing(),
-                        stats.getDataLoadedOutgoingErrors() }, new int[] {
+                        stats.getDataLoadedOutgoingErrors(), stats.getRouterMillisP50(),
+                        stats.getRouterMillisP99(), stats.getRouterMillisMax(), stats.getExtractMillisP50(),
+                        stats.getExtractMillisP99(), stats.getExtractMillisMax(), stats.getNetworkMillisP50(),
+                        stats.getNetworkMillisP99(), stats.getNetworkMillisMax(), stats.getLoadMillisP50(),
+                        stats.getLoadMillisP99(), stats.getLoadMillisMax() }, new int[] {
                                 Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP,
                                 Types.TIMESTAMP, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT,
                                 Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT,
+                                Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT,
+                                Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT,
                                 Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT });
     }
 
@@ -184,6 +190,20 @@ public class StatisticService extends AbstractService implements IStatisticServi
             stats.setDataLoadedOutgoing(rs.getLong("data_loaded_outgoing"));
             stats.setDataLoadedOutgoingErrors(rs.getLong("data_loaded_outgoing_errors"));
             stats.setDataBytesLoadedOutgoing(rs.getLong("data_bytes_loaded_outgoing"));
+            if (rs.containsKey("router_millis_p50")) {
+                stats.setRouterMillisP50(rs.getLong("router_millis_p50"));
+                stats.setRouterMillisP99(rs.getLong("router_millis_p99"));
+                stats.setRouterMillisMax(rs.getLong("router_millis_max"));
+                stats.setExtractMillisP50(rs.getLong("extract_millis_p50"));
+                stats.setExtractMillisP99(rs.getLong("extract_millis_p99"));
+                stats.setExtractMillisMax(rs.getLong("extract_millis_max"));
+                stats.setNetworkMillisP50(rs.getLong("network_millis_p50"));
+                stats.setNetworkMillisP99(rs.getLong("network_millis_p99"));
+                stats.setNetworkMillisMax(rs.getLong("network_millis_max"));
+                stats.setLoadMillisP50(rs.getLong("load_millis_p50"));
+                stats.setLoadMillisP99(rs.getLong("load_millis_p99"));
+                stats.setLoadMillisMax(rs.getLong("load_millis_max"));
+            }
             return stats;
         }
     }
@@ -34,15 +34,23 @@ public class StatisticServiceSqlMap extends AbstractSqlMap {
                 "  data_extracted, data_bytes_extracted, data_extracted_errors,   " +
                 "  data_sent, data_bytes_sent, data_sent_errors,                  " +
                 "  data_loaded, data_bytes_loaded, data_loaded_errors,            " +
-                "  data_loaded_outgoing, data_bytes_loaded_outgoing, data_loaded_outgoing_errors)            " +
-                "  values(?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)                      ");
+                "  data_loaded_outgoing, data_bytes_loaded_outgoing, data_loaded_outgoing_errors,            " +
+                "  router_millis_p50, router_millis_p99, router_millis_max,       " +
+                "  extract_millis_p50, extract_millis_p99, extract_millis_max,    " +
+                "  network_millis_p50, network_millis_p99, network_millis_max,    " +
+                "  load_millis_p50, load_millis_p99, load_millis_max)             " +
+                "  values(?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)      ");
         putSql("selectChannelStatsSql", "" +
                 "select node_id, host_name, channel_id, start_time, end_time,                       " +
                 "  data_routed, data_unrouted, data_event_inserted,                                 " +
                 "  data_extracted, data_bytes_extracted, data_extracted_errors,                     " +
                 "  data_sent, data_bytes_sent, data_sent_errors,                                    " +
                 "  data_loaded, data_bytes_loaded, data_loaded_errors,                               " +
-                "  data_loaded_outgoing, data_bytes_loaded_outgoing, data_loaded_outgoing_errors    " +
+                "  data_loaded_outgoing, data_bytes_loaded_outgoing, data_loaded_outgoing_errors,   " +
+                "  router_millis_p50, router_millis_p99, router_millis_max,                         " +
+                "  extract_millis_p50, extract_millis_p99, extract_millis_max,                      " +
+                "  network_millis_p50, network_millis_p99, network_millis_max,                      " +
+                "  load_millis_p50, load_millis_p99, load_millis_max                                " +
                 "  from $(node_host_channel_stats)                                            " +
                 "  where  start_time >= ? and end_time <= ? and node_id=? order by start_time asc   ");
         putSql("deleteChannelStatsSql", "" +
@@ -60,7 +68,15 @@ public class StatisticServiceSqlMap extends AbstractSqlMap {
                 "  sum(data_loaded_errors) as data_loaded_errors,                                          " +
                 "  sum(data_loaded_outgoing) as data_loaded_outgoing,                                     " +
                 "  sum(data_bytes_loaded_outgoing) as data_bytes_loaded_outgoing,                         " +
-                "  sum(data_loaded_outgoing_errors) as data_loaded_outgoing_errors                        " +
+                "  sum(data_loaded_outgoing_errors) as data_loaded_outgoing_errors,                       " +
+                "  max(router_millis_p50) as router_millis_p50, max(router_millis_p99) as router_millis_p99," +
+                "  max(router_millis_max) as router_millis_max,                                           " +
+                "  max(extract_millis_p50) as extract_millis_p50, max(extract_millis_p99) as extract_millis_p99," +
+                "  max(extract_millis_max) as extract_millis_max,                                         " +
+                "  max(network_millis_p50) as network_millis_p50, max(network_millis_p99) as network_millis_p99," +
+                "  max(network_millis_max) as network_millis_max,                                         " +
+                "  max(load_millis_p50) as load_millis_p50, max(load_millis_p99) as load_millis_p99,      " +
+                "  max(load_millis_max) as load_millis_max                                                " +
                 "  from $(node_host_channel_stats)                                                       " +
                 "  where start_time >= ? and end_time <= ? and node_id=?                                  " +
                 "  and channel_id not in ('heartbeat', 'config')                                          " +
@@ -40,6 +40,7 @@ import org.jumpmind.symmetric.db.ISymmetricDialect;
 import org.jumpmind.symmetric.io.data.transform.AdditiveColumnTransform;
 import org.jumpmind.symmetric.io.data.transform.BinaryLeftColumnTransform;
 import org.jumpmind.symmetric.io.data.transform.BshColumnTransform;
+import org.jumpmind.symmetric.io.data.transform.CachedLookupColumnTransform;
 import org.jumpmind.symmetric.io.data.transform.ClarionDateTimeColumnTransform;
 import org.jumpmind.symmetric.io.data.transform.ColumnPolicy;
 import org.jumpmind.symmetric.io.data.transform.ColumnsToRowsKeyColumnTransform;
@@ -97,6 +98,7 @@ public class TransformService extends AbstractService implements ITransformServi
         addColumnTransform(ParameterColumnTransform.NAME, new ParameterColumnTransform(parameterService));
         addColumnTransform(VariableColumnTransform.NAME, new VariableColumnTransform());
         addColumnTransform(LookupColumnTransform.NAME, new LookupColumnTransform());
+        addColumnTransform(CachedLookupColumnTransform.NAME, new CachedLookupColumnTransform(parameterService));
         addColumnTransform(BshColumnTransform.NAME, new BshColumnTransform(parameterService));
         addColumnTransform(AdditiveColumnTransform.NAME, new AdditiveColumnTransform());
         addColumnTransform(JavaColumnTransform.NAME, new JavaColumnTransform(extensionService));
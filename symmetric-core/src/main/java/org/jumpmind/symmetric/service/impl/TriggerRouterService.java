@@ -32,6 +32,8 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -1482,6 +1484,9 @@ public class TriggerRouterService extends AbstractService implements ITriggerRou
                         ts = System.currentTimeMillis();
                         List<TriggerHistory> activeTriggerHistories = getActiveTriggerHistories();
                         triggerRouterContext.incrementActiveTriggerHistoriesTime(System.currentTimeMillis() - ts);
+                        ts = System.currentTimeMillis();
+                        readTablesIntoCache(triggersForCurrentNode);
+                        triggerRouterContext.incrementTablesForTriggerTime(System.currentTimeMillis() - ts);
                         inactivateTriggers(triggersForCurrentNode, sqlBuffer, activeTriggerHistories, triggerRouterContext);
                         updateOrCreateDatabaseTriggers(triggersForCurrentNode, sqlBuffer, force,
                                 true, activeTriggerHistories, true, triggerRouterContext);
@@ -1698,6 +1703,54 @@ public class TriggerRouterService extends AbstractService implements ITriggerRou
                 .select();
     }
 
+    /**
+     * Read the source tables of the triggers into the table cache with one set of catalog queries per schema, so looking up the table for each
+     * trigger afterwards does not query the database again. Wildcard triggers and tables handled by a table resolver are left to
+     * {@link #getTablesForTrigger(Trigger, List, boolean, TriggerRouterContext)}.
+     */
+    protected void readTablesIntoCache(List<Trigger> triggers) {
+        boolean hasTableResolvers = CollectionUtils.isNotEmpty(extensionService.getExtensionPointList(ITableResolver.class));
+        Map<IDatabasePlatform, Map<String, Set<String>>> tableNamesByPlatform = new LinkedHashMap<IDatabasePlatform, Map<String, Set<String>>>();
+        Map<String, String[]> catalogAndSchemaByPrefix = new HashMap<String, String[]>();
+        for (Trigger trigger : triggers) {
+            if (trigger.isSourceWildCarded() || (hasTableResolvers
+                    && !trigger.getSourceTableName().startsWith(parameterService.getTablePrefix() + "_"))) {
+                continue;
+            }
+            IDatabasePlatform sourcePlatform = getTargetPlatform(trigger.getSourceTableName());
+            String catalogName = isBlank(trigger.getSourceCatalogName()) ? sourcePlatform.getDefaultCatalog()
+                    : trigger.getSourceCatalogNameUnescaped();
+            String schemaName = isBlank(trigger.getSourceSchemaName()) ? sourcePlatform.getDefaultSchema()
+                    : trigger.getSourceSchemaNameUnescaped();
+            String prefix = Table.getFullyQualifiedTablePrefix(catalogName, schemaName);
+            catalogAndSchemaByPrefix.put(prefix, new String[] { catalogName, schemaName });
+            Map<String, Set<String>> tableNamesBySchema = tableNamesByPlatform.get(sourcePlatform);
+            if (tableNamesBySchema == null) {
+                tableNamesBySchema = new LinkedHashMap<String, Set<String>>();
+                tableNamesByPlatform.put(sourcePlatform, tableNamesBySchema);
+            }
+            Set<String> tableNames = tableNamesBySchema.get(prefix);
+            if (tableNames == null) {
+                tableNames = new LinkedHashSet<String>();
+                tableNamesBySchema.put(prefix, tableNames);
+            }
+            tableNames.add(trigger.getSourceTableNameUnescaped());
+        }
+        for (Map.Entry<IDatabasePlatform, Map<String, Set<String>>> platformEntry : tableNamesByPlatform.entrySet()) {
+            for (Map.Entry<String, Set<String>> entry : platformEntry.getValue().entrySet()) {
+                if (entry.getValue().size() > 1) {
+                    String[] catalogAndSchema = catalogAndSchemaByPrefix.get(entry.getKey());
+                    try {
+                        platformEntry.getKey().readTablesIntoCache(catalogAndSchema[0], catalogAndSchema[1], entry.getValue());
+                    } catch (RuntimeException ex) {
+                        log.warn("Failed to read the tables of {} together, so they will be read one at a time: {}", entry.getKey(),
+                                ex.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
     protected Set<Table> getTablesForTrigger(Trigger trigger, List<Trigger> triggers, boolean useTableCache,
             TriggerRouterContext triggerRouterContext) {
         long ts = System.currentTimeMillis();
@@ -1832,6 +1885,9 @@ public class TriggerRouterService extends AbstractService implements ITriggerRou
             try {
                 fixMultipleActiveTriggerHistories(triggerRouterContext);
                 boolean ignoreCase = this.parameterService.is(ParameterConstants.DB_METADATA_IGNORE_CASE);
+                for (Table table : tables) {
+                    symmetricDialect.getTargetPlatform(table.getName()).resetCachedTable(table.getCatalog(), table.getSchema(), table.getName());
+                }
                 long ts = System.currentTimeMillis();
                 List<Trigger> triggersForCurrentNode = getTriggersForCurrentNode();
                 triggerRouterContext.incrementTriggersForCurrentNodeTime(System.currentTimeMillis() - ts);
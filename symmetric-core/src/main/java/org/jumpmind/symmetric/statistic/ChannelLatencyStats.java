@@ -0,0 +1,69 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.statistic;
+
+/**
+ * Latencies of the batches on a channel for each step of their delivery, which are reported as percentiles in the {@link ChannelStats}.
+ */
+public class ChannelLatencyStats {
+    protected LatencyHistogram routerMillis = new LatencyHistogram();
+    protected LatencyHistogram extractMillis = new LatencyHistogram();
+    protected LatencyHistogram networkMillis = new LatencyHistogram();
+    protected LatencyHistogram loadMillis = new LatencyHistogram();
+
+    public void recordRouterMillis(long millis) {
+        routerMillis.record(millis);
+    }
+
+    public void recordExtractMillis(long millis) {
+        extractMillis.record(millis);
+    }
+
+    public void recordNetworkMillis(long millis) {
+        networkMillis.record(millis);
+    }
+
+    public void recordLoadMillis(long millis) {
+        loadMillis.record(millis);
+    }
+
+    /**
+     * Set the percentiles for the latencies recorded so far on the stats, and optionally reset the latencies to start a new period.
+     */
+    public void copyTo(ChannelStats stats, boolean reset) {
+        LatencyHistogram router = reset ? routerMillis.snapshotAndReset() : routerMillis;
+        stats.setRouterMillisP50(router.getValueAtPercentile(50));
+        stats.setRouterMillisP99(router.getValueAtPercentile(99));
+        stats.setRouterMillisMax(router.getMax());
+        LatencyHistogram extract = reset ? extractMillis.snapshotAndReset() : extractMillis;
+        stats.setExtractMillisP50(extract.getValueAtPercentile(50));
+        stats.setExtractMillisP99(extract.getValueAtPercentile(99));
+        stats.setExtractMillisMax(extract.getMax());
+        LatencyHistogram network = reset ? networkMillis.snapshotAndReset() : networkMillis;
+        stats.setNetworkMillisP50(network.getValueAtPercentile(50));
+        stats.setNetworkMillisP99(network.getValueAtPercentile(99));
+        stats.setNetworkMillisMax(network.getMax());
+        LatencyHistogram load = reset ? loadMillis.snapshotAndReset() : loadMillis;
+        stats.setLoadMillisP50(load.getValueAtPercentile(50));
+        stats.setLoadMillisP99(load.getValueAtPercentile(99));
+        stats.setLoadMillisMax(load.getMax());
+    }
+}
@@ -21,24 +21,40 @@
 package org.jumpmind.symmetric.statistic;
 
 import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Counts for a channel over a period of time. The counters are striped, so many threads can increment them without contending on a lock.
+ */
 public class ChannelStats extends AbstractNodeHostStats {
     private String channelId;
-    private long dataRouted;
-    private long dataUnRouted;
-    private long dataExtracted;
-    private long dataBytesExtracted;
-    private long dataExtractedErrors;
-    private long dataEventInserted;
-    private long dataSent;
-    private long dataBytesSent;
-    private long dataSentErrors;
-    private long dataLoaded;
-    private long dataBytesLoaded;
-    private long dataLoadedErrors;
-    private long dataLoadedOutgoing;
-    private long dataBytesLoadedOutgoing;
-    private long dataLoadedOutgoingErrors;
+    private LongAdder dataRouted = new LongAdder();
+    private LongAdder dataUnRouted = new LongAdder();
+    private LongAdder dataExtracted = new LongAdder();
+    private LongAdder dataBytesExtracted = new LongAdder();
+    private LongAdder dataExtractedErrors = new LongAdder();
+    private LongAdder dataEventInserted = new LongAdder();
+    private LongAdder dataSent = new LongAdder();
+    private LongAdder dataBytesSent = new LongAdder();
+    private LongAdder dataSentErrors = new LongAdder();
+    private LongAdder dataLoaded = new LongAdder();
+    private LongAdder dataBytesLoaded = new LongAdder();
+    private LongAdder dataLoadedErrors = new LongAdder();
+    private LongAdder dataLoadedOutgoing = new LongAdder();
+    private LongAdder dataBytesLoadedOutgoing = new LongAdder();
+    private LongAdder dataLoadedOutgoingErrors = new LongAdder();
+    private long routerMillisP50;
+    private long routerMillisP99;
+    private long routerMillisMax;
+    private long extractMillisP50;
+    private long extractMillisP99;
+    private long extractMillisMax;
+    private long networkMillisP50;
+    private long networkMillisP99;
+    private long networkMillisMax;
+    private long loadMillisP50;
+    private long loadMillisP99;
+    private long loadMillisMax;
 
     public ChannelStats() {
     }
@@ -49,28 +65,69 @@ public class ChannelStats extends AbstractNodeHostStats {
         this.channelId = channelId;
     }
 
+    /**
+     * Add the counts from another period. Latency percentiles cannot be combined, so the highest of the two is kept.
+     */
     public void add(ChannelStats stats) {
-        dataRouted += stats.getDataRouted();
-        dataUnRouted += stats.getDataUnRouted();
-        dataExtracted += stats.getDataExtracted();
-        dataBytesExtracted += stats.getDataBytesExtracted();
-        dataExtractedErrors += stats.getDataExtractedErrors();
-        dataEventInserted += stats.getDataEventInserted();
-        dataSent += stats.getDataSent();
-        dataBytesSent += stats.getDataBytesSent();
-        dataSentErrors += stats.getDataSentErrors();
-        dataLoaded += stats.getDataLoaded();
-        dataBytesLoaded += stats.getDataBytesLoaded();
-        dataLoadedErrors += stats.getDataLoadedErrors();
-        dataLoadedOutgoing += stats.getDataLoadedOutgoing();
-        dataBytesLoadedOutgoing += stats.getDataBytesLoadedOutgoing();
-        dataLoadedOutgoingErrors += stats.getDataLoadedOutgoingErrors();
+        dataRouted.add(stats.getDataRouted());
+        dataUnRouted.add(stats.getDataUnRouted());
+        dataExtracted.add(stats.getDataExtracted());
+        dataBytesExtracted.add(stats.getDataBytesExtracted());
+        dataExtractedErrors.add(stats.getDataExtractedErrors());
+        dataEventInserted.add(stats.getDataEventInserted());
+        dataSent.add(stats.getDataSent());
+        dataBytesSent.add(stats.getDataBytesSent());
+        dataSentErrors.add(stats.getDataSentErrors());
+        dataLoaded.add(stats.getDataLoaded());
+        dataBytesLoaded.add(stats.getDataBytesLoaded());
+        dataLoadedErrors.add(stats.getDataLoadedErrors());
+        dataLoadedOutgoing.add(stats.getDataLoadedOutgoing());
+        dataBytesLoadedOutgoing.add(stats.getDataBytesLoadedOutgoing());
+        dataLoadedOutgoingErrors.add(stats.getDataLoadedOutgoingErrors());
+        routerMillisP50 = Math.max(routerMillisP50, stats.getRouterMillisP50());
+        routerMillisP99 = Math.max(routerMillisP99, stats.getRouterMillisP99());
+        routerMillisMax = Math.max(routerMillisMax, stats.getRouterMillisMax());
+        extractMillisP50 = Math.max(extractMillisP50, stats.getExtractMillisP50());
+        extractMillisP99 = Math.max(extractMillisP99, stats.getExtractMillisP99());
+        extractMillisMax = Math.max(extractMillisMax, stats.getExtractMillisMax());
+        networkMillisP50 = Math.max(networkMillisP50, stats.getNetworkMillisP50());
+        networkMillisP99 = Math.max(networkMillisP99, stats.getNetworkMillisP99());
+        networkMillisMax = Math.max(networkMillisMax, stats.getNetworkMillisMax());
+        loadMillisP50 = Math.max(loadMillisP50, stats.getLoadMillisP50());
+        loadMillisP99 = Math.max(loadMillisP99, stats.getLoadMillisP99());
+        loadMillisMax = Math.max(loadMillisMax, stats.getLoadMillisMax());
+    }
+
+    /**
+     * Move the counts into a new stats object for the period ending at the given time and start a new period. A count added while the
+     * snapshot is taken goes into either the snapshot or the new period, so nothing is lost.
+     */
+    public ChannelStats snapshotAndReset(Date endTime) {
+        ChannelStats snapshot = new ChannelStats(getNodeId(), getHostName(), getStartTime(), endTime, channelId);
+        snapshot.dataRouted.add(dataRouted.sumThenReset());
+        snapshot.dataUnRouted.add(dataUnRouted.sumThenReset());
+        snapshot.dataExtracted.add(dataExtracted.sumThenReset());
+        snapshot.dataBytesExtracted.add(dataBytesExtracted.sumThenReset());
+        snapshot.dataExtractedErrors.add(dataExtractedErrors.sumThenReset());
+        snapshot.dataEventInserted.add(dataEventInserted.sumThenReset());
+        snapshot.dataSent.add(dataSent.sumThenReset());
+        snapshot.dataBytesSent.add(dataBytesSent.sumThenReset());
+        snapshot.dataSentErrors.add(dataSentErrors.sumThenReset());
+        snapshot.dataLoaded.add(dataLoaded.sumThenReset());
+        snapshot.dataBytesLoaded.add(dataBytesLoaded.sumThenReset());
+        snapshot.dataLoadedErrors.add(dataLoadedErrors.sumThenReset());
+        snapshot.dataLoadedOutgoing.add(dataLoadedOutgoing.sumThenReset());
+        snapshot.dataBytesLoadedOutgoing.add(dataBytesLoadedOutgoing.sumThenReset());
+        snapshot.dataLoadedOutgoingErrors.add(dataLoadedOutgoingErrors.sumThenReset());
+        setStartTime(endTime);
+        return snapshot;
     }
 
     public boolean isNonZero() {
-        return dataRouted > 0 || dataUnRouted > 0 || dataExtracted > 0 || dataBytesExtracted > 0 || dataExtractedErrors > 0 || dataEventInserted > 0
-                || dataSent > 0 || dataBytesSent > 0 || dataSentErrors > 0 || dataLoaded > 0 || dataBytesLoaded > 0 || dataLoadedErrors > 0
-                || dataLoadedOutgoing > 0 || dataBytesLoadedOutgoing > 0 || dataLoadedOutgoingErrors > 0;
+        return getDataRouted() > 0 || getDataUnRouted() > 0 || getDataExtracted() > 0 || getDataBytesExtracted() > 0 || getDataExtractedErrors() > 0
+                || getDataEventInserted() > 0 || getDataSent() > 0 || getDataBytesSent() > 0 || getDataSentErrors() > 0 || getDataLoaded() > 0
+                || getDataBytesLoaded() > 0 || getDataLoadedErrors() > 0 || getDataLoadedOutgoing() > 0 || getDataBytesLoadedOutgoing() > 0
+                || getDataLoadedOutgoingErrors() > 0 || routerMillisMax > 0 || extractMillisMax > 0 || networkMillisMax > 0 || loadMillisMax > 0;
     }
 
     public String getChannelId() {
@@ -82,182 +139,293 @@ public class ChannelStats extends AbstractNodeHostStats {
     }
 
     public long getDataRouted() {
-        return dataRouted;
+        return dataRouted.sum();
     }
 
     public void setDataRouted(long dataRouted) {
-        this.dataRouted = dataRouted;
+        this.dataRouted.reset();
+        this.dataRouted.add(dataRouted);
     }
 
     public void incrementDataRouted(long count) {
-        this.dataRouted += count;
+        this.dataRouted.add(count);
     }
 
     public long getDataUnRouted() {
-        return dataUnRouted;
+        return dataUnRouted.sum();
     }
 
     public void setDataUnRouted(long dataUnRouted) {
-        this.dataUnRouted = dataUnRouted;
+        this.dataUnRouted.reset();
+        this.dataUnRouted.add(dataUnRouted);
     }
 
     public void incrementDataUnRouted(long count) {
-        this.dataUnRouted += count;
+        this.dataUnRouted.add(count);
+    }
+
+    public long getDataExtracted() {
+        return dataExtracted.sum();
+    }
+
+    public void setDataExtracted(long dataExtracted) {
+        this.dataExtracted.reset();
+        this.dataExtracted.add(dataExtracted);
+    }
+
+    public void incrementDataExtracted(long count) {
+        this.dataExtracted.add(count);
     }
 
     public long getDataBytesExtracted() {
-        return dataBytesExtracted;
+        return dataBytesExtracted.sum();
     }
 
-    public void setDataBytesExtracted(long dataExtracted) {
-        this.dataBytesExtracted = dataExtracted;
+    public void setDataBytesExtracted(long dataBytesExtracted) {
+        this.dataBytesExtracted.reset();
+        this.dataBytesExtracted.add(dataBytesExtracted);
     }
 
     public void incrementDataBytesExtracted(long count) {
-        this.dataBytesExtracted += count;
+        this.dataBytesExtracted.add(count);
     }
 
     public long getDataExtractedErrors() {
-        return dataExtractedErrors;
+        return dataExtractedErrors.sum();
     }
 
     public void setDataExtractedErrors(long dataExtractedErrors) {
-        this.dataExtractedErrors = dataExtractedErrors;
+        this.dataExtractedErrors.reset();
+        this.dataExtractedErrors.add(dataExtractedErrors);
     }
 
     public void incrementDataExtractedErrors(long count) {
-        this.dataExtractedErrors += count;
+        this.dataExtractedErrors.add(count);
     }
 
     public long getDataEventInserted() {
-        return dataEventInserted;
+        return dataEventInserted.sum();
     }
 
     public void setDataEventInserted(long dataEventInserted) {
-        this.dataEventInserted = dataEventInserted;
+        this.dataEventInserted.reset();
+        this.dataEventInserted.add(dataEventInserted);
     }
 
     public void incrementDataEventInserted(long count) {
-        this.dataEventInserted += count;
+        this.dataEventInserted.add(count);
+    }
+
+    public long getDataSent() {
+        return dataSent.sum();
+    }
+
+    public void setDataSent(long dataSent) {
+        this.dataSent.reset();
+        this.dataSent.add(dataSent);
+    }
+
+    public void incrementDataSent(long count) {
+        this.dataSent.add(count);
     }
 
     public long getDataBytesSent() {
-        return dataBytesSent;
+        return dataBytesSent.sum();
     }
 
-    public void setDataBytesSent(long dataTransmitted) {
-        this.dataBytesSent = dataTransmitted;
+    public void setDataBytesSent(long dataBytesSent) {
+        this.dataBytesSent.reset();
+        this.dataBytesSent.add(dataBytesSent);
     }
 
     public void incrementDataBytesSent(long count) {
-        this.dataBytesSent += count;
+        this.dataBytesSent.add(count);
     }
 
-    public void setDataSentErrors(long dataTransmittedErrors) {
-        this.dataSentErrors = dataTransmittedErrors;
+    public long getDataSentErrors() {
+        return dataSentErrors.sum();
     }
 
-    public long getDataSentErrors() {
-        return dataSentErrors;
+    public void setDataSentErrors(long dataSentErrors) {
+        this.dataSentErrors.reset();
+        this.dataSentErrors.add(dataSentErrors);
     }
 
     public void incrementDataSentErrors(long count) {
-        this.dataSentErrors += count;
+        this.dataSentErrors.add(count);
+    }
+
+    public long getDataLoaded() {
+        return dataLoaded.sum();
+    }
+
+    public void setDataLoaded(long dataLoaded) {
+        this.dataLoaded.reset();
+        this.dataLoaded.add(dataLoaded);
+    }
+
+    public void incrementDataLoaded(long count) {
+        this.dataLoaded.add(count);
     }
 
     public long getDataBytesLoaded() {
-        return dataBytesLoaded;
+        return dataBytesLoaded.sum();
     }
 
-    public void setDataBytesLoaded(long dataLoaded) {
-        this.dataBytesLoaded = dataLoaded;
+    public void setDataBytesLoaded(long dataBytesLoaded) {
+        this.dataBytesLoaded.reset();
+        this.dataBytesLoaded.add(dataBytesLoaded);
     }
 
     public void incrementDataBytesLoaded(long count) {
-        this.dataBytesLoaded += count;
+        this.dataBytesLoaded.add(count);
     }
 
     public long getDataLoadedErrors() {
-        return dataLoadedErrors;
+        return dataLoadedErrors.sum();
     }
 
     public void setDataLoadedErrors(long dataLoadedErrors) {
-        this.dataLoadedErrors = dataLoadedErrors;
+        this.dataLoadedErrors.reset();
+        this.dataLoadedErrors.add(dataLoadedErrors);
     }
 
     public void incrementDataLoadedErrors(long count) {
-        this.dataLoadedErrors += count;
+        this.dataLoadedErrors.add(count);
     }
 
-    public void setDataExtracted(long dataExtracted) {
-        this.dataExtracted = dataExtracted;
+    public long getDataLoadedOutgoing() {
+        return dataLoadedOutgoing.sum();
     }
 
-    public long getDataExtracted() {
-        return dataExtracted;
+    public void setDataLoadedOutgoing(long dataLoadedOutgoing) {
+        this.dataLoadedOutgoing.reset();
+        this.dataLoadedOutgoing.add(dataLoadedOutgoing);
     }
 
-    public void incrementDataExtracted(long count) {
-        this.dataExtracted += count;
+    public void incrementDataLoadedOutgoing(long count) {
+        this.dataLoadedOutgoing.add(count);
     }
 
-    public void setDataLoaded(long dataLoaded) {
-        this.dataLoaded = dataLoaded;
+    public long getDataBytesLoadedOutgoing() {
+        return dataBytesLoadedOutgoing.sum();
     }
 
-    public long getDataLoaded() {
-        return dataLoaded;
+    public void setDataBytesLoadedOutgoing(long dataBytesLoadedOutgoing) {
+        this.dataBytesLoadedOutgoing.reset();
+        this.dataBytesLoadedOutgoing.add(dataBytesLoadedOutgoing);
     }
 
-    public void incrementDataLoaded(long count) {
-        this.dataLoaded += count;
+    public void incrementDataBytesLoadedOutgoing(long count) {
+        this.dataBytesLoadedOutgoing.add(count);
     }
 
-    public void setDataSent(long dataTransmitted) {
-        this.dataSent = dataTransmitted;
+    public long getDataLoadedOutgoingErrors() {
+        return dataLoadedOutgoingErrors.sum();
     }
 
-    public long getDataSent() {
-        return dataSent;
+    public void setDataLoadedOutgoingErrors(long dataLoadedOutgoingErrors) {
+        this.dataLoadedOutgoingErrors.reset();
+        this.dataLoadedOutgoingErrors.add(dataLoadedOutgoingErrors);
     }
 
-    public void incrementDataSent(long count) {
-        this.dataSent += count;
+    public void incrementDataLoadedOutgoingErrors(long count) {
+        this.dataLoadedOutgoingErrors.add(count);
     }
 
-    public long getDataLoadedOutgoing() {
-        return dataLoadedOutgoing;
+    public long getRouterMillisP50() {
+        return routerMillisP50;
     }
 
-    public void setDataLoadedOutgoing(long dataLoadedOutgoing) {
-        this.dataLoadedOutgoing = dataLoadedOutgoing;
+    public void setRouterMillisP50(long routerMillisP50) {
+        this.routerMillisP50 = routerMillisP50;
     }
 
-    public void incrementDataLoadedOutgoing(long dataLoadedOutgoing) {
-        this.dataLoadedOutgoing += dataLoadedOutgoing;
+    public long getRouterMillisP99() {
+        return routerMillisP99;
     }
 
-    public long getDataBytesLoadedOutgoing() {
-        return dataBytesLoadedOutgoing;
+    public void setRouterMillisP99(long routerMillisP99) {
+        this.routerMillisP99 = routerMillisP99;
     }
 
-    public void setDataBytesLoadedOutgoing(long dataBytesLoadedOutgoing) {
-        this.dataBytesLoadedOutgoing = dataBytesLoadedOutgoing;
+    public long getRouterMillisMax() {
+        return routerMillisMax;
     }
 
-    public void incrementDataBytesLoadedOutgoing(long dataBytesLoadedOutgoing) {
-        this.dataBytesLoadedOutgoing += dataBytesLoadedOutgoing;
+    public void setRouterMillisMax(long routerMillisMax) {
+        this.routerMillisMax = routerMillisMax;
     }
 
-    public long getDataLoadedOutgoingErrors() {
-        return dataLoadedOutgoingErrors;
+    public long getExtractMillisP50() {
+        return extractMillisP50;
     }
 
-    public void setDataLoadedOutgoingErrors(long dataLoadedOutgoingErrors) {
-        this.dataLoadedOutgoingErrors = dataLoadedOutgoingErrors;
+    public void setExtractMillisP50(long extractMillisP50) {
+        this.extractMillisP50 = extractMillisP50;
+    }
+
+    public long getExtractMillisP99() {
+        return extractMillisP99;
+    }
+
+    public void setExtractMillisP99(long extractMillisP99) {
+        this.extractMillisP99 = extractMillisP99;
+    }
+
+    public long getExtractMillisMax() {
+        return extractMillisMax;
+    }
+
+    public void setExtractMillisMax(long extractMillisMax) {
+        this.extractMillisMax = extractMillisMax;
+    }
+
+    public long getNetworkMillisP50() {
+        return networkMillisP50;
+    }
+
+    public void setNetworkMillisP50(long networkMillisP50) {
+        this.networkMillisP50 = networkMillisP50;
+    }
+
+    public long getNetworkMillisP99() {
+        return networkMillisP99;
+    }
+
+    public void setNetworkMillisP99(long networkMillisP99) {
+        this.networkMillisP99 = networkMillisP99;
+    }
+
+    public long getNetworkMillisMax() {
+        return networkMillisMax;
+    }
+
+    public void setNetworkMillisMax(long networkMillisMax) {
+        this.networkMillisMax = networkMillisMax;
+    }
+
+    public long getLoadMillisP50() {
+        return loadMillisP50;
+    }
+
+    public void setLoadMillisP50(long loadMillisP50) {
+        this.loadMillisP50 = loadMillisP50;
+    }
+
+    public long getLoadMillisP99() {
+        return loadMillisP99;
+    }
+
+    public void setLoadMillisP99(long loadMillisP99) {
+        this.loadMillisP99 = loadMillisP99;
+    }
+
+    public long getLoadMillisMax() {
+        return loadMillisMax;
     }
 
-    public void incrementDataLoadedOutgoingErrors(long dataLoadedOutgoingErrors) {
-        this.dataLoadedOutgoingErrors += dataLoadedOutgoingErrors;
+    public void setLoadMillisMax(long loadMillisMax) {
+        this.loadMillisMax = loadMillisMax;
     }
-}
\ No newline at end of file
+}
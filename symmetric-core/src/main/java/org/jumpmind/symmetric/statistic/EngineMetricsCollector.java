@@ -0,0 +1,218 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.statistic;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jumpmind.db.platform.IDatabasePlatform;
+import org.jumpmind.db.platform.TableModelCache;
+import org.jumpmind.symmetric.ISymmetricEngine;
+import org.jumpmind.symmetric.Version;
+import org.jumpmind.symmetric.io.stage.IStagingManager;
+import org.jumpmind.symmetric.io.stage.StagingManager;
+import org.jumpmind.symmetric.model.NodeCommunication.CommunicationType;
+import org.jumpmind.symmetric.model.OutgoingBatch;
+import org.jumpmind.symmetric.model.OutgoingBatchSummary;
+import org.jumpmind.symmetric.model.ProcessInfo;
+import org.jumpmind.symmetric.service.INodeCommunicationService;
+
+/**
+ * Fills a {@link MetricRegistry} with the internals of an engine: the rows and latencies for each channel, running processes, staging usage,
+ * communication thread pools and the backlog of outgoing batches for each node. Channel counts come from the statistic manager in memory, while
+ * the backlog of batches is queried from the database on each collection.
+ */
+public class EngineMetricsCollector {
+    protected ISymmetricEngine engine;
+
+    public EngineMetricsCollector(ISymmetricEngine engine) {
+        this.engine = engine;
+    }
+
+    public void collect(MetricRegistry registry) {
+        collectInfo(registry);
+        collectChannelStats(registry);
+        collectProcesses(registry);
+        collectStaging(registry);
+        collectCommunicationThreads(registry);
+        collectTableCache(registry);
+        collectBatchBacklog(registry);
+    }
+
+    protected void collectInfo(MetricRegistry registry) {
+        registry.gauge("symmetric_info", "Information about the engine");
+        registry.add("symmetric_info", 1, "engine", engine.getEngineName(), "node_id", String.valueOf(engine.getNodeId()),
+                "version", Version.version());
+        registry.gauge("symmetric_engine_started", "Whether the engine is started");
+        registry.add("symmetric_engine_started", engine.isStarted() ? 1 : 0);
+    }
+
+    protected void collectChannelStats(MetricRegistry registry) {
+        IStatisticManager statisticManager = engine.getStatisticManager();
+        registry.counter("symmetric_channel_rows_routed", "Rows routed to batches on the channel");
+        registry.counter("symmetric_channel_rows_extracted", "Rows extracted on the channel");
+        registry.counter("symmetric_channel_bytes_extracted", "Bytes extracted on the channel");
+        registry.counter("symmetric_channel_extract_errors", "Errors while extracting on the channel");
+        registry.counter("symmetric_channel_rows_sent", "Rows sent on the channel");
+        registry.counter("symmetric_channel_bytes_sent", "Bytes sent on the channel");
+        registry.counter("symmetric_channel_send_errors", "Errors while sending on the channel");
+        registry.counter("symmetric_channel_rows_loaded", "Rows loaded into this node on the channel");
+        registry.counter("symmetric_channel_bytes_loaded", "Bytes loaded into this node on the channel");
+        registry.counter("symmetric_channel_load_errors", "Errors while loading into this node on the channel");
+        registry.counter("symmetric_channel_rows_loaded_outgoing", "Rows acknowledged as loaded by other nodes on the channel");
+        Map<String, ChannelStats> totals = statisticManager.getTotalChannelStats();
+        if (totals != null) {
+            for (ChannelStats stats : totals.values()) {
+                String channelId = stats.getChannelId();
+                registry.add("symmetric_channel_rows_routed", stats.getDataRouted(), "channel", channelId);
+                registry.add("symmetric_channel_rows_extracted", stats.getDataExtracted(), "channel", channelId);
+                registry.add("symmetric_channel_bytes_extracted", stats.getDataBytesExtracted(), "channel", channelId);
+                registry.add("symmetric_channel_extract_errors", stats.getDataExtractedErrors(), "channel", channelId);
+                registry.add("symmetric_channel_rows_sent", stats.getDataSent(), "channel", channelId);
+                registry.add("symmetric_channel_bytes_sent", stats.getDataBytesSent(), "channel", channelId);
+                registry.add("symmetric_channel_send_errors", stats.getDataSentErrors(), "channel", channelId);
+                registry.add("symmetric_channel_rows_loaded", stats.getDataLoaded(), "channel", channelId);
+                registry.add("symmetric_channel_bytes_loaded", stats.getDataBytesLoaded(), "channel", channelId);
+                registry.add("symmetric_channel_load_errors", stats.getDataLoadedErrors(), "channel", channelId);
+                registry.add("symmetric_channel_rows_loaded_outgoing", stats.getDataLoadedOutgoing(), "channel", channelId);
+            }
+        }
+        registry.gauge("symmetric_channel_rows_unrouted", "Rows captured on the channel that are waiting to be routed");
+        registry.summary("symmetric_channel_batch_latency_milliseconds",
+                "Milliseconds spent on each step of delivering a batch on the channel during the current statistics period");
+        registry.gauge("symmetric_channel_batch_latency_max_milliseconds",
+                "Most milliseconds spent on each step of delivering a batch on the channel during the current statistics period");
+        Map<String, ChannelStats> working = statisticManager.getWorkingChannelStats();
+        if (working != null) {
+            for (ChannelStats stats : working.values()) {
+                String channelId = stats.getChannelId();
+                registry.add("symmetric_channel_rows_unrouted", stats.getDataUnRouted(), "channel", channelId);
+                addLatency(registry, channelId, "route", stats.getRouterMillisP50(), stats.getRouterMillisP99(), stats.getRouterMillisMax());
+                addLatency(registry, channelId, "extract", stats.getExtractMillisP50(), stats.getExtractMillisP99(), stats.getExtractMillisMax());
+                addLatency(registry, channelId, "transfer", stats.getNetworkMillisP50(), stats.getNetworkMillisP99(), stats.getNetworkMillisMax());
+                addLatency(registry, channelId, "load", stats.getLoadMillisP50(), stats.getLoadMillisP99(), stats.getLoadMillisMax());
+            }
+        }
+    }
+
+    protected void addLatency(MetricRegistry registry, String channelId, String step, long p50, long p99, long max) {
+        registry.add("symmetric_channel_batch_latency_milliseconds", p50, "channel", channelId, "step", step, "quantile", "0.5");
+        registry.add("symmetric_channel_batch_latency_milliseconds", p99, "channel", channelId, "step", step, "quantile", "0.99");
+        registry.add("symmetric_channel_batch_latency_max_milliseconds", max, "channel", channelId, "step", step);
+    }
+
+    protected void collectProcesses(MetricRegistry registry) {
+        registry.gauge("symmetric_processes", "Processes known to the engine by type and status");
+        registry.gauge("symmetric_process_rows", "Rows processed so far by the processes that are running");
+        Map<String, long[]> countsByTypeAndStatus = new HashMap<String, long[]>();
+        for (ProcessInfo processInfo : engine.getStatisticManager().getProcessInfos()) {
+            String key = processInfo.getProcessType().name() + "\t" + processInfo.getStatus().name();
+            long[] counts = countsByTypeAndStatus.get(key);
+            if (counts == null) {
+                counts = new long[2];
+                countsByTypeAndStatus.put(key, counts);
+            }
+            counts[0]++;
+            counts[1] += processInfo.getCurrentDataCount();
+        }
+        for (Map.Entry<String, long[]> entry : countsByTypeAndStatus.entrySet()) {
+            String[] typeAndStatus = entry.getKey().split("\t");
+            registry.add("symmetric_processes", entry.getValue()[0], "type", typeAndStatus[0], "status", typeAndStatus[1]);
+            registry.add("symmetric_process_rows", entry.getValue()[1], "type", typeAndStatus[0], "status", typeAndStatus[1]);
+        }
+    }
+
+    protected void collectStaging(MetricRegistry registry) {
+        IStagingManager stagingManager = engine.getStagingManager();
+        if (stagingManager == null) {
+            return;
+        }
+        File directory = stagingManager.getStagingDirectory();
+        if (directory != null) {
+            registry.gauge("symmetric_staging_free_bytes", "Bytes available on the file system of the staging directory");
+            registry.add("symmetric_staging_free_bytes", directory.getUsableSpace());
+        }
+        if (stagingManager instanceof StagingManager) {
+            registry.gauge("symmetric_staging_resources", "Batches held in staging as of the last time it was cleaned or written");
+            registry.add("symmetric_staging_resources", ((StagingManager) stagingManager).getResourceCount());
+            registry.gauge("symmetric_staging_memory_bytes", "Bytes of staged batches held in memory");
+            registry.add("symmetric_staging_memory_bytes", ((StagingManager) stagingManager).getInUseMemoryBytes());
+        }
+    }
+
+    protected void collectCommunicationThreads(MetricRegistry registry) {
+        INodeCommunicationService nodeCommunicationService = engine.getNodeCommunicationService();
+        registry.gauge("symmetric_communication_threads_active", "Threads busy communicating with other nodes");
+        registry.gauge("symmetric_communication_threads_max", "Size of the thread pool for communicating with other nodes");
+        for (CommunicationType type : CommunicationType.values()) {
+            int maxThreads = nodeCommunicationService.getMaxThreads(type);
+            if (maxThreads > 0) {
+                String name = type.name().toLowerCase();
+                registry.add("symmetric_communication_threads_active", nodeCommunicationService.getActiveThreads(type), "type", name);
+                registry.add("symmetric_communication_threads_max", maxThreads, "type", name);
+            }
+        }
+    }
+
+    protected void collectTableCache(MetricRegistry registry) {
+        IDatabasePlatform platform = engine.getDatabasePlatform();
+        TableModelCache cache = platform != null ? platform.getTableModelCache() : null;
+        if (cache == null) {
+            return;
+        }
+        registry.gauge("symmetric_table_cache_size", "Table models held in the table cache");
+        registry.add("symmetric_table_cache_size", cache.size());
+        registry.counter("symmetric_table_cache_hits", "Table lookups answered from the table cache");
+        registry.add("symmetric_table_cache_hits", cache.getHits());
+        registry.counter("symmetric_table_cache_misses", "Table lookups that had to read the table from the database");
+        registry.add("symmetric_table_cache_misses", cache.getMisses());
+        registry.counter("symmetric_table_cache_loads", "Tables read from the database into the table cache");
+        registry.add("symmetric_table_cache_loads", cache.getLoads());
+        registry.counter("symmetric_table_cache_load_milliseconds", "Time spent reading tables from the database into the table cache");
+        registry.add("symmetric_table_cache_load_milliseconds", cache.getLoadTimeMs());
+        registry.counter("symmetric_table_cache_refreshes", "Stale tables refreshed in the background");
+        registry.add("symmetric_table_cache_refreshes", cache.getRefreshes());
+        registry.counter("symmetric_table_cache_invalidations", "Invalidations of the table cache after DDL or trigger sync");
+        registry.add("symmetric_table_cache_invalidations", cache.getInvalidations());
+    }
+
+    protected void collectBatchBacklog(MetricRegistry registry) {
+        registry.gauge("symmetric_outgoing_batches", "Outgoing batches that have not been loaded by the target node");
+        registry.gauge("symmetric_outgoing_rows", "Rows in outgoing batches that have not been loaded by the target node");
+        registry.gauge("symmetric_outgoing_oldest_batch_age_seconds", "Age of the oldest outgoing batch that has not been loaded by the target node");
+        long now = System.currentTimeMillis();
+        List<OutgoingBatchSummary> summaries = engine.getOutgoingBatchService().findOutgoingBatchSummary(OutgoingBatch.Status.RQ,
+                OutgoingBatch.Status.QY, OutgoingBatch.Status.NE, OutgoingBatch.Status.SE, OutgoingBatch.Status.LD, OutgoingBatch.Status.ER);
+        for (OutgoingBatchSummary summary : summaries) {
+            String[] labels = new String[] { "node_id", summary.getNodeId(), "status", summary.getStatus().name() };
+            registry.add("symmetric_outgoing_batches", summary.getBatchCount(), labels);
+            registry.add("symmetric_outgoing_rows", summary.getDataCount(), labels);
+            if (summary.getOldestBatchCreateTime() != null) {
+                registry.add("symmetric_outgoing_oldest_batch_age_seconds", Math.max(0, now - summary.getOldestBatchCreateTime().getTime()) / 1000,
+                        labels);
+            }
+        }
+        registry.gauge("symmetric_incoming_batches_in_error", "Incoming batches that failed to load");
+        registry.add("symmetric_incoming_batches_in_error", engine.getIncomingBatchService().countIncomingBatchesInError());
+    }
+}
@@ -89,6 +89,14 @@ public interface IStatisticManager {
 
     public void incrementDataSentErrors(String channelId, long count);
 
+    public void recordRouterMillis(String channelId, long millis);
+
+    public void recordExtractMillis(String channelId, long millis);
+
+    public void recordNetworkMillis(String channelId, long millis);
+
+    public void recordLoadMillis(String channelId, long millis);
+
     public void incrementRestart();
 
     public void incrementNodesPulled(long count);
@@ -125,6 +133,11 @@ public interface IStatisticManager {
 
     public Map<String, ChannelStats> getWorkingChannelStats();
 
+    /**
+     * Get the channel counts since the engine started, which only ever increase, for monitoring rates over time.
+     */
+    public Map<String, ChannelStats> getTotalChannelStats();
+
     public List<JobStats> getWorkingJobStats();
 
     public HostStats getWorkingHostStats();
@@ -0,0 +1,123 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.statistic;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of latencies in the style of an HDR histogram. Values are counted in buckets that grow exponentially with 16 linear
+ * sub-buckets each, so any value is recorded within about 6% of its actual value with a fixed amount of memory. Recording only touches
+ * atomic counters, so many threads can record at the same time without contending on a lock.
+ */
+public class LatencyHistogram {
+    protected static final int SUB_BUCKET_BITS = 4;
+    protected static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    protected static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+    protected AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    protected LongAdder count = new LongAdder();
+    protected LongAdder total = new LongAdder();
+    protected LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(getBucketIndex(value));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the value that the given percentage of recorded values are less than or equal to, which is reported as the highest value
+     * in its bucket and never more than the maximum recorded value.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long totalCount = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            totalCount += snapshot[i];
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        long countAtPercentile = Math.max(1, (long) Math.ceil(Math.min(100d, percentile) / 100d * totalCount));
+        long runningCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            runningCount += snapshot[i];
+            if (runningCount >= countAtPercentile) {
+                return Math.min(getHighestValueInBucket(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Move the recorded values into a new histogram and reset this one. A value recorded while the snapshot is taken is counted in
+     * either the snapshot or this histogram, so nothing is lost between periods.
+     */
+    public LatencyHistogram snapshotAndReset() {
+        LatencyHistogram snapshot = new LatencyHistogram();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucketCount = counts.getAndSet(i, 0);
+            if (bucketCount > 0) {
+                snapshot.counts.set(i, bucketCount);
+            }
+        }
+        snapshot.count.add(count.sumThenReset());
+        snapshot.total.add(total.sumThenReset());
+        snapshot.max.accumulate(max.getThenReset());
+        return snapshot;
+    }
+
+    protected static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    protected static long getHighestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.statistic;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects metric samples and writes them in the OpenMetrics text format, so they can be scraped by Prometheus or a compatible monitoring system.
+ * Each metric is declared once with its type and help text, then samples are added with alternating label names and values.
+ */
+public class MetricRegistry {
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    public enum MetricType {
+        COUNTER, GAUGE, SUMMARY
+    };
+
+    protected Map<String, Metric> metrics = new LinkedHashMap<String, Metric>();
+
+    public MetricRegistry counter(String name, String help) {
+        return declare(name, MetricType.COUNTER, help);
+    }
+
+    public MetricRegistry gauge(String name, String help) {
+        return declare(name, MetricType.GAUGE, help);
+    }
+
+    public MetricRegistry summary(String name, String help) {
+        return declare(name, MetricType.SUMMARY, help);
+    }
+
+    protected MetricRegistry declare(String name, MetricType type, String help) {
+        if (!metrics.containsKey(name)) {
+            metrics.put(name, new Metric(name, type, help));
+        }
+        return this;
+    }
+
+    /**
+     * Add a sample to a declared metric. Counters are written with the _total suffix that OpenMetrics requires.
+     */
+    public MetricRegistry add(String name, double value, String... labels) {
+        Metric metric = metrics.get(name);
+        if (metric == null) {
+            throw new IllegalArgumentException("The metric " + name + " has not been declared");
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("The labels for metric " + name + " must be name and value pairs");
+        }
+        metric.samples.add(new Sample(value, labels));
+        return this;
+    }
+
+    public void write(Writer writer) throws IOException {
+        for (Metric metric : metrics.values()) {
+            writer.write("# TYPE " + metric.name + " " + metric.type.name().toLowerCase() + "\n");
+            writer.write("# HELP " + metric.name + " " + escape(metric.help) + "\n");
+            String sampleName = metric.type == MetricType.COUNTER ? metric.name + "_total" : metric.name;
+            for (Sample sample : metric.samples) {
+                writer.write(sampleName);
+                if (sample.labels.length > 0) {
+                    writer.write("{");
+                    for (int i = 0; i < sample.labels.length; i += 2) {
+                        if (i > 0) {
+                            writer.write(",");
+                        }
+                        writer.write(sample.labels[i] + "=\"" + escape(sample.labels[i + 1]) + "\"");
+                    }
+                    writer.write("}");
+                }
+                writer.write(" " + format(sample.value) + "\n");
+            }
+        }
+        writer.write("# EOF\n");
+        writer.flush();
+    }
+
+    protected static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    protected static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        } else if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    static class Metric {
+        String name;
+        MetricType type;
+        String help;
+        List<Sample> samples = new ArrayList<Sample>();
+
+        Metric(String name, MetricType type, String help) {
+            this.name = name;
+            this.type = type;
+            this.help = help;
+        }
+    }
+
+    static class Sample {
+        double value;
+        String[] labels;
+
+        Sample(double value, String[] labels) {
+            this.value = value;
+            this.labels = labels;
+        }
+    }
+}
@@ -60,6 +60,8 @@ public class StatisticManager implements IStatisticManager {
     private static final String UNKNOWN = "Unknown";
     private static final int NUMBER_OF_PERMITS = 1000;
     private Map<String, ChannelStats> channelStats = new ConcurrentHashMap<String, ChannelStats>();
+    private Map<String, ChannelLatencyStats> channelLatencyStats = new ConcurrentHashMap<String, ChannelLatencyStats>();
+    private Map<String, ChannelStats> totalChannelStats = new HashMap<String, ChannelStats>();
     private List<JobStats> jobStats = new ArrayList<JobStats>();
     private HostStats hostStats;
     private ConcurrentHashMap<Long, RouterStats> routerStatsByBatch = new ConcurrentHashMap<Long, RouterStats>();
@@ -68,7 +70,6 @@ public class StatisticManager implements IStatisticManager {
     protected IParameterService parameterService;
     protected IConfigurationService configurationService;
     protected IClusterService clusterService;
-    protected Semaphore channelStatsLock = new Semaphore(NUMBER_OF_PERMITS, true);
     protected Semaphore hostStatsLock = new Semaphore(NUMBER_OF_PERMITS, true);
     protected Semaphore jobStatsLock = new Semaphore(NUMBER_OF_PERMITS, true);
     protected Semaphore tableStatsLock = new Semaphore(NUMBER_OF_PERMITS, true);
@@ -198,138 +199,79 @@ public class StatisticManager implements IStatisticManager {
     }
 
     public void incrementDataRouted(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataRouted(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataRouted(count);
     }
 
     public void setDataUnRouted(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).setDataUnRouted(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).setDataUnRouted(count);
     }
 
     public void incrementDataExtracted(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataExtracted(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataExtracted(count);
     }
 
     public void incrementDataBytesExtracted(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataBytesExtracted(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataBytesExtracted(count);
     }
 
     public void incrementDataExtractedErrors(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataExtractedErrors(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataExtractedErrors(count);
     }
 
     public void incrementDataEventInserted(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataEventInserted(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataEventInserted(count);
     }
 
     public void incrementDataSent(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataSent(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataSent(count);
     }
 
     public void incrementDataBytesSent(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataBytesSent(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataBytesSent(count);
     }
 
     public void incrementDataSentErrors(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataSentErrors(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataSentErrors(count);
     }
 
     public void incrementDataLoaded(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataLoaded(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataLoaded(count);
     }
 
     public void incrementDataBytesLoaded(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataBytesLoaded(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataBytesLoaded(count);
     }
 
     public void incrementDataLoadedErrors(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataLoadedErrors(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataLoadedErrors(count);
     }
 
     public void incrementDataLoadedOutgoing(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataLoadedOutgoing(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataLoadedOutgoing(count);
     }
 
     public void incrementDataBytesLoadedOutgoing(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataBytesLoadedOutgoing(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataBytesLoadedOutgoing(count);
     }
 
     public void incrementDataLoadedOutgoingErrors(String channelId, long count) {
-        channelStatsLock.acquireUninterruptibly();
-        try {
-            getChannelStats(channelId).incrementDataLoadedOutgoingErrors(count);
-        } finally {
-            channelStatsLock.release();
-        }
+        getChannelStats(channelId).incrementDataLoadedOutgoingErrors(count);
+    }
+
+    public void recordRouterMillis(String channelId, long millis) {
+        getChannelLatencyStats(channelId).recordRouterMillis(millis);
+    }
+
+    public void recordExtractMillis(String channelId, long millis) {
+        getChannelLatencyStats(channelId).recordExtractMillis(millis);
+    }
+
+    public void recordNetworkMillis(String channelId, long millis) {
+        getChannelLatencyStats(channelId).recordNetworkMillis(millis);
+    }
+
+    public void recordLoadMillis(String channelId, long millis) {
+        getChannelLatencyStats(channelId).recordLoadMillis(millis);
     }
 
     public void incrementRestart() {
@@ -487,30 +429,37 @@ public class StatisticManager implements IStatisticManager {
         boolean recordStatistics = parameterService.is(ParameterConstants.STATISTIC_RECORD_ENABLE,
                 false);
         long recordStatisticsCountThreshold = parameterService.getLong(ParameterConstants.STATISTIC_RECORD_COUNT_THRESHOLD, -1);
-        if (channelStats != null) {
-            channelStatsLock.acquireUninterruptibly(NUMBER_OF_PERMITS);
-            try {
-                if (recordStatistics) {
-                    Date endTime = new Date();
-                    for (ChannelStats stats : channelStats.values()) {
-                        if (stats.getNodeId().equals(UNKNOWN)) {
-                            Node node = nodeService.getCachedIdentity();
-                            if (node != null) {
-                                stats.setNodeId(node.getNodeId());
-                            }
-                        }
-                        stats.setEndTime(endTime);
-                        saveAdditionalStats(endTime, stats);
-                        if (stats.isNonZero()) {
-                            statisticService.save(stats);
-                        }
+        Date endTime = new Date();
+        for (ChannelStats stats : channelStats.values()) {
+            ChannelStats snapshot = null;
+            synchronized (totalChannelStats) {
+                snapshot = stats.snapshotAndReset(endTime);
+                ChannelStats total = totalChannelStats.get(snapshot.getChannelId());
+                if (total == null) {
+                    total = new ChannelStats(snapshot.getNodeId(), snapshot.getHostName(), snapshot.getStartTime(), null,
+                            snapshot.getChannelId());
+                    totalChannelStats.put(snapshot.getChannelId(), total);
+                }
+                total.add(snapshot);
+            }
+            ChannelLatencyStats latencyStats = channelLatencyStats.get(snapshot.getChannelId());
+            if (latencyStats != null) {
+                latencyStats.copyTo(snapshot, true);
+            }
+            if (recordStatistics) {
+                if (snapshot.getNodeId().equals(UNKNOWN)) {
+                    Node node = nodeService.getCachedIdentity();
+                    if (node != null) {
+                        snapshot.setNodeId(node.getNodeId());
                     }
                 }
-                resetChannelStats(true);
-            } finally {
-                channelStatsLock.release(NUMBER_OF_PERMITS);
+                saveAdditionalStats(endTime, snapshot);
+                if (snapshot.isNonZero()) {
+                    statisticService.save(snapshot);
+                }
             }
         }
+        initChannelStats();
         int rowsLoaded = 0;
         int rowsSent = 0;
         for (Map.Entry<Date, Map<String, ChannelStats>> entry : baseChannelStatsInMemory.entrySet()) {
@@ -585,18 +534,35 @@ public class StatisticManager implements IStatisticManager {
     }
 
     public Map<String, ChannelStats> getWorkingChannelStats() {
-        if (channelStats != null) {
-            HashMap<String, ChannelStats> stats = new HashMap<String, ChannelStats>();
+        HashMap<String, ChannelStats> stats = new HashMap<String, ChannelStats>();
+        for (ChannelStats stat : channelStats.values()) {
+            ChannelStats newStat = new ChannelStats(stat.getNodeId(), stat.getHostName(), stat.getStartTime(),
+                    stat.getEndTime(), stat.getChannelId());
+            newStat.add(stat);
+            ChannelLatencyStats latencyStats = channelLatencyStats.get(stat.getChannelId());
+            if (latencyStats != null) {
+                latencyStats.copyTo(newStat, false);
+            }
+            stats.put(newStat.getChannelId(), newStat);
+        }
+        return stats;
+    }
+
+    public Map<String, ChannelStats> getTotalChannelStats() {
+        HashMap<String, ChannelStats> stats = new HashMap<String, ChannelStats>();
+        synchronized (totalChannelStats) {
             for (ChannelStats stat : channelStats.values()) {
-                ChannelStats newStat = new ChannelStats(stat.getNodeId(), stat.getHostName(), stat.getStartTime(),
-                        stat.getEndTime(), stat.getChannelId());
+                ChannelStats total = totalChannelStats.get(stat.getChannelId());
+                ChannelStats newStat = new ChannelStats(stat.getNodeId(), stat.getHostName(),
+                        total != null ? total.getStartTime() : stat.getStartTime(), new Date(), stat.getChannelId());
+                if (total != null) {
+                    newStat.add(total);
+                }
                 newStat.add(stat);
                 stats.put(newStat.getChannelId(), newStat);
             }
-            return stats;
-        } else {
-            return new HashMap<String, ChannelStats>();
         }
+        return stats;
     }
 
     public List<JobStats> getWorkingJobStats() {
@@ -618,28 +584,19 @@ public class StatisticManager implements IStatisticManager {
         }
     }
 
-    protected void resetChannelStats(boolean force) {
-        if (force) {
-            channelStats = null;
-        }
-        if (channelStats == null) {
-            List<NodeChannel> channels = configurationService.getNodeChannels(false);
-            channelStats = new HashMap<String, ChannelStats>(channels.size());
-            for (NodeChannel nodeChannel : channels) {
-                getChannelStats(nodeChannel.getChannelId());
-            }
+    protected void initChannelStats() {
+        for (NodeChannel nodeChannel : configurationService.getNodeChannels(false)) {
+            getChannelStats(nodeChannel.getChannelId());
         }
     }
 
     protected ChannelStats getChannelStats(String channelId) {
-        resetChannelStats(false);
         ChannelStats stats = channelStats.get(channelId);
         if (stats == null) {
             Node node = nodeService.getCachedIdentity();
             if (node != null) {
-                stats = new ChannelStats(node.getNodeId(), clusterService.getServerId(),
-                        new Date(), null, channelId);
-                channelStats.put(channelId, stats);
+                stats = channelStats.computeIfAbsent(channelId, id -> new ChannelStats(node.getNodeId(), clusterService.getServerId(),
+                        new Date(), null, id));
             } else {
                 stats = new ChannelStats(UNKNOWN, clusterService.getServerId(), new Date(), null,
                         channelId);
@@ -648,6 +605,11 @@ public class StatisticManager implements IStatisticManager {
         return stats;
     }
 
+    protected ChannelLatencyStats getChannelLatencyStats(String channelId) {
+        getChannelStats(channelId);
+        return channelLatencyStats.computeIfAbsent(channelId, id -> new ChannelLatencyStats());
+    }
+
     protected HostStats getHostStats() {
         if (hostStats == null) {
             Node node = nodeService.getCachedIdentity();
@@ -24,7 +24,6 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.charset.Charset;
@@ -33,8 +32,11 @@ import java.util.Map;
 import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.jumpmind.exception.HttpException;
 import org.jumpmind.exception.IoException;
+import org.jumpmind.symmetric.io.data.BinaryProtocolConstants;
+import org.jumpmind.symmetric.io.stage.BlockGzipOutputStream;
 import org.jumpmind.symmetric.model.ChannelMap;
 import org.jumpmind.symmetric.model.Node;
 import org.jumpmind.symmetric.service.IConfigurationService;
@@ -43,9 +45,12 @@ import org.jumpmind.symmetric.service.RegistrationNotOpenException;
 import org.jumpmind.symmetric.service.RegistrationPendingException;
 import org.jumpmind.symmetric.service.RegistrationRequiredException;
 import org.jumpmind.symmetric.transport.AuthenticationException;
+import org.jumpmind.symmetric.transport.BinaryProtocolBufferedWriter;
+import org.jumpmind.symmetric.transport.BlockGzipBufferedWriter;
 import org.jumpmind.symmetric.transport.ConnectionRejectedException;
 import org.jumpmind.symmetric.transport.IOutgoingWithResponseTransport;
 import org.jumpmind.symmetric.transport.NoReservationException;
+import org.jumpmind.symmetric.transport.OutputStreamBufferedWriter;
 import org.jumpmind.symmetric.transport.ServiceUnavailableException;
 import org.jumpmind.symmetric.transport.SyncDisabledException;
 import org.jumpmind.symmetric.web.WebConstants;
@@ -64,6 +69,10 @@ public class HttpOutgoingTransport implements IOutgoingWithResponseTransport {
     private boolean useCompression;
     private int compressionStrategy;
     private int compressionLevel;
+    private boolean blockCompressionEnabled;
+    private boolean blockCompressionAccepted;
+    private boolean binaryProtocolEnabled;
+    private boolean binaryProtocolAccepted;
     private String nodeId;
     private String securityToken;
     private boolean streamOutputEnabled = false;
@@ -217,7 +226,9 @@ public class HttpOutgoingTransport implements IOutgoingWithResponseTransport {
             if (!fileUpload) {
                 connection.setRequestMethod("PUT");
                 connection.setRequestProperty("Accept-Encoding", "gzip");
-                if (useCompression) {
+                if (isUseBlockCompression()) {
+                    connection.addRequestProperty("Content-Type", WebConstants.CONTENT_TYPE_BLOCK_GZIP);
+                } else if (useCompression) {
                     connection.addRequestProperty("Content-Type", "gzip"); // application/x-gzip?
                 }
             } else {
@@ -226,7 +237,9 @@ public class HttpOutgoingTransport implements IOutgoingWithResponseTransport {
                 connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
             }
             os = connection.getOutputStream();
-            if (!fileUpload && useCompression) {
+            if (!fileUpload && isUseBlockCompression()) {
+                os = new BlockGzipOutputStream(os, compressionLevel, compressionStrategy, true);
+            } else if (!fileUpload && useCompression) {
                 os = new GZIPOutputStream(os, 128, true) {
                     {
                         this.def.setLevel(compressionLevel);
@@ -251,11 +264,46 @@ public class HttpOutgoingTransport implements IOutgoingWithResponseTransport {
     }
 
     public BufferedWriter openWriter() {
-        OutputStreamWriter wout = new OutputStreamWriter(openStream(), StandardCharsets.UTF_8);
-        writer = new BufferedWriter(wout);
+        OutputStream stream = openStream();
+        if (isUseBinaryProtocol()) {
+            writer = new BinaryProtocolBufferedWriter(stream);
+        } else if (stream instanceof BlockGzipOutputStream) {
+            writer = new BlockGzipBufferedWriter((BlockGzipOutputStream) stream);
+        } else {
+            writer = new OutputStreamBufferedWriter(stream, StandardCharsets.UTF_8);
+        }
         return writer;
     }
 
+    /**
+     * Send compressed blocks that can be copied from staging without being decompressed, when it is enabled and the remote node accepts them.
+     */
+    public void setBlockCompressionEnabled(boolean blockCompressionEnabled) {
+        this.blockCompressionEnabled = blockCompressionEnabled;
+    }
+
+    public boolean isUseBlockCompression() {
+        return useCompression && blockCompressionEnabled && blockCompressionAccepted;
+    }
+
+    /**
+     * Send batches in the binary protocol, when it is enabled for the node group link and the remote node accepts it.
+     */
+    public void setBinaryProtocolEnabled(boolean binaryProtocolEnabled) {
+        this.binaryProtocolEnabled = binaryProtocolEnabled;
+    }
+
+    public boolean isUseBinaryProtocol() {
+        return !fileUpload && binaryProtocolEnabled && binaryProtocolAccepted;
+    }
+
+    /**
+     * Nodes on older versions do not send the header on the reservation response, so batches are pushed to them as CSV.
+     */
+    protected static boolean isBinaryProtocolAccepted(String acceptBinaryProtocolHeader) {
+        return String.valueOf(BinaryProtocolConstants.VERSION).equals(StringUtils.trim(acceptBinaryProtocolHeader));
+    }
+
     @Override
     public BufferedWriter getWriter() {
         return writer;
@@ -317,6 +365,8 @@ public class HttpOutgoingTransport implements IOutgoingWithResponseTransport {
             String ignores = connection.getHeaderField(WebConstants.IGNORED_CHANNELS);
             suspendIgnoreChannelsList.addSuspendChannels(suspends);
             suspendIgnoreChannelsList.addIgnoreChannels(ignores);
+            blockCompressionAccepted = Boolean.parseBoolean(connection.getHeaderField(WebConstants.ACCEPT_BLOCK_COMPRESSION));
+            binaryProtocolAccepted = isBinaryProtocolAccepted(connection.getHeaderField(WebConstants.ACCEPT_BINARY_PROTOCOL));
             ChannelMap localSuspendIgnoreChannelsList = configurationService.getSuspendIgnoreChannelLists(targetNode.getNodeId());
             suspendIgnoreChannelsList.addSuspendChannels(localSuspendIgnoreChannelsList.getSuspendChannels());
             suspendIgnoreChannelsList.addIgnoreChannels(localSuspendIgnoreChannelsList.getIgnoreChannels());
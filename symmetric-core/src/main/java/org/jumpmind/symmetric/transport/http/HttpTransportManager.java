@@ -46,6 +46,7 @@ import org.jumpmind.symmetric.common.ServerConstants;
 import org.jumpmind.symmetric.model.BatchId;
 import org.jumpmind.symmetric.model.IncomingBatch;
 import org.jumpmind.symmetric.model.Node;
+import org.jumpmind.symmetric.model.NodeGroupLink;
 import org.jumpmind.symmetric.transport.AbstractTransportManager;
 import org.jumpmind.symmetric.transport.IIncomingTransport;
 import org.jumpmind.symmetric.transport.IOutgoingWithResponseTransport;
@@ -230,6 +231,25 @@ public class HttpTransportManager extends AbstractTransportManager implements IT
         return engine.getParameterService().is(ParameterConstants.TRANSPORT_HTTP_USE_COMPRESSION_CLIENT) && targetEngine == null;
     }
 
+    /**
+     * Push compressed blocks when batches are compressed in staging, so they can be sent without compressing them again.
+     */
+    public boolean isUseBlockCompression() {
+        return engine.getParameterService().is(ParameterConstants.STAGING_COMPRESSION_ENABLED, false);
+    }
+
+    /**
+     * Push batches in the binary protocol when it is enabled on the node group link. Batches are converted from staging, so stream to file must be
+     * enabled.
+     */
+    public boolean isUseBinaryProtocol(Node remote, Node local) {
+        if (!engine.getParameterService().is(ParameterConstants.STREAM_TO_FILE_ENABLED)) {
+            return false;
+        }
+        NodeGroupLink link = engine.getConfigurationService().getNodeGroupLinkFor(local.getNodeGroupId(), remote.getNodeGroupId(), false);
+        return link != null && link.isBinaryProtocolEnabled();
+    }
+
     public int getCompressionLevel() {
         return engine.getParameterService().getInt(ParameterConstants.TRANSPORT_HTTP_COMPRESSION_LEVEL);
     }
@@ -277,17 +297,23 @@ public class HttpTransportManager extends AbstractTransportManager implements IT
             String securityToken, Map<String, String> requestProperties,
             String registrationUrl) throws IOException {
         URL url = new URL(buildURL("push", remote, local, securityToken, registrationUrl));
-        return new HttpOutgoingTransport(this, url, getHttpTimeOutInMs(), getHttpConnectTimeOutInMs(), isUseCompression(remote),
-                getCompressionStrategy(), getCompressionLevel(), local.getNodeId(),
+        HttpOutgoingTransport transport = new HttpOutgoingTransport(this, url, getHttpTimeOutInMs(), getHttpConnectTimeOutInMs(),
+                isUseCompression(remote), getCompressionStrategy(), getCompressionLevel(), local.getNodeId(),
                 securityToken, isOutputStreamEnabled(), getOutputStreamSize(), false, requestProperties);
+        transport.setBlockCompressionEnabled(isUseBlockCompression());
+        transport.setBinaryProtocolEnabled(isUseBinaryProtocol(remote, local));
+        return transport;
     }
 
     public IOutgoingWithResponseTransport getPushTransport(Node remote, Node local,
             String securityToken, String registrationUrl) throws IOException {
         URL url = new URL(buildURL("push", remote, local, securityToken, registrationUrl));
-        return new HttpOutgoingTransport(this, url, getHttpTimeOutInMs(), getHttpConnectTimeOutInMs(), isUseCompression(remote),
-                getCompressionStrategy(), getCompressionLevel(), local.getNodeId(),
+        HttpOutgoingTransport transport = new HttpOutgoingTransport(this, url, getHttpTimeOutInMs(), getHttpConnectTimeOutInMs(),
+                isUseCompression(remote), getCompressionStrategy(), getCompressionLevel(), local.getNodeId(),
                 securityToken, isOutputStreamEnabled(), getOutputStreamSize(), false);
+        transport.setBlockCompressionEnabled(isUseBlockCompression());
+        transport.setBinaryProtocolEnabled(isUseBinaryProtocol(remote, local));
+        return transport;
     }
 
     public IOutgoingWithResponseTransport getFilePushTransport(Node remote, Node local,
@@ -333,9 +359,11 @@ public class HttpTransportManager extends AbstractTransportManager implements IT
     public IOutgoingWithResponseTransport getBandwidthPushTransport(Node remote, Node local, String securityToken,
             Map<String, String> requestProperties, String registrationUrl) throws IOException {
         URL url = new URL(resolveURL(remote.getSyncUrl(), registrationUrl) + "/" + "bandwidth?direction=push");
-        return new HttpOutgoingTransport(this, url, getHttpTimeOutInMs(), getHttpConnectTimeOutInMs(), isUseCompression(remote),
-                getCompressionStrategy(), getCompressionLevel(), local.getNodeId(),
+        HttpOutgoingTransport transport = new HttpOutgoingTransport(this, url, getHttpTimeOutInMs(), getHttpConnectTimeOutInMs(),
+                isUseCompression(remote), getCompressionStrategy(), getCompressionLevel(), local.getNodeId(),
                 securityToken, isOutputStreamEnabled(), getOutputStreamSize(), false, requestProperties);
+        transport.setBlockCompressionEnabled(isUseBlockCompression());
+        return transport;
     }
 
     public static String buildRegistrationUrl(String baseUrl, Node node) {
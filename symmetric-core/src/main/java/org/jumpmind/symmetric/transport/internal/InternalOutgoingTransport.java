@@ -23,7 +23,6 @@ package org.jumpmind.symmetric.transport.internal;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 
@@ -31,6 +30,7 @@ import org.jumpmind.symmetric.model.ChannelMap;
 import org.jumpmind.symmetric.model.Node;
 import org.jumpmind.symmetric.service.IConfigurationService;
 import org.jumpmind.symmetric.transport.IOutgoingTransport;
+import org.jumpmind.symmetric.transport.OutputStreamBufferedWriter;
 
 public class InternalOutgoingTransport implements IOutgoingTransport {
     BufferedWriter writer = null;
@@ -44,7 +44,15 @@ public class InternalOutgoingTransport implements IOutgoingTransport {
 
     public InternalOutgoingTransport(OutputStream os, ChannelMap map, String encoding) throws UnsupportedEncodingException {
         this.os = os;
-        this.writer = new BufferedWriter(new OutputStreamWriter(os, encoding == null ? Charset.defaultCharset().name() : encoding));
+        Charset charset = Charset.defaultCharset();
+        if (encoding != null) {
+            try {
+                charset = Charset.forName(encoding);
+            } catch (IllegalArgumentException e) {
+                throw new UnsupportedEncodingException(encoding);
+            }
+        }
+        this.writer = new OutputStreamBufferedWriter(os, charset);
         this.map = map;
     }
 
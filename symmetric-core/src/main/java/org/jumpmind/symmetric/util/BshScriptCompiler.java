@@ -0,0 +1,316 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.util;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.lang.model.SourceVersion;
+
+import org.jumpmind.util.SimpleClassCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Translates BeanShell scripts into Java that is compiled in memory with the {@link SimpleClassCompiler}, so scripts that are run for every
+ * row do not need to be interpreted each time. The variables that a script uses are declared with the type of their values, and the value
+ * of the last statement is returned like the interpreter does. A script that uses BeanShell syntax, like loosely typed variables, will not
+ * compile as Java, so {@link #getCompiledScript(String, Map, Map)} returns null and the caller should use the interpreter instead.
+ */
+public class BshScriptCompiler {
+    private static final Logger log = LoggerFactory.getLogger(BshScriptCompiler.class);
+    protected static final String CODE_START = "import java.util.*;\nimport java.io.*;\nimport java.net.*;\n%s"
+            + "public class BshScript implements " + BshScriptCompiler.class.getName() + ".IScript {\n"
+            + "    @SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n"
+            + "    public Object eval(Object[] args) throws Exception {\n";
+    protected static final String CODE_END = "\n        }\n        return null;\n    }\n}\n";
+    protected static final Pattern IMPORT_PATTERN = Pattern.compile("\\s*import\\s+(static\\s+)?[\\w$.]+(\\.\\*)?\\s*;");
+    protected static final Pattern IDENTIFIER_PATTERN = Pattern.compile("(?<![\\w$.])([A-Za-z_$][\\w$]*)");
+    protected static final Pattern DECLARATION_PATTERN = Pattern.compile("[\\w$.]+\\s*(<[\\w$.<>,?\\s]*>)?\\s*(\\[\\s*\\]\\s*)*\\s[\\w$]+\\s*(=[^=][\\s\\S]*)?");
+    protected static final Set<String> STATEMENT_KEYWORDS = new HashSet<String>(Arrays.asList("return", "throw", "break", "continue", "if",
+            "else", "for", "while", "do", "switch", "try", "synchronized", "assert", "final", "class"));
+    protected static final Map<Class<?>, String> PRIMITIVE_TYPES = new HashMap<Class<?>, String>();
+    static {
+        PRIMITIVE_TYPES.put(Boolean.class, "boolean");
+        PRIMITIVE_TYPES.put(Byte.class, "byte");
+        PRIMITIVE_TYPES.put(Character.class, "char");
+        PRIMITIVE_TYPES.put(Short.class, "short");
+        PRIMITIVE_TYPES.put(Integer.class, "int");
+        PRIMITIVE_TYPES.put(Long.class, "long");
+        PRIMITIVE_TYPES.put(Float.class, "float");
+        PRIMITIVE_TYPES.put(Double.class, "double");
+    }
+    protected SimpleClassCompiler classCompiler = new SimpleClassCompiler();
+    protected Map<String, Translation> translations = new ConcurrentHashMap<String, Translation>();
+    protected Map<String, CompiledScript> compiledScripts = new ConcurrentHashMap<String, CompiledScript>();
+    protected Map<String, Class<?>> declaredClasses = new ConcurrentHashMap<String, Class<?>>();
+
+    /**
+     * Compiled script that is invoked with the values of its variables in the order they were declared.
+     */
+    public interface IScript {
+        public Object eval(Object[] args) throws Exception;
+    }
+
+    public static class CompiledScript {
+        protected String[] names;
+        protected IScript script;
+
+        public CompiledScript(String[] names, IScript script) {
+            this.names = names;
+            this.script = script;
+        }
+
+        public Object eval(Map<String, Object> variables) throws Exception {
+            Object[] args = new Object[names.length];
+            for (int i = 0; i < names.length; i++) {
+                args[i] = variables.get(names[i]);
+            }
+            return script.eval(args);
+        }
+
+        public String[] getNames() {
+            return names;
+        }
+    }
+
+    protected static class Translation {
+        protected String imports;
+        protected String body;
+        protected Set<String> identifiers;
+        protected Map<String, String> lastTypes = new ConcurrentHashMap<String, String>();
+    }
+
+    /**
+     * Get the script compiled for the types of the variables it uses, compiling it the first time the types are seen.
+     * 
+     * @param declaredTypes
+     *            Java types to declare for variables, like generic collections, instead of the type of their values
+     * @return null if the script could not be compiled and needs to be interpreted
+     */
+    public CompiledScript getCompiledScript(String script, Map<String, Object> variables, Map<String, String> declaredTypes) {
+        Translation translation = translations.get(script);
+        if (translation == null) {
+            translation = translate(script);
+            translations.put(script, translation);
+        }
+        if (translation.body == null) {
+            return null;
+        }
+        List<String> names = new ArrayList<String>();
+        StringBuilder declarations = new StringBuilder();
+        for (String name : translation.identifiers) {
+            if (variables.containsKey(name)) {
+                String type = declaredTypes != null ? declaredTypes.get(name) : null;
+                if (type == null || !isInstance(type, variables.get(name))) {
+                    type = getTypeName(translation, name, variables.get(name));
+                }
+                declarations.append("        ").append(type).append(" ").append(name).append(" = (").append(getCastTypeName(type))
+                        .append(") args[").append(names.size()).append("];\n");
+                names.add(name);
+            }
+        }
+        String key = script + "\u0000" + declarations;
+        CompiledScript compiledScript = compiledScripts.get(key);
+        if (compiledScript == null) {
+            compiledScript = compile(translation, declarations.toString(), names.toArray(new String[names.size()]));
+            compiledScripts.put(key, compiledScript);
+        }
+        return compiledScript.script != null ? compiledScript : null;
+    }
+
+    protected synchronized CompiledScript compile(Translation translation, String declarations, String[] names) {
+        String javaCode = String.format(CODE_START, translation.imports) + declarations + "        if (true) {\n" + translation.body
+                + CODE_END;
+        try {
+            return new CompiledScript(names, (IScript) classCompiler.getCompiledClass(javaCode));
+        } catch (Exception e) {
+            log.debug("Using the interpreter for a BeanShell script that could not be compiled: {}", e.getMessage());
+            return new CompiledScript(names, null);
+        }
+    }
+
+    protected String getTypeName(Translation translation, String name, Object value) {
+        if (value == null) {
+            String lastType = translation.lastTypes.get(name);
+            return lastType == null ? "Object" : getCastTypeName(lastType);
+        }
+        String type = PRIMITIVE_TYPES.get(value.getClass());
+        if (type == null) {
+            Class<?> clazz = value.getClass();
+            while (clazz.getSuperclass() != null && (!Modifier.isPublic(clazz.getModifiers()) || clazz.getCanonicalName() == null)) {
+                clazz = clazz.getSuperclass();
+            }
+            type = clazz.getCanonicalName();
+        }
+        translation.lastTypes.put(name, type);
+        return type;
+    }
+
+    /**
+     * Check that a value can be assigned to a declared type, because a column can have the same name as another variable.
+     */
+    protected boolean isInstance(String type, Object value) {
+        if (value == null) {
+            return !PRIMITIVE_TYPES.containsValue(type);
+        }
+        Class<?> clazz = declaredClasses.get(type);
+        if (clazz == null) {
+            String className = getCastTypeName(type);
+            if (className.indexOf('<') > 0) {
+                className = className.substring(0, className.indexOf('<'));
+            }
+            try {
+                clazz = Class.forName(className.indexOf('.') < 0 ? "java.lang." + className : className);
+            } catch (ClassNotFoundException e) {
+                clazz = Void.class;
+            }
+            declaredClasses.put(type, clazz);
+        }
+        return clazz.isInstance(value);
+    }
+
+    protected static String getCastTypeName(String type) {
+        for (Map.Entry<Class<?>, String> entry : PRIMITIVE_TYPES.entrySet()) {
+            if (entry.getValue().equals(type)) {
+                return entry.getKey().getSimpleName();
+            }
+        }
+        return type;
+    }
+
+    /**
+     * Split the script into its imports and a method body that returns the value of the last statement. The body is null when the script
+     * cannot be parsed.
+     */
+    protected static Translation translate(String script) {
+        Translation translation = new Translation();
+        StringBuilder imports = new StringBuilder();
+        String blanked = blankCommentsAndLiterals(script);
+        int start = 0;
+        Matcher matcher = IMPORT_PATTERN.matcher(blanked);
+        while (matcher.find(start) && matcher.start() == start) {
+            imports.append(script, matcher.start(), matcher.end()).append("\n");
+            start = matcher.end();
+        }
+        translation.imports = imports.toString();
+        translation.identifiers = new LinkedHashSet<String>();
+        matcher = IDENTIFIER_PATTERN.matcher(blanked);
+        matcher.region(start, blanked.length());
+        while (matcher.find()) {
+            if (SourceVersion.isName(matcher.group(1))) {
+                translation.identifiers.add(matcher.group(1));
+            }
+        }
+        int depth = 0;
+        int lastStart = start;
+        int lastEnd = -1;
+        boolean lastIsBlock = false;
+        int statementStart = start;
+        for (int i = start; i < blanked.length() && depth >= 0; i++) {
+            char c = blanked.charAt(i);
+            if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                depth--;
+            }
+            if (depth == 0 && (c == ';' || c == '}')) {
+                if (blanked.substring(statementStart, i).trim().length() > 0 || c == '}') {
+                    lastStart = statementStart;
+                    lastEnd = i;
+                    lastIsBlock = c == '}';
+                }
+                statementStart = i + 1;
+            }
+        }
+        if (depth != 0) {
+            return translation;
+        }
+        if (blanked.substring(statementStart).trim().length() > 0) {
+            lastStart = statementStart;
+            lastEnd = blanked.length();
+            lastIsBlock = false;
+        }
+        if (lastEnd < 0) {
+            return translation;
+        }
+        int rest = Math.min(lastEnd + 1, script.length());
+        while (Character.isWhitespace(blanked.charAt(lastStart))) {
+            lastStart++;
+        }
+        while (lastEnd > lastStart && Character.isWhitespace(blanked.charAt(lastEnd - 1))) {
+            lastEnd--;
+        }
+        String lastStatement = blanked.substring(lastStart, lastEnd);
+        Matcher keyword = IDENTIFIER_PATTERN.matcher(lastStatement);
+        if (lastIsBlock || (keyword.lookingAt() && STATEMENT_KEYWORDS.contains(keyword.group(1)))
+                || DECLARATION_PATTERN.matcher(lastStatement).matches()) {
+            translation.body = script.substring(start);
+        } else {
+            translation.body = script.substring(start, lastStart) + "return (Object) (" + script.substring(lastStart, lastEnd) + ");"
+                    + script.substring(rest);
+        }
+        return translation;
+    }
+
+    /**
+     * Replace comments and the contents of string and character literals with spaces, so the structure of the script can be parsed.
+     */
+    protected static String blankCommentsAndLiterals(String script) {
+        char[] chars = script.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (c == '"' || c == '\'') {
+                for (i++; i < chars.length && chars[i] != c; i++) {
+                    if (chars[i] == '\\' && i + 1 < chars.length) {
+                        chars[i++] = ' ';
+                    }
+                    chars[i] = ' ';
+                }
+            } else if (c == '/' && i + 1 < chars.length && chars[i + 1] == '/') {
+                for (; i < chars.length && chars[i] != '\n'; i++) {
+                    chars[i] = ' ';
+                }
+            } else if (c == '/' && i + 1 < chars.length && chars[i + 1] == '*') {
+                for (; i < chars.length && !(chars[i] == '*' && i + 1 < chars.length && chars[i + 1] == '/'); i++) {
+                    if (chars[i] != '\n') {
+                        chars[i] = ' ';
+                    }
+                }
+                if (i < chars.length) {
+                    chars[i++] = ' ';
+                    chars[i] = ' ';
+                }
+            }
+        }
+        return new String(chars);
+    }
+}
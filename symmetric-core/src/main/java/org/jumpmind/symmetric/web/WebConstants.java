@@ -91,6 +91,9 @@ public class WebConstants {
     public static final String SECURITY_TOKEN = "securityToken";
     public static final String SUSPENDED_CHANNELS = "Suspended-Channels";
     public static final String IGNORED_CHANNELS = "Ignored-Channels";
+    public static final String ACCEPT_BLOCK_COMPRESSION = "Accept-Block-Compression";
+    public static final String CONTENT_TYPE_BLOCK_GZIP = "application/x-block-gzip";
+    public static final String ACCEPT_BINARY_PROTOCOL = "Accept-Binary-Protocol";
     public static final String BATCH_TO_SEND_COUNT = "Batch-To-Send-Count";
     public static final String CHANNEL_QUEUE = "threadChannel";
     public static final String CONFIG_VERSION = "configVersion";
@@ -0,0 +1,98 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.extract;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jumpmind.symmetric.model.AbstractBatch.Status;
+import org.jumpmind.symmetric.model.OutgoingBatch;
+import org.junit.jupiter.api.Test;
+
+public class ExtractSliceTest {
+    @Test
+    public void testSplitCoversRangeAndBatches() {
+        List<OutgoingBatch> batches = createBatches(10);
+        List<ExtractSlice> slices = ExtractSlice.split(1, 1000, 4, batches);
+        assertEquals(4, slices.size());
+        assertEquals(1, slices.get(0).getStartKey());
+        assertEquals(1000, slices.get(3).getEndKey());
+        int batchCount = 0;
+        for (int i = 0; i < slices.size(); i++) {
+            if (i > 0) {
+                assertEquals(slices.get(i - 1).getEndKey() + 1, slices.get(i).getStartKey());
+                assertEquals(slices.get(i - 1).getEndBatchId() + 1, slices.get(i).getStartBatchId());
+            }
+            batchCount += slices.get(i).getBatches().size();
+        }
+        assertEquals(8, batchCount);
+        List<OutgoingBatch> overflowBatches = ExtractSlice.getOverflowBatches(slices.size(), batches);
+        assertEquals(2, overflowBatches.size());
+        assertEquals(slices.get(3).getEndBatchId() + 1, overflowBatches.get(0).getBatchId());
+        assertEquals(109, overflowBatches.get(1).getBatchId());
+        assertEquals("id <= 250", slices.get(0).getCondition("id"));
+        assertEquals("id between 251 and 500", slices.get(1).getCondition("id"));
+        assertEquals("id >= 751", slices.get(3).getCondition("id"));
+    }
+
+    @Test
+    public void testSplitLimitedByBatches() {
+        List<OutgoingBatch> batches = createBatches(3);
+        List<ExtractSlice> slices = ExtractSlice.split(0, 1000000, 16, batches);
+        assertEquals(2, slices.size());
+        for (ExtractSlice slice : slices) {
+            assertEquals(1, slice.getBatches().size());
+        }
+        assertEquals(1, ExtractSlice.getOverflowBatches(slices.size(), batches).size());
+    }
+
+    @Test
+    public void testSplitSingleSlice() {
+        List<ExtractSlice> slices = ExtractSlice.split(Long.MIN_VALUE, Long.MAX_VALUE, 4, createBatches(4));
+        assertEquals(1, slices.size());
+        assertNull(slices.get(0).getCondition("id"));
+    }
+
+    @Test
+    public void testIsExtracted() {
+        List<ExtractSlice> slices = ExtractSlice.split(1, 100, 2, createBatches(5));
+        slices.get(0).getBatches().get(0).setStatus(Status.NE);
+        assertFalse(slices.get(0).isExtracted());
+        slices.get(0).getBatches().get(1).setStatus(Status.NE);
+        assertTrue(slices.get(0).isExtracted());
+        assertFalse(slices.get(1).isExtracted());
+    }
+
+    protected List<OutgoingBatch> createBatches(int count) {
+        List<OutgoingBatch> batches = new ArrayList<OutgoingBatch>();
+        for (int i = 0; i < count; i++) {
+            OutgoingBatch batch = new OutgoingBatch("00001", "reload", Status.RQ);
+            batch.setBatchId(100 + i);
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.Charset;
+
+import org.apache.commons.io.FileUtils;
+import org.jumpmind.symmetric.model.FileSnapshot;
+import org.jumpmind.symmetric.model.FileSnapshot.LastEventType;
+import org.jumpmind.symmetric.model.FileTrigger;
+import org.jumpmind.symmetric.model.FileTriggerRouter;
+import org.jumpmind.symmetric.model.Router;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FileTriggerWatchTrackerTest {
+    File directory = new File("target/watch");
+    File subdirectory = new File(directory, "a");
+    File fileInDirectory1 = new File(directory, "1.txt");
+    File fileInSubDirectory = new File(subdirectory, "3.doc");
+    FileTriggerRouter fileTriggerRouter;
+    FileChecksumPool checksumPool = new FileChecksumPool(2);
+
+    @BeforeEach
+    public void setupTest() throws Exception {
+        FileUtils.deleteQuietly(directory);
+        subdirectory.mkdirs();
+        FileUtils.write(fileInDirectory1, "abc", Charset.defaultCharset(), false);
+        FileUtils.write(fileInSubDirectory, "abc", Charset.defaultCharset(), false);
+        fileTriggerRouter = new FileTriggerRouter(new FileTrigger(directory.getAbsolutePath(), true, null, null), new Router());
+    }
+
+    @AfterEach
+    public void cleanupTest() {
+        checksumPool.shutdown();
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Test
+    public void testTrackChanges() throws Exception {
+        FileTriggerWatchTracker tracker = new FileTriggerWatchTracker(fileTriggerRouter, null, null, true, null, checksumPool);
+        try {
+            assertEquals(3, tracker.trackChanges().size());
+            File newFile = new File(subdirectory, "4.txt");
+            FileUtils.write(newFile, "1,2,3", Charset.defaultCharset(), false);
+            FileUtils.deleteQuietly(fileInDirectory1);
+            DirectorySnapshot changes = waitForChanges(tracker, 2);
+            assertEquals(2, changes.size());
+            for (FileSnapshot change : changes) {
+                if (change.getFileName().equals("4.txt")) {
+                    assertEquals(LastEventType.CREATE, change.getLastEventType());
+                    assertEquals("a", change.getRelativeDir());
+                    assertEquals(FileUtils.checksumCRC32(newFile), change.getCrc32Checksum());
+                } else {
+                    assertEquals("1.txt", change.getFileName());
+                    assertEquals(LastEventType.DELETE, change.getLastEventType());
+                }
+            }
+            assertEquals(0, tracker.trackChanges().size());
+        } finally {
+            tracker.close();
+        }
+    }
+
+    @Test
+    public void testDeleteDirectory() throws Exception {
+        FileTriggerWatchTracker tracker = new FileTriggerWatchTracker(fileTriggerRouter, null, null, false, null, null);
+        try {
+            tracker.trackChanges();
+            FileUtils.deleteDirectory(subdirectory);
+            DirectorySnapshot changes = waitForChanges(tracker, 2);
+            assertEquals(2, changes.size());
+            for (FileSnapshot change : changes) {
+                assertEquals(LastEventType.DELETE, change.getLastEventType());
+            }
+        } finally {
+            tracker.close();
+        }
+    }
+
+    @Test
+    public void testChecksumReusedWhenUnchanged() throws Exception {
+        DirectorySnapshot lastSnapshot = new DirectorySnapshot(fileTriggerRouter);
+        new FileTriggerTracker(fileTriggerRouter, null, null, true, null, checksumPool).takeFullSnapshot(lastSnapshot);
+        for (FileSnapshot fileSnapshot : lastSnapshot) {
+            if (fileSnapshot.getFileName().equals("1.txt")) {
+                assertEquals(FileUtils.checksumCRC32(fileInDirectory1), fileSnapshot.getCrc32Checksum());
+                fileSnapshot.setCrc32Checksum(42);
+            }
+        }
+        DirectorySnapshot snapshot = new DirectorySnapshot(fileTriggerRouter);
+        new FileTriggerTracker(fileTriggerRouter, lastSnapshot, null, true, null, checksumPool).takeFullSnapshot(snapshot);
+        assertEquals(0, lastSnapshot.diff(snapshot).size());
+        assertTrue(checksumPool.getFilesReused() > 0);
+    }
+
+    protected DirectorySnapshot waitForChanges(FileTriggerTracker tracker, int expectedCount) throws Exception {
+        DirectorySnapshot changes = new DirectorySnapshot(fileTriggerRouter);
+        long endTime = System.currentTimeMillis() + 10000;
+        while (changes.size() < expectedCount && System.currentTimeMillis() < endTime) {
+            Thread.sleep(100);
+            changes.addAll(tracker.trackChanges());
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jumpmind.db.model.Column;
+import org.jumpmind.db.platform.DatabaseNamesConstants;
+import org.jumpmind.db.platform.IDatabasePlatform;
+import org.jumpmind.symmetric.io.DbCompareChecksum.Family;
+import org.junit.jupiter.api.Test;
+
+public class DbCompareChecksumTest {
+    @Test
+    public void testGetFamily() {
+        assertEquals(Family.POSTGRES, DbCompareChecksum.getFamily(platform(DatabaseNamesConstants.POSTGRESQL95)));
+        assertEquals(Family.MYSQL, DbCompareChecksum.getFamily(platform(DatabaseNamesConstants.MARIADB)));
+        assertEquals(Family.ORACLE, DbCompareChecksum.getFamily(platform(DatabaseNamesConstants.ORACLE122)));
+        assertEquals(Family.MSSQL, DbCompareChecksum.getFamily(platform(DatabaseNamesConstants.MSSQL2016)));
+        assertNull(DbCompareChecksum.getFamily(platform(DatabaseNamesConstants.H2)));
+    }
+
+    @Test
+    public void testGetChecksumExpression() {
+        List<Column> columns = Arrays.asList(new Column("id", true, Types.INTEGER, 0, 0), new Column("name", false, Types.VARCHAR, 50, 0));
+        List<String> names = Arrays.asList("\"id\"", "\"name\"");
+        assertEquals("coalesce(sum(('x' || substr(md5(md5(coalesce('v' || t.\"id\"::text, 'n')) || md5(coalesce('v' || t.\"name\"::text, 'n'))), "
+                + "1, 8))::bit(32)::bigint), 0)", DbCompareChecksum.getChecksumExpression(Family.POSTGRES, columns, names));
+        assertEquals("coalesce(sum(crc32(concat(md5(coalesce(concat('v', t.\"id\"), 'n')), md5(coalesce(concat('v', t.\"name\"), 'n'))))), 0)",
+                DbCompareChecksum.getChecksumExpression(Family.MYSQL, columns, names));
+        assertEquals("coalesce(sum(ora_hash(ora_hash(nvl2(t.\"id\", 'v' || to_char(t.\"id\", 'TM9', 'NLS_NUMERIC_CHARACTERS=''.,'''), 'n'), "
+                + "4294967295) || '|' || ora_hash(nvl2(t.\"name\", 'v' || to_char(t.\"name\"), 'n'), 4294967295), 4294967295)), 0)",
+                DbCompareChecksum.getChecksumExpression(Family.ORACLE, columns, names));
+        assertEquals("coalesce(sum(cast(cast(substring(hashbytes('MD5', hashbytes('MD5', coalesce(N'v' + convert(nvarchar(max), t.\"id\"), N'n')) + "
+                + "hashbytes('MD5', coalesce(N'v' + convert(nvarchar(max), t.\"name\"), N'n'))), 1, 4) as int) as bigint)), 0)",
+                DbCompareChecksum.getChecksumExpression(Family.MSSQL, columns, names));
+    }
+
+    @Test
+    public void testTemporalColumnsUseExplicitFormats() {
+        Column date = new Column("created", false, Types.DATE, 0, 0);
+        Column timestamp = new Column("updated", false, Types.TIMESTAMP, 0, 0);
+        assertEquals("to_char(cast(t.created as timestamp), 'YYYY-MM-DD HH24:MI:SS.FF9')", DbCompareChecksum.getOracleText(date, "t.created"));
+        assertEquals("to_char(cast(t.updated as timestamp), 'YYYY-MM-DD HH24:MI:SS.FF9')", DbCompareChecksum.getOracleText(timestamp, "t.updated"));
+        assertEquals("convert(nvarchar(max), t.updated, 126)", DbCompareChecksum.getMsSqlText(timestamp, "t.updated"));
+        assertEquals("convert(nvarchar(max), t.ratio, 2)", DbCompareChecksum.getMsSqlText(new Column("ratio", false, Types.DOUBLE, 0, 0),
+                "t.ratio"));
+    }
+
+    @Test
+    public void testSplitRange() {
+        List<long[]> ranges = DbCompare.splitRange(1, 100, 16);
+        assertEquals(15, ranges.size());
+        assertEquals(1, ranges.get(0)[0]);
+        assertEquals(7, ranges.get(0)[1]);
+        assertEquals(100, ranges.get(ranges.size() - 1)[1]);
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i - 1)[1] + 1, ranges.get(i)[0]);
+        }
+        ranges = DbCompare.splitRange(5, 5, 16);
+        assertEquals(1, ranges.size());
+        assertEquals(5, ranges.get(0)[0]);
+        assertEquals(5, ranges.get(0)[1]);
+    }
+
+    @Test
+    public void testSplitRangeWithExtremeBounds() {
+        List<long[]> ranges = DbCompare.splitRange(Long.MIN_VALUE, Long.MAX_VALUE, 16);
+        assertEquals(16, ranges.size());
+        assertEquals(Long.MIN_VALUE, ranges.get(0)[0]);
+        assertEquals(Long.MAX_VALUE, ranges.get(ranges.size() - 1)[1]);
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i - 1)[1] + 1, ranges.get(i)[0]);
+        }
+        ranges = DbCompare.splitRange(Long.MIN_VALUE, Long.MAX_VALUE, 2);
+        assertEquals(2, ranges.size());
+        assertEquals(-1, ranges.get(0)[1]);
+        assertEquals(0, ranges.get(1)[0]);
+        ranges = DbCompare.splitRange(Long.MAX_VALUE - 3, Long.MAX_VALUE, 16);
+        assertEquals(4, ranges.size());
+        assertEquals(Long.MAX_VALUE, ranges.get(3)[0]);
+        assertEquals(Long.MAX_VALUE, ranges.get(3)[1]);
+        ranges = DbCompare.splitRange(Long.MIN_VALUE, Long.MIN_VALUE + 1, 16);
+        assertEquals(2, ranges.size());
+        assertEquals(Long.MIN_VALUE, ranges.get(0)[1]);
+    }
+
+    protected IDatabasePlatform platform(String name) {
+        IDatabasePlatform platform = mock(IDatabasePlatform.class);
+        when(platform.getName()).thenReturn(name);
+        return platform;
+    }
+}
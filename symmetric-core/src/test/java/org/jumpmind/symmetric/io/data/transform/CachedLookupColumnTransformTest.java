@@ -0,0 +1,52 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.data.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class CachedLookupColumnTransformTest {
+    @Test
+    public void testParseParameterNames() {
+        assertEquals(Arrays.asList("ITEM_ID", "OLD_STORE_ID"), CachedLookupColumnTransform.parseParameterNames(
+                "select price from item where item_id = :item_id and store_id = :OLD_STORE_ID and code <> ':CODE' and id = :ITEM_ID"));
+    }
+
+    @Test
+    public void testBuildBatchSql() {
+        String sql = "select price from item where item_id=:ITEM_ID and store_id=:STORE_ID";
+        assertEquals("select 0 as row_key, (select price from item where item_id=:R0_0 and store_id=:R0_1) as lookup_value from dual "
+                + "union all select 1 as row_key, (select price from item where item_id=:R1_0 and store_id=:R1_1) as lookup_value from dual",
+                CachedLookupColumnTransform.buildBatchSql(sql, CachedLookupColumnTransform.parseParameterNames(sql), 2, " from dual"));
+    }
+
+    @Test
+    public void testIsBatchable() {
+        assertTrue(CachedLookupColumnTransform.isBatchable("select price from item where item_id=:ITEM_ID and note <> 'order by;'"));
+        assertFalse(CachedLookupColumnTransform.isBatchable("select price from item where item_id=:ITEM_ID order  by price desc"));
+        assertFalse(CachedLookupColumnTransform.isBatchable("select price from item where item_id=:ITEM_ID; select 1"));
+    }
+}
@@ -22,6 +22,8 @@ package org.jumpmind.symmetric.route;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -62,6 +64,7 @@ import org.jumpmind.symmetric.service.impl.ParameterService;
 import org.jumpmind.symmetric.service.impl.RouterService;
 import org.jumpmind.symmetric.statistic.IStatisticManager;
 import org.jumpmind.symmetric.statistic.StatisticManager;
+import org.jumpmind.util.LongArrayList;
 import org.junit.Assert;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -136,7 +139,7 @@ public class DataGapDetectorTest {
     protected void runGapDetector(List<DataGap> dataGaps, List<Long> dataIds, boolean isAllDataRead) {
         when(dataService.findDataGaps()).thenReturn(dataGaps);
         detector.beforeRouting();
-        detector.addDataIds(dataIds);
+        detector.addDataIds(new LongArrayList(dataIds));
         detector.setIsAllDataRead(isAllDataRead);
         detector.afterRouting();
     }
@@ -150,7 +153,7 @@ public class DataGapDetectorTest {
             }
         });
         detector.beforeRouting();
-        detector.addDataIds(dataIds);
+        detector.addDataIds(new LongArrayList(dataIds));
         detector.setIsAllDataRead(isAllDataRead);
         detector.afterRouting();
     }
@@ -174,6 +177,63 @@ public class DataGapDetectorTest {
         verifyNoMoreInteractions(dataService);
     }
 
+    @Test
+    public void testDeferredChannels() throws Exception {
+        List<DataGap> dataGaps = new ArrayList<DataGap>();
+        dataGaps.add(new DataGap(3, 3));
+        dataGaps.add(new DataGap(4, 50000004));
+        when(dataService.findDataGaps()).thenReturn(dataGaps);
+        detector.beforeRouting();
+        DeferredDataGapDetector channel1 = new DeferredDataGapDetector(detector, null);
+        DeferredDataGapDetector channel2 = new DeferredDataGapDetector(detector, null);
+        Assert.assertEquals(dataGaps, channel1.getDataGaps());
+        List<Long> dataIds1 = new ArrayList<Long>();
+        dataIds1.add(100L);
+        channel1.addDataIds(new LongArrayList(dataIds1));
+        channel1.setIsAllDataRead(true);
+        List<Long> dataIds2 = new ArrayList<Long>();
+        dataIds2.add(102L);
+        channel2.addDataIds(new LongArrayList(dataIds2));
+        channel2.setIsAllDataRead(false);
+        channel1.setFullGapAnalysis(sqlTransaction, true);
+        channel1.afterRouting();
+        verify(dataService).findDataGaps();
+        verifyNoMoreInteractions(dataService);
+        verify(contextService, never()).save(sqlTransaction, ContextConstants.ROUTING_FULL_GAP_ANALYSIS, "true");
+        channel1.flush();
+        channel2.flush();
+        detector.afterRouting();
+        Set<DataGap> deleted = new HashSet<DataGap>();
+        deleted.add(new DataGap(4, 50000004));
+        Set<DataGap> inserted = new HashSet<DataGap>();
+        inserted.add(new DataGap(4, 99));
+        inserted.add(new DataGap(101, 101));
+        inserted.add(new DataGap(103, 50000102));
+        verify(dataService).deleteDataGaps(sqlTransaction, deleted);
+        verify(dataService).insertDataGaps(sqlTransaction, inserted);
+        verifyNoMoreInteractions(dataService);
+    }
+
+    @Test
+    public void testClusterReloadsGapsWhenVersionChanges() throws Exception {
+        when(parameterService.is(ParameterConstants.CLUSTER_LOCKING_ENABLED)).thenReturn(true);
+        List<DataGap> dataGaps = new ArrayList<DataGap>();
+        dataGaps.add(new DataGap(3, 3));
+        dataGaps.add(new DataGap(4, 50000004));
+        List<Long> dataIds = new ArrayList<Long>();
+        dataIds.add(100L);
+        runGapDetector(dataGaps, dataIds, true);
+        verify(contextService).save(sqlTransaction, ContextConstants.ROUTING_DATA_GAP_VERSION, "1");
+        Assert.assertTrue(detector.getDataGapIndex().isInDataGap(99));
+        Assert.assertFalse(detector.getDataGapIndex().isInDataGap(100));
+        when(contextService.getLong(ContextConstants.ROUTING_DATA_GAP_VERSION)).thenReturn(1L);
+        detector.beforeRouting();
+        verify(dataService, times(1)).findDataGaps();
+        when(contextService.getLong(ContextConstants.ROUTING_DATA_GAP_VERSION)).thenReturn(2L);
+        detector.beforeRouting();
+        verify(dataService, times(2)).findDataGaps();
+    }
+
     @Test
     public void testNewGapFull() throws Exception {
         detector.setFullGapAnalysis(true);
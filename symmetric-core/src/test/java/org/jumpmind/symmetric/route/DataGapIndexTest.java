@@ -0,0 +1,84 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.route;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jumpmind.symmetric.model.DataGap;
+import org.junit.jupiter.api.Test;
+
+public class DataGapIndexTest {
+    @Test
+    public void testFindGap() throws Exception {
+        List<DataGap> gaps = new ArrayList<DataGap>();
+        gaps.add(new DataGap(7, 10));
+        gaps.add(new DataGap(1, 3));
+        gaps.add(new DataGap(5, 5));
+        gaps.add(new DataGap(12, 50000012));
+        DataGapIndex index = new DataGapIndex(gaps);
+        assertEquals(4, index.size());
+        assertEquals(new DataGap(1, 3), index.first());
+        assertEquals(new DataGap(12, 50000012), index.last());
+        assertNull(index.findGap(0));
+        assertEquals(new DataGap(1, 3), index.findGap(1));
+        assertEquals(new DataGap(1, 3), index.findGap(3));
+        assertFalse(index.isInDataGap(4));
+        assertTrue(index.isInDataGap(5));
+        assertFalse(index.isInDataGap(6));
+        assertEquals(new DataGap(7, 10), index.findGap(10));
+        assertFalse(index.isInDataGap(11));
+        assertTrue(index.isInDataGap(50000012));
+        assertFalse(index.isInDataGap(50000013));
+    }
+
+    @Test
+    public void testSplitAndExpire() throws Exception {
+        DataGapIndex index = new DataGapIndex();
+        assertNull(index.first());
+        assertTrue(index.add(new DataGap(1, 3)));
+        assertTrue(index.add(new DataGap(4, 100)));
+        assertFalse(index.add(new DataGap(4, 100)));
+        // data was routed at 50, so split the gap around it
+        assertTrue(index.remove(new DataGap(4, 100)));
+        index.add(new DataGap(4, 49));
+        index.add(new DataGap(51, 100));
+        assertFalse(index.isInDataGap(50));
+        assertTrue(index.contains(new DataGap(51, 100)));
+        // expire the first gap
+        assertTrue(index.remove(new DataGap(1, 3)));
+        assertFalse(index.remove(new DataGap(1, 3)));
+        assertFalse(index.isInDataGap(2));
+        DataGap gap = index.first();
+        assertEquals(new DataGap(4, 49), gap);
+        gap = index.next(gap);
+        assertEquals(new DataGap(51, 100), gap);
+        assertNull(index.next(gap));
+        List<DataGap> list = index.toList();
+        assertEquals(2, list.size());
+        assertEquals(new DataGap(4, 49), list.get(0));
+    }
+}
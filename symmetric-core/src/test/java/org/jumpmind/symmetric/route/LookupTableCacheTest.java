@@ -0,0 +1,79 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.route;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class LookupTableCacheTest {
+    @Test
+    public void testAddExternalIds() {
+        LookupTableCache cache = new LookupTableCache();
+        cache.add("1", "store1");
+        cache.add("1", "store1");
+        cache.add("2", "store1");
+        cache.add("2", "store2");
+        cache.add("2", "store3");
+        assertEquals(Collections.singletonList("store1"), cache.getExternalIds("1"));
+        assertEquals(Arrays.asList("store1", "store2", "store3"), cache.getExternalIds("2"));
+        assertNull(cache.getExternalIds("3"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testExternalIdsAreInterned() {
+        LookupTableCache cache = new LookupTableCache();
+        cache.add("1", new String("store1"));
+        cache.add("2", new String("store1"));
+        assertSame(cache.getExternalIds("1").iterator().next(), cache.getExternalIds("2").iterator().next());
+    }
+
+    @Test
+    public void testReplace() {
+        LookupTableCache cache = new LookupTableCache();
+        cache.add("1", "store1");
+        cache.add("2", "store1");
+        cache.add("3", "store3");
+        Map<String, List<String>> found = new HashMap<String, List<String>>();
+        found.put("1", Arrays.asList("store2", "store3"));
+        cache.replace(Arrays.asList("1", "2"), found);
+        assertEquals(Arrays.asList("store2", "store3"), cache.getExternalIds("1"));
+        assertNull(cache.getExternalIds("2"));
+        assertEquals(Collections.singletonList("store3"), cache.getExternalIds("3"));
+    }
+
+    @Test
+    public void testMarkApplied() {
+        LookupTableCache cache = new LookupTableCache();
+        assertTrue(cache.markApplied(10, 0));
+        assertTrue(cache.markApplied(11, 0));
+        assertFalse(cache.markApplied(10, 0));
+        assertTrue(cache.markApplied(12, 10));
+        assertTrue(cache.markApplied(10, 9));
+    }
+}
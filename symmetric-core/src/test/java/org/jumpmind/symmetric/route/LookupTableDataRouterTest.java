@@ -22,6 +22,9 @@ package org.jumpmind.symmetric.route;
 
 import static org.junit.Assert.*;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.jumpmind.symmetric.SyntaxParsingException;
 import org.junit.jupiter.api.Test;
 
@@ -113,4 +116,28 @@ public class LookupTableDataRouterTest {
         }
         assertEquals(false, valid);
     }
+
+    @Test
+    public void testAddKeyFromCapturedData() {
+        Set<String> keys = new HashSet<String>();
+        String[] columnNames = { "STORE_ID", "BRAND_ID", "NAME" };
+        assertTrue(LookupTableDataRouter.addKey(keys, columnNames, "\"1\",\"10\",\"Main\"", "brand_id"));
+        assertFalse(LookupTableDataRouter.addKey(keys, new String[] { "STORE_ID" }, "\"2\"", "brand_id"));
+        assertFalse(LookupTableDataRouter.addKey(keys, columnNames, null, "brand_id"));
+        assertEquals(1, keys.size());
+        assertTrue(keys.contains("10"));
+    }
+
+    @Test
+    public void testTriggerCaptureChecks() {
+        assertTrue(LookupTableDataRouter.isUnconditional(null));
+        assertTrue(LookupTableDataRouter.isUnconditional(" "));
+        assertTrue(LookupTableDataRouter.isUnconditional("1 = 1"));
+        assertFalse(LookupTableDataRouter.isUnconditional("$(newTriggerValue).STORE_ID > 0"));
+        assertTrue(LookupTableDataRouter.isSameName(null, "PUBLIC"));
+        assertTrue(LookupTableDataRouter.isSameName("public", "PUBLIC"));
+        assertFalse(LookupTableDataRouter.isSameName("OTHER", "PUBLIC"));
+        assertTrue(LookupTableDataRouter.containsIgnoreCase(new String[] { "STORE_ID", "BRAND_ID" }, "brand_id"));
+        assertFalse(LookupTableDataRouter.containsIgnoreCase(null, "brand_id"));
+    }
 }
@@ -0,0 +1,82 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.route;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.jumpmind.symmetric.model.Data;
+import org.junit.jupiter.api.Test;
+
+public class PeekAheadQueueTest {
+    final static String TABLE1 = "table1";
+    final static String TRAN1 = "1";
+    final static String TRAN2 = "2";
+
+    @Test
+    public void testPollTransactionKeepsReadOrder() throws Exception {
+        PeekAheadQueue queue = new PeekAheadQueue(10);
+        queue.add(newData(1, TRAN1));
+        queue.add(newData(2, TRAN2));
+        queue.add(newData(3, TRAN1));
+        queue.add(newData(4, null));
+        queue.add(newData(5, TRAN1));
+        assertEquals(5, queue.size());
+        List<Data> datas = queue.pollTransaction(TRAN1);
+        assertEquals(3, datas.size());
+        assertEquals(1, datas.get(0).getDataId());
+        assertEquals(3, datas.get(1).getDataId());
+        assertEquals(5, datas.get(2).getDataId());
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.getReadCountSinceLastTaken());
+        assertTrue(queue.pollTransaction(TRAN1).isEmpty());
+        assertEquals(2, queue.poll().getDataId());
+        assertEquals(4, queue.poll().getDataId());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+        assertEquals(2, queue.getTransactionCount());
+    }
+
+    @Test
+    public void testPollAfterPollTransaction() throws Exception {
+        PeekAheadQueue queue = new PeekAheadQueue(10);
+        queue.add(newData(1, TRAN1));
+        queue.add(newData(2, TRAN2));
+        queue.add(newData(3, TRAN2));
+        queue.add(newData(4, TRAN1));
+        assertEquals(1, queue.poll().getDataId());
+        assertEquals(3, queue.getReadCountSinceLastTaken());
+        assertEquals(4, queue.pollTransaction(TRAN1).get(0).getDataId());
+        queue.add(newData(5, TRAN1));
+        assertEquals(1, queue.getReadCountSinceLastTaken());
+        assertEquals(2, queue.poll().getDataId());
+        assertEquals(3, queue.pollTransaction(TRAN2).get(0).getDataId());
+        assertEquals(5, queue.poll().getDataId());
+        assertNull(queue.poll());
+    }
+
+    protected Data newData(long dataId, String transactionId) {
+        return new Data(dataId, null, null, null, TABLE1, null, null, null, transactionId, null);
+    }
+}
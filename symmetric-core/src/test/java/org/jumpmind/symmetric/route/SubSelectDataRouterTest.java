@@ -0,0 +1,70 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.route;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.jumpmind.symmetric.db.ISymmetricDialect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SubSelectDataRouterTest {
+    private static final String EXPRESSION = "c.external_id in (select home_store from employee where employee_id in (:EMPLOYEE_ID, :OLD_EMPLOYEE_ID) "
+            + "and status <> ':SKIP' and updated::date = :employee_id)";
+    private SubSelectDataRouter router;
+
+    @BeforeEach
+    public void setUp() {
+        ISymmetricDialect symmetricDialect = mock(ISymmetricDialect.class);
+        when(symmetricDialect.getTablePrefix()).thenReturn("sym");
+        router = new SubSelectDataRouter(symmetricDialect);
+    }
+
+    @Test
+    public void testParseParameterNames() {
+        assertEquals(Arrays.asList("EMPLOYEE_ID", "OLD_EMPLOYEE_ID"), SubSelectDataRouter.parseParameterNames(EXPRESSION));
+    }
+
+    @Test
+    public void testBuildBatchSql() {
+        List<String> parameterNames = SubSelectDataRouter.parseParameterNames(EXPRESSION);
+        assertEquals("select v.row_key, c.node_id from sym_node c, (select 0 as row_key, :R0_0 as p0, :R0_1 as p1 from dual union all "
+                + "select 1 as row_key, :R1_0 as p0, :R1_1 as p1 from dual) v where c.node_group_id=:NODE_GROUP_ID and c.sync_enabled=1 and "
+                + "(c.external_id in (select home_store from employee where employee_id in (v.p0, v.p1) and status <> ':SKIP' "
+                + "and updated::date = v.p0))", router.buildBatchSql(EXPRESSION, parameterNames, 2, " from dual"));
+    }
+
+    @Test
+    public void testIsAnyTableReferenced() {
+        assertTrue(router.isAnyTableReferenced(EXPRESSION, new HashSet<String>(Arrays.asList("item", "EMPLOYEE"))));
+        assertTrue(router.isAnyTableReferenced(EXPRESSION, Collections.singleton("sym_node")));
+        assertFalse(router.isAnyTableReferenced(EXPRESSION, Collections.singleton("employee_role")));
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jumpmind.db.platform.IDatabasePlatform;
+import org.jumpmind.symmetric.common.ParameterConstants;
+import org.jumpmind.symmetric.db.ISymmetricDialect;
+import org.jumpmind.symmetric.model.TablePartition;
+import org.jumpmind.symmetric.service.IClusterService;
+import org.jumpmind.symmetric.service.IContextService;
+import org.jumpmind.symmetric.service.IExtensionService;
+import org.jumpmind.symmetric.service.IParameterService;
+import org.jumpmind.symmetric.statistic.IStatisticManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PurgeServiceTest {
+    ISymmetricDialect symmetricDialect = mock(ISymmetricDialect.class);
+    IParameterService parameterService = mock(IParameterService.class);
+
+    @BeforeEach
+    public void setUp() {
+        when(symmetricDialect.getPlatform()).thenReturn(mock(IDatabasePlatform.class));
+        when(symmetricDialect.getSqlReplacementTokens()).thenReturn(new HashMap<String, String>());
+        when(parameterService.getTablePrefix()).thenReturn("sym");
+        when(parameterService.getEngineName()).thenReturn("test");
+    }
+
+    @Test
+    public void testPartitionRollover() {
+        PurgeService purgeService = new PurgeService(parameterService, symmetricDialect, mock(IClusterService.class),
+                mock(IStatisticManager.class), mock(IExtensionService.class), mock(IContextService.class));
+        when(parameterService.getInt(ParameterConstants.PURGE_CAPTURE_PARTITIONS_AHEAD, 2)).thenReturn(2);
+        List<TablePartition> partitions = Arrays.asList(new TablePartition("sym_data_p0", 0, 100),
+                new TablePartition("sym_data_p100", 100, 200), new TablePartition("sym_data_p200", 200, 300),
+                new TablePartition("sym_data_default"));
+
+        assertEquals(2, purgeService.dropPartitions("sym_data", partitions, 250));
+        verify(symmetricDialect).dropTablePartition("sym_data", partitions.get(0));
+        verify(symmetricDialect).dropTablePartition("sym_data", partitions.get(1));
+        verify(symmetricDialect, never()).dropTablePartition("sym_data", partitions.get(2));
+        verify(symmetricDialect, never()).dropTablePartition("sym_data", partitions.get(3));
+        assertEquals(199, purgeService.getDroppedUpToId(partitions, 250));
+
+        purgeService.createPartitionsAhead("sym_data", partitions, 250, 100);
+        verify(symmetricDialect).createTablePartition("sym_data", 300, 400);
+        verify(symmetricDialect).createTablePartition("sym_data", 400, 500);
+        verify(symmetricDialect, never()).createTablePartition("sym_data", 500, 600);
+    }
+
+    @Test
+    public void testPartitionsCreatedAheadWhenIdsPassedLastPartition() {
+        PurgeService purgeService = new PurgeService(parameterService, symmetricDialect, mock(IClusterService.class),
+                mock(IStatisticManager.class), mock(IExtensionService.class), mock(IContextService.class));
+        when(parameterService.getInt(ParameterConstants.PURGE_CAPTURE_PARTITIONS_AHEAD, 2)).thenReturn(1);
+        List<TablePartition> partitions = Arrays.asList(new TablePartition("sym_data_p0", 0, 100),
+                new TablePartition("sym_data_default"));
+
+        assertEquals(0, purgeService.dropPartitions("sym_data", partitions, 50));
+        assertEquals(0, purgeService.getDroppedUpToId(partitions, 50));
+
+        purgeService.createPartitionsAhead("sym_data", partitions, 1050, 100);
+        verify(symmetricDialect).createTablePartition("sym_data", 1100, 1200);
+        verify(symmetricDialect, never()).createTablePartition("sym_data", 100, 200);
+        verify(symmetricDialect, never()).createTablePartition("sym_data", 1000, 1100);
+    }
+
+    @Test
+    public void testConcurrentPurgeWaitsForRunningChunksAfterFailure() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger finished = new AtomicInteger();
+        PurgeService purgeService = new PurgeService(parameterService, symmetricDialect, mock(IClusterService.class),
+                mock(IStatisticManager.class), mock(IExtensionService.class), mock(IContextService.class)) {
+            @Override
+            protected int purgeRange(MinMaxDeleteSql identifier, long minId, long maxId, Timestamp cutoffTime) {
+                running.incrementAndGet();
+                try {
+                    if (minId == 1) {
+                        Thread.sleep(50);
+                        throw new IllegalStateException("chunk failed");
+                    }
+                    Thread.sleep(500);
+                    finished.incrementAndGet();
+                    return 1;
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+        };
+        try {
+            purgeService.purgeByMinMaxConcurrently(new long[] { 1, 1000 }, PurgeService.MinMaxDeleteSql.DATA_RANGE, new Date(),
+                    10, 4);
+            fail("Expected the failed chunk to be thrown");
+        } catch (IllegalStateException e) {
+            assertEquals("chunk failed", e.getMessage());
+        }
+        assertEquals(0, running.get());
+        assertEquals(3, finished.get());
+    }
+}
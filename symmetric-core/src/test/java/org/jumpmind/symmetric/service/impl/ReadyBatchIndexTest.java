@@ -0,0 +1,98 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.service.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class ReadyBatchIndexTest {
+    @Test
+    public void testCountsAfterLoad() {
+        ReadyBatchIndex index = new ReadyBatchIndex();
+        assertEquals(-1, index.getCount("001", null));
+        index.load(Collections.singletonMap("001", counts("default", 2, "config", 1)), index.getChangeId());
+        assertEquals(3, index.getCount("001", null));
+        assertEquals(2, index.getCount("001", Arrays.asList("default")));
+        assertEquals(0, index.getCount("001", Arrays.asList("other")));
+        assertEquals(0, index.getCount("002", null));
+        assertEquals(Arrays.asList("001"), index.getNodeIds());
+    }
+
+    @Test
+    public void testAddAndMarkChanged() {
+        ReadyBatchIndex index = new ReadyBatchIndex();
+        index.load(new HashMap<String, Map<String, Integer>>(), index.getChangeId());
+        index.add("002", "default", 1);
+        assertEquals(1, index.getCount("002", null));
+        index.markChanged("002");
+        assertEquals(-1, index.getCount("002", null));
+        assertTrue(index.getNodeIds().contains("002"));
+        assertTrue(index.setCounts("002", new HashMap<String, Integer>(), index.getChangeId("002")));
+        assertEquals(0, index.getCount("002", null));
+        assertTrue(index.getNodeIds().isEmpty());
+    }
+
+    @Test
+    public void testCountsNotReplacedAfterChange() {
+        ReadyBatchIndex index = new ReadyBatchIndex();
+        index.load(new HashMap<String, Map<String, Integer>>(), index.getChangeId());
+        long nodeChangeId = index.getChangeId("003");
+        long changeId = index.getChangeId();
+        index.add("003", "default", 1);
+        assertFalse(index.setCounts("003", new HashMap<String, Integer>(), nodeChangeId));
+        assertEquals(1, index.getCount("003", null));
+        index.load(new HashMap<String, Map<String, Integer>>(), changeId);
+        assertEquals(1, index.getCount("003", null));
+        index.raise("003", "default", 1);
+        assertEquals(1, index.getCount("003", null));
+        index.load(new HashMap<String, Map<String, Integer>>(), index.getChangeId());
+        assertEquals(0, index.getCount("003", null));
+    }
+
+    @Test
+    public void testRequestedBatchesLeftOutOfPushNodes() {
+        ReadyBatchIndex index = new ReadyBatchIndex();
+        index.load(Collections.singletonMap("001", counts("default", 1)), Collections.singletonMap("002", counts("reload", 2)),
+                index.getChangeId());
+        assertEquals(2, index.getCount("002", null));
+        assertEquals(Arrays.asList("001"), index.getNodeIds(false));
+        assertEquals(2, index.getNodeIds(true).size());
+        index.add("001", "reload", 1, true);
+        assertEquals(2, index.getCount("001", null));
+        assertTrue(index.setCounts("002", new HashMap<String, Integer>(), counts("reload", 1), index.getChangeId("002")));
+        assertEquals(1, index.getCount("002", null));
+        assertFalse(index.getNodeIds(false).contains("002"));
+    }
+
+    protected static Map<String, Integer> counts(Object... channelCounts) {
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        for (int i = 0; i < channelCounts.length; i += 2) {
+            counts.put((String) channelCounts[i], (Integer) channelCounts[i + 1]);
+        }
+        return counts;
+    }
+}
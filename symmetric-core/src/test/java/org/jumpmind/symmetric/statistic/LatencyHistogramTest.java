@@ -0,0 +1,94 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.statistic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500500, histogram.getTotal());
+        long p50 = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p50 >= 500 && p50 <= 500 * 1.07);
+        assertTrue(p99 >= 990 && p99 <= 1000);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testSmallAndLargeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(3);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getValueAtPercentile(1));
+        assertEquals(3, histogram.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testSnapshotAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(20);
+        LatencyHistogram snapshot = histogram.snapshotAndReset();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(20, snapshot.getMax());
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testChannelStatsSnapshot() {
+        Date startTime = new Date(0);
+        ChannelStats stats = new ChannelStats("00000", "host", startTime, null, "default");
+        stats.incrementDataLoaded(5);
+        stats.incrementDataLoaded(2);
+        ChannelLatencyStats latencyStats = new ChannelLatencyStats();
+        latencyStats.recordLoadMillis(40);
+        Date endTime = new Date();
+        ChannelStats snapshot = stats.snapshotAndReset(endTime);
+        latencyStats.copyTo(snapshot, true);
+        assertEquals(7, snapshot.getDataLoaded());
+        assertEquals(startTime, snapshot.getStartTime());
+        assertEquals(endTime, snapshot.getEndTime());
+        assertEquals(40, snapshot.getLoadMillisMax());
+        assertTrue(snapshot.isNonZero());
+        assertEquals(0, stats.getDataLoaded());
+        assertEquals(endTime, stats.getStartTime());
+        ChannelStats next = stats.snapshotAndReset(new Date());
+        latencyStats.copyTo(next, true);
+        assertEquals(0, next.getLoadMillisMax());
+    }
+}
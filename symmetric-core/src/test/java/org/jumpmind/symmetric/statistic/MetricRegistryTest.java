@@ -0,0 +1,59 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.statistic;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+public class MetricRegistryTest {
+    @Test
+    public void testWrite() throws Exception {
+        MetricRegistry registry = new MetricRegistry();
+        registry.counter("symmetric_rows", "Rows \"loaded\"");
+        registry.gauge("symmetric_backlog_seconds", "Backlog");
+        registry.add("symmetric_rows", 42, "channel", "default");
+        registry.add("symmetric_rows", 7, "channel", "a\\b\"c");
+        registry.add("symmetric_backlog_seconds", 1.5);
+        StringWriter writer = new StringWriter();
+        registry.write(writer);
+        assertEquals("# TYPE symmetric_rows counter\n"
+                + "# HELP symmetric_rows Rows \\\"loaded\\\"\n"
+                + "symmetric_rows_total{channel=\"default\"} 42\n"
+                + "symmetric_rows_total{channel=\"a\\\\b\\\"c\"} 7\n"
+                + "# TYPE symmetric_backlog_seconds gauge\n"
+                + "# HELP symmetric_backlog_seconds Backlog\n"
+                + "symmetric_backlog_seconds 1.5\n"
+                + "# EOF\n", writer.toString());
+    }
+
+    @Test
+    public void testUndeclaredMetric() {
+        MetricRegistry registry = new MetricRegistry();
+        try {
+            registry.add("symmetric_unknown", 1);
+            throw new AssertionError("Expected an exception for an undeclared metric");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -59,6 +59,22 @@ public class MockStatisticManager implements IStatisticManager {
     public void addJobStats(String jobName, long startTime, long endTime, long processedCount) {
     }
 
+    public void recordRouterMillis(String channelId, long millis) {
+    }
+
+    public void recordExtractMillis(String channelId, long millis) {
+    }
+
+    public void recordNetworkMillis(String channelId, long millis) {
+    }
+
+    public void recordLoadMillis(String channelId, long millis) {
+    }
+
+    public Map<String, ChannelStats> getTotalChannelStats() {
+        return null;
+    }
+
     public void incrementRestart() {
     }
 
@@ -0,0 +1,92 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.util;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.jumpmind.symmetric.util.BshScriptCompiler.CompiledScript;
+import org.junit.jupiter.api.Test;
+
+public class BshScriptCompilerTest {
+    @Test
+    public void testReturnLastExpression() throws Exception {
+        BshScriptCompiler compiler = new BshScriptCompiler();
+        Map<String, Object> variables = new HashMap<String, Object>();
+        variables.put("STORE_ID", "1");
+        CompiledScript script = compiler.getCompiledScript("\"1\".equals(STORE_ID) // store one", variables, null);
+        assertNotNull(script);
+        assertEquals(Boolean.TRUE, script.eval(variables));
+        variables.put("STORE_ID", "2");
+        assertEquals(Boolean.FALSE, script.eval(variables));
+    }
+
+    @Test
+    public void testStatementsAndTargetNodes() throws Exception {
+        BshScriptCompiler compiler = new BshScriptCompiler();
+        Map<String, String> declaredTypes = new HashMap<String, String>();
+        declaredTypes.put("targetNodes", "java.util.Set<String>");
+        Set<String> targetNodes = new HashSet<String>();
+        Map<String, Object> variables = new HashMap<String, Object>();
+        variables.put("targetNodes", targetNodes);
+        variables.put("QTY", 5);
+        CompiledScript script = compiler.getCompiledScript("import java.math.BigDecimal;\n"
+                + "if (QTY > 3) {\n  targetNodes.add(\"big;\" + new BigDecimal(QTY));\n} else {\n  targetNodes.add(\"small\");\n}", variables,
+                declaredTypes);
+        assertNotNull(script);
+        assertNull(script.eval(variables));
+        assertTrue(targetNodes.contains("big;5"));
+    }
+
+    @Test
+    public void testLooselyTypedScriptIsInterpreted() throws Exception {
+        BshScriptCompiler compiler = new BshScriptCompiler();
+        Map<String, Object> variables = new HashMap<String, Object>();
+        variables.put("STORE_ID", "1");
+        assertNull(compiler.getCompiledScript("id = STORE_ID; id.equals(\"1\")", variables, null));
+        assertNull(compiler.getCompiledScript("STORE_ID.equals(\"1\"", variables, null));
+    }
+
+    @Test
+    public void testNullValueUsesLastType() throws Exception {
+        BshScriptCompiler compiler = new BshScriptCompiler();
+        Map<String, Object> variables = new HashMap<String, Object>();
+        variables.put("NAME", "abc");
+        String script = "return NAME == null ? \"none\" : NAME.toUpperCase();";
+        assertEquals("ABC", compiler.getCompiledScript(script, variables, null).eval(variables));
+        variables.put("NAME", null);
+        assertEquals("none", compiler.getCompiledScript(script, variables, null).eval(variables));
+    }
+
+    @Test
+    public void testTranslate() {
+        assertEquals("return (Object) (a + b);", BshScriptCompiler.translate("a + b").body);
+        assertEquals("int i = 1;\n return (Object) (i + 1);", BshScriptCompiler.translate("int i = 1;\n i + 1;").body);
+        assertEquals("return \"x;\";", BshScriptCompiler.translate("return \"x;\";").body);
+        assertEquals("String s = \"}\";", BshScriptCompiler.translate("String s = \"}\";").body);
+        assertNull(BshScriptCompiler.translate("if (a) {").body);
+        assertEquals("import java.math.*;\n", BshScriptCompiler.translate("import java.math.*; x").imports);
+    }
+}
@@ -94,6 +94,7 @@ public class Table implements Serializable, Cloneable, Comparable<Table> {
     private String tableNameLowerCase;
     private ArrayList<Column> lobColumns;
     private CompressionTypes compressionType = CompressionTypes.NONE;
+    private String partitionColumnName;
 
     public Table() {
     }
@@ -1551,6 +1552,18 @@ public class Table implements Serializable, Cloneable, Comparable<Table> {
         this.compressionType = compressionType;
     }
 
+    /**
+     * The column to range partition the table by when it is created, or null if the table is not partitioned. Only used by platforms that support
+     * declarative partitioning.
+     */
+    public String getPartitionColumnName() {
+        return partitionColumnName;
+    }
+
+    public void setPartitionColumnName(String partitionColumnName) {
+        this.partitionColumnName = partitionColumnName;
+    }
+
     static class ColumnPkSequenceComparator implements Comparator<Column> {
         @Override
         public int compare(Column o1, Column o2) {
@@ -54,9 +54,10 @@ import java.sql.Array;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -71,7 +72,6 @@ import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.time.DateUtils;
 import org.jumpmind.db.io.DatabaseXmlUtil;
 import org.jumpmind.db.model.Column;
 import org.jumpmind.db.model.ColumnTypes;
@@ -115,15 +115,14 @@ public abstract class AbstractDatabasePlatform implements IDatabasePlatform {
     /* The model reader for this platform. */
     protected IDdlReader ddlReader;
     protected IDdlBuilder ddlBuilder;
-    protected Map<String, Table> tableCache = Collections.synchronizedMap(new HashMap<String, Table>());
-    private long lastTimeCachedModelClearedInMs = System.currentTimeMillis();
-    protected long clearCacheModelTimeoutInMs = DateUtils.MILLIS_PER_HOUR;
+    protected TableModelCache tableCache = new TableModelCache();
     protected String defaultSchema;
     protected String defaultCatalog;
     protected Boolean storesUpperCaseIdentifiers;
     protected Boolean storesLowerCaseIdentifiers;
     protected Boolean storesMixedCaseIdentifiers;
     protected boolean metadataIgnoreCase = true;
+    protected boolean metadataBulkReadEnabled = true;
     protected boolean useMultiThreadSyncTriggers = true;
     protected SqlTemplateSettings settings;
     protected Boolean supportsTransactions;
@@ -178,11 +177,15 @@ public abstract class AbstractDatabasePlatform implements IDatabasePlatform {
     }
 
     public void setClearCacheModelTimeoutInMs(long clearCacheModelTimeoutInMs) {
-        this.clearCacheModelTimeoutInMs = clearCacheModelTimeoutInMs;
+        tableCache.setRefreshAfterMs(clearCacheModelTimeoutInMs);
     }
 
     public long getClearCacheModelTimeoutInMs() {
-        return clearCacheModelTimeoutInMs;
+        return tableCache.getRefreshAfterMs();
+    }
+
+    public TableModelCache getTableModelCache() {
+        return tableCache;
     }
 
     public void dropTables(boolean continueOnError, Table... tables) {
@@ -267,8 +270,31 @@ public abstract class AbstractDatabasePlatform implements IDatabasePlatform {
 
     public Database readFromDatabase(Table... tables) {
         Database fromDb = new Database();
+        Map<String, List<String>> tableNamesBySchema = new LinkedHashMap<String, List<String>>();
+        Map<String, Table> firstTableBySchema = new HashMap<String, Table>();
         for (Table tableFromXml : tables) {
-            Table tableFromDatabase = getTableFromCache(tableFromXml.getCatalog(), tableFromXml.getSchema(), tableFromXml.getName(), true);
+            String prefix = Table.getFullyQualifiedTablePrefix(tableFromXml.getCatalog(), tableFromXml.getSchema());
+            List<String> tableNames = tableNamesBySchema.get(prefix);
+            if (tableNames == null) {
+                tableNames = new ArrayList<String>();
+                tableNamesBySchema.put(prefix, tableNames);
+                firstTableBySchema.put(prefix, tableFromXml);
+            }
+            tableNames.add(tableFromXml.getName());
+        }
+        Set<String> readKeys = new HashSet<String>();
+        for (Map.Entry<String, List<String>> entry : tableNamesBySchema.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                Table first = firstTableBySchema.get(entry.getKey());
+                for (Table table : readTablesIntoCache(first.getCatalog(), first.getSchema(), entry.getValue())) {
+                    readKeys.add(Table.getFullyQualifiedTableName(first.getCatalog(), first.getSchema(), table.getName()));
+                }
+            }
+        }
+        for (Table tableFromXml : tables) {
+            String key = Table.getFullyQualifiedTableName(tableFromXml.getCatalog(), tableFromXml.getSchema(), tableFromXml.getName());
+            Table tableFromDatabase = readKeys.contains(key) ? getTableFromCache(tableFromXml.getCatalog(), tableFromXml.getSchema(),
+                    tableFromXml.getName(), false) : getTableFromCache(tableFromXml.getCatalog(), tableFromXml.getSchema(), tableFromXml.getName(), true);
             if (tableFromDatabase != null) {
                 fromDb.addTable(tableFromDatabase);
             }
@@ -325,34 +351,59 @@ public abstract class AbstractDatabasePlatform implements IDatabasePlatform {
         return table;
     }
 
+    public List<Table> readTablesIntoCache(String catalogName, String schemaName, Collection<String> tableNames) {
+        String defaultedCatalogName = catalogName == null ? getDefaultCatalog() : catalogName;
+        String defaultedSchemaName = schemaName == null ? getDefaultSchema() : schemaName;
+        if (!metadataBulkReadEnabled || StringUtils.isBlank(defaultedSchemaName) || tableNames == null || tableNames.size() == 0) {
+            return new ArrayList<Table>(0);
+        }
+        long version = tableCache.getVersion();
+        long ts = System.currentTimeMillis();
+        List<Table> tables = ddlReader.readTablesByName(defaultedCatalogName, defaultedSchemaName, tableNames);
+        long loadTimeInMs = tables.size() > 0 ? (System.currentTimeMillis() - ts) / tables.size() : 0;
+        for (Table table : tables) {
+            tableCache.put(Table.getFullyQualifiedTableName(catalogName, schemaName, table.getName()), table.getName(), table, version,
+                    loadTimeInMs);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Read {} of {} tables from {} into the cache", tables.size(), tableNames.size(),
+                    Table.getFullyQualifiedTablePrefix(defaultedCatalogName, defaultedSchemaName));
+        }
+        return tables;
+    }
+
     public void resetCachedTableModel() {
-        this.tableCache = Collections.synchronizedMap(new HashMap<String, Table>());
-        lastTimeCachedModelClearedInMs = System.currentTimeMillis();
+        tableCache.invalidateAll();
+    }
+
+    public void resetCachedTable(String catalogName, String schemaName, String tableName) {
+        tableCache.invalidate(tableName);
     }
 
     public Table getTableFromCache(String tableName, boolean forceReread) {
         return getTableFromCache(getDefaultCatalog(), getDefaultSchema(), tableName, forceReread);
     }
 
-    public Table getTableFromCache(String catalogName, String schemaName, String tableName, boolean forceReread) {
-        if (System.currentTimeMillis() - lastTimeCachedModelClearedInMs > clearCacheModelTimeoutInMs) {
-            resetCachedTableModel();
-        }
-        Map<String, Table> model = tableCache;
-        String key = Table.getFullyQualifiedTableName(catalogName, schemaName, tableName);
-        Table retTable = model != null ? model.get(key) : null;
-        if (retTable == null || forceReread) {
-            try {
-                Table table = readTableFromDatabase(catalogName, schemaName, tableName);
-                tableCache.put(key, table);
-                retTable = table;
-            } catch (RuntimeException ex) {
-                throw ex;
-            } catch (Exception ex) {
-                throw new RuntimeException(ex);
+    public Table getTableFromCache(final String catalogName, final String schemaName, final String tableName, boolean forceReread) {
+        final String key = Table.getFullyQualifiedTableName(catalogName, schemaName, tableName);
+        if (!forceReread) {
+            TableModelCache.Entry entry = tableCache.get(key);
+            if (entry != null) {
+                if (tableCache.isStale(entry)) {
+                    tableCache.refresh(entry, () -> readTableIntoCache(catalogName, schemaName, tableName, key));
+                }
+                return entry.getTable();
             }
         }
-        return retTable;
+        return readTableIntoCache(catalogName, schemaName, tableName, key);
+    }
+
+    protected Table readTableIntoCache(String catalogName, String schemaName, String tableName, String key) {
+        long version = tableCache.getVersion();
+        long ts = System.currentTimeMillis();
+        Table table = readTableFromDatabase(catalogName, schemaName, tableName);
+        tableCache.put(key, tableName, table, version, System.currentTimeMillis() - ts);
+        return table;
     }
 
     public Object[] getObjectValues(BinaryEncoding encoding, Table table, String[] columnNames, String[] values) {
@@ -373,27 +424,24 @@ public abstract class AbstractDatabasePlatform implements IDatabasePlatform {
     public Object[] getObjectValues(BinaryEncoding encoding, String[] values, Column[] orderedMetaData, boolean useVariableDates,
             boolean fitToColumn) {
         if (values != null) {
-            List<Object> list = new ArrayList<Object>(values.length);
-            for (int i = 0; i < values.length; i++) {
-                String value = values[i];
-                Column column = orderedMetaData.length > i ? orderedMetaData[i] : null;
-                try {
-                    if (column != null) {
-                        list.add(getObjectValue(value, column, encoding, useVariableDates, fitToColumn));
-                    }
-                } catch (Exception ex) {
-                    String valueTrimmed = FormatUtils.abbreviateForLogging(value);
-                    throw new RuntimeException("Could not convert a value of " + valueTrimmed + " for column " + column.getName()
-                            + " of mapped type " + column.getMappedType() + " jdbc type "
-                            + column.getJdbcTypeName() + " (" + column.getJdbcTypeCode() + ")", ex);
-                }
-            }
-            return list.toArray();
+            return createObjectValueConverter(orderedMetaData).convert(encoding, values, useVariableDates, fitToColumn);
         } else {
             return null;
         }
     }
 
+    public ObjectValueConverter createObjectValueConverter(Column[] orderedMetaData) {
+        return new ObjectValueConverter(this, orderedMetaData);
+    }
+
+    /**
+     * Create the converter used for a column by {@link ObjectValueConverter}. A platform that overrides
+     * {@link #getObjectValue(String, Column, BinaryEncoding, boolean, boolean)} overrides this too.
+     */
+    protected ObjectValueConverter.IColumnConverter createColumnConverter(Column column) {
+        return ObjectValueConverter.compile(this, column);
+    }
+
     protected Object getObjectValue(String value, Column column, BinaryEncoding encoding, boolean useVariableDates, boolean fitToColumn)
             throws DecoderException {
         Object objectValue = value;
@@ -659,7 +707,8 @@ public abstract class AbstractDatabasePlatform implements IDatabasePlatform {
                             return Timestamp.valueOf(value);
                         }
                     } else {
-                        return FormatUtils.parseDate(value, FormatUtils.TIMESTAMP_PATTERNS);
+                        Date date = ObjectValueConverter.parseFixedDate(value);
+                        return date != null ? date : FormatUtils.parseDate(value, FormatUtils.TIMESTAMP_PATTERNS);
                     }
                 }
             } catch (RuntimeException e) {
@@ -757,6 +806,10 @@ public abstract class AbstractDatabasePlatform implements IDatabasePlatform {
         this.metadataIgnoreCase = metadataIgnoreCase;
     }
 
+    public void setMetadataBulkReadEnabled(boolean metadataBulkReadEnabled) {
+        this.metadataBulkReadEnabled = metadataBulkReadEnabled;
+    }
+
     public boolean isMetadataIgnoreCase() {
         return metadataIgnoreCase;
     }
@@ -939,6 +992,10 @@ public abstract class AbstractDatabasePlatform implements IDatabasePlatform {
     }
 
     public java.util.Date parseTimestamp(int type, String value) {
+        Timestamp timestamp = ObjectValueConverter.parseFixedTimestamp(value);
+        if (timestamp != null) {
+            return timestamp;
+        }
         try {
             if (value.indexOf(".") == 8 || value.length() <= 8) {
                 value = "1970-01-01 " + value;
@@ -934,6 +934,7 @@ public abstract class AbstractDdlBuilder implements IDdlBuilder {
         table.setSchema(targetTable.getSchema());
         table.setName(targetTable.getName());
         table.setType(targetTable.getType());
+        table.setPartitionColumnName(targetTable.getPartitionColumnName());
         for (int idx = 0; idx < targetTable.getColumnCount(); idx++) {
             try {
                 table.addColumn((Column) targetTable.getColumn(idx).clone());
@@ -0,0 +1,93 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.db.platform;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Database meta data wrapper that carries the column, primary key, foreign key and index meta data of many tables that was read with one catalog
+ * query each. A reader asks for the rows of a table and falls back to querying the table by itself when the rows were not read in bulk.
+ */
+public class BulkDatabaseMetaDataWrapper extends DatabaseMetaDataWrapper {
+    protected Map<String, List<Map<String, Object>>> columns;
+    protected Map<String, List<Map<String, Object>>> primaryKeys;
+    protected Map<String, List<Map<String, Object>>> foreignKeys;
+    protected Map<String, List<Map<String, Object>>> indices;
+    protected Set<String> ambiguousTableNames = new HashSet<String>();
+
+    public void setColumns(Map<String, List<Map<String, Object>>> columns) {
+        this.columns = columns;
+    }
+
+    public void setPrimaryKeys(Map<String, List<Map<String, Object>>> primaryKeys) {
+        this.primaryKeys = primaryKeys;
+    }
+
+    public void setForeignKeys(Map<String, List<Map<String, Object>>> foreignKeys) {
+        this.foreignKeys = foreignKeys;
+    }
+
+    public void setIndices(Map<String, List<Map<String, Object>>> indices) {
+        this.indices = indices;
+    }
+
+    /**
+     * Mark a table name that was found in more than one schema, so its meta data is read by itself instead.
+     */
+    public void addAmbiguousTableName(String tableName) {
+        ambiguousTableNames.add(tableName);
+    }
+
+    public List<Map<String, Object>> getColumnRows(String tableName) {
+        return getRows(columns, tableName);
+    }
+
+    public List<Map<String, Object>> getPrimaryKeyRows(String tableName) {
+        return getRows(primaryKeys, tableName);
+    }
+
+    public List<Map<String, Object>> getForeignKeyRows(String tableName) {
+        return getRows(foreignKeys, tableName);
+    }
+
+    /**
+     * Get the index rows of a table, or null when they were not read in bulk. A reader puts a null list for a table whose indexes it could not
+     * describe, so they are read by themselves.
+     */
+    public List<Map<String, Object>> getIndexRows(String tableName) {
+        return getRows(indices, tableName);
+    }
+
+    protected List<Map<String, Object>> getRows(Map<String, List<Map<String, Object>>> rowsByTable, String tableName) {
+        if (rowsByTable == null || ambiguousTableNames.contains(tableName)) {
+            return null;
+        }
+        List<Map<String, Object>> rows = rowsByTable.get(tableName);
+        if (rows == null && !rowsByTable.containsKey(tableName)) {
+            rows = Collections.emptyList();
+        }
+        return rows;
+    }
+}
@@ -40,6 +40,7 @@ package org.jumpmind.db.platform;
  */
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -111,8 +112,21 @@ public interface IDatabasePlatform {
 
     public Table readTableFromDatabase(String catalogName, String schemaName, String tablename);
 
+    /**
+     * Reads the named tables of one catalog and schema together and puts them in the table cache. Tables that are not found are left for
+     * {@link #getTableFromCache(String, String, String, boolean)} to look up by themselves.
+     */
+    public List<Table> readTablesIntoCache(String catalogName, String schemaName, Collection<String> tableNames);
+
     public void resetCachedTableModel();
 
+    /**
+     * Removes a table from the table cache after DDL changed it, so the next lookup reads it from the database again.
+     */
+    public void resetCachedTable(String catalogName, String schemaName, String tableName);
+
+    public TableModelCache getTableModelCache();
+
     public Table getTableFromCache(String tableName, boolean forceReread);
 
     public Table getTableFromCache(String catalogName, String schemaName, String tableName,
@@ -201,10 +215,17 @@ public interface IDatabasePlatform {
 
     public void setMetadataIgnoreCase(boolean value);
 
+    public void setMetadataBulkReadEnabled(boolean value);
+
     public boolean isMetadataIgnoreCase();
 
     public java.util.Date parseDate(int type, String value, boolean useVariableDates);
 
+    /**
+     * Compiles the conversion of string values for the columns once, so it can be reused for every row written with the same statement.
+     */
+    public ObjectValueConverter createObjectValueConverter(Column[] orderedMetaData);
+
     public Map<String, String> parseQualifiedTableName(String tableName);
 
     public Table makeAllColumnsPrimaryKeys(Table table);
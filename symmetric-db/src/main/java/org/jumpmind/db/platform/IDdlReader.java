@@ -37,6 +37,8 @@ public interface IDdlReader {
 
     public Table readTable(String catalog, String schema, String tableName);
 
+    public List<Table> readTablesByName(String catalog, String schema, Collection<String> tableNames);
+
     public List<String> getTableTypes();
 
     public List<String> getCatalogNames();
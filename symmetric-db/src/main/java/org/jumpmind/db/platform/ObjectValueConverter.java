@@ -0,0 +1,273 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.db.platform;
+
+import java.nio.charset.Charset;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.lang3.StringUtils;
+import org.jumpmind.db.model.Column;
+import org.jumpmind.db.model.TypeMap;
+import org.jumpmind.db.util.BinaryEncoding;
+import org.jumpmind.util.FormatUtils;
+
+/**
+ * Converts the string values of a row to the objects bound to a statement, using a converter for each column that was chosen once from the column's
+ * type and the platform settings. This does the same conversion as {@link AbstractDatabasePlatform#getObjectValue}, without looking at the column
+ * type and database info again for every value, so a writer compiles one for each DML statement and uses it for all rows.
+ */
+public class ObjectValueConverter {
+    public interface IColumnConverter {
+        public Object convert(String value, BinaryEncoding encoding, boolean useVariableDates, boolean fitToColumn) throws Exception;
+    }
+
+    protected Column[] columns;
+    protected IColumnConverter[] converters;
+    protected boolean hasMissingColumns;
+
+    public ObjectValueConverter(AbstractDatabasePlatform platform, Column[] columns) {
+        this.columns = columns;
+        this.converters = new IColumnConverter[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] != null) {
+                converters[i] = platform.createColumnConverter(columns[i]);
+            } else {
+                hasMissingColumns = true;
+            }
+        }
+    }
+
+    public Object[] convert(BinaryEncoding encoding, String[] values, boolean useVariableDates, boolean fitToColumn) {
+        if (values == null) {
+            return null;
+        }
+        int count = Math.min(values.length, columns.length);
+        if (hasMissingColumns) {
+            List<Object> list = new ArrayList<Object>(count);
+            for (int i = 0; i < count; i++) {
+                if (converters[i] != null) {
+                    list.add(convert(i, values[i], encoding, useVariableDates, fitToColumn));
+                }
+            }
+            return list.toArray();
+        }
+        Object[] objectValues = new Object[count];
+        for (int i = 0; i < count; i++) {
+            objectValues[i] = convert(i, values[i], encoding, useVariableDates, fitToColumn);
+        }
+        return objectValues;
+    }
+
+    protected Object convert(int index, String value, BinaryEncoding encoding, boolean useVariableDates, boolean fitToColumn) {
+        try {
+            return converters[index].convert(value, encoding, useVariableDates, fitToColumn);
+        } catch (Exception ex) {
+            Column column = columns[index];
+            String valueTrimmed = FormatUtils.abbreviateForLogging(value);
+            throw new RuntimeException("Could not convert a value of " + valueTrimmed + " for column " + column.getName()
+                    + " of mapped type " + column.getMappedType() + " jdbc type "
+                    + column.getJdbcTypeName() + " (" + column.getJdbcTypeCode() + ")", ex);
+        }
+    }
+
+    public Column[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * Choose the conversion for a column once, following the same rules as {@link AbstractDatabasePlatform#getObjectValue}.
+     */
+    public static IColumnConverter compile(final AbstractDatabasePlatform platform, final Column column) {
+        final DatabaseInfo databaseInfo = platform.getDdlBuilder().getDatabaseInfo();
+        final IColumnConverter typeConverter = compileType(platform, column, databaseInfo);
+        final boolean substituteRequiredNull = column.isRequired() && column.isOfTextType();
+        final boolean emptyStringNulled = databaseInfo.isEmptyStringNulled();
+        final boolean rightTrim = platform.settings != null && platform.settings.isRightTrimCharValues();
+        final int size = column.getSizeAsInt();
+        return (value, encoding, useVariableDates, fitToColumn) -> {
+            Object objectValue = value;
+            if (substituteRequiredNull && (value == null || (emptyStringNulled && value.equals("")))) {
+                objectValue = AbstractDatabasePlatform.REQUIRED_FIELD_NULL_SUBSTITUTE;
+            }
+            if (value != null && typeConverter != null) {
+                objectValue = typeConverter.convert(value, encoding, useVariableDates, fitToColumn);
+            }
+            if (objectValue instanceof String) {
+                String stringValue = platform.cleanTextForTextBasedColumns((String) objectValue);
+                if (rightTrim) {
+                    stringValue = StringUtils.stripEnd(stringValue, null);
+                }
+                if (fitToColumn && size > 0 && stringValue.length() > size) {
+                    stringValue = stringValue.substring(0, size);
+                }
+                objectValue = stringValue;
+            }
+            return objectValue;
+        };
+    }
+
+    protected static IColumnConverter compileType(final AbstractDatabasePlatform platform, final Column column, final DatabaseInfo databaseInfo) {
+        final int type = column.getMappedTypeCode();
+        String jdbcTypeName = column.getJdbcTypeName() != null ? FormatUtils.upper(column.getJdbcTypeName()) : null;
+        boolean isSpatial = jdbcTypeName != null && (jdbcTypeName.contains(TypeMap.GEOMETRY) || jdbcTypeName.contains(TypeMap.GEOGRAPHY));
+        if (type == Types.DATE || type == Types.TIMESTAMP || type == Types.TIME) {
+            final boolean useTimestamp = type == Types.TIMESTAMP || (type == Types.DATE && databaseInfo.isDateOverridesToTimestamp());
+            return (value, encoding, useVariableDates, fitToColumn) -> {
+                if (useTimestamp && !(useVariableDates && value.startsWith("${curdate")) && StringUtils.isNotBlank(value)) {
+                    return platform.parseTimestamp(type, value);
+                }
+                return platform.parseDate(type, value, useVariableDates);
+            };
+        } else if (type == Types.CHAR) {
+            final boolean blankPadded = databaseInfo.isBlankCharColumnSpacePadded();
+            final boolean nonBlankPadded = databaseInfo.isNonBlankCharColumnSpacePadded();
+            final boolean trimmed = databaseInfo.isCharColumnSpaceTrimmed();
+            final int size = column.getSizeAsInt();
+            final int octetLength = column.getCharOctetLength();
+            return (value, encoding, useVariableDates, fitToColumn) -> {
+                boolean blank = StringUtils.isBlank(value);
+                if ((blank && blankPadded) || (!blank && nonBlankPadded)) {
+                    if (size != octetLength) {
+                        return StringUtils.rightPad(value, size, ' ');
+                    } else {
+                        return value + StringUtils.repeat(" ", octetLength - value.getBytes(Charset.defaultCharset()).length);
+                    }
+                } else if (trimmed) {
+                    return StringUtils.stripEnd(value, " ");
+                }
+                return value;
+            };
+        } else if (type == Types.BIGINT) {
+            return (value, encoding, useVariableDates, fitToColumn) -> platform.parseBigInteger(value);
+        } else if (type == Types.INTEGER || type == Types.SMALLINT || type == Types.BIT || type == Types.TINYINT) {
+            return (value, encoding, useVariableDates, fitToColumn) -> platform.parseInteger(value);
+        } else if (type == Types.FLOAT) {
+            return (value, encoding, useVariableDates, fitToColumn) -> platform.parseFloat(value);
+        } else if (type == Types.NUMERIC || type == Types.DECIMAL || type == Types.DOUBLE || type == Types.REAL) {
+            return (value, encoding, useVariableDates, fitToColumn) -> platform.parseBigDecimal(value);
+        } else if (type == Types.BOOLEAN) {
+            return (value, encoding, useVariableDates, fitToColumn) -> value.equals("1") ? Boolean.TRUE : Boolean.FALSE;
+        } else if (!isSpatial && (type == Types.BLOB || type == Types.LONGVARBINARY || type == Types.BINARY || type == Types.VARBINARY ||
+        // SQLServer ntext type
+                type == -10)) {
+            return (value, encoding, useVariableDates, fitToColumn) -> {
+                if (encoding == BinaryEncoding.NONE) {
+                    return value.getBytes(Charset.defaultCharset());
+                } else if (encoding == BinaryEncoding.BASE64) {
+                    return Base64.decodeBase64(value.getBytes(Charset.defaultCharset()));
+                } else if (encoding == BinaryEncoding.HEX) {
+                    return Hex.decodeHex(value.toCharArray());
+                }
+                return value;
+            };
+        } else if (type == Types.ARRAY) {
+            return (value, encoding, useVariableDates, fitToColumn) -> platform.createArray(column, value);
+        }
+        return null;
+    }
+
+    /**
+     * Parse a date in the fixed yyyy-MM-dd or yyyy-MM-dd HH:mm:ss format with java.time, which is how most dates are captured, or return null so
+     * the caller falls back to trying each pattern. Values that are out of range or before the Gregorian calendar are left to the fallback, which is lenient about them. Times that
+     * happen twice when clocks go back resolve to the later one, like a lenient calendar does.
+     */
+    public static Date parseFixedDate(String value) {
+        int length = value.length();
+        if ((length != 10 && length != 19) || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return null;
+        }
+        int year = parseDigits(value, 0, 4);
+        int month = parseDigits(value, 5, 7);
+        int day = parseDigits(value, 8, 10);
+        int hour = 0, minute = 0, second = 0;
+        if (length == 19) {
+            if (value.charAt(10) != ' ' || value.charAt(13) != ':' || value.charAt(16) != ':') {
+                return null;
+            }
+            hour = parseDigits(value, 11, 13);
+            minute = parseDigits(value, 14, 16);
+            second = parseDigits(value, 17, 19);
+        }
+        if (year < 1583 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+        try {
+            LocalDateTime dateTime = LocalDateTime.of(year, month, day, hour, minute, second);
+            return new Date(dateTime.atZone(ZoneId.systemDefault()).withLaterOffsetAtOverlap().toInstant().toEpochMilli());
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+
+    protected static int parseDigits(String value, int start, int end) {
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    /**
+     * Parse a timestamp in the fixed yyyy-MM-dd HH:mm:ss[.fffffffff] format with java.time, or return null so the caller falls back to
+     * {@link Timestamp#valueOf(String)} and its other formats.
+     */
+    public static Timestamp parseFixedTimestamp(String value) {
+        int length = value.length();
+        if (length < 19 || length == 20 || length > 29 || value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != ' '
+                || value.charAt(13) != ':' || value.charAt(16) != ':' || (length > 19 && value.charAt(19) != '.')) {
+            return null;
+        }
+        int year = parseDigits(value, 0, 4);
+        int month = parseDigits(value, 5, 7);
+        int day = parseDigits(value, 8, 10);
+        int hour = parseDigits(value, 11, 13);
+        int minute = parseDigits(value, 14, 16);
+        int second = parseDigits(value, 17, 19);
+        int nanos = 0;
+        if (length > 19) {
+            nanos = parseDigits(value, 20, length);
+            for (int i = length; i < 29; i++) {
+                nanos *= 10;
+            }
+        }
+        if (year < 1 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 || nanos < 0) {
+            return null;
+        }
+        try {
+            return Timestamp.valueOf(LocalDateTime.of(year, month, day, hour, minute, second, nanos));
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+}
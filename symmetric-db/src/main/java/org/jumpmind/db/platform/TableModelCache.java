@@ -0,0 +1,226 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.db.platform;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.jumpmind.db.model.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Concurrent cache of table models read from the database. Entries are invalidated one table at a time when DDL changes a table, and an entry that
+ * is older than the refresh time is still returned while a background thread reads it again, so threads do not all go back to the database at once.
+ * Every invalidation bumps a version, and a table that was being read while an invalidation happened is not kept, so a model from before the DDL
+ * cannot replace the one after it.
+ */
+public class TableModelCache {
+    private static final Logger log = LoggerFactory.getLogger(TableModelCache.class);
+    protected Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    protected AtomicLong version = new AtomicLong();
+    protected long refreshAfterMs = DateUtils.MILLIS_PER_HOUR;
+    protected ThreadPoolExecutor refreshExecutor;
+    protected LongAdder hits = new LongAdder();
+    protected LongAdder misses = new LongAdder();
+    protected LongAdder loads = new LongAdder();
+    protected LongAdder loadTimeMs = new LongAdder();
+    protected LongAdder refreshes = new LongAdder();
+    protected LongAdder invalidations = new LongAdder();
+
+    public static class Entry {
+        protected String tableName;
+        protected Table table;
+        protected long version;
+        protected long loadTime;
+        protected AtomicBoolean refreshing = new AtomicBoolean();
+
+        public Entry(String tableName, Table table, long version, long loadTime) {
+            this.tableName = tableName;
+            this.table = table;
+            this.version = version;
+            this.loadTime = loadTime;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public Table getTable() {
+            return table;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public long getLoadTime() {
+            return loadTime;
+        }
+    }
+
+    public Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Get the version to pass to {@link #put(String, String, Table, long, long)} before reading a table from the database.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Keep a table that was read from the database, unless the cache was invalidated since the read started. A null table is not kept, and it
+     * removes any entry for the key, so a table that is created later is found on the next call.
+     */
+    public boolean put(String key, String tableName, Table table, long startVersion, long loadTimeInMs) {
+        loads.increment();
+        loadTimeMs.add(loadTimeInMs);
+        if (table == null) {
+            entries.remove(key);
+            return false;
+        }
+        if (version.get() != startVersion) {
+            return false;
+        }
+        Entry entry = new Entry(tableName, table, startVersion, System.currentTimeMillis());
+        entries.put(key, entry);
+        if (version.get() != startVersion) {
+            entries.remove(key, entry);
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isStale(Entry entry) {
+        return System.currentTimeMillis() - entry.getLoadTime() > refreshAfterMs;
+    }
+
+    /**
+     * Read a stale entry again in the background. Only one refresh runs for an entry at a time, and the stale table is used until it finishes.
+     */
+    public void refresh(final Entry entry, final Runnable loader) {
+        if (entry.refreshing.compareAndSet(false, true)) {
+            refreshes.increment();
+            try {
+                getRefreshExecutor().execute(() -> {
+                    try {
+                        loader.run();
+                    } catch (Exception ex) {
+                        log.warn("Failed to refresh the cached model of table {}: {}", entry.getTableName(), ex.getMessage());
+                    } finally {
+                        entry.refreshing.set(false);
+                    }
+                });
+            } catch (RuntimeException ex) {
+                entry.refreshing.set(false);
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Remove the entries for a table name in any catalog and schema, because callers may have looked it up with or without the default catalog and
+     * schema.
+     */
+    public void invalidate(String tableName) {
+        version.incrementAndGet();
+        invalidations.increment();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.getTableName() != null && entry.getTableName().equalsIgnoreCase(tableName)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        version.incrementAndGet();
+        invalidations.increment();
+        entries.clear();
+    }
+
+    protected synchronized ThreadPoolExecutor getRefreshExecutor() {
+        if (refreshExecutor == null) {
+            final AtomicInteger threadNumber = new AtomicInteger(1);
+            refreshExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), (runnable) -> {
+                Thread thread = new Thread(runnable, "table-model-refresh-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+            refreshExecutor.allowCoreThreadTimeOut(true);
+        }
+        return refreshExecutor;
+    }
+
+    public void setRefreshAfterMs(long refreshAfterMs) {
+        this.refreshAfterMs = refreshAfterMs;
+    }
+
+    public long getRefreshAfterMs() {
+        return refreshAfterMs;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getLoadTimeMs() {
+        return loadTimeMs.sum();
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+}
@@ -20,6 +20,7 @@
  */
 package org.jumpmind.db.platform.cassandra;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +54,18 @@ public class CassandraDdlReader implements IDdlReader {
         return tables.get(tableName.toLowerCase());
     }
 
+    @Override
+    public List<Table> readTablesByName(String catalog, String schema, Collection<String> tableNames) {
+        List<Table> tables = new ArrayList<Table>();
+        for (String tableName : tableNames) {
+            Table table = readTable(catalog, schema, tableName);
+            if (table != null) {
+                tables.add(table);
+            }
+        }
+        return tables;
+    }
+
     @Override
     public List<String> getTableTypes() {
         return null;
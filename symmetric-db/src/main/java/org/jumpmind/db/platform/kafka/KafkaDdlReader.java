@@ -20,6 +20,7 @@
  */
 package org.jumpmind.db.platform.kafka;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -50,6 +51,18 @@ public class KafkaDdlReader implements IDdlReader {
         return null;
     }
 
+    @Override
+    public List<Table> readTablesByName(String catalog, String schema, Collection<String> tableNames) {
+        List<Table> tables = new ArrayList<Table>();
+        for (String tableName : tableNames) {
+            Table table = readTable(catalog, schema, tableName);
+            if (table != null) {
+                tables.add(table);
+            }
+        }
+        return tables;
+    }
+
     @Override
     public List<String> getTableTypes() {
         return null;
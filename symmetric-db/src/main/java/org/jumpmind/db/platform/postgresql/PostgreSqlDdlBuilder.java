@@ -231,8 +231,37 @@ public class PostgreSqlDdlBuilder extends AbstractDdlBuilder {
         printEndOfStatement(ddl);
     }
 
+    @Override
+    protected void writeTableCreationStmt(Table table, StringBuilder ddl) {
+        super.writeTableCreationStmt(table, ddl);
+        if (table.getPartitionColumnName() != null) {
+            ddl.append(" PARTITION BY RANGE (");
+            printIdentifier(getColumnName(table.getColumnWithName(table.getPartitionColumnName())), ddl);
+            ddl.append(")");
+        }
+    }
+
+    @Override
+    protected void writeTableCreationStmtEnding(Table table, StringBuilder ddl) {
+        super.writeTableCreationStmtEnding(table, ddl);
+        if (table.getPartitionColumnName() != null) {
+            Table defaultPartition = new Table(table.getCatalog(), table.getSchema(), table.getName() + "_default");
+            ddl.append("CREATE TABLE ");
+            ddl.append(getFullyQualifiedTableNameShorten(defaultPartition));
+            ddl.append(" PARTITION OF ");
+            ddl.append(getFullyQualifiedTableNameShorten(table));
+            ddl.append(" DEFAULT");
+            printEndOfStatement(ddl);
+        }
+    }
+
     @Override
     protected void createTable(Table table, StringBuilder ddl, boolean temporary, boolean recreate) {
+        if (temporary && table.getPartitionColumnName() != null) {
+            // temporary copies hold the rows of the whole table, so they are never partitioned
+            table = table.copy();
+            table.setPartitionColumnName(null);
+        }
         if (!temporary && !recreate) {
             for (int idx = 0; idx < table.getColumnCount(); idx++) {
                 Column column = table.getColumn(idx);
@@ -168,6 +168,18 @@ public class SqliteDdlReader implements IDdlReader {
         return table;
     }
 
+    @Override
+    public List<Table> readTablesByName(String catalog, String schema, Collection<String> tableNames) {
+        List<Table> tables = new ArrayList<Table>();
+        for (String tableName : tableNames) {
+            Table table = readTable(catalog, schema, tableName);
+            if (table != null) {
+                tables.add(table);
+            }
+        }
+        return tables;
+    }
+
     public List<String> getCatalogNames() {
         return new ArrayList<String>(0);
     }
@@ -22,14 +22,18 @@ package org.jumpmind.db.platform;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.Arrays;
 import java.util.Date;
 
+import org.jumpmind.db.model.Column;
 import org.jumpmind.db.platform.h2.H2DdlBuilder;
 import org.jumpmind.db.sql.ISqlTemplate;
 import org.jumpmind.db.sql.SqlTemplateSettings;
+import org.jumpmind.db.util.BinaryEncoding;
 import org.junit.jupiter.api.Test;
 
 public class AbstractDatabasePlatformTest {
@@ -80,6 +84,47 @@ public class AbstractDatabasePlatformTest {
         assertEquals(3, testDatabasePlatform.parseQualifiedTableName("\"CATALOG\".\"SCHEMA\".\"TABLE\"").size());
     }
 
+    @Test
+    public void testObjectValueConverterMatchesGetObjectValue() throws Exception {
+        Column[] columns = new Column[] { new Column("ID", true, Types.INTEGER, 0, 0), new Column("BIG", false, Types.BIGINT, 0, 0),
+                new Column("AMOUNT", false, Types.DECIMAL, 10, 2), new Column("NAME", true, Types.VARCHAR, 5, 0),
+                new Column("CREATED", false, Types.TIMESTAMP, 0, 0), new Column("BORN", false, Types.DATE, 0, 0),
+                new Column("FLAG", false, Types.BOOLEAN, 0, 0), new Column("DATA", false, Types.BLOB, 0, 0) };
+        ObjectValueConverter converter = testDatabasePlatform.createObjectValueConverter(columns);
+        String[][] rows = new String[][] {
+                { "1", "12345678901", "10.5", "abcdefg", "2015-11-03 01:35:03.714566", "2015-11-03", "1", "aGVsbG8=" },
+                { "2", "3", "1,25", "", "2015-11-03 01:35:03", "2015-11-03 10:20:30", "0", null },
+                { "3", null, null, null, "01:35:03.714566", "2015-02-30", null, "" } };
+        for (String[] row : rows) {
+            Object[] expected = new Object[row.length];
+            for (int i = 0; i < row.length; i++) {
+                expected[i] = testDatabasePlatform.getObjectValue(row[i], columns[i], BinaryEncoding.BASE64, false, true);
+            }
+            Object[] actual = converter.convert(BinaryEncoding.BASE64, row, false, true);
+            assertEquals(expected.length, actual.length);
+            for (int i = 0; i < expected.length; i++) {
+                if (expected[i] instanceof byte[]) {
+                    assertTrue(Arrays.equals((byte[]) expected[i], (byte[]) actual[i]));
+                } else {
+                    assertEquals(expected[i], actual[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParseFixedDate() {
+        assertEquals(new Date(Timestamp.valueOf("2015-11-03 00:00:00").getTime()), ObjectValueConverter.parseFixedDate("2015-11-03"));
+        assertEquals(new Date(Timestamp.valueOf("2015-11-03 10:20:30").getTime()), ObjectValueConverter.parseFixedDate("2015-11-03 10:20:30"));
+        assertNull(ObjectValueConverter.parseFixedDate("2015-02-30"));
+        assertNull(ObjectValueConverter.parseFixedDate("2015-11-03 10:20"));
+        assertNull(ObjectValueConverter.parseFixedDate("1500-01-01"));
+        assertEquals(Timestamp.valueOf("2015-11-03 01:35:03.7145"), ObjectValueConverter.parseFixedTimestamp("2015-11-03 01:35:03.7145"));
+        assertEquals(Timestamp.valueOf("2015-11-03 01:35:03"), ObjectValueConverter.parseFixedTimestamp("2015-11-03 01:35:03"));
+        assertNull(ObjectValueConverter.parseFixedTimestamp("2015-11-03 01:35:03 -05:00"));
+        assertNull(ObjectValueConverter.parseFixedTimestamp("0000-00-00 00:00:00"));
+    }
+
     private AbstractDatabasePlatform testDatabasePlatform = new AbstractDatabasePlatform(new SqlTemplateSettings()) {
         @Override
         public String getName() {
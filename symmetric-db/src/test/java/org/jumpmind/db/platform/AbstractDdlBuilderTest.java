@@ -20,6 +20,8 @@
  */
 package org.jumpmind.db.platform;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.sql.Types;
@@ -416,4 +418,29 @@ public class AbstractDdlBuilderTest {
             }
         }
     }
+
+    @Test
+    public void testCreatePartitionedTable() throws Exception {
+        Table table = new Table("sym_data", new Column("data_id", true, Types.BIGINT, 0, 0),
+                new Column("channel_id", false, Types.VARCHAR, 128, 0));
+        table.setPartitionColumnName("data_id");
+        String ddl = new PostgreSqlDdlBuilder().createTable(table);
+        assertTrue(ddl.contains("PARTITION BY RANGE ("));
+        assertTrue(ddl.contains("sym_data_default") && ddl.contains(" PARTITION OF ") && ddl.contains(" DEFAULT"));
+        assertTrue(!new H2DdlBuilder().createTable(table).contains("PARTITION"));
+    }
+
+    @Test
+    public void testBackupOfPartitionedTableIsNotPartitioned() throws Exception {
+        Table table = new Table("sym_data", new Column("data_id", true, Types.BIGINT, 0, 0),
+                new Column("channel_id", false, Types.VARCHAR, 128, 0));
+        table.setPartitionColumnName("data_id");
+        PostgreSqlDdlBuilder builder = new PostgreSqlDdlBuilder();
+        StringBuilder ddl = new StringBuilder();
+        Table backupTable = builder.createBackupTableFor(new Database(), table, ddl);
+        assertNull(backupTable.getPartitionColumnName());
+        assertTrue(!ddl.toString().contains("PARTITION"));
+        assertEquals("data_id", table.copy().getPartitionColumnName());
+        assertEquals("data_id", builder.getRealTargetTableFor(new Database(), table, table).getPartitionColumnName());
+    }
 }
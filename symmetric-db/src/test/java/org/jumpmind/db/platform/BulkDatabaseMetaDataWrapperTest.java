@@ -0,0 +1,65 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.db.platform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class BulkDatabaseMetaDataWrapperTest {
+    @Test
+    public void testRowsNotReadInBulk() {
+        BulkDatabaseMetaDataWrapper metaData = new BulkDatabaseMetaDataWrapper();
+        assertNull(metaData.getColumnRows("A"));
+        assertNull(metaData.getIndexRows("A"));
+    }
+
+    @Test
+    public void testRowsReadInBulk() {
+        BulkDatabaseMetaDataWrapper metaData = new BulkDatabaseMetaDataWrapper();
+        Map<String, List<Map<String, Object>>> columns = new HashMap<String, List<Map<String, Object>>>();
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        rows.add(new HashMap<String, Object>());
+        columns.put("A", rows);
+        metaData.setColumns(columns);
+        assertEquals(1, metaData.getColumnRows("A").size());
+        assertEquals(0, metaData.getColumnRows("B").size());
+    }
+
+    @Test
+    public void testAmbiguousAndUndescribedTables() {
+        BulkDatabaseMetaDataWrapper metaData = new BulkDatabaseMetaDataWrapper();
+        Map<String, List<Map<String, Object>>> indices = new HashMap<String, List<Map<String, Object>>>();
+        indices.put("A", null);
+        indices.put("B", new ArrayList<Map<String, Object>>());
+        metaData.setIndices(indices);
+        metaData.addAmbiguousTableName("B");
+        assertNull(metaData.getIndexRows("A"));
+        assertNull(metaData.getIndexRows("B"));
+        assertEquals(0, metaData.getIndexRows("C").size());
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.db.platform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jumpmind.db.model.Table;
+import org.junit.jupiter.api.Test;
+
+public class TableModelCacheTest {
+    @Test
+    public void testHitsAndMisses() {
+        TableModelCache cache = new TableModelCache();
+        assertNull(cache.get("A"));
+        assertTrue(cache.put("A", "A", new Table("A"), cache.getVersion(), 5));
+        assertNotNull(cache.get("A"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getLoads());
+        assertEquals(5, cache.getLoadTimeMs());
+    }
+
+    @Test
+    public void testInvalidateTableInAnySchema() {
+        TableModelCache cache = new TableModelCache();
+        cache.put("A", "A", new Table("A"), cache.getVersion(), 0);
+        cache.put("cat.sch.A", "A", new Table("A"), cache.getVersion(), 0);
+        cache.put("B", "B", new Table("B"), cache.getVersion(), 0);
+        cache.invalidate("a");
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get("B"));
+        assertEquals(1, cache.getInvalidations());
+    }
+
+    @Test
+    public void testMissingTableIsNotKept() {
+        TableModelCache cache = new TableModelCache();
+        assertFalse(cache.put("A", "A", null, cache.getVersion(), 0));
+        assertNull(cache.get("A"));
+        cache.put("A", "A", new Table("A"), cache.getVersion(), 0);
+        assertFalse(cache.put("A", "A", null, cache.getVersion(), 0));
+        assertNull(cache.get("A"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLoadDuringInvalidationIsNotKept() {
+        TableModelCache cache = new TableModelCache();
+        long version = cache.getVersion();
+        cache.invalidate("A");
+        assertFalse(cache.put("A", "A", new Table("A"), version, 0));
+        assertEquals(0, cache.size());
+        cache.put("B", "B", new Table("B"), cache.getVersion(), 0);
+        version = cache.getVersion();
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertFalse(cache.put("B", "B", new Table("B"), version, 0));
+    }
+
+    @Test
+    public void testStaleEntryRefreshedOnce() throws Exception {
+        TableModelCache cache = new TableModelCache();
+        cache.setRefreshAfterMs(-1);
+        cache.put("A", "A", new Table("A"), cache.getVersion(), 0);
+        TableModelCache.Entry entry = cache.get("A");
+        assertTrue(cache.isStale(entry));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        cache.refresh(entry, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        cache.refresh(entry, () -> {
+        });
+        assertEquals(1, cache.getRefreshes());
+        release.countDown();
+    }
+}
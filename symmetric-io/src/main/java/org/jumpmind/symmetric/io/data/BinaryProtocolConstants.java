@@ -0,0 +1,84 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.data;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Record types and value tags of the binary batch protocol, which carries the same content as the CSV protocol. A stream starts with a magic number and
+ * protocol version, followed by records that each start with a one byte type. Numbers are written as variable length integers, strings are length
+ * prefixed, and tables are defined once per batch and then referenced by an ID.
+ */
+final public class BinaryProtocolConstants {
+    private BinaryProtocolConstants() {
+    }
+
+    public static final byte[] MAGIC = new byte[] { 'S', 'Y', 'M', 'B' };
+    public static final int VERSION = 1;
+    public static final int HEADER_LENGTH = MAGIC.length + 1;
+    public static final byte NODEID = 1;
+    public static final byte BINARY = 2;
+    public static final byte CHANNEL = 3;
+    public static final byte BATCH = 4;
+    public static final byte RETRY = 5;
+    public static final byte STATS = 6;
+    public static final byte TABLE = 7;
+    public static final byte INSERT = 8;
+    public static final byte UPDATE = 9;
+    public static final byte DELETE = 10;
+    public static final byte OLD = 11;
+    public static final byte SQL = 12;
+    public static final byte BSH = 13;
+    public static final byte CREATE = 14;
+    public static final byte IGNORE = 15;
+    public static final byte COMMIT = 16;
+    public static final byte NO_BINARY_OLD_DATA = 17;
+    public static final byte BASETIME = 18;
+    public static final byte TIME = 19;
+    public static final byte VALUE_NULL = 0;
+    public static final byte VALUE_STRING = 1;
+    public static final byte VALUE_LONG = 2;
+    public static final byte VALUE_DECIMAL = 3;
+    public static final byte VALUE_TIMESTAMP = 4;
+
+    /**
+     * Check if the stream starts with the binary protocol header. The stream must support mark and reset.
+     */
+    public static boolean isBinaryProtocol(InputStream in) throws IOException {
+        in.mark(HEADER_LENGTH);
+        try {
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (in.read() != MAGIC[i]) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            in.reset();
+        }
+    }
+
+    public static InputStream toMarkSupported(InputStream in) {
+        return in.markSupported() ? in : new BufferedInputStream(in);
+    }
+}
@@ -0,0 +1,467 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.data.reader;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jumpmind.db.model.Column;
+import org.jumpmind.db.model.Table;
+import org.jumpmind.db.util.BinaryEncoding;
+import org.jumpmind.exception.IoException;
+import org.jumpmind.symmetric.io.data.Batch;
+import org.jumpmind.symmetric.io.data.Batch.BatchType;
+import org.jumpmind.symmetric.io.data.BinaryProtocolConstants;
+import org.jumpmind.symmetric.io.data.CsvData;
+import org.jumpmind.symmetric.io.data.DataContext;
+import org.jumpmind.symmetric.io.data.DataEventType;
+import org.jumpmind.symmetric.io.data.IDataReader;
+import org.jumpmind.symmetric.io.data.ProtocolException;
+import org.jumpmind.util.Statistics;
+
+/**
+ * Reads batches written by {@link org.jumpmind.symmetric.io.data.writer.BinaryProtocolDataWriter}. It returns the same batches, tables and data as
+ * {@link ProtocolDataReader} would for the same content in the CSV protocol.
+ */
+public class BinaryProtocolDataReader extends AbstractDataReader implements IDataReader {
+    protected InputStream in;
+    protected Map<Batch, Statistics> statistics = new HashMap<Batch, Statistics>();
+    protected List<Table> tables = new ArrayList<Table>();
+    protected DataContext context;
+    protected Object next;
+    protected Batch batch;
+    protected String channelId;
+    protected String tableName;
+    protected String sourceNodeId;
+    protected String targetNodeId;
+    protected BinaryEncoding binaryEncoding;
+    protected boolean noBinaryOldData = false;
+    protected BatchType batchType;
+    protected int lineNumber = 0;
+    protected long baseTime;
+    protected Timestamp createTime;
+    protected long bytesRead;
+    protected byte[] buffer = new byte[256];
+
+    public BinaryProtocolDataReader(BatchType batchType, String targetNodeId, InputStream in) {
+        this.in = in;
+        this.targetNodeId = targetNodeId;
+        this.batchType = batchType;
+    }
+
+    public void open(DataContext context) {
+        this.context = context;
+        this.lineNumber = 0;
+        try {
+            for (int i = 0; i < BinaryProtocolConstants.MAGIC.length; i++) {
+                if (in.read() != BinaryProtocolConstants.MAGIC[i]) {
+                    throw new ProtocolException("The stream does not start with the binary protocol header");
+                }
+            }
+            int version = in.read();
+            if (version != BinaryProtocolConstants.VERSION) {
+                throw new ProtocolException("Unsupported binary protocol version %d", version);
+            }
+        } catch (IOException ex) {
+            throw new IoException(ex);
+        }
+        this.next = readNext();
+    }
+
+    public Object readNext() {
+        try {
+            Table table = null;
+            String[] parsedOldData = null;
+            int type;
+            while ((type = in.read()) >= 0) {
+                bytesRead++;
+                lineNumber++;
+                context.put(ProtocolDataReader.CTX_LINE_NUMBER, lineNumber);
+                Statistics stats = batch != null ? statistics.get(batch) : null;
+                switch (type) {
+                    case BinaryProtocolConstants.INSERT: {
+                        CsvData data = newData(DataEventType.INSERT);
+                        data.putParsedData(CsvData.ROW_DATA, readValues());
+                        countRecord(stats);
+                        return data;
+                    }
+                    case BinaryProtocolConstants.OLD:
+                        parsedOldData = readValues();
+                        break;
+                    case BinaryProtocolConstants.UPDATE: {
+                        CsvData data = newData(DataEventType.UPDATE);
+                        data.putParsedData(CsvData.ROW_DATA, readValues());
+                        data.putParsedData(CsvData.PK_DATA, readValues());
+                        data.putParsedData(CsvData.OLD_DATA, parsedOldData);
+                        countRecord(stats);
+                        return data;
+                    }
+                    case BinaryProtocolConstants.DELETE: {
+                        CsvData data = newData(DataEventType.DELETE);
+                        data.putParsedData(CsvData.PK_DATA, readValues());
+                        data.putParsedData(CsvData.OLD_DATA, parsedOldData);
+                        countRecord(stats);
+                        return data;
+                    }
+                    case BinaryProtocolConstants.TIME:
+                        createTime = new Timestamp(readLong() + baseTime);
+                        break;
+                    case BinaryProtocolConstants.BASETIME:
+                        baseTime = readLong();
+                        createTime = new Timestamp(baseTime);
+                        break;
+                    case BinaryProtocolConstants.BATCH:
+                    case BinaryProtocolConstants.RETRY: {
+                        Batch batch = new Batch(batchType, readLong(), channelId, binaryEncoding, sourceNodeId, targetNodeId, false);
+                        statistics.put(batch, new DataReaderStatistics());
+                        if (type == BinaryProtocolConstants.RETRY) {
+                            batch.setInvalidRetry(true);
+                        }
+                        tables.clear();
+                        createTime = null;
+                        return batch;
+                    }
+                    case BinaryProtocolConstants.STATS: {
+                        Statistics batchStats = stats != null ? stats : new DataReaderStatistics();
+                        int count = readCount();
+                        for (int i = 0; i < count; i++) {
+                            batchStats.set(readString(), readLong());
+                        }
+                        break;
+                    }
+                    case BinaryProtocolConstants.NO_BINARY_OLD_DATA:
+                        noBinaryOldData = readByte() == 1;
+                        break;
+                    case BinaryProtocolConstants.NODEID:
+                        sourceNodeId = readString();
+                        break;
+                    case BinaryProtocolConstants.BINARY:
+                        binaryEncoding = BinaryEncoding.valueOf(readString());
+                        break;
+                    case BinaryProtocolConstants.CHANNEL:
+                        channelId = readString();
+                        break;
+                    case BinaryProtocolConstants.TABLE:
+                        table = readTable();
+                        tableName = table.getName();
+                        context.setLastParsedTable(table);
+                        countBytes(stats);
+                        return table;
+                    case BinaryProtocolConstants.COMMIT:
+                        readLong();
+                        if (batch != null) {
+                            batch.setComplete(true);
+                        }
+                        countBytes(stats);
+                        return null;
+                    case BinaryProtocolConstants.SQL: {
+                        CsvData data = new CsvData();
+                        data.setNoBinaryOldData(noBinaryOldData);
+                        data.setDataEventType(DataEventType.SQL);
+                        String[] values = readValues();
+                        data.putParsedData(CsvData.ROW_DATA, new String[] { values[0], values.length > 1 ? values[1] : "0" });
+                        countBytes(stats);
+                        return data;
+                    }
+                    case BinaryProtocolConstants.BSH:
+                    case BinaryProtocolConstants.CREATE: {
+                        CsvData data = new CsvData();
+                        data.setNoBinaryOldData(noBinaryOldData);
+                        data.setDataEventType(type == BinaryProtocolConstants.BSH ? DataEventType.BSH : DataEventType.CREATE);
+                        data.putParsedData(CsvData.ROW_DATA, new String[] { readValues()[0] });
+                        countBytes(stats);
+                        return data;
+                    }
+                    case BinaryProtocolConstants.IGNORE:
+                        if (batch != null) {
+                            batch.setIgnored(true);
+                        }
+                        break;
+                    default:
+                        throw new ProtocolException("Unknown binary protocol record type %d at record %d", type, lineNumber);
+                }
+                countBytes(stats);
+            }
+        } catch (IOException ex) {
+            throw new IoException(ex);
+        }
+        return null;
+    }
+
+    protected CsvData newData(DataEventType eventType) {
+        CsvData data = new CsvData();
+        data.setNoBinaryOldData(noBinaryOldData);
+        data.setDataEventType(eventType);
+        if (createTime != null) {
+            data.putAttribute(CsvData.ATTRIBUTE_CREATE_TIME, createTime);
+        }
+        data.putAttribute(CsvData.ATTRIBUTE_CHANNEL_ID, channelId);
+        data.putAttribute(CsvData.ATTRIBUTE_TABLE_NAME, tableName);
+        data.putAttribute(CsvData.ATTRIBUTE_SOURCE_NODE_ID, sourceNodeId);
+        return data;
+    }
+
+    protected void countRecord(Statistics stats) {
+        if (stats != null) {
+            stats.increment(DataReaderStatistics.READ_RECORD_COUNT, 1);
+        }
+        countBytes(stats);
+    }
+
+    protected void countBytes(Statistics stats) {
+        if (stats != null) {
+            stats.increment(DataReaderStatistics.READ_BYTE_COUNT, bytesRead);
+            bytesRead = 0;
+        }
+    }
+
+    protected Table readTable() throws IOException {
+        int tableId = readCount();
+        boolean defined = readByte() == 1;
+        if (defined) {
+            String catalogName = readString();
+            String schemaName = readString();
+            String name = readString();
+            Table table = context.getParsedTables().get(Table.getFullyQualifiedTableName(catalogName, schemaName, name));
+            if (table == null) {
+                table = new Table(catalogName, schemaName, name);
+            }
+            table.removeAllColumns();
+            int columnCount = readCount();
+            for (int i = 0; i < columnCount; i++) {
+                String columnName = readString();
+                table.addColumn(new Column(columnName, readByte() == 1));
+            }
+            context.getParsedTables().put(table.getFullyQualifiedTableName(), table);
+            if (tableId != tables.size()) {
+                throw new ProtocolException("Expected table %d to be defined but found table %d", tables.size(), tableId);
+            }
+            tables.add(table);
+            return table;
+        } else if (tableId < tables.size()) {
+            return tables.get(tableId);
+        } else {
+            throw new ProtocolException("Table %d was referenced before it was defined", tableId);
+        }
+    }
+
+    protected String[] readValues() throws IOException {
+        int count = readCount();
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = readValue();
+        }
+        return values;
+    }
+
+    protected String readValue() throws IOException {
+        int tag = readByte();
+        switch (tag) {
+            case BinaryProtocolConstants.VALUE_NULL:
+                return null;
+            case BinaryProtocolConstants.VALUE_STRING:
+                return readString();
+            case BinaryProtocolConstants.VALUE_LONG:
+                return Long.toString(readLong());
+            case BinaryProtocolConstants.VALUE_DECIMAL:
+                return toDecimalString(readLong(), readCount());
+            case BinaryProtocolConstants.VALUE_TIMESTAMP:
+                return toTimestampString(readLong(), readByte());
+            default:
+                throw new ProtocolException("Unknown binary protocol value type %d at record %d", tag, lineNumber);
+        }
+    }
+
+    protected static String toDecimalString(long unscaled, int scale) {
+        String digits = Long.toString(Math.abs(unscaled));
+        StringBuilder sb = new StringBuilder(digits.length() + scale + 2);
+        if (unscaled < 0) {
+            sb.append('-');
+        }
+        for (int i = digits.length(); i <= scale; i++) {
+            sb.append('0');
+        }
+        sb.append(digits);
+        sb.insert(sb.length() - scale, '.');
+        return sb.toString();
+    }
+
+    protected String toTimestampString(long epochSeconds, int fractionDigits) throws IOException {
+        LocalDateTime time = LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC);
+        StringBuilder sb = new StringBuilder(29);
+        sb.append(time.getYear()).append('-');
+        appendTwoDigits(sb, time.getMonthValue()).append('-');
+        appendTwoDigits(sb, time.getDayOfMonth()).append(' ');
+        appendTwoDigits(sb, time.getHour()).append(':');
+        appendTwoDigits(sb, time.getMinute()).append(':');
+        appendTwoDigits(sb, time.getSecond());
+        if (fractionDigits > 0) {
+            String fraction = Long.toString(readUnsigned());
+            sb.append('.');
+            for (int i = fraction.length(); i < fractionDigits; i++) {
+                sb.append('0');
+            }
+            sb.append(fraction);
+        }
+        return sb.toString();
+    }
+
+    protected static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        if (value < 10) {
+            sb.append('0');
+        }
+        return sb.append(value);
+    }
+
+    protected String readString() throws IOException {
+        int length = readCount();
+        if (length == 0) {
+            return null;
+        }
+        length--;
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+        int offset = 0;
+        while (offset < length) {
+            int count = in.read(buffer, offset, length - offset);
+            if (count < 0) {
+                throw new EOFException();
+            }
+            offset += count;
+        }
+        bytesRead += length;
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    protected int readByte() throws IOException {
+        int value = in.read();
+        if (value < 0) {
+            throw new EOFException();
+        }
+        bytesRead++;
+        return value;
+    }
+
+    protected int readCount() throws IOException {
+        long value = readUnsigned();
+        if (value > Integer.MAX_VALUE) {
+            throw new ProtocolException("Invalid length %d at record %d", value, lineNumber);
+        }
+        return (int) value;
+    }
+
+    protected long readLong() throws IOException {
+        long value = readUnsigned();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    protected long readUnsigned() throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 63) {
+                throw new ProtocolException("Invalid number at record %d", lineNumber);
+            }
+            b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    public Batch nextBatch() {
+        if (next instanceof Batch) {
+            this.batch = (Batch) next;
+            next = null;
+            return batch;
+        } else {
+            do {
+                next = readNext();
+                if (next instanceof Batch) {
+                    this.batch = (Batch) next;
+                    next = null;
+                    return batch;
+                }
+            } while (next != null);
+        }
+        return null;
+    }
+
+    public Table nextTable() {
+        if (next instanceof Table) {
+            Table table = (Table) next;
+            context.setLastParsedTable(table);
+            next = null;
+            return table;
+        } else {
+            do {
+                next = readNext();
+                if (next instanceof Table) {
+                    Table table = (Table) next;
+                    context.setLastParsedTable(table);
+                    next = null;
+                    return table;
+                }
+            } while (next != null && !(next instanceof Batch));
+        }
+        return null;
+    }
+
+    public CsvData nextData() {
+        if (next instanceof CsvData) {
+            CsvData data = (CsvData) next;
+            next = null;
+            return data;
+        } else {
+            do {
+                next = readNext();
+                if (next instanceof CsvData) {
+                    CsvData data = (CsvData) next;
+                    next = null;
+                    return data;
+                }
+            } while (next != null && !(next instanceof Batch) && !(next instanceof Table));
+        }
+        return null;
+    }
+
+    public void close() {
+        try {
+            in.close();
+        } catch (IOException e) {
+        }
+    }
+
+    public Map<Batch, Statistics> getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.data.reader;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jumpmind.db.model.Table;
+import org.jumpmind.symmetric.io.data.Batch;
+import org.jumpmind.symmetric.io.data.CsvData;
+import org.jumpmind.symmetric.io.data.DataContext;
+import org.jumpmind.symmetric.io.data.IDataReader;
+import org.jumpmind.util.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads ahead of the data processor on its own thread, so parsing overlaps with loading. The delegate reader is walked in the same order that
+ * {@link org.jumpmind.symmetric.io.data.DataProcessor} reads it, and the batches, tables and data are handed over in order through a bounded queue.
+ * Writing, and so the transaction, stays on the caller's thread. A queue size of zero reads on the caller's thread.
+ */
+public class PipelinedDataReader implements IDataReader {
+    private static final Logger log = LoggerFactory.getLogger(PipelinedDataReader.class);
+    protected static final Object END_OF_BATCH = new Object();
+    protected static final Object END_OF_STREAM = new Object();
+    protected IDataReader dataReader;
+    protected int queueSize;
+    protected String name;
+    protected BlockingQueue<Item> queue;
+    protected Map<Batch, Statistics> statistics = new ConcurrentHashMap<Batch, Statistics>();
+    protected DataContext context;
+    protected Thread producer;
+    protected Item next;
+    protected volatile boolean closed;
+
+    public PipelinedDataReader(IDataReader dataReader, int queueSize, String name) {
+        this.dataReader = dataReader;
+        this.queueSize = queueSize;
+        this.name = name;
+    }
+
+    public IDataReader getDataReader() {
+        return dataReader;
+    }
+
+    public void open(DataContext context) {
+        this.context = context;
+        if (queueSize <= 0) {
+            dataReader.open(context);
+        } else {
+            queue = new ArrayBlockingQueue<Item>(queueSize);
+            final DataContext readContext = new DataContext(dataReader);
+            producer = new Thread(name + "-reader") {
+                @Override
+                public void run() {
+                    produce(readContext);
+                }
+            };
+            producer.setDaemon(true);
+            producer.start();
+        }
+    }
+
+    protected void produce(DataContext readContext) {
+        try {
+            dataReader.open(readContext);
+            Batch batch = null;
+            while (!closed && (batch = dataReader.nextBatch()) != null) {
+                Statistics stats = dataReader.getStatistics().get(batch);
+                if (stats != null) {
+                    statistics.put(batch, stats);
+                }
+                put(batch, readContext);
+                putData(readContext);
+                Table table = null;
+                while (!closed && (table = dataReader.nextTable()) != null) {
+                    put(table, readContext);
+                    putData(readContext);
+                }
+                stats = dataReader.getStatistics().get(batch);
+                if (stats != null) {
+                    statistics.put(batch, stats);
+                }
+                put(END_OF_BATCH, readContext);
+            }
+            put(END_OF_STREAM, readContext);
+        } catch (InterruptedException ex) {
+            log.debug("Stopped reading ahead because the reader was closed");
+        } catch (Throwable ex) {
+            try {
+                put(ex, readContext);
+            } catch (InterruptedException e) {
+            }
+        }
+    }
+
+    protected void putData(DataContext readContext) throws InterruptedException {
+        CsvData data = null;
+        while (!closed && (data = dataReader.nextData()) != null) {
+            data.getParsedData(CsvData.ROW_DATA);
+            data.getParsedData(CsvData.PK_DATA);
+            data.getParsedData(CsvData.OLD_DATA);
+            put(data, readContext);
+        }
+    }
+
+    protected void put(Object object, DataContext readContext) throws InterruptedException {
+        Item item = new Item(object, readContext.get(ProtocolDataReader.CTX_LINE_NUMBER));
+        while (!queue.offer(item, 1, TimeUnit.SECONDS)) {
+            if (closed) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    protected Object peek() {
+        if (next == null) {
+            try {
+                next = queue.take();
+            } catch (InterruptedException ex) {
+                throw new CancellationException("This thread was interrupted");
+            }
+            if (next.lineNumber != null) {
+                context.put(ProtocolDataReader.CTX_LINE_NUMBER, next.lineNumber);
+            }
+        }
+        if (next.object instanceof Throwable) {
+            Throwable ex = (Throwable) next.object;
+            if (ex instanceof RuntimeException) {
+                throw (RuntimeException) ex;
+            } else if (ex instanceof Error) {
+                throw (Error) ex;
+            } else {
+                throw new RuntimeException(ex);
+            }
+        }
+        return next.object;
+    }
+
+    protected Object take() {
+        Object object = peek();
+        if (object != END_OF_STREAM) {
+            next = null;
+        }
+        return object;
+    }
+
+    public Batch nextBatch() {
+        if (producer == null) {
+            return dataReader.nextBatch();
+        }
+        Object object = null;
+        do {
+            object = take();
+        } while (!(object instanceof Batch) && object != END_OF_STREAM);
+        return object instanceof Batch ? (Batch) object : null;
+    }
+
+    public Table nextTable() {
+        if (producer == null) {
+            return dataReader.nextTable();
+        }
+        Object object = peek();
+        while (object instanceof CsvData) {
+            take();
+            object = peek();
+        }
+        if (object instanceof Table) {
+            take();
+            Table table = (Table) object;
+            context.setLastParsedTable(table);
+            return table;
+        } else if (object == END_OF_BATCH) {
+            take();
+        }
+        return null;
+    }
+
+    public CsvData nextData() {
+        if (producer == null) {
+            return dataReader.nextData();
+        }
+        Object object = peek();
+        if (object instanceof CsvData) {
+            take();
+            return (CsvData) object;
+        }
+        return null;
+    }
+
+    public Map<Batch, Statistics> getStatistics() {
+        return producer == null ? dataReader.getStatistics() : statistics;
+    }
+
+    public void close() {
+        closed = true;
+        if (producer != null) {
+            queue.clear();
+            producer.interrupt();
+            try {
+                producer.join(10000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        dataReader.close();
+    }
+
+    static class Item {
+        Object object;
+        Object lineNumber;
+
+        Item(Object object, Object lineNumber) {
+            this.object = object;
+            this.lineNumber = lineNumber;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.data.transform;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jumpmind.db.platform.IDatabasePlatform;
+import org.jumpmind.symmetric.io.data.DataContext;
+
+/**
+ * A column transform that can prepare the values for many rows at once. The {@link org.jumpmind.symmetric.io.data.writer.TransformWriter} holds
+ * up to {@link #getPrefetchSize()} rows of a table and calls {@link #prefetch} with their source values before it transforms them one at a time.
+ */
+public interface IPrefetchColumnTransform<T> extends IColumnTransform<T> {
+    /**
+     * @return the number of rows to hold for a prefetch, or 0 to transform each row as it is written
+     */
+    public int getPrefetchSize();
+
+    public void prefetch(IDatabasePlatform platform, DataContext context, TransformColumn column,
+            List<Map<String, String>> sourceValues, List<Map<String, String>> oldSourceValues);
+}
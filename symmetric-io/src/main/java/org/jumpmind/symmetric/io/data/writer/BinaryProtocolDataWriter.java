@@ -0,0 +1,499 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.data.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jumpmind.db.model.Column;
+import org.jumpmind.db.model.Table;
+import org.jumpmind.db.util.BinaryEncoding;
+import org.jumpmind.exception.IoException;
+import org.jumpmind.symmetric.io.data.Batch;
+import org.jumpmind.symmetric.io.data.BinaryProtocolConstants;
+import org.jumpmind.symmetric.io.data.CsvData;
+import org.jumpmind.symmetric.io.data.DataContext;
+import org.jumpmind.symmetric.io.data.DataEventType;
+import org.jumpmind.symmetric.io.data.IDataWriter;
+import org.jumpmind.util.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes batches in the binary protocol described by {@link BinaryProtocolConstants}. It is the binary counterpart of {@link ProtocolDataWriter}, so
+ * values that look like integers, decimals or timestamps are written in a compact typed form and tables are written once per batch.
+ */
+public class BinaryProtocolDataWriter implements IDataWriter {
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+    protected OutputStream out;
+    protected DataContext context;
+    protected Batch batch;
+    protected Map<Batch, Statistics> statistics = new HashMap<Batch, Statistics>();
+    protected Map<String, Integer> tableIds = new HashMap<String, Integer>();
+    protected List<IProtocolDataWriterListener> listeners;
+    protected String sourceNodeId;
+    protected boolean headerWritten = false;
+    protected boolean noBinaryOldData = false;
+    protected boolean sendCaptureTime = false;
+    protected boolean sendRowCaptureTime = false;
+    protected long baseTime;
+    protected long lastTime;
+    protected String[] batchStatsColumns;
+    protected long[] batchStatsValues;
+    protected long byteCount;
+
+    public BinaryProtocolDataWriter(String sourceNodeId, OutputStream out) {
+        this(sourceNodeId, null, out, false, false);
+    }
+
+    public BinaryProtocolDataWriter(String sourceNodeId, List<IProtocolDataWriterListener> listeners, OutputStream out, boolean sendCaptureTime,
+            boolean sendRowCaptureTime) {
+        this.sourceNodeId = sourceNodeId;
+        this.listeners = listeners;
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out);
+        this.sendCaptureTime = sendCaptureTime;
+        this.sendRowCaptureTime = sendRowCaptureTime;
+    }
+
+    public void open(DataContext context) {
+        this.context = context;
+    }
+
+    public void close() {
+    }
+
+    /**
+     * Set the node and capture time options when the writer is created before the target node is known, so they match what the
+     * {@link ProtocolDataWriter} would send.
+     */
+    public void setSourceNodeId(String sourceNodeId) {
+        this.sourceNodeId = sourceNodeId;
+    }
+
+    public void setSendCaptureTime(boolean sendCaptureTime, boolean sendRowCaptureTime) {
+        this.sendCaptureTime = sendCaptureTime;
+        this.sendRowCaptureTime = sendRowCaptureTime;
+    }
+
+    /**
+     * Set statistics to send with the next batch that is started.
+     */
+    public void setBatchStats(String[] columns, long[] values) {
+        this.batchStatsColumns = columns;
+        this.batchStatsValues = values;
+    }
+
+    /**
+     * Write the node ID and flush, which keeps the connection alive while waiting for a batch to be extracted.
+     */
+    public void writeKeepAlive(String nodeId) {
+        try {
+            writeHeader(nodeId);
+            writeRecord(BinaryProtocolConstants.NODEID);
+            writeString(nodeId);
+            out.flush();
+        } catch (IOException e) {
+            throw new IoException(e);
+        }
+    }
+
+    public void start(Batch batch) {
+        this.statistics.put(batch, new Statistics());
+        this.batch = batch;
+        this.baseTime = 0;
+        this.lastTime = 0;
+        this.tableIds.clear();
+        if (listeners != null) {
+            for (IProtocolDataWriterListener listener : listeners) {
+                listener.start(context, batch);
+            }
+        }
+        try {
+            writeHeader(batch.getSourceNodeId());
+            BinaryEncoding binaryEncoding = batch.getBinaryEncoding();
+            if (binaryEncoding != null) {
+                writeRecord(BinaryProtocolConstants.BINARY);
+                writeString(binaryEncoding.name());
+            }
+            if (StringUtils.isNotBlank(batch.getChannelId())) {
+                writeRecord(BinaryProtocolConstants.CHANNEL);
+                writeString(batch.getChannelId());
+            }
+            writeRecord(BinaryProtocolConstants.BATCH);
+            writeLong(batch.getBatchId());
+            if (batchStatsColumns != null && batchStatsValues != null) {
+                writeRecord(BinaryProtocolConstants.STATS);
+                int count = Math.min(batchStatsColumns.length, batchStatsValues.length);
+                writeUnsigned(count);
+                for (int i = 0; i < count; i++) {
+                    writeString(batchStatsColumns[i]);
+                    writeLong(batchStatsValues[i]);
+                }
+                batchStatsColumns = null;
+                batchStatsValues = null;
+            }
+        } catch (IOException e) {
+            throw new IoException(e);
+        }
+    }
+
+    public boolean start(Table table) {
+        if (!batch.isIgnored()) {
+            try {
+                String tableKey = table.getTableKey();
+                Integer tableId = tableIds.get(tableKey);
+                writeRecord(BinaryProtocolConstants.TABLE);
+                if (tableId == null) {
+                    tableId = tableIds.size();
+                    tableIds.put(tableKey, tableId);
+                    writeUnsigned(tableId);
+                    out.write(1);
+                    byteCount++;
+                    writeString(StringUtils.isNotBlank(table.getCatalog()) ? table.getCatalog() : null);
+                    writeString(StringUtils.isNotBlank(table.getSchema()) ? table.getSchema() : null);
+                    writeString(table.getName());
+                    Column[] columns = table.getColumns();
+                    writeUnsigned(columns.length);
+                    for (Column column : columns) {
+                        writeString(column.getName());
+                        out.write(column.isPrimaryKey() ? 1 : 0);
+                        byteCount++;
+                    }
+                } else {
+                    writeUnsigned(tableId);
+                    out.write(0);
+                    byteCount++;
+                }
+                return true;
+            } catch (IOException e) {
+                throw new IoException(e);
+            }
+        } else {
+            return false;
+        }
+    }
+
+    public void write(CsvData data) {
+        if (!batch.isIgnored()) {
+            try {
+                if (noBinaryOldData != data.isNoBinaryOldData()) {
+                    noBinaryOldData = data.isNoBinaryOldData();
+                    writeRecord(BinaryProtocolConstants.NO_BINARY_OLD_DATA);
+                    out.write(noBinaryOldData ? 1 : 0);
+                    byteCount++;
+                }
+                Statistics stats = statistics.get(batch);
+                stats.increment(DataWriterStatisticConstants.ROWCOUNT);
+                stats.increment(DataWriterStatisticConstants.LINENUMBER);
+                switch (data.getDataEventType()) {
+                    case INSERT:
+                        writeTime(data);
+                        writeRecord(BinaryProtocolConstants.INSERT);
+                        writeValues(data.getParsedData(CsvData.ROW_DATA));
+                        stats.increment(DataWriterStatisticConstants.INSERTCOUNT);
+                        stats.incrementTableStats(context.getTable() != null ? context.getTable().getNameLowerCase() : null,
+                                DataEventType.INSERT.getCode(), 1);
+                        break;
+                    case UPDATE:
+                        writeTime(data);
+                        writeOldData(data);
+                        writeRecord(BinaryProtocolConstants.UPDATE);
+                        writeValues(data.getParsedData(CsvData.ROW_DATA));
+                        writeValues(data.getParsedData(CsvData.PK_DATA));
+                        stats.increment(DataWriterStatisticConstants.UPDATECOUNT);
+                        stats.incrementTableStats(context.getTable() != null ? context.getTable().getNameLowerCase() : null,
+                                DataEventType.UPDATE.getCode(), 1);
+                        break;
+                    case DELETE:
+                        writeTime(data);
+                        writeOldData(data);
+                        writeRecord(BinaryProtocolConstants.DELETE);
+                        writeValues(data.getParsedData(CsvData.PK_DATA));
+                        stats.increment(DataWriterStatisticConstants.DELETECOUNT);
+                        stats.incrementTableStats(context.getTable() != null ? context.getTable().getNameLowerCase() : null,
+                                DataEventType.DELETE.getCode(), 1);
+                        break;
+                    case CREATE:
+                        writeRecord(BinaryProtocolConstants.CREATE);
+                        writeValues(data.getParsedData(CsvData.ROW_DATA));
+                        break;
+                    case BSH:
+                        writeRecord(BinaryProtocolConstants.BSH);
+                        writeValues(data.getParsedData(CsvData.ROW_DATA));
+                        break;
+                    case SQL:
+                        writeRecord(BinaryProtocolConstants.SQL);
+                        writeValues(data.getParsedData(CsvData.ROW_DATA));
+                        break;
+                    case RELOAD:
+                    default:
+                        break;
+                }
+            } catch (IOException e) {
+                throw new IoException(e);
+            }
+        }
+    }
+
+    protected void writeOldData(CsvData data) throws IOException {
+        String[] oldData = data.getParsedData(CsvData.OLD_DATA);
+        if (oldData != null && oldData.length > 0) {
+            writeRecord(BinaryProtocolConstants.OLD);
+            writeValues(oldData);
+        }
+    }
+
+    protected void writeTime(CsvData data) throws IOException {
+        Date createTime = (Date) data.getAttribute(CsvData.ATTRIBUTE_CREATE_TIME);
+        if (sendCaptureTime && baseTime == 0 && createTime != null) {
+            baseTime = createTime.getTime();
+            writeRecord(BinaryProtocolConstants.BASETIME);
+            writeLong(baseTime);
+        }
+        if (sendCaptureTime && sendRowCaptureTime && createTime != null) {
+            long thisTime = createTime.getTime() - baseTime;
+            if (thisTime != lastTime) {
+                writeRecord(BinaryProtocolConstants.TIME);
+                writeLong(thisTime);
+                lastTime = thisTime;
+            }
+        }
+    }
+
+    public void end(Table table) {
+    }
+
+    public void end(Batch batch, boolean inError) {
+        try {
+            if (batch.isIgnored()) {
+                writeRecord(BinaryProtocolConstants.IGNORE);
+            }
+            if (!inError) {
+                writeRecord(BinaryProtocolConstants.COMMIT);
+                writeLong(batch.getBatchId());
+                out.flush();
+            }
+            Statistics stats = statistics.get(batch);
+            if (stats != null) {
+                stats.increment(DataWriterStatisticConstants.BYTECOUNT, byteCount);
+            }
+            byteCount = 0;
+        } catch (IOException e) {
+            throw new IoException(e);
+        }
+    }
+
+    protected void writeHeader(String defaultSourceNodeId) throws IOException {
+        if (!headerWritten) {
+            out.write(BinaryProtocolConstants.MAGIC);
+            out.write(BinaryProtocolConstants.VERSION);
+            byteCount += BinaryProtocolConstants.HEADER_LENGTH;
+            if (StringUtils.isBlank(sourceNodeId)) {
+                sourceNodeId = defaultSourceNodeId;
+            }
+            if (StringUtils.isNotBlank(sourceNodeId)) {
+                writeRecord(BinaryProtocolConstants.NODEID);
+                writeString(sourceNodeId);
+            }
+            headerWritten = true;
+        }
+    }
+
+    protected void writeRecord(byte type) throws IOException {
+        out.write(type);
+        byteCount++;
+    }
+
+    protected void writeValues(String[] values) throws IOException {
+        if (values == null) {
+            writeUnsigned(0);
+            return;
+        }
+        writeUnsigned(values.length);
+        for (String value : values) {
+            writeValue(value);
+        }
+    }
+
+    protected void writeValue(String value) throws IOException {
+        if (value == null) {
+            out.write(BinaryProtocolConstants.VALUE_NULL);
+            byteCount++;
+        } else if (isCanonicalLong(value)) {
+            out.write(BinaryProtocolConstants.VALUE_LONG);
+            byteCount++;
+            writeLong(Long.parseLong(value));
+        } else if (!writeDecimal(value) && !writeTimestamp(value)) {
+            out.write(BinaryProtocolConstants.VALUE_STRING);
+            byteCount++;
+            writeString(value);
+        }
+    }
+
+    /**
+     * Check for an integer that fits in a long and that is written the way {@link Long#toString()} writes it, so it is read back unchanged.
+     */
+    protected static boolean isCanonicalLong(String value) {
+        int length = value.length();
+        int start = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+        if (length == start || length - start > 19 || (value.charAt(start) == '0' && (length - start > 1 || start == 1))) {
+            return false;
+        }
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        if (length - start == 19) {
+            try {
+                Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write a decimal number like 123.4500 as its unscaled value and scale, so the same digits are read back.
+     */
+    protected boolean writeDecimal(String value) throws IOException {
+        int length = value.length();
+        int start = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+        int point = value.indexOf('.');
+        if (point <= start || point == length - 1 || length - start - 1 > 18) {
+            return false;
+        }
+        if (value.charAt(start) == '0' && point - start > 1) {
+            return false;
+        }
+        long unscaled = 0;
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (i == point) {
+                continue;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+            unscaled = unscaled * 10 + (c - '0');
+        }
+        if (unscaled == 0 && start == 1) {
+            return false;
+        }
+        out.write(BinaryProtocolConstants.VALUE_DECIMAL);
+        byteCount++;
+        writeLong(start == 1 ? -unscaled : unscaled);
+        writeUnsigned(length - point - 1);
+        return true;
+    }
+
+    /**
+     * Write a timestamp like 2020-01-31 23:59:59.123 as seconds since the epoch and the fraction digits, so the same text is read back.
+     */
+    protected boolean writeTimestamp(String value) throws IOException {
+        int length = value.length();
+        if (length < 19 || length == 20 || length > 29 || value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != ' '
+                || value.charAt(13) != ':' || value.charAt(16) != ':' || (length > 19 && value.charAt(19) != '.') || value.charAt(0) == '0') {
+            return false;
+        }
+        int fraction = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == 4 || i == 7 || i == 10 || i == 13 || i == 16 || i == 19) {
+                continue;
+            }
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            if (i > 19) {
+                fraction = fraction * 10 + (c - '0');
+            }
+        }
+        long epochSeconds;
+        try {
+            epochSeconds = LocalDateTime.of(parseInt(value, 0, 4), parseInt(value, 5, 7), parseInt(value, 8, 10), parseInt(value, 11, 13),
+                    parseInt(value, 14, 16), parseInt(value, 17, 19)).toEpochSecond(ZoneOffset.UTC);
+        } catch (DateTimeException e) {
+            return false;
+        }
+        out.write(BinaryProtocolConstants.VALUE_TIMESTAMP);
+        byteCount++;
+        writeLong(epochSeconds);
+        int fractionDigits = length > 19 ? length - 20 : 0;
+        out.write(fractionDigits);
+        byteCount++;
+        if (fractionDigits > 0) {
+            writeUnsigned(fraction);
+        }
+        return true;
+    }
+
+    protected static int parseInt(String value, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            result = result * 10 + (value.charAt(i) - '0');
+        }
+        return result;
+    }
+
+    protected void writeString(String value) throws IOException {
+        if (value == null) {
+            writeUnsigned(0);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(bytes.length + 1L);
+            out.write(bytes);
+            byteCount += bytes.length;
+        }
+    }
+
+    /**
+     * Write a signed number with zig-zag encoding, so small negative numbers are short too.
+     */
+    protected void writeLong(long value) throws IOException {
+        writeUnsigned((value << 1) ^ (value >> 63));
+    }
+
+    protected void writeUnsigned(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+            byteCount++;
+        }
+        out.write((int) value);
+        byteCount++;
+    }
+
+    public Map<Batch, Statistics> getStatistics() {
+        return statistics;
+    }
+}
@@ -30,6 +30,8 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -44,6 +46,7 @@ import org.jumpmind.db.model.TypeMap;
 import org.jumpmind.db.platform.DatabaseInfo;
 import org.jumpmind.db.platform.DatabaseNamesConstants;
 import org.jumpmind.db.platform.IDatabasePlatform;
+import org.jumpmind.db.platform.ObjectValueConverter;
 import org.jumpmind.db.sql.DataTruncationException;
 import org.jumpmind.db.sql.DmlStatement;
 import org.jumpmind.db.sql.DmlStatement.DmlType;
@@ -72,10 +75,15 @@ public class DefaultDatabaseWriter extends AbstractDatabaseWriter {
     private final String ATTRIBUTE_CHANNEL_ID_RELOAD = "reload";
     private final String TRUNCATE_PATTERN = "^(truncate)( table)?.*";
     private final String DELETE_PATTERN = "^(delete from).*";
+    private static final Pattern DDL_TABLE_PATTERN = Pattern.compile(
+            "^\\s*(create|alter|drop)\\s+(global\\s+temporary\\s+)?table\\s+(if\\s+(not\\s+)?exists\\s+)?([^\\s(]+).*",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
     protected IDatabasePlatform platform;
     protected ISqlTransaction transaction;
     protected DmlStatement currentDmlStatement;
     protected Object[] currentDmlValues;
+    protected ObjectValueConverter currentValueConverter;
+    protected DmlStatement convertedDmlStatement;
     protected LogSqlBuilder logSqlBuilder = new LogSqlBuilder();
     protected Boolean isCteExpression;
 
@@ -290,8 +298,7 @@ public class DefaultDatabaseWriter extends AbstractDatabaseWriter {
             try {
                 getTransaction().execute("savepoint sym");
                 getTransaction().prepare(currentDmlStatement.getSql(false));
-                currentDmlValues = getPlatform().getObjectValues(batch.getBinaryEncoding(), values,
-                        currentDmlStatement.getMetaData(), false, writerSettings.isFitToColumn());
+                currentDmlValues = getObjectValues(values);
                 getTransaction().addRow(data, currentDmlValues, currentDmlStatement.getTypes());
             } catch (SqlException e) {
                 getTransaction().execute("rollback to savepoint sym");
@@ -659,7 +666,9 @@ public class DefaultDatabaseWriter extends AbstractDatabaseWriter {
             } else {
                 getTargetPlatform().createDatabase(db, writerSettings.isCreateTableDropFirst(), !writerSettings.isCreateTableFailOnError());
             }
-            getTargetPlatform().resetCachedTableModel();
+            for (Table table : db.getTables()) {
+                getTargetPlatform().resetCachedTable(table.getCatalog(), table.getSchema(), table.getName());
+            }
             statistics.get(batch).increment(DataWriterStatisticConstants.CREATECOUNT);
             return true;
         } catch (RuntimeException ex) {
@@ -762,6 +771,7 @@ public class DefaultDatabaseWriter extends AbstractDatabaseWriter {
                     if (newTransaction != null) {
                         newTransaction.close();
                     }
+                    resetCachedTableForDdl(sql);
                 }
             }
             statistics.get(batch).increment(DataWriterStatisticConstants.SQLCOUNT);
@@ -773,6 +783,21 @@ public class DefaultDatabaseWriter extends AbstractDatabaseWriter {
         }
     }
 
+    /**
+     * Remove a table from the table cache when a SQL event creates, alters or drops it, so later rows are loaded with its new columns.
+     */
+    protected void resetCachedTableForDdl(String sql) {
+        Matcher matcher = DDL_TABLE_PATTERN.matcher(sql);
+        if (matcher.matches()) {
+            String tableName = matcher.group(5);
+            tableName = tableName.substring(tableName.lastIndexOf('.') + 1).replaceAll("[\"`\\[\\]]", "");
+            if (tableName.length() > 0) {
+                getTargetPlatform().resetCachedTable(null, null, tableName);
+                targetTables.clear();
+            }
+        }
+    }
+
     private long retryWithMassagedSql(String sql, ISqlTransaction transaction, CsvData data, boolean captureChanges, long count) {
         try {
             if (captureChanges) {
@@ -1148,8 +1173,7 @@ public class DefaultDatabaseWriter extends AbstractDatabaseWriter {
     }
 
     protected int execute(CsvData data, String[] values) {
-        currentDmlValues = getPlatform().getObjectValues(batch.getBinaryEncoding(), values,
-                currentDmlStatement.getMetaData(), false, writerSettings.isFitToColumn());
+        currentDmlValues = getObjectValues(values);
         if (log.isDebugEnabled()) {
             log.debug("Submitting data [{}] with types [{}]",
                     dmlValuesToString(currentDmlValues, currentDmlStatement.getTypes()),
@@ -1158,6 +1182,17 @@ public class DefaultDatabaseWriter extends AbstractDatabaseWriter {
         return getTransaction().addRow(data, currentDmlValues, currentDmlStatement.getTypes());
     }
 
+    /**
+     * Convert the values with the converters compiled for the current statement, compiling them again only when the statement changes.
+     */
+    protected Object[] getObjectValues(String[] values) {
+        if (currentValueConverter == null || convertedDmlStatement != currentDmlStatement) {
+            currentValueConverter = getPlatform().createObjectValueConverter(currentDmlStatement.getMetaData());
+            convertedDmlStatement = currentDmlStatement;
+        }
+        return currentValueConverter.convert(batch.getBinaryEncoding(), values, false, writerSettings.isFitToColumn());
+    }
+
     @Override
     protected Table lookupTableAtTarget(Table sourceTable) {
         String tableNameKey = sourceTable.getTableKey();
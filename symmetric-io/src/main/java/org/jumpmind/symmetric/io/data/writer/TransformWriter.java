@@ -35,7 +35,9 @@ import org.jumpmind.symmetric.io.data.CsvData;
 import org.jumpmind.symmetric.io.data.DataContext;
 import org.jumpmind.symmetric.io.data.DataEventType;
 import org.jumpmind.symmetric.io.data.IDataWriter;
+import org.jumpmind.symmetric.io.data.reader.ExtractDataReader;
 import org.jumpmind.symmetric.io.data.transform.IColumnTransform;
+import org.jumpmind.symmetric.io.data.transform.IPrefetchColumnTransform;
 import org.jumpmind.symmetric.io.data.transform.IgnoreColumnException;
 import org.jumpmind.symmetric.io.data.transform.IgnoreRowException;
 import org.jumpmind.symmetric.io.data.transform.NewAndOldValue;
@@ -61,6 +63,8 @@ public class TransformWriter extends NestedDataWriter {
     protected Batch batch;
     protected Map<String, IColumnTransform<?>> columnTransforms;
     protected Table lastTransformedTable;
+    protected int prefetchSize;
+    protected List<PrefetchRow> prefetchRows = new ArrayList<PrefetchRow>();
 
     public TransformWriter(IDatabasePlatform platform, TransformPoint transformPoint,
             IDataWriter targetWriter, Map<String, IColumnTransform<?>> columnTransforms,
@@ -107,6 +111,7 @@ public class TransformWriter extends NestedDataWriter {
                         this.sourceTable.getPrimaryKeyColumnNames(),
                         this.sourceTable.getColumnNames()));
             }
+            prefetchSize = getPrefetchSize(activeTransforms);
             return true;
         } else {
             this.sourceTable = null;
@@ -130,6 +135,7 @@ public class TransformWriter extends NestedDataWriter {
                 start(context.getLastParsedTable());
             }
             if (eventType == DataEventType.SQL) {
+                flushPrefetchRows();
                 List<TransformTable> transformTables = activeTransforms;
                 for (TransformTable transformation : transformTables) {
                     Table transformedTable = new Table(transformation.getTargetCatalogName(),
@@ -155,31 +161,17 @@ public class TransformWriter extends NestedDataWriter {
                     sourceValues = sourceKeyValues;
                 }
             }
-            if (log.isDebugEnabled()) {
-                log.debug(
-                        "{} transformation(s) started because of {} on {}.  The original row data was: {}",
-                        new Object[] { activeTransforms.size(), eventType.toString(),
-                                this.sourceTable.getFullyQualifiedTableName(), sourceValues });
-            }
-            List<TransformTable> transformTables = activeTransforms;
-            if (eventType == DataEventType.DELETE) {
-                transformTables = new ArrayList<TransformTable>(activeTransforms);
-                Collections.reverse(transformTables);
-            }
-            for (TransformTable transformation : transformTables) {
-                DataEventType localEventType = eventType;
-                if (localEventType == DataEventType.INSERT && transformation.isUpdateFirst()) {
-                    localEventType = DataEventType.UPDATE;
-                }
-                List<TransformedData> dataThatHasBeenTransformed = transform(localEventType, context, transformation, sourceKeyValues, oldSourceValues,
-                        sourceValues);
-                for (TransformedData transformedData : dataThatHasBeenTransformed) {
-                    Table transformedTable = transformedData.buildTargetTable();
-                    CsvData csvData = transformedData.buildTargetCsvData(data.getAttributes());
-                    callWriter(transformedTable, csvData);
+            if (prefetchSize > 0) {
+                prefetchRows.add(new PrefetchRow(data, context.get(ExtractDataReader.DATA_CONTEXT_CURRENT_CSV_DATA), sourceKeyValues,
+                        oldSourceValues, sourceValues));
+                if (prefetchRows.size() >= prefetchSize) {
+                    flushPrefetchRows();
                 }
+            } else {
+                transformRow(data, sourceKeyValues, oldSourceValues, sourceValues);
             }
         } else {
+            flushPrefetchRows();
             if (sourceTable != null) {
                 super.start(sourceTable);
             }
@@ -190,6 +182,87 @@ public class TransformWriter extends NestedDataWriter {
         }
     }
 
+    protected void transformRow(CsvData data, Map<String, String> sourceKeyValues, Map<String, String> oldSourceValues,
+            Map<String, String> sourceValues) {
+        DataEventType eventType = data.getDataEventType();
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "{} transformation(s) started because of {} on {}.  The original row data was: {}",
+                    new Object[] { activeTransforms.size(), eventType.toString(),
+                            this.sourceTable.getFullyQualifiedTableName(), sourceValues });
+        }
+        List<TransformTable> transformTables = activeTransforms;
+        if (eventType == DataEventType.DELETE) {
+            transformTables = new ArrayList<TransformTable>(activeTransforms);
+            Collections.reverse(transformTables);
+        }
+        for (TransformTable transformation : transformTables) {
+            DataEventType localEventType = eventType;
+            if (localEventType == DataEventType.INSERT && transformation.isUpdateFirst()) {
+                localEventType = DataEventType.UPDATE;
+            }
+            List<TransformedData> dataThatHasBeenTransformed = transform(localEventType, context, transformation, sourceKeyValues, oldSourceValues,
+                    sourceValues);
+            for (TransformedData transformedData : dataThatHasBeenTransformed) {
+                Table transformedTable = transformedData.buildTargetTable();
+                CsvData csvData = transformedData.buildTargetCsvData(data.getAttributes());
+                callWriter(transformedTable, csvData);
+            }
+        }
+    }
+
+    /**
+     * Get the most rows to hold for the column transforms of the table that look up values for many rows at once.
+     */
+    protected int getPrefetchSize(List<TransformTable> transformTables) {
+        int size = 0;
+        if (columnTransforms != null) {
+            for (TransformTable transformTable : transformTables) {
+                for (TransformColumn column : transformTable.getTransformColumns()) {
+                    IColumnTransform<?> transform = columnTransforms.get(column.getTransformType());
+                    if (transform instanceof IPrefetchColumnTransform) {
+                        size = Math.max(size, ((IPrefetchColumnTransform<?>) transform).getPrefetchSize());
+                    }
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Let the column transforms prefetch values for the rows being held and then transform the rows in the order they were written.
+     */
+    protected void flushPrefetchRows() {
+        if (prefetchRows.size() > 0) {
+            List<PrefetchRow> rows = new ArrayList<PrefetchRow>(prefetchRows);
+            prefetchRows.clear();
+            Object currentCsvData = context.get(ExtractDataReader.DATA_CONTEXT_CURRENT_CSV_DATA);
+            try {
+                List<Map<String, String>> sourceValues = new ArrayList<Map<String, String>>(rows.size());
+                List<Map<String, String>> oldSourceValues = new ArrayList<Map<String, String>>(rows.size());
+                for (PrefetchRow row : rows) {
+                    sourceValues.add(row.sourceValues);
+                    oldSourceValues.add(row.oldSourceValues);
+                }
+                context.put(ExtractDataReader.DATA_CONTEXT_CURRENT_CSV_DATA, rows.get(0).currentCsvData);
+                for (TransformTable transformTable : activeTransforms) {
+                    for (TransformColumn column : transformTable.getTransformColumns()) {
+                        IColumnTransform<?> transform = columnTransforms.get(column.getTransformType());
+                        if (transform instanceof IPrefetchColumnTransform) {
+                            ((IPrefetchColumnTransform<?>) transform).prefetch(platform, context, column, sourceValues, oldSourceValues);
+                        }
+                    }
+                }
+                for (PrefetchRow row : rows) {
+                    context.put(ExtractDataReader.DATA_CONTEXT_CURRENT_CSV_DATA, row.currentCsvData);
+                    transformRow(row.data, row.sourceKeyValues, row.oldSourceValues, row.sourceValues);
+                }
+            } finally {
+                context.put(ExtractDataReader.DATA_CONTEXT_CURRENT_CSV_DATA, currentCsvData);
+            }
+        }
+    }
+
     protected void callWriter(Table transformedTable, CsvData csvData) {
         boolean processData = true;
         if (lastTransformedTable == null || transformedTable == null || !lastTransformedTable.equalsByName(transformedTable)) {
@@ -459,6 +532,9 @@ public class TransformWriter extends NestedDataWriter {
     }
 
     public void end(Table table) {
+        if (activeTransforms != null) {
+            flushPrefetchRows();
+        }
         if (this.lastTransformedTable != null) {
             this.nestedWriter.end(lastTransformedTable);
             this.lastTransformedTable = null;
@@ -469,4 +545,21 @@ public class TransformWriter extends NestedDataWriter {
             super.end(table);
         }
     }
+
+    protected static class PrefetchRow {
+        protected CsvData data;
+        protected Object currentCsvData;
+        protected Map<String, String> sourceKeyValues;
+        protected Map<String, String> oldSourceValues;
+        protected Map<String, String> sourceValues;
+
+        public PrefetchRow(CsvData data, Object currentCsvData, Map<String, String> sourceKeyValues, Map<String, String> oldSourceValues,
+                Map<String, String> sourceValues) {
+            this.data = data;
+            this.currentCsvData = currentCsvData;
+            this.sourceKeyValues = sourceKeyValues;
+            this.oldSourceValues = oldSourceValues;
+            this.sourceValues = sourceValues;
+        }
+    }
 }
@@ -0,0 +1,290 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.stage;
+
+import static org.jumpmind.symmetric.io.stage.BlockGzipOutputStream.HEADER_LENGTH;
+import static org.jumpmind.symmetric.io.stage.BlockGzipOutputStream.MAX_BLOCK_SIZE;
+import static org.jumpmind.symmetric.io.stage.BlockGzipOutputStream.TRAILER_LENGTH;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Reads data written by {@link BlockGzipOutputStream}. Blocks are inflated one at a time as data is read. Skipping moves over whole blocks using the
+ * uncompressed size in each block trailer, and {@link #readRawBlock()} returns the compressed bytes of the next block so they can be passed through
+ * without being inflated.
+ */
+public class BlockGzipInputStream extends InputStream {
+    protected InputStream in;
+    protected Inflater inflater = new Inflater(true);
+    protected CRC32 crc = new CRC32();
+    protected byte[] block = new byte[MAX_BLOCK_SIZE];
+    protected byte[] data = new byte[MAX_BLOCK_SIZE];
+    protected int dataLength;
+    protected int dataOffset;
+    protected boolean closed;
+
+    public BlockGzipInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Check if the stream starts with a block header. The stream must support mark and reset.
+     */
+    public static boolean isBlockGzip(InputStream in) throws IOException {
+        byte[] header = new byte[HEADER_LENGTH];
+        in.mark(HEADER_LENGTH);
+        try {
+            return readFully(in, header, 0, HEADER_LENGTH) == HEADER_LENGTH && isBlockHeader(header);
+        } finally {
+            in.reset();
+        }
+    }
+
+    public static boolean isBlockGzip(File file) throws IOException {
+        if (file == null || file.length() < HEADER_LENGTH) {
+            return false;
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), HEADER_LENGTH)) {
+            return isBlockGzip(in);
+        }
+    }
+
+    /**
+     * Get the uncompressed size of a file by adding up the sizes in its block trailers, without inflating the blocks.
+     */
+    public static long getUncompressedSize(File file) throws IOException {
+        long size = 0;
+        byte[] header = new byte[HEADER_LENGTH];
+        byte[] trailer = new byte[4];
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            long length = in.length();
+            long position = 0;
+            while (position < length) {
+                in.seek(position);
+                in.readFully(header);
+                if (!isBlockHeader(header)) {
+                    throw new ZipException("Not in block gzip format");
+                }
+                int blockSize = ((header[16] & 0xff) | (header[17] & 0xff) << 8) + 1;
+                if (blockSize < HEADER_LENGTH + TRAILER_LENGTH) {
+                    throw new ZipException("Invalid block size of " + blockSize);
+                }
+                in.seek(position + blockSize - 4);
+                in.readFully(trailer);
+                size += readInt(trailer, 0) & 0xffffffffL;
+                position += blockSize;
+            }
+        }
+        return size;
+    }
+
+    protected static boolean isBlockHeader(byte[] header) {
+        return (header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b && header[2] == 8 && (header[3] & 4) != 0 && header[10] == 6
+                && header[11] == 0 && header[12] == 'B' && header[13] == 'C' && header[14] == 2 && header[15] == 0;
+    }
+
+    /**
+     * Get the uncompressed size of a raw block from its trailer.
+     */
+    public static int getUncompressedSize(byte[] block) {
+        return readInt(block, block.length - 4);
+    }
+
+    protected static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff) << 16 | (bytes[offset + 3] & 0xff) << 24;
+    }
+
+    protected static int readFully(InputStream in, byte[] b, int off, int len) throws IOException {
+        int total = 0;
+        while (total < len) {
+            int read = in.read(b, off + total, len - total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Read the compressed bytes of the next block into the block buffer.
+     * 
+     * @return the size of the block, or -1 at the end of the stream
+     */
+    protected int readBlock() throws IOException {
+        int read = readFully(in, block, 0, HEADER_LENGTH);
+        if (read == 0) {
+            return -1;
+        } else if (read < HEADER_LENGTH) {
+            throw new EOFException("Unexpected end of stream while reading block header");
+        } else if (!isBlockHeader(block)) {
+            throw new ZipException("Not in block gzip format");
+        }
+        int blockSize = ((block[16] & 0xff) | (block[17] & 0xff) << 8) + 1;
+        if (blockSize < HEADER_LENGTH + TRAILER_LENGTH) {
+            throw new ZipException("Invalid block size of " + blockSize);
+        }
+        if (readFully(in, block, HEADER_LENGTH, blockSize - HEADER_LENGTH) < blockSize - HEADER_LENGTH) {
+            throw new EOFException("Unexpected end of stream while reading block");
+        }
+        return blockSize;
+    }
+
+    protected void inflateBlock(int blockSize) throws IOException {
+        int uncompressedSize = readInt(block, blockSize - 4);
+        if (uncompressedSize < 0 || uncompressedSize > data.length) {
+            throw new ZipException("Invalid uncompressed block size of " + uncompressedSize);
+        }
+        inflater.reset();
+        inflater.setInput(block, HEADER_LENGTH, blockSize - HEADER_LENGTH - TRAILER_LENGTH);
+        int length = 0;
+        try {
+            while (length < uncompressedSize) {
+                int inflated = inflater.inflate(data, length, uncompressedSize - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        }
+        crc.reset();
+        crc.update(data, 0, length);
+        if (length != uncompressedSize || (int) crc.getValue() != readInt(block, blockSize - 8)) {
+            throw new ZipException("Corrupt block");
+        }
+        dataLength = length;
+        dataOffset = 0;
+    }
+
+    protected boolean fill() throws IOException {
+        while (dataOffset >= dataLength) {
+            int blockSize = readBlock();
+            if (blockSize < 0) {
+                return false;
+            }
+            inflateBlock(blockSize);
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return data[dataOffset++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        } else if (!fill()) {
+            return -1;
+        }
+        int length = Math.min(len, dataLength - dataOffset);
+        System.arraycopy(data, dataOffset, b, off, length);
+        dataOffset += length;
+        return length;
+    }
+
+    /**
+     * Read the uncompressed data that remains in the current block, or of the next block if the current one is used up.
+     * 
+     * @return the data, or null at the end of the stream
+     */
+    public byte[] readDecompressedBlock() throws IOException {
+        if (!fill()) {
+            return null;
+        }
+        byte[] bytes = Arrays.copyOfRange(data, dataOffset, dataLength);
+        dataOffset = dataLength;
+        return bytes;
+    }
+
+    /**
+     * Read the next block as compressed bytes, including its header and trailer. The uncompressed data of the current block must have been read
+     * completely.
+     * 
+     * @return the block, or null at the end of the stream
+     */
+    public byte[] readRawBlock() throws IOException {
+        if (dataOffset < dataLength) {
+            throw new IllegalStateException("The current block has not been read completely");
+        }
+        int blockSize = readBlock();
+        if (blockSize < 0) {
+            return null;
+        }
+        return Arrays.copyOf(block, blockSize);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n) {
+            if (dataOffset < dataLength) {
+                int length = (int) Math.min(dataLength - dataOffset, n - skipped);
+                dataOffset += length;
+                skipped += length;
+            } else {
+                int blockSize = readBlock();
+                if (blockSize < 0) {
+                    break;
+                }
+                int uncompressedSize = readInt(block, blockSize - 4);
+                if (uncompressedSize <= n - skipped) {
+                    skipped += uncompressedSize;
+                } else {
+                    inflateBlock(blockSize);
+                }
+            }
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return dataLength - dataOffset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            inflater.end();
+            in.close();
+        }
+    }
+}
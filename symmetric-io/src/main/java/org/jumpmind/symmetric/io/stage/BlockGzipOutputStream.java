@@ -0,0 +1,163 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.stage;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes data as a series of independently compressed blocks, where each block is a complete gzip member that carries its compressed length in the
+ * header (the BGZF layout). Any gzip reader can decompress the output, while {@link BlockGzipInputStream} can skip whole blocks without inflating them
+ * and pass compressed blocks through to another stream unchanged.
+ */
+public class BlockGzipOutputStream extends FilterOutputStream {
+    public static final int HEADER_LENGTH = 18;
+    public static final int TRAILER_LENGTH = 8;
+    public static final int MAX_BLOCK_SIZE = 65536;
+    public static final int DEFAULT_BLOCK_DATA_SIZE = 60000;
+    protected Deflater deflater;
+    protected CRC32 crc = new CRC32();
+    protected byte[] buffer;
+    protected int count;
+    protected byte[] compressed = new byte[MAX_BLOCK_SIZE];
+    protected boolean syncFlush;
+    protected boolean closed;
+
+    public BlockGzipOutputStream(OutputStream out) {
+        this(out, Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, false);
+    }
+
+    /**
+     * @param syncFlush
+     *            When true, a flush ends the current block so everything written so far can be decompressed by the receiver. When false, a flush only
+     *            flushes the underlying stream and blocks are ended when they are full.
+     */
+    public BlockGzipOutputStream(OutputStream out, int level, int strategy, boolean syncFlush) {
+        super(out);
+        this.deflater = new Deflater(level, true);
+        this.deflater.setStrategy(strategy);
+        this.buffer = new byte[DEFAULT_BLOCK_DATA_SIZE];
+        this.syncFlush = syncFlush;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == buffer.length) {
+            flushBlock();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count == buffer.length) {
+                flushBlock();
+            }
+            int length = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, length);
+            count += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    /**
+     * Compress and write whatever data is buffered as a block.
+     */
+    public void flushBlock() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        crc.reset();
+        crc.update(buffer, 0, count);
+        deflater.reset();
+        deflater.setInput(buffer, 0, count);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            length += deflater.deflate(compressed, length, compressed.length - length);
+            if (length == compressed.length && !deflater.finished()) {
+                throw new IOException("Compressed block exceeded " + MAX_BLOCK_SIZE + " bytes");
+            }
+        }
+        int blockSize = HEADER_LENGTH + length + TRAILER_LENGTH;
+        writeHeader(blockSize);
+        out.write(compressed, 0, length);
+        writeInt((int) crc.getValue());
+        writeInt(count);
+        count = 0;
+    }
+
+    /**
+     * Write a block that was already compressed, such as one read by {@link BlockGzipInputStream#readRawBlock()}, after ending the current block.
+     */
+    public void writeRawBlock(byte[] block) throws IOException {
+        writeRawBlock(block, 0, block.length);
+    }
+
+    public void writeRawBlock(byte[] block, int off, int len) throws IOException {
+        flushBlock();
+        out.write(block, off, len);
+    }
+
+    protected void writeHeader(int blockSize) throws IOException {
+        int bsize = blockSize - 1;
+        byte[] header = new byte[] { 0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0, (byte) (bsize & 0xff),
+                (byte) ((bsize >> 8) & 0xff) };
+        out.write(header);
+    }
+
+    protected void writeInt(int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+        out.write((value >> 16) & 0xff);
+        out.write((value >> 24) & 0xff);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (syncFlush) {
+            flushBlock();
+        }
+        out.flush();
+    }
+
+    public void finish() throws IOException {
+        flushBlock();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                finish();
+            } finally {
+                deflater.end();
+                out.close();
+            }
+        }
+    }
+}
@@ -43,14 +43,29 @@ public interface IStagedResource {
 
     public InputStream getInputStream();
 
+    /**
+     * Copy the uncompressed bytes of the resource, starting at the position, to the output stream without decoding them into characters.
+     * 
+     * @return the number of bytes copied
+     */
+    public long transferTo(long position, OutputStream out);
+
     public File getFile();
 
     public void close();
 
     public void closeReaders();
 
+    /**
+     * Size of the resource's data, which is the uncompressed size when {@link #isCompressed()} is true.
+     */
     public long getSize();
 
+    /**
+     * Size of the resource as stored, which is smaller than {@link #getSize()} when {@link #isCompressed()} is true.
+     */
+    public long getCompressedSize();
+
     public State getState();
 
     public String getPath();
@@ -65,6 +80,11 @@ public interface IStagedResource {
 
     public boolean isMemoryResource();
 
+    /**
+     * Whether the file is stored as compressed blocks. Readers and input streams always return uncompressed data.
+     */
+    public boolean isCompressed();
+
     public boolean delete();
 
     public boolean exists();
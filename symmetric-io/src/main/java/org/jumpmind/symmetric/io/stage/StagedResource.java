@@ -34,13 +34,18 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.jumpmind.exception.IoException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +64,8 @@ public class StagedResource implements IStagedResource {
     protected Map<Thread, BufferedReader> readers = null;
     protected BufferedWriter writer;
     protected StagingManager stagingManager;
+    protected long uncompressedSize = -1;
+    protected long uncompressedSizeFileLength = -1;
 
     public StagedResource(File directory, String path, StagingManager stagingManager) {
         this.directory = directory;
@@ -231,7 +238,7 @@ public class StagedResource implements IStagedResource {
     }
 
     protected BufferedReader createReader() throws IOException {
-        return new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8.name()));
+        return new BufferedReader(new InputStreamReader(createInputStream(), StandardCharsets.UTF_8.name()));
     }
 
     private synchronized final void createReadersMap() {
@@ -358,8 +365,53 @@ public class StagedResource implements IStagedResource {
         return reader;
     }
 
-    protected InputStream createInputStream() throws FileNotFoundException {
-        return new BufferedInputStream(new FileInputStream(file));
+    protected InputStream createInputStream() throws IOException {
+        InputStream is = new BufferedInputStream(new FileInputStream(file));
+        if (BlockGzipInputStream.isBlockGzip(is)) {
+            is = new BlockGzipInputStream(is);
+        }
+        return is;
+    }
+
+    public long transferTo(long position, OutputStream out) {
+        refreshLastUpdateTime();
+        try {
+            if (file != null && file.exists()) {
+                if (isCompressed()) {
+                    try (InputStream is = createInputStream()) {
+                        if (is.skip(position) < position) {
+                            return 0;
+                        }
+                        return IOUtils.copyLarge(is, out);
+                    }
+                }
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    WritableByteChannel target = Channels.newChannel(out);
+                    long count = channel.size() - position;
+                    long transferred = 0;
+                    while (transferred < count) {
+                        long bytes = channel.transferTo(position + transferred, count - transferred, target);
+                        if (bytes <= 0) {
+                            break;
+                        }
+                        transferred += bytes;
+                    }
+                    return transferred;
+                }
+            } else if (memoryBuffer != null && memoryBuffer.length() > 0) {
+                byte[] bytes = memoryBuffer.toString().getBytes(StandardCharsets.UTF_8);
+                if (position >= bytes.length) {
+                    return 0;
+                }
+                out.write(bytes, (int) position, bytes.length - (int) position);
+                return bytes.length - position;
+            } else {
+                throw new IllegalStateException("There is no content to read. "
+                        + file.getAbsolutePath() + " was not found.");
+            }
+        } catch (IOException ex) {
+            throw new IoException(ex);
+        }
     }
 
     public BufferedWriter getWriter(long threshold) {
@@ -379,10 +431,38 @@ public class StagedResource implements IStagedResource {
     }
 
     protected BufferedWriter createWriter(long threshold) {
-        return new BufferedWriter(new ThresholdFileWriter(threshold, this.memoryBuffer, file));
+        return new BufferedWriter(new ThresholdFileWriter(threshold, this.memoryBuffer, file,
+                stagingManager != null && stagingManager.isCompressionEnabled(path)));
+    }
+
+    public boolean isCompressed() {
+        try {
+            return file != null && file.exists() && BlockGzipInputStream.isBlockGzip(file);
+        } catch (IOException ex) {
+            throw new IoException(ex);
+        }
     }
 
     public long getSize() {
+        if (file != null && file.exists()) {
+            long length = file.length();
+            if (length != uncompressedSizeFileLength) {
+                try {
+                    uncompressedSize = BlockGzipInputStream.isBlockGzip(file) ? BlockGzipInputStream.getUncompressedSize(file) : length;
+                } catch (IOException ex) {
+                    throw new IoException(ex);
+                }
+                uncompressedSizeFileLength = length;
+            }
+            return uncompressedSize;
+        } else if (memoryBuffer != null) {
+            return memoryBuffer.length();
+        } else {
+            return 0;
+        }
+    }
+
+    public long getCompressedSize() {
         if (file != null && file.exists()) {
             return file.length();
         } else if (memoryBuffer != null) {
@@ -134,7 +134,7 @@ public class StagingManager implements IStagingManager {
                                 context.addPurgedMemoryBytes(resource.getSize());
                             } else {
                                 context.incrementPurgedFileCount();
-                                context.addPurgedFileBytes(resource.getSize());
+                                context.addPurgedFileBytes(resource.getCompressedSize());
                             }
                             cleanPath(resource, ttlInMs, context);
                         } else {
@@ -303,6 +303,33 @@ public class StagingManager implements IStagingManager {
         return directory;
     }
 
+    /**
+     * Get the number of resources known to be in staging, which is refreshed when staging is cleaned.
+     */
+    public int getResourceCount() {
+        return resourcePathsCache.size();
+    }
+
+    /**
+     * Get the number of bytes held in memory by resources that have not been written to files.
+     */
+    public long getInUseMemoryBytes() {
+        long bytes = 0;
+        for (IStagedResource resource : inUse.values()) {
+            if (resource.isMemoryResource()) {
+                bytes += resource.getSize();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Whether files written to the path should be compressed. Files that are handed to other programs by name should not be compressed.
+     */
+    public boolean isCompressionEnabled(String path) {
+        return false;
+    }
+
     protected static final DirectoryStream.Filter<Path> STAGING_FILE_FILTER = new DirectoryStream.Filter<Path>() {
         @Override
         public boolean accept(Path entry) {
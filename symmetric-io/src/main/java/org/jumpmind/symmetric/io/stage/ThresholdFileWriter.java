@@ -20,13 +20,16 @@
  */
 package org.jumpmind.symmetric.io.stage;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.StringReader;
 import java.io.Writer;
@@ -41,6 +44,7 @@ public class ThresholdFileWriter extends Writer {
     protected BufferedWriter fileWriter;
     protected StringBuilder buffer;
     protected long threshhold;
+    protected boolean compressed;
 
     /**
      * @param threshold
@@ -54,6 +58,15 @@ public class ThresholdFileWriter extends Writer {
         this.threshhold = threshold;
     }
 
+    /**
+     * @param compressed
+     *            Whether to write the file as compressed blocks with {@link BlockGzipOutputStream}
+     */
+    public ThresholdFileWriter(long threshold, StringBuilder buffer, File file, boolean compressed) {
+        this(threshold, buffer, file);
+        this.compressed = compressed;
+    }
+
     public File getFile() {
         return file;
     }
@@ -62,6 +75,10 @@ public class ThresholdFileWriter extends Writer {
         this.file = file;
     }
 
+    public boolean isCompressed() {
+        return compressed;
+    }
+
     @Override
     public void close() throws IOException {
         if (fileWriter != null) {
@@ -97,12 +114,20 @@ public class ThresholdFileWriter extends Writer {
     }
 
     protected BufferedWriter getWriter() throws IOException {
-        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8.name()));
+        OutputStream os = new FileOutputStream(file);
+        if (compressed) {
+            os = new BlockGzipOutputStream(os);
+        }
+        return new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8.name()));
     }
 
     public BufferedReader getReader() throws IOException {
         if (file != null && file.exists()) {
-            return new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8.name()));
+            InputStream is = new BufferedInputStream(new FileInputStream(file));
+            if (BlockGzipInputStream.isBlockGzip(is)) {
+                is = new BlockGzipInputStream(is);
+            }
+            return new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8.name()));
         } else {
             return new BufferedReader(new StringReader(buffer.toString()));
         }
@@ -0,0 +1,143 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.data.reader;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Date;
+
+import org.jumpmind.db.model.Column;
+import org.jumpmind.db.model.Table;
+import org.jumpmind.db.util.BinaryEncoding;
+import org.jumpmind.symmetric.io.data.Batch;
+import org.jumpmind.symmetric.io.data.Batch.BatchType;
+import org.jumpmind.symmetric.io.data.CsvData;
+import org.jumpmind.symmetric.io.data.DataContext;
+import org.jumpmind.symmetric.io.data.DataEventType;
+import org.jumpmind.symmetric.io.data.writer.BinaryProtocolDataWriter;
+import org.jumpmind.symmetric.io.data.writer.DataWriterStatisticConstants;
+import org.junit.jupiter.api.Test;
+
+public class BinaryProtocolDataReaderTest {
+    static final String[] VALUES = new String[] { "1", "-42", "007", "-0", "12.50", "-0.05", "0.00", "-0.00", "1.", "9223372036854775808",
+            "2020-02-29 23:59:59", "2020-02-30 10:00:00", "1999-12-31 00:00:00.000120", "0999-01-01 00:00:00", "caf\u00e9", "", null };
+
+    @Test
+    public void testRoundTrip() {
+        Table table = new Table("test1");
+        table.addColumn(new Column("id", true));
+        for (int i = 1; i < VALUES.length; i++) {
+            table.addColumn(new Column("c" + i));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryProtocolDataWriter writer = new BinaryProtocolDataWriter("055", out);
+        writer.open(new DataContext());
+        for (long batchId = 1; batchId <= 2; batchId++) {
+            Batch batch = new Batch(BatchType.EXTRACT, batchId, "nbc", BinaryEncoding.BASE64, "055", "test", false);
+            writer.setBatchStats(new String[] { "LOADROWCOUNT" }, new long[] { 3 });
+            writer.start(batch);
+            writer.start(table);
+            writer.write(new CsvData(DataEventType.INSERT, VALUES));
+            writer.end(table);
+            writer.start(table);
+            writer.write(newData(DataEventType.UPDATE, VALUES));
+            writer.write(newData(DataEventType.DELETE, null));
+            writer.end(table);
+            writer.end(batch, false);
+            assertEquals(3, writer.getStatistics().get(batch).get(DataWriterStatisticConstants.ROWCOUNT));
+        }
+        writer.close();
+
+        BinaryProtocolDataReader reader = new BinaryProtocolDataReader(BatchType.LOAD, "test", new ByteArrayInputStream(out.toByteArray()));
+        DataContext ctx = new DataContext(reader);
+        reader.open(ctx);
+        for (long batchId = 1; batchId <= 2; batchId++) {
+            Batch batch = reader.nextBatch();
+            assertNotNull(batch);
+            assertEquals(batchId, batch.getBatchId());
+            assertEquals("nbc", batch.getChannelId());
+            assertEquals("055", batch.getSourceNodeId());
+            assertEquals(BinaryEncoding.BASE64, batch.getBinaryEncoding());
+            Table readTable = reader.nextTable();
+            assertNotNull(readTable);
+            assertEquals("test1", readTable.getName());
+            assertEquals(VALUES.length, readTable.getColumnCount());
+            assertEquals(1, readTable.getPrimaryKeyColumns().length);
+            CsvData data = reader.nextData();
+            assertEquals(DataEventType.INSERT, data.getDataEventType());
+            assertArrayEquals(VALUES, data.getParsedData(CsvData.ROW_DATA));
+            assertEquals("nbc", data.getAttribute(CsvData.ATTRIBUTE_CHANNEL_ID));
+            assertNull(reader.nextData());
+            assertSame(readTable, reader.nextTable());
+            data = reader.nextData();
+            assertEquals(DataEventType.UPDATE, data.getDataEventType());
+            assertArrayEquals(VALUES, data.getParsedData(CsvData.ROW_DATA));
+            assertArrayEquals(new String[] { "1" }, data.getParsedData(CsvData.PK_DATA));
+            assertArrayEquals(VALUES, data.getParsedData(CsvData.OLD_DATA));
+            data = reader.nextData();
+            assertEquals(DataEventType.DELETE, data.getDataEventType());
+            assertArrayEquals(new String[] { "1" }, data.getParsedData(CsvData.PK_DATA));
+            assertNull(reader.nextData());
+            assertNull(reader.nextTable());
+            assertTrue(batch.isComplete());
+            assertEquals(3, reader.getStatistics().get(batch).get("LOADROWCOUNT"));
+            assertEquals(3, reader.getStatistics().get(batch).get(DataReaderStatistics.READ_RECORD_COUNT));
+        }
+        assertNull(reader.nextBatch());
+        reader.close();
+    }
+
+    @Test
+    public void testCaptureTimeSetAfterCreate() {
+        Table table = new Table("test1");
+        table.addColumn(new Column("id", true));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryProtocolDataWriter writer = new BinaryProtocolDataWriter(null, out);
+        writer.setSourceNodeId("055");
+        writer.setSendCaptureTime(true, true);
+        writer.open(new DataContext());
+        Batch batch = new Batch(BatchType.EXTRACT, 1, "nbc", BinaryEncoding.BASE64, "055", "test", false);
+        writer.start(batch);
+        writer.start(table);
+        Date createTime = new Date(1600000000000L);
+        CsvData data = new CsvData(DataEventType.INSERT, new String[] { "1" });
+        data.putAttribute(CsvData.ATTRIBUTE_CREATE_TIME, createTime);
+        writer.write(data);
+        writer.end(table);
+        writer.end(batch, false);
+        writer.close();
+
+        BinaryProtocolDataReader reader = new BinaryProtocolDataReader(BatchType.LOAD, "test", new ByteArrayInputStream(out.toByteArray()));
+        reader.open(new DataContext(reader));
+        assertEquals("055", reader.nextBatch().getSourceNodeId());
+        reader.nextTable();
+        assertEquals(createTime, reader.nextData().getAttribute(CsvData.ATTRIBUTE_CREATE_TIME));
+        reader.close();
+    }
+
+    protected CsvData newData(DataEventType eventType, String[] rowData) {
+        CsvData data = new CsvData(eventType, new String[] { "1" }, rowData);
+        data.putParsedData(CsvData.OLD_DATA, VALUES);
+        return data;
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.data.reader;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jumpmind.db.model.Table;
+import org.jumpmind.symmetric.io.data.Batch;
+import org.jumpmind.symmetric.io.data.Batch.BatchType;
+import org.jumpmind.symmetric.io.data.CsvConstants;
+import org.jumpmind.symmetric.io.data.CsvData;
+import org.jumpmind.symmetric.io.data.DataContext;
+import org.jumpmind.symmetric.io.data.DataProcessor;
+import org.jumpmind.symmetric.io.data.IDataReader;
+import org.jumpmind.symmetric.io.data.ProtocolException;
+import org.junit.jupiter.api.Test;
+
+public class PipelinedDataReaderTest {
+    ProtocolDataReaderTest csv = new ProtocolDataReaderTest();
+
+    @Test
+    public void testSameOrderAsReader() {
+        StringBuilder builder = csv.beginCsv("1");
+        for (int batchId = 1; batchId <= 3; batchId++) {
+            csv.beginBatch(builder, batchId, "test");
+            csv.putTableN(builder, 1, true);
+            csv.putInsert(builder, 5);
+            csv.putTableN(builder, 2, true);
+            csv.putInsert(builder, 3);
+            csv.putTableN(builder, 1, false);
+            csv.putInsert(builder, 2);
+            csv.endCsv(builder);
+        }
+        List<String> expected = process(new ProtocolDataReader(BatchType.LOAD, "test", builder));
+        for (int queueSize = 0; queueSize <= 2; queueSize++) {
+            PipelinedDataReader reader = new PipelinedDataReader(new ProtocolDataReader(BatchType.LOAD, "test", builder), queueSize, "test");
+            assertEquals(expected, process(reader));
+            assertEquals(3, reader.getStatistics().size());
+        }
+    }
+
+    @Test
+    public void testParseErrorIsThrownInOrder() {
+        StringBuilder builder = csv.beginCsv("1");
+        csv.beginBatch(builder, 1, "test");
+        csv.putTableN(builder, 1, true);
+        csv.putInsert(builder, 2);
+        builder.append(String.format("%s,%s\n", CsvConstants.UPDATE, "1"));
+        csv.endCsv(builder);
+        RecordingDataWriter writer = new RecordingDataWriter();
+        try {
+            new DataProcessor(new PipelinedDataReader(new ProtocolDataReader(BatchType.LOAD, "test", builder), 1, "test"), writer, "test")
+                    .process(new DataContext());
+            fail("Expected a protocol exception");
+        } catch (ProtocolException ex) {
+        }
+        assertEquals(2, writer.getDatas().size());
+    }
+
+    protected List<String> process(IDataReader reader) {
+        RecordingDataWriter writer = new RecordingDataWriter();
+        new DataProcessor(reader, writer, "test").process(new DataContext());
+        return writer.events;
+    }
+
+    static class RecordingDataWriter extends TestableDataWriter {
+        List<String> events = new ArrayList<String>();
+
+        @Override
+        public void start(Batch batch) {
+            events.add("batch " + batch.getBatchId());
+        }
+
+        @Override
+        public boolean start(Table table) {
+            events.add("table " + table.getName() + " " + table.getColumnCount());
+            return super.start(table);
+        }
+
+        @Override
+        public void write(CsvData data) {
+            events.add(data.getDataEventType() + " " + String.join(",", data.getParsedData(CsvData.ROW_DATA)));
+            super.write(data);
+        }
+
+        @Override
+        public void end(Batch batch, boolean inError) {
+            events.add("end " + batch.getBatchId() + " " + inError);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.data.stage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.jumpmind.symmetric.io.stage.BlockGzipInputStream;
+import org.jumpmind.symmetric.io.stage.BlockGzipOutputStream;
+import org.junit.jupiter.api.Test;
+
+public class BlockGzipStreamTest {
+    @Test
+    public void testRoundTrip() throws Exception {
+        byte[] data = createData(200000);
+        byte[] compressed = compress(data);
+        assertTrue(compressed.length < data.length);
+        assertTrue(BlockGzipInputStream.isBlockGzip(new BufferedInputStream(new ByteArrayInputStream(compressed))));
+        assertFalse(BlockGzipInputStream.isBlockGzip(new BufferedInputStream(new ByteArrayInputStream(data))));
+        assertArrayEquals(data, IOUtils.toByteArray(new BlockGzipInputStream(new ByteArrayInputStream(compressed))));
+        // every block is a gzip member, so a standard reader can decompress the whole stream
+        assertArrayEquals(data, IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        byte[] data = createData(200000);
+        BlockGzipInputStream in = new BlockGzipInputStream(new ByteArrayInputStream(compress(data)));
+        assertEquals(10, in.skip(10));
+        assertEquals(data[10] & 0xff, in.read());
+        assertEquals(150000, in.skip(150000));
+        assertEquals(data[150011] & 0xff, in.read());
+        assertEquals(data.length - 150012, in.skip(Long.MAX_VALUE));
+        assertEquals(-1, in.read());
+        in.close();
+    }
+
+    @Test
+    public void testRawBlockPassThrough() throws Exception {
+        byte[] data = createData(200000);
+        BlockGzipInputStream in = new BlockGzipInputStream(new ByteArrayInputStream(compress(data)));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BlockGzipOutputStream out = new BlockGzipOutputStream(bytes);
+        out.write("header\n".getBytes());
+        byte[] first = in.readDecompressedBlock();
+        out.write(first);
+        byte[] block = null;
+        int uncompressedSize = first.length;
+        while ((block = in.readRawBlock()) != null) {
+            out.writeRawBlock(block);
+            uncompressedSize += BlockGzipInputStream.getUncompressedSize(block);
+        }
+        assertNull(in.readDecompressedBlock());
+        out.write("trailer\n".getBytes());
+        out.close();
+        assertEquals(data.length, uncompressedSize);
+        String expected = "header\n" + new String(data) + "trailer\n";
+        assertEquals(expected, new String(IOUtils.toByteArray(new BlockGzipInputStream(new ByteArrayInputStream(bytes.toByteArray())))));
+    }
+
+    protected byte[] compress(byte[] data) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BlockGzipOutputStream out = new BlockGzipOutputStream(bytes);
+        out.write(data);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    protected byte[] createData(int length) {
+        Random random = new Random(1);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.symmetric.io.data.stage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.jumpmind.symmetric.io.stage.IStagedResource;
+import org.jumpmind.symmetric.io.stage.IStagedResource.State;
+import org.jumpmind.symmetric.io.stage.StagingManager;
+import org.junit.jupiter.api.Test;
+
+public class StagedResourceTest {
+    final String TEST_STR = "nodeid,00000\nbatch,1\ninsert,\"caf\u00e9\"\ncommit,1\n";
+
+    @Test
+    public void testTransferTo() throws Exception {
+        assertTransferTo(false);
+    }
+
+    @Test
+    public void testTransferToCompressed() throws Exception {
+        assertTransferTo(true);
+    }
+
+    protected void assertTransferTo(boolean compressed) throws Exception {
+        File directory = new File("target/test/staging");
+        FileUtils.deleteQuietly(directory);
+        StagingManager stagingManager = new StagingManager(directory.getAbsolutePath(), false) {
+            @Override
+            public boolean isCompressionEnabled(String path) {
+                return compressed;
+            }
+        };
+        IStagedResource resource = stagingManager.create("outgoing", 1L);
+        BufferedWriter writer = resource.getWriter(0);
+        writer.write(TEST_STR);
+        resource.close();
+        resource.setState(State.DONE);
+        assertEquals(compressed, resource.isCompressed());
+        byte[] bytes = TEST_STR.getBytes(StandardCharsets.UTF_8);
+        assertEquals(bytes.length, resource.getSize());
+        assertEquals(compressed, resource.getCompressedSize() != resource.getSize());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(bytes.length - 13, resource.transferTo(13, out));
+        assertEquals(TEST_STR.substring(13), new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertFalse(resource.isInUse());
+        assertTrue(resource.delete());
+    }
+}
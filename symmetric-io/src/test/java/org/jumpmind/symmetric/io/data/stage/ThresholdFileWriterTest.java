@@ -24,6 +24,7 @@ import java.io.BufferedReader;
 import java.io.File;
 
 import org.apache.commons.io.IOUtils;
+import org.jumpmind.symmetric.io.stage.BlockGzipInputStream;
 import org.jumpmind.symmetric.io.stage.ThresholdFileWriter;
 import static org.junit.Assert.*;
 import org.junit.jupiter.api.Test;
@@ -58,6 +59,19 @@ public class ThresholdFileWriterTest {
         assertTrue(file.delete());
     }
 
+    @Test
+    public void testWriteToCompressedFile() throws Exception {
+        File file = getTestFile();
+        ThresholdFileWriter writer = new ThresholdFileWriter(TEST_STR.length() - 1, new StringBuilder(), file, true);
+        writer.write(TEST_STR);
+        writer.close();
+        assertTrue(BlockGzipInputStream.isBlockGzip(file));
+        BufferedReader reader = writer.getReader();
+        assertEquals(TEST_STR, IOUtils.toString(reader));
+        reader.close();
+        assertTrue(file.delete());
+    }
+
     private File getTestFile() {
         File file = new File("target/test/buffered.file.writer.tst");
         file.getParentFile().mkdirs();
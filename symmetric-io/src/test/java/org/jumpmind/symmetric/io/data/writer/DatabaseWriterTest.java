@@ -44,6 +44,7 @@ import org.jumpmind.db.platform.oracle.OracleDatabasePlatform;
 import org.jumpmind.db.platform.postgresql.PostgreSqlDatabasePlatform;
 import org.jumpmind.db.platform.sqlanywhere.SqlAnywhereDatabasePlatform;
 import org.jumpmind.db.platform.tibero.TiberoDatabasePlatform;
+import org.jumpmind.db.sql.mapper.StringMapper;
 import org.jumpmind.symmetric.io.AbstractWriterTest;
 import org.jumpmind.symmetric.io.data.CsvData;
 import org.jumpmind.symmetric.io.data.DataEventType;
@@ -527,6 +528,29 @@ public class DatabaseWriterTest extends AbstractWriterTest {
         }
     }
 
+    @Test
+    public void testBlobColumnsForPostgresWithSameStatement() throws Exception {
+        if (platform instanceof PostgreSqlDatabasePlatform) {
+            platform.getSqlTemplate().update("drop table if exists test_postgres_blob_rows");
+            platform.getSqlTemplate().update(
+                    "create table test_postgres_blob_rows (id integer primary key, binary_data oid)");
+            String tableName = "test_postgres_blob_rows";
+            String[] keys = { "id" };
+            String[] columns = { "id", "binary_data" };
+            Table table = buildSourceTable(tableName, keys, columns);
+            writeData(new TableCsvData(table, new CsvData(DataEventType.INSERT, new String[] { "1", "dGVzdCAxIDIgMw==" }),
+                    new CsvData(DataEventType.INSERT, new String[] { "2", "dGVzdCA0IDUgNg==" })));
+            List<String> results = platform.getSqlTemplate().query(
+                    "select encode(l.data,'escape') from test_postgres_blob_rows t join pg_largeobject l on l.loid = t.binary_data order by t.id",
+                    new StringMapper());
+            platform.getSqlTemplate().query(
+                    "select lo_unlink(binary_data) from test_postgres_blob_rows");
+            Assert.assertEquals(2, results.size());
+            Assert.assertEquals("test 1 2 3", results.get(0));
+            Assert.assertEquals("test 4 5 6", results.get(1));
+        }
+    }
+
     @Test
     public void testBenchmark() throws Exception {
         Table table = buildSourceTable(TEST_TABLE, TEST_KEYS, TEST_COLUMNS);
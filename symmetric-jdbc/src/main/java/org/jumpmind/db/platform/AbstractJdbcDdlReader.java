@@ -571,6 +571,149 @@ public abstract class AbstractJdbcDdlReader implements IDdlReader {
         }
     }
 
+    /**
+     * Read the named tables of a schema together. The tables are found with one catalog query, and the columns, keys and indexes of all of them are
+     * each read with one catalog query when the reader supports it, instead of several queries for every table. Tables that are not found are left
+     * out.
+     */
+    @Override
+    public List<Table> readTablesByName(final String catalog, final String schema, final Collection<String> tableNames) {
+        if (tableNames == null || tableNames.size() == 0) {
+            return new ArrayList<Table>(0);
+        }
+        JdbcSqlTemplate sqlTemplate = (JdbcSqlTemplate) platform.getSqlTemplateDirty();
+        List<Table> tables = sqlTemplate.execute(new IConnectionCallback<List<Table>>() {
+            public List<Table> execute(Connection connection) throws SQLException {
+                BulkDatabaseMetaDataWrapper metaData = new BulkDatabaseMetaDataWrapper();
+                metaData.setMetaData(connection.getMetaData());
+                if (isNotBlank(catalog)) {
+                    metaData.setCatalog(catalog);
+                }
+                if (isNotBlank(schema)) {
+                    metaData.setSchemaPattern(schema);
+                }
+                metaData.setTableTypes(null);
+                Set<String> names = new HashSet<String>(tableNames);
+                List<Map<String, Object>> tableRows = new ArrayList<Map<String, Object>>();
+                ResultSet tableData = null;
+                try {
+                    tableData = metaData.getTables("%");
+                    while (tableData.next()) {
+                        Map<String, Object> values = readMetaData(tableData, initColumnsForTable());
+                        if (names.contains(values.get(getName("TABLE_NAME")))) {
+                            tableRows.add(values);
+                        }
+                    }
+                } finally {
+                    close(tableData);
+                }
+                List<Table> tables = new ArrayList<Table>(tableRows.size());
+                if (tableRows.size() > 0) {
+                    long ts = System.currentTimeMillis();
+                    readBulkMetaData(connection, metaData, names);
+                    for (Map<String, Object> values : tableRows) {
+                        Table table = readTable(connection, metaData, values);
+                        if (table != null) {
+                            tables.add(table);
+                        }
+                    }
+                    log.debug("Read {} tables from {} in {} ms", tables.size(), Table.getFullyQualifiedTablePrefix(catalog, schema),
+                            System.currentTimeMillis() - ts);
+                }
+                return tables;
+            }
+        });
+        for (Table table : tables) {
+            postprocessTableFromDatabase(table);
+        }
+        return tables;
+    }
+
+    /**
+     * Read the catalog rows for all the tables at once. Columns are read with one standard JDBC call, while keys are read in bulk only when the
+     * driver accepts a null table name, and indexes only when the reader provides its own catalog query.
+     */
+    protected void readBulkMetaData(Connection connection, BulkDatabaseMetaDataWrapper metaData, Set<String> tableNames) throws SQLException {
+        metaData.setColumns(readMetaDataByTable(metaData.getColumns("%", getDefaultColumnPattern()), getColumnsForColumn(),
+                "TABLE_NAME", getResultSetSchemaName(), tableNames, metaData));
+        if (isBulkConstraintMetaDataSupported()) {
+            metaData.setPrimaryKeys(readMetaDataByTable(metaData.getPrimaryKeys(null), getColumnsForPK(),
+                    "TABLE_NAME", "TABLE_SCHEM", tableNames, metaData));
+            if (getPlatformInfo().isForeignKeysSupported()) {
+                metaData.setForeignKeys(readMetaDataByTable(metaData.getForeignKeys(null), getColumnsForFK(),
+                        "FKTABLE_NAME", "FKTABLE_SCHEM", tableNames, metaData));
+            }
+        }
+        if (getPlatformInfo().isIndicesSupported()) {
+            metaData.setIndices(readBulkIndices(connection, metaData, tableNames));
+        }
+    }
+
+    /**
+     * Whether the driver returns the primary and foreign keys of all tables in the schema when the table name is null.
+     */
+    protected boolean isBulkConstraintMetaDataSupported() {
+        return false;
+    }
+
+    /**
+     * Read the index rows of all the tables, keyed by table name, or return null to read the indexes of each table by itself.
+     */
+    protected Map<String, List<Map<String, Object>>> readBulkIndices(Connection connection, BulkDatabaseMetaDataWrapper metaData,
+            Set<String> tableNames) throws SQLException {
+        return null;
+    }
+
+    protected Map<String, List<Map<String, Object>>> readMetaDataByTable(ResultSet resultSet, List<MetaDataColumnDescriptor> columnDescriptors,
+            String tableNameColumn, String schemaNameColumn, Set<String> tableNames, BulkDatabaseMetaDataWrapper metaData) throws SQLException {
+        Map<String, List<Map<String, Object>>> rowsByTable = new HashMap<String, List<Map<String, Object>>>();
+        Map<String, String> schemaByTable = new HashMap<String, String>();
+        try {
+            while (resultSet.next()) {
+                Map<String, Object> values = readMetaData(resultSet, columnDescriptors);
+                String tableName = (String) values.get(getName(tableNameColumn));
+                if (tableName != null && tableNames.contains(tableName)) {
+                    String schemaName = (String) values.get(getName(schemaNameColumn));
+                    if (!schemaByTable.containsKey(tableName)) {
+                        schemaByTable.put(tableName, schemaName);
+                    } else if (!StringUtils.equals(schemaByTable.get(tableName), schemaName)) {
+                        metaData.addAmbiguousTableName(tableName);
+                    }
+                    List<Map<String, Object>> rows = rowsByTable.get(tableName);
+                    if (rows == null) {
+                        rows = new ArrayList<Map<String, Object>>();
+                        rowsByTable.put(tableName, rows);
+                    }
+                    rows.add(values);
+                }
+            }
+        } finally {
+            close(resultSet);
+        }
+        return rowsByTable;
+    }
+
+    protected enum BulkMetaDataType {
+        COLUMN, PRIMARY_KEY, FOREIGN_KEY, INDEX
+    }
+
+    protected List<Map<String, Object>> getBulkRows(DatabaseMetaDataWrapper metaData, String tableName, BulkMetaDataType type) {
+        if (metaData instanceof BulkDatabaseMetaDataWrapper) {
+            BulkDatabaseMetaDataWrapper bulkMetaData = (BulkDatabaseMetaDataWrapper) metaData;
+            switch (type) {
+                case COLUMN:
+                    return bulkMetaData.getColumnRows(tableName);
+                case PRIMARY_KEY:
+                    return bulkMetaData.getPrimaryKeyRows(tableName);
+                case FOREIGN_KEY:
+                    return bulkMetaData.getForeignKeyRows(tableName);
+                case INDEX:
+                    return bulkMetaData.getIndexRows(tableName);
+            }
+        }
+        return null;
+    }
+
     protected Table postprocessTableFromDatabase(Table table) {
         if (table != null) {
             for (int columnIdx = 0; columnIdx < table.getColumnCount(); columnIdx++) {
@@ -837,20 +980,22 @@ public abstract class AbstractJdbcDdlReader implements IDdlReader {
      */
     protected Collection<Column> readColumns(DatabaseMetaDataWrapper metaData, String tableName)
             throws SQLException {
+        Set<String> columnNames = new HashSet<String>();
+        List<Column> columns = new ArrayList<Column>();
+        List<Map<String, Object>> rows = getBulkRows(metaData, tableName, BulkMetaDataType.COLUMN);
+        if (rows != null) {
+            for (Map<String, Object> values : rows) {
+                readColumn(metaData, values, columnNames, columns);
+            }
+            return columns;
+        }
         ResultSet columnData = null;
         try {
-            Set<String> columnNames = new HashSet<String>();
             columnData = metaData.getColumns(getTableNamePattern(tableName),
                     getDefaultColumnPattern());
-            List<Column> columns = new ArrayList<Column>();
             while (columnData.next()) {
                 Map<String, Object> values = readMetaData(columnData, getColumnsForColumn());
-                Column column = readColumn(metaData, values);
-                if (!columnNames.contains(column.getName())) {
-                    columnNames.add(column.getName());
-                    columns.add(column);
-                }
-                genericizeDefaultValuesAndUpdatePlatformColumn(column);
+                readColumn(metaData, values, columnNames, columns);
             }
             return columns;
         } finally {
@@ -858,6 +1003,16 @@ public abstract class AbstractJdbcDdlReader implements IDdlReader {
         }
     }
 
+    private void readColumn(DatabaseMetaDataWrapper metaData, Map<String, Object> values, Set<String> columnNames, List<Column> columns)
+            throws SQLException {
+        Column column = readColumn(metaData, values);
+        if (!columnNames.contains(column.getName())) {
+            columnNames.add(column.getName());
+            columns.add(column);
+        }
+        genericizeDefaultValuesAndUpdatePlatformColumn(column);
+    }
+
     protected void genericizeDefaultValuesAndUpdatePlatformColumn(Column column) {
         PlatformColumn platformColumn = column.findPlatformColumn(platform.getName());
         platformColumn.setDefaultValue(column.getDefaultValue());
@@ -959,22 +1114,28 @@ public abstract class AbstractJdbcDdlReader implements IDdlReader {
     protected Collection<String> readPrimaryKeyNames(DatabaseMetaDataWrapper metaData,
             String tableName) throws SQLException {
         TreeMap<Integer, String> pks = new TreeMap<Integer, String>();
-        ResultSet pkData = null;
-        try {
-            pkData = metaData.getPrimaryKeys(getTableNamePatternForConstraints(tableName));
-            int i = 1;
-            while (pkData.next()) {
-                Map<String, Object> values = readMetaData(pkData, getColumnsForPK());
-                Integer pkSequence = readPrimaryKeySequence(values);
-                if (pkSequence != null) {
-                    pks.put(pkSequence, readPrimaryKeyName(metaData, values));
-                } else {
-                    pks.put(i, readPrimaryKeyName(metaData, values));
-                    i++;
+        List<Map<String, Object>> rows = getBulkRows(metaData, tableName, BulkMetaDataType.PRIMARY_KEY);
+        if (rows == null) {
+            rows = new ArrayList<Map<String, Object>>();
+            ResultSet pkData = null;
+            try {
+                pkData = metaData.getPrimaryKeys(getTableNamePatternForConstraints(tableName));
+                while (pkData.next()) {
+                    rows.add(readMetaData(pkData, getColumnsForPK()));
                 }
+            } finally {
+                close(pkData);
+            }
+        }
+        int i = 1;
+        for (Map<String, Object> values : rows) {
+            Integer pkSequence = readPrimaryKeySequence(values);
+            if (pkSequence != null) {
+                pks.put(pkSequence, readPrimaryKeyName(metaData, values));
+            } else {
+                pks.put(i, readPrimaryKeyName(metaData, values));
+                i++;
             }
-        } finally {
-            close(pkData);
         }
         return pks.values();
     }
@@ -1023,7 +1184,12 @@ public abstract class AbstractJdbcDdlReader implements IDdlReader {
     protected Collection<ForeignKey> readForeignKeys(Connection connection,
             DatabaseMetaDataWrapper metaData, String tableName) throws SQLException {
         Map<String, ForeignKey> fks = new LinkedHashMap<String, ForeignKey>();
-        if (getPlatformInfo().isForeignKeysSupported()) {
+        List<Map<String, Object>> rows = getBulkRows(metaData, tableName, BulkMetaDataType.FOREIGN_KEY);
+        if (rows != null) {
+            for (Map<String, Object> values : rows) {
+                readForeignKey(metaData, values, fks);
+            }
+        } else if (getPlatformInfo().isForeignKeysSupported()) {
             ResultSet fkData = null;
             try {
                 fkData = metaData.getForeignKeys(getTableNamePatternForConstraints(tableName));
@@ -1165,7 +1331,12 @@ public abstract class AbstractJdbcDdlReader implements IDdlReader {
     protected Collection<IIndex> readIndices(Connection connection,
             DatabaseMetaDataWrapper metaData, String tableName) throws SQLException {
         Map<String, IIndex> indices = new LinkedHashMap<String, IIndex>();
-        if (getPlatformInfo().isIndicesSupported()) {
+        List<Map<String, Object>> rows = getBulkRows(metaData, tableName, BulkMetaDataType.INDEX);
+        if (rows != null) {
+            for (Map<String, Object> values : rows) {
+                readIndex(metaData, values, indices);
+            }
+        } else if (getPlatformInfo().isIndicesSupported()) {
             ResultSet indexData = null;
             try {
                 indexData = metaData.getIndices(getTableNamePatternForConstraints(tableName), false, false);
@@ -59,6 +59,7 @@ import org.jumpmind.db.model.Transaction;
 import org.jumpmind.db.model.Table;
 import org.jumpmind.db.platform.AbstractJdbcDatabasePlatform;
 import org.jumpmind.db.platform.DatabaseNamesConstants;
+import org.jumpmind.db.platform.ObjectValueConverter;
 import org.jumpmind.db.platform.PermissionResult;
 import org.jumpmind.db.platform.PermissionResult.Status;
 import org.jumpmind.db.platform.PermissionType;
@@ -67,7 +68,6 @@ import org.jumpmind.db.sql.Row;
 import org.jumpmind.db.sql.SqlException;
 import org.jumpmind.db.sql.SqlTemplateSettings;
 import org.jumpmind.db.sql.SymmetricLobHandler;
-import org.jumpmind.db.util.BinaryEncoding;
 
 /*
  * The platform implementation for PostgresSql.
@@ -206,20 +206,15 @@ public class PostgreSqlDatabasePlatform extends AbstractJdbcDatabasePlatform {
     }
 
     @Override
-    public Object[] getObjectValues(BinaryEncoding encoding, String[] values,
-            Column[] orderedMetaData, boolean useVariableDates, boolean fitToColumn) {
-        Object[] objectValues = super.getObjectValues(encoding, values, orderedMetaData, useVariableDates, fitToColumn);
-        for (int i = 0; i < orderedMetaData.length; i++) {
-            if (orderedMetaData[i] != null && orderedMetaData[i].getMappedTypeCode() == Types.BLOB
-                    && objectValues[i] != null) {
-                try {
-                    objectValues[i] = new SerialBlob((byte[]) objectValues[i]);
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            }
+    protected ObjectValueConverter.IColumnConverter createColumnConverter(Column column) {
+        final ObjectValueConverter.IColumnConverter converter = super.createColumnConverter(column);
+        if (column.getMappedTypeCode() == Types.BLOB) {
+            return (value, encoding, useVariableDates, fitToColumn) -> {
+                Object objectValue = converter.convert(value, encoding, useVariableDates, fitToColumn);
+                return objectValue != null ? new SerialBlob((byte[]) objectValue) : null;
+            };
         }
-        return objectValues;
+        return converter;
     }
 
     @Override
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jumpmind.db.model.Column;
@@ -42,6 +43,7 @@ import org.jumpmind.db.model.Trigger;
 import org.jumpmind.db.model.Trigger.TriggerType;
 import org.jumpmind.db.model.TypeMap;
 import org.jumpmind.db.platform.AbstractJdbcDdlReader;
+import org.jumpmind.db.platform.BulkDatabaseMetaDataWrapper;
 import org.jumpmind.db.platform.DatabaseMetaDataWrapper;
 import org.jumpmind.db.platform.IDatabasePlatform;
 import org.jumpmind.db.sql.ISqlRowMapper;
@@ -83,11 +85,75 @@ public class PostgreSqlDdlReader extends AbstractJdbcDdlReader {
                     }
                 }
             }
-            setPrimaryKeyConstraintName(connection, table);
+            String pkName = getBulkPrimaryKeyName(metaData, table.getName());
+            if (pkName != null) {
+                table.setPrimaryKeyConstraintName(pkName);
+            } else {
+                setPrimaryKeyConstraintName(connection, table);
+            }
         }
         return table;
     }
 
+    protected String getBulkPrimaryKeyName(DatabaseMetaDataWrapper metaData, String tableName) {
+        List<Map<String, Object>> rows = getBulkRows(metaData, tableName, BulkMetaDataType.PRIMARY_KEY);
+        if (rows != null) {
+            for (Map<String, Object> values : rows) {
+                String pkName = (String) values.get(getName("PK_NAME"));
+                if (pkName != null) {
+                    return pkName.trim();
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected boolean isBulkConstraintMetaDataSupported() {
+        return true;
+    }
+
+    /*
+     * The driver only returns indexes for one table at a time, so read the index columns for the whole schema from the catalog. A table with an
+     * expression index is left to the driver, which knows how to describe the expression.
+     */
+    @Override
+    protected Map<String, List<Map<String, Object>>> readBulkIndices(Connection connection, BulkDatabaseMetaDataWrapper metaData,
+            Set<String> tableNames) throws SQLException {
+        if (StringUtils.isBlank(metaData.getSchemaPattern())) {
+            return null;
+        }
+        String sql = "select t.relname as \"TABLE_NAME\", n.nspname as \"TABLE_SCHEM\", c.relname as \"INDEX_NAME\", "
+                + "not i.indisunique as \"NON_UNIQUE\", s.n + 1 as \"ORDINAL_POSITION\", a.attname as \"COLUMN_NAME\", "
+                + "case when i.indisclustered then 1 when am.amname = 'hash' then 2 else 3 end as \"TYPE\" "
+                + "from pg_index i inner join pg_class c on c.oid = i.indexrelid "
+                + "inner join pg_class t on t.oid = i.indrelid "
+                + "inner join pg_namespace n on n.oid = t.relnamespace "
+                + "inner join pg_am am on am.oid = c.relam "
+                + "cross join generate_series(0, 31) s(n) "
+                + "left join pg_attribute a on a.attrelid = t.oid and a.attnum = i.indkey[s.n] "
+                + "where n.nspname = ? and s.n < i.indnatts "
+                + "order by t.relname, not i.indisunique, c.relname, s.n";
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = connection.prepareStatement(sql);
+            pstmt.setString(1, metaData.getSchemaPattern());
+            Map<String, List<Map<String, Object>>> indices = readMetaDataByTable(pstmt.executeQuery(), getColumnsForIndex(),
+                    "TABLE_NAME", "TABLE_SCHEM", tableNames, metaData);
+            for (Map.Entry<String, List<Map<String, Object>>> entry : indices.entrySet()) {
+                for (Map<String, Object> values : entry.getValue()) {
+                    if (values.get(getName("COLUMN_NAME")) == null) {
+                        entry.setValue(null);
+                        break;
+                    }
+                }
+            }
+            return indices;
+        } finally {
+            JdbcSqlTemplate.close(pstmt);
+        }
+    }
+
     protected void setPrimaryKeyConstraintName(Connection connection, Table table) throws SQLException {
         String sql = "select conname from pg_constraint where conrelid in (select oid from pg_class where relname=? and relnamespace in (select oid from pg_namespace where nspname=?)) and contype='p'";
         PreparedStatement pstmt = null;
@@ -32,6 +32,7 @@ import org.jumpmind.db.model.Database;
 import org.jumpmind.db.model.Table;
 import org.jumpmind.db.platform.AbstractJdbcDatabasePlatform;
 import org.jumpmind.db.platform.DatabaseNamesConstants;
+import org.jumpmind.db.platform.ObjectValueConverter;
 import org.jumpmind.db.platform.PermissionResult;
 import org.jumpmind.db.platform.PermissionType;
 import org.jumpmind.db.platform.PermissionResult.Status;
@@ -82,6 +83,11 @@ public class VoltDbDatabasePlatform extends AbstractJdbcDatabasePlatform {
         return objectValue;
     }
 
+    @Override
+    protected ObjectValueConverter.IColumnConverter createColumnConverter(final Column column) {
+        return (value, encoding, useVariableDates, fitToColumn) -> getObjectValue(value, column, encoding, useVariableDates, fitToColumn);
+    }
+
     @Override
     public String getDefaultSchema() {
         return null;
@@ -25,6 +25,8 @@ import java.sql.SQLException;
 import javax.sql.DataSource;
 
 import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.impl.GenericObjectPool;
 
 /**
  * A subclass of {@link BasicDataSource} which allows for a data source to be closed (all underlying connections are closed) and then allows new connections to
@@ -46,6 +48,30 @@ public class ResettableBasicDataSource extends BasicDataSource {
         }
     }
 
+    /**
+     * Get the number of threads waiting to borrow a connection from the pool.
+     */
+    public int getNumWaiters() {
+        GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+        return pool != null ? pool.getNumWaiters() : 0;
+    }
+
+    /**
+     * Get the average time threads waited to borrow one of the most recent connections from the pool.
+     */
+    public long getMeanBorrowWaitTimeMillis() {
+        GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+        return pool != null ? pool.getMeanBorrowWaitTimeMillis() : 0;
+    }
+
+    /**
+     * Get the longest time a thread waited to borrow a connection from the pool.
+     */
+    public long getMaxBorrowWaitTimeMillis() {
+        GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+        return pool != null ? pool.getMaxBorrowWaitTimeMillis() : 0;
+    }
+
     @Override
     protected DataSource createDataSource() throws SQLException {
         if (closed) {
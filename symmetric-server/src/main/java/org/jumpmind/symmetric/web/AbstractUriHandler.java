@@ -29,6 +29,7 @@ import java.util.zip.GZIPInputStream;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.jumpmind.symmetric.io.stage.BlockGzipInputStream;
 import org.jumpmind.symmetric.model.ChannelMap;
 import org.jumpmind.symmetric.service.IParameterService;
 import org.jumpmind.symmetric.transport.IOutgoingTransport;
@@ -59,7 +60,9 @@ abstract public class AbstractUriHandler implements IUriHandler {
         boolean useCompression = contentType != null && (contentType.equalsIgnoreCase("gzip")
                 || contentType.equalsIgnoreCase("application/gzip"));
         is = req.getInputStream();
-        if (useCompression) {
+        if (contentType != null && contentType.equalsIgnoreCase(WebConstants.CONTENT_TYPE_BLOCK_GZIP)) {
+            is = new BlockGzipInputStream(is);
+        } else if (useCompression) {
             is = new GZIPInputStream(is);
         }
         return is;
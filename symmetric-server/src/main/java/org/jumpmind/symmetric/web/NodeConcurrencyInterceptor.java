@@ -28,6 +28,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jumpmind.symmetric.io.data.BinaryProtocolConstants;
 import org.jumpmind.symmetric.model.ChannelMap;
 import org.jumpmind.symmetric.model.NodeSecurity;
 import org.jumpmind.symmetric.service.IConfigurationService;
@@ -162,5 +163,7 @@ public class NodeConcurrencyInterceptor implements IInterceptor {
                 suspendIgnoreChannels.getSuspendChannelsAsString());
         httpResponse.setHeader(WebConstants.IGNORED_CHANNELS,
                 suspendIgnoreChannels.getIgnoreChannelsAsString());
+        httpResponse.setHeader(WebConstants.ACCEPT_BLOCK_COMPRESSION, Boolean.TRUE.toString());
+        httpResponse.setHeader(WebConstants.ACCEPT_BINARY_PROTOCOL, String.valueOf(BinaryProtocolConstants.VERSION));
     }
 }
\ No newline at end of file
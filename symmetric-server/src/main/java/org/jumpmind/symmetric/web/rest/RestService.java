@@ -40,13 +40,16 @@ import java.util.Set;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
 
+import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jumpmind.db.model.Table;
 import org.jumpmind.db.sql.ISqlTemplate;
 import org.jumpmind.db.sql.Row;
 import org.jumpmind.db.util.BasicDataSourcePropertyConstants;
+import org.jumpmind.db.util.ResettableBasicDataSource;
 import org.jumpmind.exception.IoException;
 import org.jumpmind.symmetric.ISymmetricEngine;
 import org.jumpmind.symmetric.SymmetricException;
@@ -82,7 +85,9 @@ import org.jumpmind.symmetric.service.INodeService;
 import org.jumpmind.symmetric.service.IOutgoingBatchService;
 import org.jumpmind.symmetric.service.IRegistrationService;
 import org.jumpmind.symmetric.service.ITriggerRouterService;
+import org.jumpmind.symmetric.statistic.EngineMetricsCollector;
 import org.jumpmind.symmetric.statistic.IStatisticManager;
+import org.jumpmind.symmetric.statistic.MetricRegistry;
 import org.jumpmind.symmetric.web.ServerSymmetricEngine;
 import org.jumpmind.symmetric.web.SymmetricEngineHolder;
 import org.jumpmind.symmetric.web.WebConstants;
@@ -733,6 +738,29 @@ public class RestService {
         return nodeStatusImpl(getSymmetricEngine(engineName));
     }
 
+    /**
+     * Returns metrics about the internals of the single engine in the OpenMetrics text format, for scraping by Prometheus or a compatible
+     * monitoring system.
+     */
+    @ApiOperation(value = "Obtain metrics for the single engine in the OpenMetrics text format")
+    @RequestMapping(value = "/engine/metrics", method = RequestMethod.GET)
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public final void getMetrics(HttpServletResponse resp) {
+        metricsImpl(getSymmetricEngine(), resp);
+    }
+
+    /**
+     * Returns metrics about the internals of the specified engine in the OpenMetrics text format.
+     */
+    @ApiOperation(value = "Obtain metrics for the specified engine in the OpenMetrics text format")
+    @RequestMapping(value = "/engine/{engine}/metrics", method = RequestMethod.GET)
+    @ResponseStatus(HttpStatus.OK)
+    @ResponseBody
+    public final void getMetricsByEngine(@PathVariable("engine") String engineName, HttpServletResponse resp) {
+        metricsImpl(getSymmetricEngine(engineName), resp);
+    }
+
     /**
      * Returns status of each channel for the single engine of the node.
      * 
@@ -1703,6 +1731,36 @@ public class RestService {
         return registered;
     }
 
+    private void metricsImpl(ISymmetricEngine engine, HttpServletResponse resp) {
+        MetricRegistry registry = new MetricRegistry();
+        new EngineMetricsCollector(engine).collect(registry);
+        DataSource dataSource = engine.getDatabasePlatform().getDataSource();
+        if (dataSource instanceof BasicDataSource) {
+            BasicDataSource pool = (BasicDataSource) dataSource;
+            registry.gauge("symmetric_db_connections_active", "Database connections borrowed from the pool");
+            registry.add("symmetric_db_connections_active", pool.getNumActive());
+            registry.gauge("symmetric_db_connections_idle", "Database connections idle in the pool");
+            registry.add("symmetric_db_connections_idle", pool.getNumIdle());
+            registry.gauge("symmetric_db_connections_max", "Most database connections the pool will open");
+            registry.add("symmetric_db_connections_max", pool.getMaxTotal());
+        }
+        if (dataSource instanceof ResettableBasicDataSource) {
+            ResettableBasicDataSource pool = (ResettableBasicDataSource) dataSource;
+            registry.gauge("symmetric_db_connection_waiters", "Threads waiting to borrow a database connection from the pool");
+            registry.add("symmetric_db_connection_waiters", pool.getNumWaiters());
+            registry.gauge("symmetric_db_connection_wait_mean_milliseconds", "Average milliseconds waited to borrow recent database connections");
+            registry.add("symmetric_db_connection_wait_mean_milliseconds", pool.getMeanBorrowWaitTimeMillis());
+            registry.gauge("symmetric_db_connection_wait_max_milliseconds", "Most milliseconds waited to borrow a database connection");
+            registry.add("symmetric_db_connection_wait_max_milliseconds", pool.getMaxBorrowWaitTimeMillis());
+        }
+        resp.setContentType(MetricRegistry.CONTENT_TYPE);
+        try {
+            registry.write(resp.getWriter());
+        } catch (IOException e) {
+            throw new IoException(e);
+        }
+    }
+
     private NodeStatus nodeStatusImpl(ISymmetricEngine engine) {
         NodeStatus status = new NodeStatus();
         if (isRegistered(engine)) {
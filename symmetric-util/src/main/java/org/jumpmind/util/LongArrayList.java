@@ -0,0 +1,135 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A growable list of primitive longs. Holding large numbers of IDs this way avoids a boxed {@link Long} object per entry.
+ */
+public class LongArrayList {
+    private static final long[] EMPTY = new long[0];
+    private long[] values;
+    private int size;
+
+    public LongArrayList() {
+        this.values = EMPTY;
+    }
+
+    public LongArrayList(int initialCapacity) {
+        this.values = initialCapacity > 0 ? new long[initialCapacity] : EMPTY;
+    }
+
+    public LongArrayList(Collection<? extends Number> numbers) {
+        this(numbers.size());
+        for (Number number : numbers) {
+            values[size++] = number.longValue();
+        }
+    }
+
+    public void add(long value) {
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    public void addAll(LongArrayList list) {
+        ensureCapacity(size + list.size);
+        System.arraycopy(list.values, 0, values, size, list.size);
+        size += list.size;
+    }
+
+    public long get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * Remove the last occurrence of a value, returning true if it was found.
+     */
+    public boolean removeValue(long value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (values[i] == value) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean contains(long value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Approximate number of bytes held by the backing array.
+     */
+    public long getMemorySize() {
+        return 16 + (long) values.length * 8;
+    }
+
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            int newCapacity = Math.max(capacity, values.length + (values.length >> 1));
+            values = Arrays.copyOf(values, Math.max(newCapacity, 10));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(values[i]);
+        }
+        return sb.append("]").toString();
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Licensed to JumpMind Inc under one or more contributor
+ * license agreements.  See the NOTICE file distributed
+ * with this work for additional information regarding
+ * copyright ownership.  JumpMind Inc licenses this file
+ * to you under the GNU General Public License, version 3.0 (GPLv3)
+ * (the "License"); you may not use this file except in compliance
+ * with the License.
+ *
+ * You should have received a copy of the GNU General Public License,
+ * version 3.0 (GPLv3) along with this library; if not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jumpmind.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class LongArrayListTest {
+    @Test
+    public void testAddGrowAndSort() {
+        LongArrayList list = new LongArrayList();
+        assertTrue(list.isEmpty());
+        for (long i = 100; i > 0; i--) {
+            list.add(i);
+        }
+        assertEquals(100, list.size());
+        list.sort();
+        assertEquals(1, list.get(0));
+        assertEquals(100, list.get(99));
+        LongArrayList other = new LongArrayList(Arrays.asList(200L, 300L));
+        list.addAll(other);
+        assertEquals(102, list.size());
+        assertEquals(300, list.get(101));
+        assertTrue(list.getMemorySize() >= 102 * 8);
+    }
+
+    @Test
+    public void testRemoveValue() {
+        LongArrayList list = new LongArrayList(Arrays.asList(1L, 2L, 3L));
+        assertTrue(list.removeValue(2));
+        assertFalse(list.removeValue(5));
+        assertEquals("[1, 3]", list.toString());
+        assertTrue(list.contains(3));
+        assertFalse(list.contains(2));
+        list.clear();
+        assertEquals(0, list.toArray().length);
+    }
+}